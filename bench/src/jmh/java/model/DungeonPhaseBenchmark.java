@@ -0,0 +1,69 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures each dungeon generation phase on its own. Before every call a dungeon is
+ * generated up to the phase before the measured one, outside the measurement, so only
+ * the measured phase is timed.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+@State(Scope.Thread)
+public class DungeonPhaseBenchmark {
+    /**
+     * Side of the square map in cells.
+     */
+    @Param({"64", "256", "1024"})
+    public int mySize;
+
+    /**
+     * Seed of the generated dungeon, fixed so every run measures the same layouts.
+     */
+    @Param({"20240810", "42"})
+    public long mySeed;
+
+    /**
+     * Name of the measured phase.
+     */
+    @Param({"SPLIT", "ROOMS", "DOORS", "ADJACENCY", "PLACEMENT"})
+    public String myPhaseName;
+
+    private DungeonConfig myConfig;
+    private Dungeon.Phase myPhase;
+    private Dungeon myDungeon;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        myConfig = new DungeonConfig(mySize, mySize);
+        myPhase = Dungeon.Phase.valueOf(myPhaseName);
+    }
+
+    /**
+     * Generates a fresh dungeon up to the phase before the measured one. The split can be
+     * run again on any dungeon, so it gets a fully generated one.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        final Dungeon.Phase before = myPhase == Dungeon.Phase.SPLIT ? Dungeon.Phase.PLACEMENT
+                : Dungeon.Phase.values()[myPhase.ordinal() - 1];
+        myDungeon = new Dungeon(myConfig, mySeed, before);
+    }
+
+    /**
+     * Runs the measured phase once.
+     *
+     * @return The dungeon, returned so the work is not optimized away.
+     */
+    @Benchmark
+    public Dungeon runPhase() {
+        myDungeon.runPhase(myPhase);
+        return myDungeon;
+    }
+}
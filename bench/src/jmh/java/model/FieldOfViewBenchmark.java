@@ -0,0 +1,76 @@
+package model;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one fog of war update as the hero walks. Each call moves the hero to the next
+ * walkable cell of a generated dungeon, so the field of view only changes by a step or
+ * jumps to another room, like real play.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+@State(Scope.Thread)
+public class FieldOfViewBenchmark {
+    /**
+     * Side of the square map in cells.
+     */
+    @Param({"256", "1024"})
+    public int mySize;
+
+    /**
+     * How many cells the hero sees in each direction.
+     */
+    @Param({"3", "8", "16"})
+    public int myRadius;
+
+    /**
+     * Seed of the generated dungeon, fixed so every run measures the same layout.
+     */
+    @Param({"20240810"})
+    public long mySeed;
+
+    private Dungeon myDungeon;
+    /**
+     * Walkable cells in row order, stored as y * size + x.
+     */
+    private int[] myCells;
+    private int myNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        myDungeon = new Dungeon(new DungeonConfig(mySize, mySize), mySeed);
+        final TileGrid map = myDungeon.getMap();
+        int count = 0;
+        myCells = new int[mySize * mySize];
+        for (int y = 0; y < mySize; y++) {
+            for (int x = 0; x < mySize; x++) {
+                if (map.get(x, y).isWalkable()) {
+                    myCells[count++] = y * mySize + x;
+                }
+            }
+        }
+        myCells = Arrays.copyOf(myCells, count);
+    }
+
+    /**
+     * Moves the hero one walkable cell along and updates the fog.
+     *
+     * @return The dungeon, returned so the work is not optimized away.
+     */
+    @Benchmark
+    public Dungeon updateFieldOfView() {
+        final int cell = myCells[myNext];
+        myNext = (myNext + 1) % myCells.length;
+        myDungeon.updateFOW(cell % mySize, cell / mySize, myRadius, false);
+        myDungeon.getFogChanges().clear();
+        return myDungeon;
+    }
+}
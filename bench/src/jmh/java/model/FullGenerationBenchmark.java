@@ -0,0 +1,47 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures full dungeon generation, from the first BSP split to the last placed item, at
+ * several map sizes and fixed seeds. Dividing the time of a size by its cell count shows
+ * whether generation grows linearly with the number of cells.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+@State(Scope.Thread)
+public class FullGenerationBenchmark {
+    /**
+     * Side of the square map in cells.
+     */
+    @Param({"64", "256", "1024", "4096"})
+    public int mySize;
+
+    /**
+     * Seed of the generated dungeon, fixed so every run measures the same layouts.
+     */
+    @Param({"20240810", "42"})
+    public long mySeed;
+
+    private DungeonConfig myConfig;
+
+    @Setup
+    public void setUp() {
+        myConfig = new DungeonConfig(mySize, mySize);
+    }
+
+    /**
+     * Generates a whole dungeon.
+     *
+     * @return The dungeon, returned so the work is not optimized away.
+     */
+    @Benchmark
+    public Dungeon generate() {
+        return new Dungeon(myConfig, mySeed);
+    }
+}
@@ -2,8 +2,10 @@ package com.dungeonadventure.game;
 
 import com.badlogic.gdx.audio.Music;
 import com.dungeonadventure.database.SQLiteConnections;
+import model.DungeonCharacter;
 import model.Settings;
 import view.MainMenuScreen;
+import view.SoundEvents;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 //import database.DatabaseHelper;
@@ -65,6 +67,7 @@ public class DungeonAdventure extends Game {
 		//databaseHelper = new DatabaseHelper();
 
 		mySETTINGS = new Settings();
+		DungeonCharacter.setDefaultEvents(new SoundEvents(mySETTINGS));
 		SQLiteConnections.establishConnection();
 		this.setScreen(new MainMenuScreen(this));
 	}
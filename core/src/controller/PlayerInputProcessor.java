@@ -3,7 +3,11 @@ package controller;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import model.GameMaster;
+import model.GameSession;
+import model.Hero;
+import model.SimulationThread;
 import model.Tile;
+import model.TileMap;
 import view.*;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
@@ -41,61 +45,23 @@ public class PlayerInputProcessor extends InputAdapter {
      */
     @Override
     public boolean keyDown(int keycode) {
+        final SimulationThread simulation = myPreviousScreen.getSimulation();
+        if(simulation != null){
+            return queueKey(simulation, keycode);
+        }
         GameMaster gm = GameMaster.getInstance();
         switch (keycode) {
             case Input.Keys.UP:
-                //check if cell at up is walkable
-                if(gm.getMap()[gm.getPlayerX()][gm.getPlayerY()+1].isWalkable()){
-                    gm.getPlayer().moveCharacterUp();
-                }
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                gm.enemyMove();
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                checkTileType(gm.getPlayerX(), gm.getPlayerY());
+                showStep(gm.moveHero(TileMap.EXIT_UP));
                 break;
             case Input.Keys.DOWN:
-                if(gm.getMap()[gm.getPlayerX()][gm.getPlayerY()-1].isWalkable()){
-                    gm.getPlayer().moveCharacterDown();
-
-                }
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                gm.enemyMove();
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                checkTileType(gm.getPlayerX(), gm.getPlayerY());
+                showStep(gm.moveHero(TileMap.EXIT_DOWN));
                 break;
             case Input.Keys.LEFT:
-                if(gm.getMap()[gm.getPlayerX()-1][gm.getPlayerY()].isWalkable()){
-                    gm.getPlayer().moveCharacterLeft();
-                }
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                gm.enemyMove();
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                checkTileType(gm.getPlayerX(), gm.getPlayerY());
+                showStep(gm.moveHero(TileMap.EXIT_LEFT));
                 break;
             case Input.Keys.RIGHT:
-                if(gm.getMap()[gm.getPlayerX()+1][gm.getPlayerY()].isWalkable()){
-                    gm.getPlayer().moveCharacterRight();
-                }
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                gm.enemyMove();
-                if(gm.isHeroNearEnemy()){
-                    myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
-                }
-                checkTileType(gm.getPlayerX(), gm.getPlayerY());
+                showStep(gm.moveHero(TileMap.EXIT_RIGHT));
                 break;
             case Input.Keys.ESCAPE:
                 myPreviousScreen.showMenu();
@@ -116,53 +82,83 @@ public class PlayerInputProcessor extends InputAdapter {
         myPreviousScreen.setPlayerImagePosition();
         return true; // Indicates that the key event was handled
     }
-    private void checkTileType(final int theX, final int theY){
-        GameMaster gm = GameMaster.getInstance();
-        switch(GameMaster.getInstance().getMap()[theX][theY]){
-            case HEALTH_POTION:
-                gm.heroPicksHealthPotion();
-                mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Twinkle.ogg")));
-                GameMaster.getInstance().getMap()[theX][theY] = Tile.FLOOR;
+
+    /**
+     * Queues the command of a key on the simulation thread, which applies it and updates the
+     * fog of war. The screen catches up when the next snapshot is drawn.
+     *
+     * @param theSimulation the thread playing the session.
+     * @param theKeycode the key code of the pressed key
+     * @return true if the key event is handled, false otherwise
+     */
+    private boolean queueKey(final SimulationThread theSimulation, final int theKeycode) {
+        switch (theKeycode) {
+            case Input.Keys.UP:
+                theSimulation.move(TileMap.EXIT_UP);
                 break;
-            case POISON_POTION:
-                if(myGame.getScreen() == myPreviousScreen){
-                    gm.getPlayer().setMyTrapsTriggered();
-                    myPreviousScreen.showTrapMessage("Hero affected by poison!!!\n" + gm.heroTrapDamage(Tile.POISON_POTION));
-                    myPreviousScreen.updateUI();
-                    GameMaster.getInstance().getMap()[theX][theY] = Tile.FLOOR;
-                }
+            case Input.Keys.DOWN:
+                theSimulation.move(TileMap.EXIT_DOWN);
                 break;
-            case KEY:
-                gm.heroPicksKey();
-                gm.getMap()[gm.getPlayerX()][gm.getPlayerY()] = Tile.FLOOR;
+            case Input.Keys.LEFT:
+                theSimulation.move(TileMap.EXIT_LEFT);
                 break;
-            case BOMB:
-                gm.heroPicksBomb();
-                gm.getMap()[gm.getPlayerX()][gm.getPlayerY()] = Tile.FLOOR;
+            case Input.Keys.RIGHT:
+                theSimulation.move(TileMap.EXIT_RIGHT);
                 break;
-            case PIT_TRAP:
-                if(myGame.getScreen() == myPreviousScreen){
-                    gm.getPlayer().setMyTrapsTriggered();
-                    myPreviousScreen.updateUI();
-                    myPreviousScreen.showTrapMessage("Hero fell in pit!!! \n" + gm.heroTrapDamage(Tile.PIT_TRAP));
-                }
+            case Input.Keys.ESCAPE:
+                myPreviousScreen.showMenu();
+                myPreviousScreen.updateUI();
                 break;
-            case EXIT:
-                if(GameMaster.getInstance().getPlayer().getHeroKeys() == 4){
-                    if(myGame.getScreen() == myPreviousScreen){
-                        myBackgroundMusic.dispose();
-                        mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Win.ogg")));
-                        statScreen(GameMaster.getInstance().getPlayer().getMyName(),
-                            GameMaster.getInstance().getPlayer().getCurrentHealth(),
-                            GameMaster.getInstance().getPlayer().getMyEnemiesKilled(),
-                            GameMaster.getInstance().getPlayer().getMyPotionsUsed(),
-                            GameMaster.getInstance().getPlayer().getMyBombsUsed(),
-                            GameMaster.getInstance().getPlayer().getMyTrapsTriggered());
-                        myPreviousScreen.updateUI();
-                    }
-                }
-            default:
+            case Input.Keys.E:
+                theSimulation.toggleDoors();
+                break;
+            case Input.Keys.F10:
+                theSimulation.toggleCheats();
                 break;
+            case Input.Keys.F11:
+                theSimulation.removeAllEnemies();
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Shows what the moves played on the simulation thread led to, in order. Called by the
+     * screen every frame while a simulation thread runs.
+     */
+    public void showSteps(){
+        final SimulationThread simulation = myPreviousScreen.getSimulation();
+        GameSession.Step step;
+        while(simulation != null && (step = simulation.pollStep()) != null){
+            showStep(step);
+        }
+    }
+
+    /**
+     * Shows what a move of the hero led to, the game rules were already applied by the model.
+     * @param theStep the result of the move.
+     */
+    private void showStep(final GameSession.Step theStep){
+        if(theStep.isMetEnemy()){
+            myGame.setScreen(new CombatScreen(myGame, myPreviousScreen));
+        }
+        if(theStep.getTile() == Tile.HEALTH_POTION){
+            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Twinkle.ogg")));
+        }
+        if(theStep.getTrapMessage() != null){
+            myPreviousScreen.showTrapMessage(theStep.getTrapMessage());
+            myPreviousScreen.updateUI();
+        }
+        if(theStep.isWon()){
+            final Hero player = GameMaster.getInstance().getPlayer();
+            myBackgroundMusic.dispose();
+            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Win.ogg")));
+            statScreen(player.getMyName(), player.getCurrentHealth(),
+                player.getMyEnemiesKilled(), player.getMyPotionsUsed(),
+                player.getMyBombsUsed(), player.getMyTrapsTriggered());
+            myPreviousScreen.updateUI();
         }
     }
 
@@ -198,23 +194,14 @@ public class PlayerInputProcessor extends InputAdapter {
         statBuilder.append("Traps Triggered: ");
         statBuilder.append(theTrapsTriggered);
         statBuilder.append("\n");
+        statBuilder.append("Map Explored: ");
+        statBuilder.append(GameMaster.getInstance().getExploredPercent());
+        statBuilder.append("%\n");
 
         myPreviousScreen.showStatisticsScreen(statBuilder.toString());
     }
 
     private void openDoors() {
-        final GameMaster gm = GameMaster.getInstance();
-        for (int i = gm.getPlayerX() - 1; i <= gm.getPlayerX() + 1; i++) {
-            for (int j = gm.getPlayerY() - 1; j <= gm.getPlayerY() + 1; j++) {
-                if (gm.getMap()[i][j] == Tile.DOOR) {
-                    gm.getMap()[i][j] = Tile.OPEN_DOOR;
-                    mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Door Creak.ogg")));
-                } else if (gm.getMap()[i][j] == Tile.OPEN_DOOR) {
-                    gm.getMap()[i][j] = Tile.DOOR;
-                    mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Door Creak2.ogg")));
-                }
-            }
-        }
-
+        GameMaster.getInstance().toggleDoorsNearHero();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,452 @@
+package model;
+
+import com.dungeonadventure.database.SQLiteConnections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays complete fights between a hero and an enemy many times over to answer balance
+ * questions, such as how often a Thief with two potions beats an Ogre, without playing the
+ * combat screen by hand. Fights use the real attack, receiveDamage, specialAction,
+ * useHealthPotion and useBomb of the characters and the speed based turn order of the game.
+ * The fights are split across a fork/join pool, every worker keeps its own tally and the
+ * tallies are merged at the end, so workers share nothing while fighting. Combat rolls come
+ * from a FastRandom of each worker's own, handed to both fighters, and the fighters report
+ * their hits and deaths to GameEvents.NONE so no sounds are played.
+ * Run it with ./gradlew :desktop:simulate, or its main method, to print a report for every
+ * hero class against every enemy type in the enemy database.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class BalanceSimulator {
+    /**
+     * The longest fight in hero turns. Fights still going after this many turns, such as a
+     * Priestess healing as fast as an enemy hurts her, count as draws.
+     */
+    public static final int MAX_TURNS = 500;
+    /**
+     * The hero drinks a potion when below this share of their health, in percent.
+     */
+    public static final int POTION_HEALTH = 40;
+    /**
+     * The Priestess heals herself instead of attacking when below this share of her health,
+     * in percent.
+     */
+    public static final int HEAL_HEALTH = 50;
+    /**
+     * Fights one worker plays before the work isn't split any further.
+     */
+    private static final int FIGHTS_PER_TASK = 4096;
+
+    /**
+     * The hero classes a fight can be played with.
+     */
+    public enum HeroClass {
+        WARRIOR {
+            @Override
+            Hero create() {
+                return new Warrior("Warrior", 0, 0);
+            }
+        },
+        PRIESTESS {
+            @Override
+            Hero create() {
+                return new Priestess("Priestess", 0, 0);
+            }
+        },
+        THIEF {
+            @Override
+            Hero create() {
+                return new Thief("Thief", 0, 0);
+            }
+        };
+
+        /**
+         * Creates a hero of this class at full health with an empty inventory.
+         */
+        abstract Hero create();
+    }
+
+    private final ForkJoinPool myPool;
+
+    /**
+     * Creates a simulator that uses every core through the common fork/join pool.
+     */
+    public BalanceSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a simulator that runs its fights in a pool.
+     *
+     * @param thePool The pool the fights are split across.
+     * @throws IllegalArgumentException if the pool is null.
+     */
+    public BalanceSimulator(final ForkJoinPool thePool) {
+        if (thePool == null) {
+            throw new IllegalArgumentException("Balance simulator needs a pool to run fights in.");
+        }
+        myPool = thePool;
+    }
+
+    /**
+     * Plays one matchup many times.
+     *
+     * @param theHero The class of the hero.
+     * @param theEnemy An enemy whose stats every fight's enemy copies, usually read from the
+     *                 enemy database.
+     * @param thePotions The health potions the hero starts each fight with.
+     * @param theBombs The bombs the hero starts each fight with.
+     * @param theFights How many fights to play.
+     * @return The results of the fights.
+     * @throws IllegalArgumentException if the hero or enemy is null or a count is negative.
+     */
+    public Report simulate(final HeroClass theHero, final Enemy theEnemy, final int thePotions,
+                           final int theBombs, final long theFights) {
+        if (theHero == null || theEnemy == null) {
+            throw new IllegalArgumentException("Balance simulator needs a hero class and an enemy.");
+        }
+        if (thePotions < 0 || theBombs < 0 || theFights < 0) {
+            throw new IllegalArgumentException("Potions, bombs and fights can't be negative.");
+        }
+        final Matchup matchup = new Matchup(theHero, theEnemy, thePotions, theBombs);
+        final Tally tally = myPool.invoke(new FightTask(matchup, 0, theFights));
+        return new Report(theHero, theEnemy.getType(), thePotions, theBombs, tally);
+    }
+
+    /**
+     * Plays every hero class against every enemy.
+     *
+     * @param theEnemies The enemies to fight, one of each type.
+     * @param thePotions The health potions the hero starts each fight with.
+     * @param theBombs The bombs the hero starts each fight with.
+     * @param theFights How many fights to play for each matchup.
+     * @return One report per matchup, grouped by hero class.
+     * @throws IllegalArgumentException if an enemy is null or a count is negative.
+     */
+    public List<Report> simulateAll(final List<Enemy> theEnemies, final int thePotions,
+                                    final int theBombs, final long theFights) {
+        final List<Report> reports = new ArrayList<>();
+        for (final HeroClass hero : HeroClass.values()) {
+            for (final Enemy enemy : theEnemies) {
+                reports.add(simulate(hero, enemy, thePotions, theBombs, theFights));
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Prints a report for every hero class against every enemy type in the enemy database.
+     * Arguments are the fights per matchup, then the potions and the bombs the hero starts
+     * with, by default 1000000, 2 and 0.
+     *
+     * @param theArgs The optional fights, potions and bombs.
+     */
+    public static void main(final String[] theArgs) {
+        final long fights = theArgs.length > 0 ? Long.parseLong(theArgs[0]) : 1_000_000L;
+        final int potions = theArgs.length > 1 ? Integer.parseInt(theArgs[1]) : 2;
+        final int bombs = theArgs.length > 2 ? Integer.parseInt(theArgs[2]) : 0;
+        SQLiteConnections.establishConnection();
+        final List<Enemy> enemies = Arrays.asList(EntityLoader.createGremlin(0, 0),
+                EntityLoader.createSkeleton(0, 0), EntityLoader.createOgre(0, 0));
+        final long start = System.nanoTime();
+        for (final Report report : new BalanceSimulator().simulateAll(enemies, potions, bombs, fights)) {
+            System.out.println(report);
+        }
+        System.out.println("Played " + fights * HeroClass.values().length * enemies.size()
+                + " fights in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    /**
+     * Plays a range of fights, splitting it in half until it is small enough for one worker.
+     */
+    private static final class FightTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final Matchup myMatchup;
+        private final long myFrom;
+        private final long myTo;
+
+        private FightTask(final Matchup theMatchup, final long theFrom, final long theTo) {
+            myMatchup = theMatchup;
+            myFrom = theFrom;
+            myTo = theTo;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (myTo - myFrom <= FIGHTS_PER_TASK) {
+                final Tally tally = new Tally();
+                final TurnScheduler<DungeonCharacter> turns = new TurnScheduler<>();
+                final RandomSource random = new FastRandom();
+                for (long i = myFrom; i < myTo; i++) {
+                    myMatchup.fight(turns, random, tally);
+                }
+                return tally;
+            }
+            final long middle = (myFrom + myTo) >>> 1;
+            final FightTask left = new FightTask(myMatchup, myFrom, middle);
+            left.fork();
+            final Tally right = new FightTask(myMatchup, middle, myTo).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    /**
+     * A hero class, the enemy stats and the starting inventory of one matchup.
+     */
+    private static final class Matchup {
+        private final HeroClass myHero;
+        private final Enemy myEnemy;
+        private final int myPotions;
+        private final int myBombs;
+
+        private Matchup(final HeroClass theHero, final Enemy theEnemy, final int thePotions,
+                        final int theBombs) {
+            myHero = theHero;
+            myEnemy = theEnemy;
+            myPotions = thePotions;
+            myBombs = theBombs;
+        }
+
+        /**
+         * Plays one fight to the end and records it.
+         */
+        private void fight(final TurnScheduler<DungeonCharacter> theTurns,
+                           final RandomSource theRandom, final Tally theTally) {
+            final Hero hero = myHero.create();
+            hero.setRandom(theRandom);
+            hero.setEvents(GameEvents.NONE);
+            for (int i = 0; i < myPotions; i++) {
+                hero.addHealthPotion();
+            }
+            for (int i = 0; i < myBombs; i++) {
+                hero.addBomb();
+            }
+            final Enemy enemy = new Enemy(myEnemy.getType().toString(), myEnemy.getMyName(),
+                    myEnemy.getMaxHealth(), myEnemy.getMinDamage(), myEnemy.getMaxDamage(),
+                    myEnemy.getMyHealChance(), myEnemy.getHitChance(), myEnemy.getSpeed(),
+                    myEnemy.getMyMinHeal(), myEnemy.getMyMaxHeal(), 0, 0);
+            enemy.setRandom(theRandom);
+            enemy.setEvents(GameEvents.NONE);
+            theTurns.clear();
+            theTurns.add(hero);
+            theTurns.add(enemy);
+            int turns = 0;
+            while (!hero.getIsDead() && !enemy.getIsDead() && turns < MAX_TURNS) {
+                if (theTurns.next() == hero) {
+                    turns++;
+                    act(hero, enemy);
+                } else {
+                    enemy.attack(hero);
+                }
+            }
+            theTally.add(hero, enemy, turns);
+        }
+
+        /**
+         * Takes the hero's turn the way a sensible player would: drink a potion when low,
+         * throw the bombs, then use the class's special action, except that the Priestess
+         * only heals when hurt and attacks otherwise.
+         */
+        private static void act(final Hero theHero, final Enemy theEnemy) {
+            final int health = theHero.getCurrentHealth() * 100;
+            if (health < theHero.getMaxHealth() * POTION_HEALTH
+                    && theHero.getHeroHealthPotions() > 0) {
+                theHero.useHealthPotion();
+            } else if (theHero.getHeroBombs() > 0) {
+                theHero.useBomb(theEnemy);
+            } else if (theHero instanceof Warrior) {
+                ((Warrior) theHero).specialAction(theEnemy);
+            } else if (theHero instanceof Thief) {
+                ((Thief) theHero).specialAction(theEnemy);
+            } else if (health < theHero.getMaxHealth() * HEAL_HEALTH) {
+                ((Priestess) theHero).specialAction();
+            } else {
+                theHero.attack(theEnemy);
+            }
+        }
+    }
+
+    /**
+     * Counts of one worker's fights, merged into the final report.
+     */
+    private static final class Tally {
+        private long myHeroWins;
+        private long myEnemyWins;
+        private long myDraws;
+        /**
+         * Fights the hero won, by the hero turns they took.
+         */
+        private final long[] myWinTurns = new long[MAX_TURNS + 1];
+        /**
+         * Fights the enemy won, by the hero turns they took.
+         */
+        private final long[] myLossTurns = new long[MAX_TURNS + 1];
+        /**
+         * Fights the hero won, by the percent of health the hero had left.
+         */
+        private final long[] myHealthLeft = new long[101];
+
+        private void add(final Hero theHero, final Enemy theEnemy, final int theTurns) {
+            if (theHero.getIsDead()) {
+                myEnemyWins++;
+                myLossTurns[theTurns]++;
+            } else if (theEnemy.getIsDead()) {
+                myHeroWins++;
+                myWinTurns[theTurns]++;
+                myHealthLeft[theHero.getCurrentHealth() * 100 / theHero.getMaxHealth()]++;
+            } else {
+                myDraws++;
+            }
+        }
+
+        private Tally merge(final Tally theOther) {
+            myHeroWins += theOther.myHeroWins;
+            myEnemyWins += theOther.myEnemyWins;
+            myDraws += theOther.myDraws;
+            for (int i = 0; i <= MAX_TURNS; i++) {
+                myWinTurns[i] += theOther.myWinTurns[i];
+                myLossTurns[i] += theOther.myLossTurns[i];
+            }
+            for (int i = 0; i < myHealthLeft.length; i++) {
+                myHealthLeft[i] += theOther.myHealthLeft[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The results of many fights of one matchup.
+     */
+    public static final class Report {
+        private final HeroClass myHero;
+        private final Enemy.Type myEnemy;
+        private final int myPotions;
+        private final int myBombs;
+        private final Tally myTally;
+
+        private Report(final HeroClass theHero, final Enemy.Type theEnemy, final int thePotions,
+                       final int theBombs, final Tally theTally) {
+            myHero = theHero;
+            myEnemy = theEnemy;
+            myPotions = thePotions;
+            myBombs = theBombs;
+            myTally = theTally;
+        }
+
+        public HeroClass getHero() {
+            return myHero;
+        }
+
+        public Enemy.Type getEnemy() {
+            return myEnemy;
+        }
+
+        public long getFights() {
+            return myTally.myHeroWins + myTally.myEnemyWins + myTally.myDraws;
+        }
+
+        public long getHeroWins() {
+            return myTally.myHeroWins;
+        }
+
+        public long getEnemyWins() {
+            return myTally.myEnemyWins;
+        }
+
+        /**
+         * Gets the fights still going after MAX_TURNS hero turns.
+         *
+         * @return The number of drawn fights.
+         */
+        public long getDraws() {
+            return myTally.myDraws;
+        }
+
+        /**
+         * Gets the share of fights the hero won.
+         *
+         * @return The hero's win rate from 0 to 1, 0 when no fights were played.
+         */
+        public double getWinRate() {
+            return getFights() == 0 ? 0 : (double) getHeroWins() / getFights();
+        }
+
+        /**
+         * Gets how many fights the hero won in a number of turns.
+         *
+         * @param theTurns The hero turns the fight took.
+         * @return The number of fights the hero won in exactly that many turns.
+         * @throws IndexOutOfBoundsException if the turns are negative or above MAX_TURNS.
+         */
+        public long getWinsInTurns(final int theTurns) {
+            return myTally.myWinTurns[theTurns];
+        }
+
+        /**
+         * Gets how many fights the enemy won in a number of hero turns.
+         *
+         * @param theTurns The hero turns the fight took.
+         * @return The number of fights the enemy won in exactly that many hero turns.
+         * @throws IndexOutOfBoundsException if the turns are negative or above MAX_TURNS.
+         */
+        public long getLossesInTurns(final int theTurns) {
+            return myTally.myLossTurns[theTurns];
+        }
+
+        /**
+         * Gets a percentile of the hero turns the hero's wins took.
+         *
+         * @param thePercentile The percentile from 0 to 100.
+         * @return The turns within which that share of wins ended, 0 if the hero never won.
+         */
+        public int getTurnsToKill(final double thePercentile) {
+            return percentile(myTally.myWinTurns, myTally.myHeroWins, thePercentile);
+        }
+
+        /**
+         * Gets a percentile of the health the hero had left after a win.
+         *
+         * @param thePercentile The percentile from 0 to 100.
+         * @return The percent of health that share of wins ended with at most, 0 if the hero
+         *         never won.
+         */
+        public int getHealthLeft(final double thePercentile) {
+            return percentile(myTally.myHealthLeft, myTally.myHeroWins, thePercentile);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s vs %-8s (%d potions, %d bombs): win %6.2f%% of %d, draws %d"
+                            + " | turns to kill p50 %d p90 %d p99 %d | health left p10 %d%% p50 %d%% p90 %d%%",
+                    myHero, myEnemy, myPotions, myBombs, getWinRate() * 100, getFights(), getDraws(),
+                    getTurnsToKill(50), getTurnsToKill(90), getTurnsToKill(99),
+                    getHealthLeft(10), getHealthLeft(50), getHealthLeft(90));
+        }
+
+        private static int percentile(final long[] theCounts, final long theTotal,
+                                      final double thePercentile) {
+            if (thePercentile < 0 || thePercentile > 100) {
+                throw new IllegalArgumentException("Percentile must be from 0 to 100, got " + thePercentile);
+            }
+            if (theTotal == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(theTotal * thePercentile / 100));
+            long seen = 0;
+            for (int i = 0; i < theCounts.length; i++) {
+                seen += theCounts[i];
+                if (seen >= rank) {
+                    return i;
+                }
+            }
+            return theCounts.length - 1;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import java.util.ArrayList;
+
+/**
+ * One fixed size piece of a streamed world: its tiles, its fog of war and, while it is stored
+ * on disk, the enemies standing in it. Coordinates passed to a chunk are local to it.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+final class Chunk {
+    private final int myChunkX;
+    private final int myChunkY;
+    private final TileGrid myTiles;
+    /**
+     * Cells currently in the hero's line of sight. Not stored on disk.
+     */
+    private final FogMask myVisible;
+    /**
+     * Cells the hero has seen before.
+     */
+    private final FogMask myExplored;
+    /**
+     * Enemies that were standing in the chunk when it was unloaded, empty while it is loaded.
+     */
+    private final ArrayList<Enemy> myEnemies;
+
+    /**
+     * Creates a chunk from its tiles and explored cells.
+     *
+     * @param theChunkX The x index of the chunk in the world.
+     * @param theChunkY The y index of the chunk in the world.
+     * @param theTiles The tiles of the chunk.
+     * @param theExplored The explored cells, the same size as the tiles.
+     * @param theEnemies The enemies standing in the chunk.
+     */
+    Chunk(final int theChunkX, final int theChunkY, final TileGrid theTiles,
+          final FogMask theExplored, final ArrayList<Enemy> theEnemies) {
+        myChunkX = theChunkX;
+        myChunkY = theChunkY;
+        myTiles = theTiles;
+        myVisible = new FogMask(theTiles.getWidth(), theTiles.getHeight());
+        myExplored = theExplored;
+        myEnemies = theEnemies;
+    }
+
+    int getChunkX() {
+        return myChunkX;
+    }
+
+    int getChunkY() {
+        return myChunkY;
+    }
+
+    TileGrid getTiles() {
+        return myTiles;
+    }
+
+    FogMask getVisible() {
+        return myVisible;
+    }
+
+    FogMask getExplored() {
+        return myExplored;
+    }
+
+    ArrayList<Enemy> getEnemies() {
+        return myEnemies;
+    }
+}
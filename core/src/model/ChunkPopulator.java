@@ -0,0 +1,22 @@
+package model;
+
+import java.util.ArrayList;
+
+/**
+ * Creates the enemies of a newly generated chunk of a streamed world.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public interface ChunkPopulator {
+    /**
+     * Creates the enemies of a chunk the first time it is generated.
+     *
+     * @param theChunk The dungeon generated for the chunk, in coordinates local to the chunk.
+     *                 Free cells taken from it hold no item.
+     * @param theOriginX The world x coordinate of the chunk's local (0, 0).
+     * @param theOriginY The world y coordinate of the chunk's local (0, 0).
+     * @return The enemies, positioned in world coordinates.
+     */
+    ArrayList<Enemy> populate(Dungeon theChunk, int theOriginX, int theOriginY);
+}
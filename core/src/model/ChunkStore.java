@@ -0,0 +1,143 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps unloaded chunks of a streamed world on disk, one compressed file per chunk.
+ * A file holds the tile ordinals, the words of the explored fog mask and the enemies
+ * standing in the chunk, written as an EnemyStore. Nothing about stored chunks is kept in
+ * memory.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+final class ChunkStore {
+    /**
+     * Written first in every file so files from another format are rejected.
+     */
+    private static final int FORMAT = 3;
+
+    private final File myDirectory;
+
+    /**
+     * Creates a store that keeps its files in the given directory.
+     *
+     * @param theDirectory The directory for chunk files, created if missing.
+     * @throws UncheckedIOException if the directory can't be created.
+     */
+    ChunkStore(final File theDirectory) {
+        if (!theDirectory.isDirectory() && !theDirectory.mkdirs()) {
+            throw new UncheckedIOException(new IOException("Can't create chunk directory "
+                    + theDirectory));
+        }
+        myDirectory = theDirectory;
+    }
+
+    /**
+     * Checks whether a chunk has been stored.
+     *
+     * @param theChunkX The x index of the chunk.
+     * @param theChunkY The y index of the chunk.
+     * @return true if the chunk can be read back.
+     */
+    boolean contains(final int theChunkX, final int theChunkY) {
+        return file(theChunkX, theChunkY).isFile();
+    }
+
+    /**
+     * Writes a chunk, replacing any earlier copy.
+     *
+     * @param theChunk The chunk to write.
+     * @throws UncheckedIOException if the file can't be written.
+     */
+    void write(final Chunk theChunk) {
+        final TileGrid tiles = theChunk.getTiles();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(
+                new BufferedOutputStream(new FileOutputStream(
+                        file(theChunk.getChunkX(), theChunk.getChunkY())))))) {
+            out.writeInt(FORMAT);
+            out.writeInt(tiles.getWidth());
+            out.writeInt(tiles.getHeight());
+            out.write(tiles.getCells());
+            for (final long word : theChunk.getExplored().getWords()) {
+                out.writeLong(word);
+            }
+            out.writeObject(EnemyStore.of(theChunk.getEnemies()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Can't write chunk " + theChunk.getChunkX() + ", "
+                    + theChunk.getChunkY(), e);
+        }
+    }
+
+    /**
+     * Reads a stored chunk back.
+     *
+     * @param theChunkX The x index of the chunk.
+     * @param theChunkY The y index of the chunk.
+     * @return The chunk as it was written.
+     * @throws UncheckedIOException if the file is missing or can't be read.
+     */
+    Chunk read(final int theChunkX, final int theChunkY) {
+        try (ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(
+                new BufferedInputStream(new FileInputStream(file(theChunkX, theChunkY)))))) {
+            if (in.readInt() != FORMAT) {
+                throw new IOException("Unknown chunk file format.");
+            }
+            final int width = in.readInt();
+            final int height = in.readInt();
+            final byte[] cells = new byte[width * height];
+            in.readFully(cells);
+            final FogMask explored = new FogMask(width, height);
+            final long[] words = new long[explored.getWords().length];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            explored.setWords(words);
+            final ArrayList<Enemy> enemies = ((EnemyStore) in.readObject()).toList();
+            return new Chunk(theChunkX, theChunkY, new TileGrid(width, height, cells),
+                    explored, enemies);
+        } catch (final IOException | ClassNotFoundException | IllegalArgumentException
+                       | ClassCastException e) {
+            throw new UncheckedIOException("Can't read chunk " + theChunkX + ", " + theChunkY,
+                    e instanceof IOException ? (IOException) e : new IOException(e));
+        }
+    }
+
+    /**
+     * Deletes every stored chunk.
+     */
+    void clear() {
+        final File[] files = myDirectory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (file.getName().startsWith("chunk_")) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes every stored chunk and then the directory, unless something else is kept in it.
+     * The store can't be used after.
+     */
+    void delete() {
+        clear();
+        myDirectory.delete();
+    }
+
+    private File file(final int theChunkX, final int theChunkY) {
+        return new File(myDirectory, "chunk_" + theChunkX + "_" + theChunkY + ".bin");
+    }
+}
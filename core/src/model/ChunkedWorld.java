@@ -0,0 +1,588 @@
+package model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Endless world made of fixed size chunks, each one a small BSP dungeon generated on demand
+ * from a seed derived from the world seed and the chunk coordinates, so a chunk always
+ * generates the same way. Neighboring chunks are joined by openings cut through their shared
+ * outer walls at positions both chunks derive from the same edge seed.
+ * Only the chunks around the hero are kept in memory. Chunks further away are written to a
+ * ChunkStore on disk together with the enemies standing in them, and read back when the hero
+ * returns, so memory stays bounded however far the hero travels.
+ * All coordinates are world coordinates. The world starts at (0, 0) and extends along the
+ * positive x and y axes.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class ChunkedWorld implements TileMap, VisibilityView {
+    /**
+     * Width and height of the world in cells, kept well below the point where screen
+     * coordinates (cell * tile size) overflow.
+     */
+    public static final int WORLD_SIZE = 1 << 22;
+    /**
+     * Chunks within this many chunks of the hero are generated or loaded ahead of time.
+     */
+    public static final int LOAD_RADIUS = 1;
+    /**
+     * Chunks further than this many chunks from the hero are moved to disk.
+     */
+    public static final int KEEP_RADIUS = 2;
+    /**
+     * Smallest chunk side that leaves room for the edge openings.
+     */
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    private final DungeonConfig myChunkConfig;
+    private final int myChunkWidth;
+    private final int myChunkHeight;
+    private final int myChunksX;
+    private final int myChunksY;
+    private final long mySeed;
+    private final ChunkStore myStore;
+    private final ChunkPopulator myPopulator;
+    /**
+     * Chunks in memory, keyed by their packed chunk coordinates.
+     */
+    private final Map<Long, Chunk> myLoaded;
+    /**
+     * Enemies standing in loaded chunks.
+     */
+    private final ArrayList<Enemy> myEnemies;
+    /**
+     * Enemies of chunks loaded since the last focus. They join myEnemies on the next focus so
+     * the enemy list never changes while the game master is walking it.
+     */
+    private final ArrayList<Enemy> myPendingEnemies;
+    /**
+     * Cells of the enemies in myEnemies, hashed since the world is far too large for a grid.
+     */
+    private final OccupancyIndex myOccupancy;
+    /**
+     * Last chunk looked up, most lookups hit the same chunk as the one before.
+     */
+    private Chunk myLastChunk;
+    /**
+     * Fog changes not yet picked up by the view, in world coordinates.
+     */
+    private final FogChanges myFogChanges;
+    /**
+     * Whether every cell counts as visible, while cheats reveal the map.
+     */
+    private boolean myIsRevealed;
+    private long myFogVersion;
+    /**
+     * Line of sight of the hero, cast across chunk boundaries.
+     */
+    private final FieldOfView myFieldOfView;
+    /**
+     * Writes the line of sight to the fog masks of the chunks.
+     */
+    private final ChunkFog myChunkFog;
+
+    /**
+     * Creates an empty world. No chunk is generated until it is first needed.
+     *
+     * @param theChunkConfig The size and contents of every chunk.
+     * @param theSeed The seed every chunk seed is derived from.
+     * @param theDirectory The directory unloaded chunks are written to.
+     * @param thePopulator Creates the enemies of newly generated chunks.
+     * @throws IllegalArgumentException if an argument is null or the chunks are too small.
+     */
+    public ChunkedWorld(final DungeonConfig theChunkConfig, final long theSeed,
+                        final File theDirectory, final ChunkPopulator thePopulator) {
+        if (theChunkConfig == null || theDirectory == null || thePopulator == null) {
+            throw new IllegalArgumentException("Chunk configuration, directory and populator can't be null.");
+        }
+        if (theChunkConfig.getWidth() < MIN_CHUNK_SIZE || theChunkConfig.getHeight() < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunks must be at least " + MIN_CHUNK_SIZE
+                    + " cells on each side.");
+        }
+        myChunkConfig = theChunkConfig;
+        myChunkWidth = theChunkConfig.getWidth();
+        myChunkHeight = theChunkConfig.getHeight();
+        myChunksX = WORLD_SIZE / myChunkWidth;
+        myChunksY = WORLD_SIZE / myChunkHeight;
+        mySeed = theSeed;
+        myStore = new ChunkStore(theDirectory);
+        myStore.clear();
+        myPopulator = thePopulator;
+        myLoaded = new HashMap<>();
+        myEnemies = new ArrayList<>();
+        myPendingEnemies = new ArrayList<>();
+        myOccupancy = new OccupancyIndex(WORLD_SIZE, WORLD_SIZE);
+        myFogChanges = new FogChanges();
+        myFieldOfView = new FieldOfView(this);
+        myChunkFog = new ChunkFog();
+    }
+
+    @Override
+    public int getWidth() {
+        return myChunksX * myChunkWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return myChunksY * myChunkHeight;
+    }
+
+    @Override
+    public boolean isInBounds(final int theX, final int theY) {
+        return theX >= 0 && theX < getWidth() && theY >= 0 && theY < getHeight();
+    }
+
+    @Override
+    public Tile get(final int theX, final int theY) {
+        return chunkAt(theX, theY).getTiles().get(theX % myChunkWidth, theY % myChunkHeight);
+    }
+
+    @Override
+    public void set(final int theX, final int theY, final Tile theTile) {
+        chunkAt(theX, theY).getTiles().set(theX % myChunkWidth, theY % myChunkHeight, theTile);
+    }
+
+    @Override
+    public boolean isWalkable(final int theX, final int theY) {
+        return get(theX, theY).isWalkable();
+    }
+
+    @Override
+    public boolean isOpaque(final int theX, final int theY) {
+        return chunkAt(theX, theY).getTiles().isOpaque(theX % myChunkWidth, theY % myChunkHeight);
+    }
+
+    /**
+     * Gets the walkable neighbors of a cell. Cells inside a chunk read its exit table, cells
+     * on a chunk edge look at the neighboring chunk too.
+     */
+    @Override
+    public int getExits(final int theX, final int theY) {
+        final Chunk chunk = chunkAt(theX, theY);
+        final int localX = theX % myChunkWidth;
+        final int localY = theY % myChunkHeight;
+        if (localX > 0 && localY > 0 && localX < myChunkWidth - 1 && localY < myChunkHeight - 1) {
+            return chunk.getTiles().getExits(localX, localY);
+        }
+        int exits = 0;
+        if (isInBounds(theX, theY + 1) && isWalkable(theX, theY + 1)) {
+            exits |= EXIT_UP;
+        }
+        if (isInBounds(theX + 1, theY) && isWalkable(theX + 1, theY)) {
+            exits |= EXIT_RIGHT;
+        }
+        if (isInBounds(theX, theY - 1) && isWalkable(theX, theY - 1)) {
+            exits |= EXIT_DOWN;
+        }
+        if (isInBounds(theX - 1, theY) && isWalkable(theX - 1, theY)) {
+            exits |= EXIT_LEFT;
+        }
+        return exits;
+    }
+
+    @Override
+    public void getRow(final int theY, final int theFromX, final int theToX, final Tile[] theDest) {
+        if (theFromX < 0 || theToX > getWidth() || theFromX > theToX || theY < 0 || theY >= getHeight()) {
+            throw new IndexOutOfBoundsException("Row " + theY + " range [" + theFromX + ", "
+                    + theToX + ") is outside the world.");
+        }
+        final Tile[] segment = new Tile[Math.min(myChunkWidth, theToX - theFromX)];
+        int x = theFromX;
+        while (x < theToX) {
+            final int localX = x % myChunkWidth;
+            final int end = Math.min(theToX, x - localX + myChunkWidth);
+            chunkAt(x, theY).getTiles().getRow(theY % myChunkHeight, localX,
+                    localX + end - x, segment);
+            System.arraycopy(segment, 0, theDest, x - theFromX, end - x);
+            x = end;
+        }
+    }
+
+    /**
+     * Checks whether a cell is in the hero's line of sight.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the cell is visible.
+     * @throws IndexOutOfBoundsException if the cell is outside the world.
+     */
+    @Override
+    public boolean isVisible(final int theX, final int theY) {
+        return myIsRevealed || chunkAt(theX, theY).getVisible().get(theX % myChunkWidth, theY % myChunkHeight);
+    }
+
+    /**
+     * Checks whether the hero has seen a cell before.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the cell has been explored.
+     * @throws IndexOutOfBoundsException if the cell is outside the world.
+     */
+    @Override
+    public boolean isExplored(final int theX, final int theY) {
+        return chunkAt(theX, theY).getExplored().get(theX % myChunkWidth, theY % myChunkHeight);
+    }
+
+    /**
+     * Moves the hero's line of sight to a cell, the same way Dungeon.updateFOW does for a
+     * single dungeon. Sight is cast across chunk boundaries and stops at walls and closed
+     * doors of any chunk. Cells coming into sight become visible and explored, cells leaving
+     * it stay explored.
+     *
+     * @param theX The hero x coordinate.
+     * @param theY The hero y coordinate.
+     * @param theLOS How many cells the hero can see in each direction.
+     */
+    public void updateFOW(final int theX, final int theY, final int theLOS) {
+        if (myFieldOfView.update(theX, theY, theLOS, myChunkFog, myFogChanges)) {
+            myFogVersion++;
+        }
+        //tiles next to the hero may have changed too, e.g. a picked up key or an opened door.
+        myFogChanges.addDirty(Math.max(0, theX - theLOS), Math.max(0, theY - theLOS),
+                Math.min(getWidth() - 1, theX + theLOS), Math.min(getHeight() - 1, theY + theLOS));
+    }
+
+    /**
+     * Reveals or hides the whole world, for cheats. While revealed every cell is visible and
+     * the fog masks of the chunks are left alone.
+     *
+     * @param theIsRevealed true to reveal the world.
+     */
+    public void setRevealed(final boolean theIsRevealed) {
+        myIsRevealed = theIsRevealed;
+        myFogChanges.markAll();
+        myFogVersion++;
+    }
+
+    /**
+     * Visits the cells in sight of the last fog update. While the world is revealed, every
+     * cell of the loaded chunks is visited instead of the endless world.
+     *
+     * @param theVisitor Receives each visible cell.
+     */
+    @Override
+    public void forEachVisible(final CellVisitor theVisitor) {
+        if (myIsRevealed) {
+            for (final Chunk chunk : myLoaded.values()) {
+                final int originX = chunk.getChunkX() * myChunkWidth;
+                final int originY = chunk.getChunkY() * myChunkHeight;
+                for (int y = 0; y < myChunkHeight; y++) {
+                    for (int x = 0; x < myChunkWidth; x++) {
+                        theVisitor.visit(originX + x, originY + y);
+                    }
+                }
+            }
+            return;
+        }
+        if (myFieldOfView.isCurrent()) {
+            myFieldOfView.forEachVisible(theVisitor);
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return myFogVersion;
+    }
+
+    /**
+     * Gets the fog changes made since the view last cleared them, in world coordinates.
+     *
+     * @return The pending fog changes.
+     */
+    public FogChanges getFogChanges() {
+        return myFogChanges;
+    }
+
+    /**
+     * Moves the loaded area to the hero: makes sure the chunks around the cell are in memory,
+     * writes chunks that are now too far away to disk and adds the enemies of newly loaded
+     * chunks to the end of the enemy list.
+     *
+     * @param theX The hero x coordinate.
+     * @param theY The hero y coordinate.
+     * @return The number of enemies that joined the enemy list.
+     * @throws IndexOutOfBoundsException if the cell is outside the world.
+     */
+    public int focus(final int theX, final int theY) {
+        checkBounds(theX, theY);
+        final int chunkX = theX / myChunkWidth;
+        final int chunkY = theY / myChunkHeight;
+        for (int i = chunkX - LOAD_RADIUS; i <= chunkX + LOAD_RADIUS; i++) {
+            for (int j = chunkY - LOAD_RADIUS; j <= chunkY + LOAD_RADIUS; j++) {
+                if (i >= 0 && i < myChunksX && j >= 0 && j < myChunksY) {
+                    chunk(i, j);
+                }
+            }
+        }
+        final Iterator<Chunk> loaded = myLoaded.values().iterator();
+        while (loaded.hasNext()) {
+            final Chunk chunk = loaded.next();
+            if (Math.max(Math.abs(chunk.getChunkX() - chunkX),
+                    Math.abs(chunk.getChunkY() - chunkY)) > KEEP_RADIUS) {
+                unload(chunk);
+                loaded.remove();
+            }
+        }
+        for (final Enemy enemy : myPendingEnemies) {
+            myOccupancy.add(enemy);
+        }
+        final int joined = myPendingEnemies.size();
+        myEnemies.addAll(myPendingEnemies);
+        myPendingEnemies.clear();
+        return joined;
+    }
+
+    /**
+     * Gets the enemies standing in loaded chunks. The list is live, the game master moves
+     * and removes enemies in it directly.
+     *
+     * @return The enemies of the loaded chunks.
+     */
+    public ArrayList<Enemy> getEnemies() {
+        return myEnemies;
+    }
+
+    /**
+     * Gets the cells of the enemies in the enemy list. Enemies join it on focus with the
+     * enemy list and leave it with their chunk.
+     *
+     * @return The enemy occupancy index.
+     */
+    public OccupancyIndex getOccupancy() {
+        return myOccupancy;
+    }
+
+    /**
+     * Gets the number of chunks held in memory.
+     *
+     * @return The number of loaded chunks.
+     */
+    public int getLoadedChunkCount() {
+        return myLoaded.size();
+    }
+
+    /**
+     * Gets the configuration every chunk is generated with.
+     *
+     * @return The chunk configuration.
+     */
+    public DungeonConfig getChunkConfig() {
+        return myChunkConfig;
+    }
+
+    /**
+     * Gets the seed every chunk seed is derived from.
+     *
+     * @return The world seed.
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Drops every chunk and deletes the chunks stored on disk, along with their directory
+     * once it is empty. The world can't be used after.
+     */
+    public void close() {
+        myLoaded.clear();
+        myLastChunk = null;
+        myEnemies.clear();
+        myPendingEnemies.clear();
+        myOccupancy.clear();
+        myStore.delete();
+    }
+
+    /**
+     * Finds the chunk holding a cell, loading or generating it if needed.
+     */
+    private Chunk chunkAt(final int theX, final int theY) {
+        checkBounds(theX, theY);
+        return chunk(theX / myChunkWidth, theY / myChunkHeight);
+    }
+
+    private Chunk chunk(final int theChunkX, final int theChunkY) {
+        if (myLastChunk != null && myLastChunk.getChunkX() == theChunkX
+                && myLastChunk.getChunkY() == theChunkY) {
+            return myLastChunk;
+        }
+        final long key = key(theChunkX, theChunkY);
+        Chunk chunk = myLoaded.get(key);
+        if (chunk == null) {
+            if (myStore.contains(theChunkX, theChunkY)) {
+                chunk = myStore.read(theChunkX, theChunkY);
+                myPendingEnemies.addAll(chunk.getEnemies());
+                chunk.getEnemies().clear();
+            } else {
+                chunk = generate(theChunkX, theChunkY);
+            }
+            myLoaded.put(key, chunk);
+        }
+        myLastChunk = chunk;
+        return chunk;
+    }
+
+    /**
+     * Generates a chunk for the first time, cuts its edge openings and creates its enemies.
+     */
+    private Chunk generate(final int theChunkX, final int theChunkY) {
+        final Dungeon dungeon = new Dungeon(myChunkConfig,
+                new SplittableRandom(mySeed ^ key(theChunkX, theChunkY) * 0xC2B2AE3D27D4EB4FL).nextLong());
+        final TileGrid tiles = dungeon.getMap();
+        final int w = myChunkWidth;
+        final int h = myChunkHeight;
+        if (theChunkX + 1 < myChunksX) {
+            carveOpening(tiles, w - 1, opening(theChunkX, theChunkY, true, h), -1, 0);
+        }
+        if (theChunkX > 0) {
+            carveOpening(tiles, 0, opening(theChunkX - 1, theChunkY, true, h), 1, 0);
+        }
+        if (theChunkY + 1 < myChunksY) {
+            carveOpening(tiles, opening(theChunkX, theChunkY, false, w), h - 1, 0, -1);
+        }
+        if (theChunkY > 0) {
+            carveOpening(tiles, opening(theChunkX, theChunkY - 1, false, w), 0, 0, 1);
+        }
+        myPendingEnemies.addAll(myPopulator.populate(dungeon, theChunkX * w, theChunkY * h));
+        return new Chunk(theChunkX, theChunkY, tiles, new FogMask(w, h), new ArrayList<Enemy>());
+    }
+
+    /**
+     * Finds where the opening of an edge is. The east edge of a chunk and the west edge of
+     * the chunk after it are the same edge, so both sides find the same position.
+     *
+     * @param theChunkX The x index of the chunk on the west or south side of the edge.
+     * @param theChunkY The y index of the chunk on the west or south side of the edge.
+     * @param theIsEastEdge true for the edge between a chunk and the chunk east of it, false
+     *                      for the edge between a chunk and the chunk north of it.
+     * @param theLength The length of the edge.
+     * @return The offset of the opening along the edge, never in a corner.
+     */
+    private int opening(final int theChunkX, final int theChunkY, final boolean theIsEastEdge,
+                        final int theLength) {
+        final long edge = key(theChunkX, theChunkY) * 2 + (theIsEastEdge ? 0 : 1);
+        return 2 + new SplittableRandom(mySeed ^ edge * 0x9E3779B97F4A7C15L).nextInt(theLength - 4);
+    }
+
+    /**
+     * Opens an edge cell and cuts a path inward to the nearest walkable cell. The path runs
+     * one cell into the chunk and then along the edge, so it joins the room behind the wall.
+     *
+     * @param theTiles The chunk tiles.
+     * @param theX The local x coordinate of the edge cell.
+     * @param theY The local y coordinate of the edge cell.
+     * @param theInX The x step pointing into the chunk.
+     * @param theInY The y step pointing into the chunk.
+     */
+    private static void carveOpening(final TileGrid theTiles, final int theX, final int theY,
+                                     final int theInX, final int theInY) {
+        theTiles.set(theX, theY, Tile.FLOOR);
+        //the direction along the edge is the inward step turned by a right angle.
+        final int alongX = theInY;
+        final int alongY = theInX;
+        int x = theX + theInX;
+        int y = theY + theInY;
+        while (theTiles.isInBounds(x + theInX, y + theInY)) {
+            for (int k = 0; ; k++) {
+                final boolean inUp = isInner(theTiles, x + k * alongX, y + k * alongY);
+                final boolean inDown = isInner(theTiles, x - k * alongX, y - k * alongY);
+                if (!inUp && !inDown) {
+                    break;
+                }
+                final int sign = inUp && theTiles.isWalkable(x + k * alongX, y + k * alongY) ? 1
+                        : inDown && theTiles.isWalkable(x - k * alongX, y - k * alongY) ? -1 : 0;
+                if (sign != 0) {
+                    for (int step = 0; step < k; step++) {
+                        theTiles.set(x + sign * step * alongX, y + sign * step * alongY, Tile.FLOOR);
+                    }
+                    return;
+                }
+            }
+            //nothing walkable along this line, dig one cell further in.
+            theTiles.set(x, y, Tile.FLOOR);
+            x += theInX;
+            y += theInY;
+        }
+    }
+
+    /**
+     * Checks that a cell is inside the chunk's outer walls.
+     */
+    private static boolean isInner(final TileGrid theTiles, final int theX, final int theY) {
+        return theX > 0 && theY > 0 && theX < theTiles.getWidth() - 1 && theY < theTiles.getHeight() - 1;
+    }
+
+    /**
+     * Writes a chunk to disk along with the enemies standing in it.
+     */
+    private void unload(final Chunk theChunk) {
+        moveEnemies(myEnemies, theChunk);
+        moveEnemies(myPendingEnemies, theChunk);
+        myStore.write(theChunk);
+        theChunk.getEnemies().clear();
+        if (myLastChunk == theChunk) {
+            myLastChunk = null;
+        }
+    }
+
+    /**
+     * Moves the enemies standing in a chunk from a list into the chunk.
+     */
+    private void moveEnemies(final ArrayList<Enemy> theEnemies, final Chunk theChunk) {
+        final Iterator<Enemy> enemies = theEnemies.iterator();
+        while (enemies.hasNext()) {
+            final Enemy enemy = enemies.next();
+            if (enemy.getPosition().getMyX() / myChunkWidth == theChunk.getChunkX()
+                    && enemy.getPosition().getMyY() / myChunkHeight == theChunk.getChunkY()) {
+                theChunk.getEnemies().add(enemy);
+                myOccupancy.remove(enemy);
+                enemies.remove();
+            }
+        }
+    }
+
+    private void checkBounds(final int theX, final int theY) {
+        if (!isInBounds(theX, theY)) {
+            throw new IndexOutOfBoundsException("Cell (" + theX + ", " + theY
+                    + ") is outside the world.");
+        }
+    }
+
+    private static long key(final int theChunkX, final int theChunkY) {
+        return ((long) theChunkX << 32) | (theChunkY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The visible and explored masks of the chunks, addressed in world coordinates.
+     */
+    private final class ChunkFog implements FieldOfView.Fog {
+        @Override
+        public boolean isVisible(final int theX, final int theY) {
+            return chunkAt(theX, theY).getVisible().get(theX % myChunkWidth, theY % myChunkHeight);
+        }
+
+        @Override
+        public void setVisible(final int theX, final int theY, final boolean theIsVisible) {
+            chunkAt(theX, theY).getVisible().set(theX % myChunkWidth, theY % myChunkHeight,
+                    theIsVisible);
+        }
+
+        @Override
+        public void setExplored(final int theX, final int theY) {
+            chunkAt(theX, theY).getExplored().set(theX % myChunkWidth, theY % myChunkHeight, true);
+        }
+
+        @Override
+        public void hideAll() {
+            for (final Chunk chunk : myLoaded.values()) {
+                chunk.getVisible().fill(false);
+            }
+        }
+    }
+}
@@ -11,28 +11,206 @@ import java.util.*;
  * @author Tiger Schueler
  * @version 10AUG24
  */
-public class Dungeon implements Serializable {
+public class Dungeon implements Serializable, VisibilityView {
     private static final long serialVersionUID = 1L;
-    private final int MAP_SIZE = 50;
-    private final Tile[][] MAP;
-    private final boolean[][] myMapFOW;
-    private final boolean[][] myMapExploredFOW;
-    private static final int MIN_ROOM_SIZE = 10;
+    /**
+     * Default number of BSP trees tried before generation gives up.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 1000;
+    /**
+     * Room id of cells that belong to no room.
+     */
+    public static final int NO_ROOM = -1;
+
+    /**
+     * Generation passes in the order they run. Benchmarks run them one at a time through
+     * runPhase to see how generation time splits between them.
+     */
+    enum Phase {
+        /**
+         * Resets the BSP tree and splits the map.
+         */
+        SPLIT,
+        /**
+         * Clears the map and carves a room into every leaf of the tree.
+         */
+        ROOMS,
+        /**
+         * Cuts doors between neighboring rooms.
+         */
+        DOORS,
+        /**
+         * Records which rooms the doors connect.
+         */
+        ADJACENCY,
+        /**
+         * Indexes the free floor cells and places every item.
+         */
+        PLACEMENT
+    }
+    /**
+     * Parameters the dungeon was generated with.
+     */
+    private final DungeonConfig myConfig;
+    private final int myWidth;
+    private final int myHeight;
+    private final TileGrid MAP;
+    /**
+     * Index in myRoomList of the room whose BSP node covers each cell, stored at
+     * y * width + x, or NO_ROOM for the outer walls.
+     */
+    private final int[] myRoomIds;
+    /**
+     * Which rooms are connected by a door, by index in myRoomList.
+     */
+    private RoomGraph myRoomGraph;
+    /**
+     * Cells in the hero's line of sight.
+     */
+    private final FogMask myMapFOW;
+    /**
+     * Cells the hero has seen, including the ones in sight right now.
+     */
+    private final FogMask myMapExploredFOW;
+    /**
+     * Shadowcasting line of sight with its reusable buffers. Not serializable, it is rebuilt
+     * when a loaded dungeon first updates its fog.
+     */
+    private transient FieldOfView myFieldOfView;
+    /**
+     * Fog changes not yet picked up by the view. Not serializable, a loaded dungeon starts
+     * with a full change set so everything is drawn once.
+     */
+    private transient FogChanges myFogChanges;
+    /**
+     * Bumped whenever the fog changes, see getVersion. Starts over after a load, which is
+     * fine since a loaded dungeon is a new object to anyone holding an old stamp.
+     */
+    private transient long myFogVersion;
     private final Node ROOT;
     //    private final List<Node> rooms;
     private final List<Room> myRoomList;
     private final List<Door> myDoorList;
     private int myTotalRooms = 0;
+    /**
+     * Seed the layout was generated from. The same seed always produces the same layout.
+     */
+    private final long mySeed;
+    /**
+     * Single random source used by every generation pass. Not serializable, the layout is
+     * fully generated by the time a dungeon is saved.
+     */
+    private transient RandomSource myRandom;
+    /**
+     * Number of BSP trees tried by the last generation, including the accepted one.
+     */
+    private int myAttempts;
+    /**
+     * Time in nanoseconds spent on each generation attempt.
+     */
+    private long[] myAttemptNanos;
+    /**
+     * Floor cells nothing has been placed on yet. Not serializable, it is rebuilt from the map
+     * when a loaded dungeon needs it.
+     */
+    private transient FreeCellIndex myFreeCells;
 
+    /**
+     * Creates a default sized dungeon from a random seed.
+     */
     public Dungeon() {
-        MAP = new Tile[MAP_SIZE][MAP_SIZE];
-        myMapFOW = new boolean[MAP_SIZE][MAP_SIZE];
-        myMapExploredFOW = new boolean[MAP_SIZE][MAP_SIZE];
-        ROOT = new Node(1, 1, MAP_SIZE - 1, MAP_SIZE - 1);
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a default sized dungeon whose layout is fully determined by the given seed.
+     *
+     * @param theSeed The seed for the dungeon random source.
+     */
+    public Dungeon(final long theSeed) {
+        this(DungeonConfig.DEFAULT, theSeed);
+    }
+
+    /**
+     * Creates a default sized dungeon whose layout is fully determined by the given seed,
+     * trying at most the given number of BSP trees.
+     *
+     * @param theSeed The seed for the dungeon random source.
+     * @param theMaxAttempts The retry budget for generation.
+     * @throws IllegalArgumentException if the retry budget is not positive.
+     * @throws IllegalStateException if no acceptable layout is found within the budget.
+     */
+    public Dungeon(final long theSeed, final int theMaxAttempts) {
+        this(withMaxAttempts(DungeonConfig.DEFAULT, theMaxAttempts), theSeed);
+    }
+
+    /**
+     * Creates a dungeon described by the given configuration from a random seed.
+     *
+     * @param theConfig The size, room and item parameters of the dungeon.
+     */
+    public Dungeon(final DungeonConfig theConfig) {
+        this(theConfig, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a dungeon described by the given configuration whose layout is fully determined
+     * by the given seed.
+     *
+     * @param theConfig The size, room and item parameters of the dungeon.
+     * @param theSeed The seed for the dungeon random source.
+     * @throws IllegalArgumentException if the configuration is null.
+     * @throws IllegalStateException if no acceptable layout is found within the retry budget,
+     *                               or the map can't hold all the items.
+     */
+    public Dungeon(final DungeonConfig theConfig, final long theSeed) {
+        this(theConfig, theSeed, Phase.PLACEMENT);
+    }
+
+    /**
+     * Creates a dungeon whose accepted layout is only generated up to and including the
+     * given phase, so a benchmark can then time the phase after it on its own.
+     *
+     * @param theConfig The size, room and item parameters of the dungeon.
+     * @param theSeed The seed for the dungeon random source.
+     * @param theLastPhase The last phase run on the accepted BSP tree.
+     * @throws IllegalArgumentException if the configuration is null.
+     * @throws IllegalStateException if no acceptable layout is found within the retry budget,
+     *                               or the map can't hold all the items.
+     */
+    Dungeon(final DungeonConfig theConfig, final long theSeed, final Phase theLastPhase) {
+        if (theConfig == null) {
+            throw new IllegalArgumentException("Dungeon configuration can't be null.");
+        }
+        myConfig = theConfig;
+        myWidth = theConfig.getWidth();
+        myHeight = theConfig.getHeight();
+        mySeed = theSeed;
+        myRandom = new SeededRandom(theSeed);
+        MAP = new TileGrid(myWidth, myHeight);
+        myRoomIds = new int[myWidth * myHeight];
+        myMapFOW = new FogMask(myWidth, myHeight);
+        myMapExploredFOW = new FogMask(myWidth, myHeight);
+        ROOT = new Node(1, 1, myWidth - 1, myHeight - 1);
 //        rooms = new ArrayList<>();
         myRoomList = new ArrayList<>();
         myDoorList = new ArrayList<>();
-        generateDungeon();
+        generateDungeon(theLastPhase);
+    }
+
+    /**
+     * Copies a configuration, replacing only its retry budget.
+     */
+    private static DungeonConfig withMaxAttempts(final DungeonConfig theConfig,
+                                                 final int theMaxAttempts) {
+        if (theMaxAttempts <= 0) {
+            throw new IllegalArgumentException("Dungeon generation needs at least one attempt.");
+        }
+        return new DungeonConfig(theConfig.getWidth(), theConfig.getHeight(),
+                theConfig.getMinRoomSize(), theConfig.getMinRooms(), theConfig.getKeys(),
+                theConfig.getExits(), theConfig.getHealthPotions(), theConfig.getPoisonPotions(),
+                theConfig.getBombs(), theConfig.getPitTraps(), theConfig.getEnemies(),
+                theMaxAttempts);
     }
 
     /**
@@ -47,33 +225,33 @@ public class Dungeon implements Serializable {
      * Initializes the dungeon map with walls.
      */
     private void initializeMap() {
-        for (int i = 0; i < MAP_SIZE; i++) {
-            for (int j = 0; j < MAP_SIZE; j++) {
-                MAP[i][j] = Tile.WALL;
-            }
-        }
+        MAP.fill(Tile.WALL);
+        Arrays.fill(myRoomIds, NO_ROOM);
     }
 
     /**
      * Recursively splits the map using BSP algorithm.
      *
      * @param theNode The current node to split.
+     * @param theRandom The random source used to pick split direction and position.
+     * @param theMinRoomSize The size at which nodes stop being split.
      */
-    private static void splitMap(final Node theNode) {
+    private static void splitMap(final Node theNode, final RandomSource theRandom,
+                                 final int theMinRoomSize) {
         if (theNode == null) {
             return;
         }
 
-        if (theNode.canSplit()) {
-            final boolean splitDirection = theNode.splitDirection();
+        if (theNode.canSplit(theMinRoomSize)) {
+            final boolean splitDirection = theNode.splitDirection(theRandom, theMinRoomSize);
             if (splitDirection) {
-                theNode.splitHorizontally();
+                theNode.splitHorizontally(theRandom, theMinRoomSize);
             } else {
-                theNode.splitVertically();
+                theNode.splitVertically(theRandom, theMinRoomSize);
             }
         }
-        splitMap(theNode.myLeftChild);
-        splitMap(theNode.myRightChild);
+        splitMap(theNode.myLeftChild, theRandom, theMinRoomSize);
+        splitMap(theNode.myRightChild, theRandom, theMinRoomSize);
     }
 
     /**
@@ -92,6 +270,7 @@ public class Dungeon implements Serializable {
 //            rooms.add(theNode);
             final Room newRoom = new Room(roomName, theNode.getX(), theNode.getY(),
                     theNode.getWidth(), theNode.getHeight());
+            markRoomCells(newRoom, myRoomList.size());
             myRoomList.add(newRoom);
             placeFloorTiles(newRoom);
         } else {
@@ -100,17 +279,32 @@ public class Dungeon implements Serializable {
         }
     }
 
+    /**
+     * Records the given room id for every cell the room covers, walls included.
+     *
+     * @param theRoom The room to record.
+     * @param theId The index of the room in the room list.
+     */
+    private void markRoomCells(final Room theRoom, final int theId) {
+        final int startX = Math.max(0, theRoom.getX());
+        final int endX = Math.min(myWidth, theRoom.getX() + theRoom.getWidth());
+        final int endY = Math.min(myHeight, theRoom.getY() + theRoom.getHeight());
+        for (int j = Math.max(0, theRoom.getY()); j < endY; j++) {
+            Arrays.fill(myRoomIds, j * myWidth + startX, j * myWidth + endX, theId);
+        }
+    }
+
     /**
      * Creates a room within the node.
      *
      * @param theRoom The node to create a room in.
      */
     private void placeFloorTiles(final Room theRoom) {
-        for (int i = theRoom.getY(); i < theRoom.getY() + theRoom.getHeight() - 1; i++) {
-            for (int j = theRoom.getX(); j < theRoom.getX() + theRoom.getWidth() - 1; j++) {
-                if (i > 0 && j > 0) {
-                    MAP[i][j] = Tile.FLOOR;
-                }
+        final int startX = Math.max(1, theRoom.getX());
+        final int endX = theRoom.getX() + theRoom.getWidth() - 1;
+        for (int j = Math.max(1, theRoom.getY()); j < theRoom.getY() + theRoom.getHeight() - 1; j++) {
+            if (startX < endX) {
+                MAP.fillRow(j, startX, endX, Tile.FLOOR);
             }
         }
     }
@@ -135,16 +329,16 @@ public class Dungeon implements Serializable {
         final int roomY = theRoom.getY();
         final int width = theRoom.getWidth();
         final int height = theRoom.getHeight();
-        final int rand = new Random().nextInt(height / 2);
+        final int rand = myRandom.nextInt(height / 2);
         for (int i = rand; i <= height; i++) {
-            if (roomY + i < MAP_SIZE - 1
-                    && roomX + width < MAP_SIZE - 1
-                    && MAP[roomY + i][roomX + width - 2] == Tile.FLOOR
-                    && MAP[roomY + i][roomX + width - 1] == Tile.WALL
-                    && MAP[roomY + i][roomX + width] == Tile.FLOOR) {
-                MAP[roomY + i][roomX + width - 1] = Tile.DOOR;
-                final Door newDoor = new Door(new Position(roomY + i,
-                    roomX + width - 1));
+            if (roomY + i < myHeight - 1
+                    && roomX + width < myWidth - 1
+                    && MAP.get(roomX + width - 2, roomY + i) == Tile.FLOOR
+                    && MAP.get(roomX + width - 1, roomY + i) == Tile.WALL
+                    && MAP.get(roomX + width, roomY + i) == Tile.FLOOR) {
+                MAP.set(roomX + width - 1, roomY + i, Tile.DOOR);
+                final Door newDoor = new Door(new Position(roomX + width - 1,
+                    roomY + i));
                 theRoom.getDoors().add(newDoor);
                 theRoom.setHasDoors(true);
                 break;
@@ -155,35 +349,29 @@ public class Dungeon implements Serializable {
 
     /**
      * if room has doors add adjacent door to adjacency list.
+     * The room on the far side of each door is read from the room id grid, and the room
+     * graph rejects duplicate connections, so the pass is linear in the number of doors.
      */
     private void createRoomAdjacency() {
-        for (final Room room1 : myRoomList) {
+        myRoomGraph = new RoomGraph(myRoomList.size());
+        for (int id = 0; id < myRoomList.size(); id++) {
+            final Room room1 = myRoomList.get(id);
             if(room1.containsDoors()) {
                 for (final Door door : room1.getDoors()) {
                     int doorX = door.getPosition().getMyX();
                     int doorY = door.getPosition().getMyY();
-                    if (MAP[doorY][doorX + 1] == Tile.FLOOR
-                            && MAP[doorY + 1][doorX] == Tile.WALL) {
+                    if (MAP.get(doorX + 1, doorY) == Tile.FLOOR
+                            && MAP.get(doorX, doorY + 1) == Tile.WALL) {
                         doorX++;
-                    } else if (MAP[doorY + 1][doorX] == Tile.FLOOR
-                            && MAP[doorY][doorX + 1] == Tile.WALL) {
+                    } else if (MAP.get(doorX, doorY + 1) == Tile.FLOOR
+                            && MAP.get(doorX + 1, doorY) == Tile.WALL) {
                         doorY++;
                     }
-                    for (final Room room2 : myRoomList) {
-                        boolean isAdjacent = room1.findRoom(room2, doorX, doorY);
-                        if (isAdjacent) {
-                            if (!room1.getAdjacentRooms().contains(room2)) {
-                                room1.getAdjacentRooms().add(room2);
-//                                room2.getDoors().add(door);
-//                                room2.setHasDoors(true);
-                            }
-                            if (!room2.getAdjacentRooms().contains(room1)) {
-                                room2.getAdjacentRooms().add(room1);
-                            }
-
-//                            room2.setHasDoors(true);
-//                            room2.getDoors().add(door);
-                        }
+                    final int other = myRoomIds[doorY * myWidth + doorX];
+                    if (other != NO_ROOM && myRoomGraph.connect(id, other)) {
+                        final Room room2 = myRoomList.get(other);
+                        room1.getAdjacentRooms().add(room2);
+                        room2.getAdjacentRooms().add(room1);
                     }
                 }
             }
@@ -200,16 +388,16 @@ public class Dungeon implements Serializable {
         final int roomY = theRoom.getY();
         final int width = theRoom.getWidth();
         final int height = theRoom.getHeight();
-        final int rand = new Random().nextInt(width / 2);
+        final int rand = myRandom.nextInt(width / 2);
         for (int i = rand; i <= width; i++) {
-            if (roomX + i < MAP_SIZE - 1
-                    && roomY + height < MAP_SIZE - 1
-                    && MAP[roomY + height - 2][roomX + i] == Tile.FLOOR
-                    && MAP[roomY + height - 1][roomX + i] == Tile.WALL
-                    && MAP[roomY + height][roomX + i] == Tile.FLOOR) {
-                MAP[roomY + height - 1][roomX + i] = Tile.DOOR;
-                final Door newDoor = new Door(new Position(roomY + height - 1,
-                    roomX + i));
+            if (roomX + i < myWidth - 1
+                    && roomY + height < myHeight - 1
+                    && MAP.get(roomX + i, roomY + height - 2) == Tile.FLOOR
+                    && MAP.get(roomX + i, roomY + height - 1) == Tile.WALL
+                    && MAP.get(roomX + i, roomY + height) == Tile.FLOOR) {
+                MAP.set(roomX + i, roomY + height - 1, Tile.DOOR);
+                final Door newDoor = new Door(new Position(roomX + i,
+                    roomY + height - 1));
                 theRoom.getDoors().add(newDoor);
                 theRoom.setHasDoors(true);
                 break;
@@ -217,182 +405,177 @@ public class Dungeon implements Serializable {
         }
     }
 
+    /**
+     * Places the given tile on random floor cells inside the outer walls.
+     *
+     * @param theTile The tile to place.
+     * @param theCount How many tiles to place.
+     */
+    private void placeRandomly(final Tile theTile, final int theCount) {
+        for (int i = 0; i < theCount; i++) {
+            final int cell = myFreeCells.take(myRandom);
+            MAP.set(myFreeCells.getX(cell), myFreeCells.getY(cell), theTile);
+        }
+    }
+
     /**
      * Places keys randomly on the dungeon floor.
-     * A maximum of 4 keys are placed.
+     * Four keys are placed by default.
      */
     private void placeKeys() {
-        final int maxKeys = 4;
-        int counter = 0;
-        while(counter < maxKeys) {
-            Random rand = new Random();
-            final int min = 1;
-            final int max = 48;
-            final int randomNumberOne = rand.nextInt(max - min + 1) + min;
-            final int randomNumberTwo = rand.nextInt(max - min + 1) + min;
-            if (MAP[randomNumberTwo][randomNumberOne] == Tile.FLOOR) {
-                MAP[randomNumberTwo][randomNumberOne] = Tile.KEY;
-                counter++;
-            }
-        }
+        placeRandomly(Tile.KEY, myConfig.getKeys());
     }
 
     /**
      * Places an exit randomly on the dungeon floor.
-     * Two exits are placed.
+     * Two exits are placed by default.
      */
     private void placeExit() {
-        int exitCounter = 0;
-        while (exitCounter < 2) {
-            Random rand = new Random();
-            final int min = 1;
-            final int max = 48;
-            final int randomNumberOne = rand.nextInt(max - min + 1) + min;
-            final int randomNumberTwo = rand.nextInt(max - min + 1) + min;
-            if (MAP[randomNumberTwo][randomNumberOne] == Tile.FLOOR) {
-                MAP[randomNumberTwo][randomNumberOne] = Tile.EXIT;
-                exitCounter++;
-            }
-        }
+        placeRandomly(Tile.EXIT, myConfig.getExits());
     }
 
     /**
      * Places health potions randomly on the dungeon floor.
-     * Five health potions are placed.
+     * Five health potions are placed by default.
      */
     private void placeHealthPotions() {
-        int healthPotionCounter = 0;
-        while (healthPotionCounter < 5) {
-            Random rand = new Random();
-            final int min = 1;
-            final int max = 48;
-            final int randomNumberOne = rand.nextInt(max - min + 1) + min;
-            final int randomNumberTwo = rand.nextInt(max - min + 1) + min;
-            if (MAP[randomNumberTwo][randomNumberOne] == Tile.FLOOR) {
-                MAP[randomNumberTwo][randomNumberOne] = Tile.HEALTH_POTION;
-                healthPotionCounter++;
-            }
-        }
+        placeRandomly(Tile.HEALTH_POTION, myConfig.getHealthPotions());
     }
 
     /**
      * Places poison potions randomly on the dungeon floor.
-     * Three poison potions are placed.
+     * Three poison potions are placed by default.
      */
     private void placePoisonPotions() {
-        int poisonPotionCounter = 0;
-        while (poisonPotionCounter < 3) {
-            Random rand = new Random();
-            final int min = 1;
-            final int max = 48;
-            final int randomNumberOne = rand.nextInt(max - min + 1) + min;
-            final int randomNumberTwo = rand.nextInt(max - min + 1) + min;
-            if (MAP[randomNumberTwo][randomNumberOne] == Tile.FLOOR) {
-                MAP[randomNumberTwo][randomNumberOne] = Tile.POISON_POTION;
-                poisonPotionCounter++;
-            }
-        }
+        placeRandomly(Tile.POISON_POTION, myConfig.getPoisonPotions());
     }
     void cheatMapVis(final boolean theIsCheat){
-        for(int i = 0; i < myMapFOW.length; i++){
-            for(int j = 0; j < myMapFOW[i].length; j++){
-                myMapFOW[i][j] = theIsCheat;
-            }
+        myMapFOW.fill(theIsCheat);
+        if(myFieldOfView != null){
+            myFieldOfView.reset();
         }
+        getFogChanges().markAll();
+        myFogVersion++;
     }
+
+    /**
+     * Moves the hero's line of sight to a cell. Everything seen so far stays explored and the
+     * cells the hero can see from there, within theLOS and not hidden behind walls or closed
+     * doors, become the visible area. Only the cells in sight before and after the move are
+     * touched, and the cells that came into or left sight are added to the fog change set.
+     *
+     * @param theX The hero x coordinate.
+     * @param theY The hero y coordinate.
+     * @param theLOS How many cells the hero can see in each direction.
+     * @param theIsCheats true to leave the fog alone while the whole map is revealed, every
+     *                    cell is then reported as changed.
+     */
     void updateFOW(final int theX, final int theY, final int theLOS, final boolean theIsCheats){
         if(!theIsCheats){
-            final int sight = theLOS + 1;
-            for(int i = theX - sight; i <= theX + sight; i++){
-                for(int j = theY - sight; j <= theY + sight; j++){
-                    if(i == theX - sight || i == theX + sight || j == theY - sight || j == theY + sight){
-                        if(i >= 0 && i < MAP_SIZE && j >= 0 && j < MAP_SIZE){
-                            if(myMapFOW[i][j]){
-                                myMapFOW[i][j] = false;
-                                myMapExploredFOW[i][j] = true;
-                            }
-                        }
-                    }
-                    else{
-                        if(i >= 0 && i < MAP_SIZE && j >= 0 && j < MAP_SIZE){
-                            myMapFOW[i][j] = true;
-                        }
-                    }
-                }
+            if(myFieldOfView == null){
+                myFieldOfView = new FieldOfView(MAP);
             }
+            final FogChanges changes = getFogChanges();
+            if(myFieldOfView.update(theX, theY, theLOS, myMapFOW, myMapExploredFOW, changes)){
+                myFogVersion++;
+            }
+            //tiles next to the hero may have changed too, e.g. a picked up key or an opened door.
+            changes.addDirty(Math.max(0, theX - theLOS), Math.max(0, theY - theLOS),
+                    Math.min(myWidth - 1, theX + theLOS), Math.min(myHeight - 1, theY + theLOS));
+        }
+        else{
+            //the whole map is in sight, anything on it may have changed.
+            getFogChanges().markAll();
         }
     }
-    boolean[][] getMapFOW(){
+    FogMask getMapFOW(){
         return myMapFOW;
     }
-    boolean[][] getMapExploredFOW(){
+
+    @Override
+    public boolean isVisible(final int theX, final int theY) {
+        return myMapFOW.get(theX, theY);
+    }
+
+    @Override
+    public boolean isExplored(final int theX, final int theY) {
+        return myMapExploredFOW.get(theX, theY);
+    }
+
+    /**
+     * Visits the cells in sight. Normally that is the list kept by the line of sight, while
+     * the map is revealed or before the first update the visible mask is scanned instead.
+     *
+     * @param theVisitor Receives each visible cell.
+     */
+    @Override
+    public void forEachVisible(final CellVisitor theVisitor) {
+        if(myFieldOfView != null && myFieldOfView.isCurrent()){
+            myFieldOfView.forEachVisible(theVisitor);
+            return;
+        }
+        for(int cell = myMapFOW.nextSet(0); cell >= 0; cell = myMapFOW.nextSet(cell + 1)){
+            theVisitor.visit(cell % myWidth, cell / myWidth);
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return myFogVersion;
+    }
+
+    /**
+     * Gets the fog changes made since the view last cleared them.
+     *
+     * @return The pending fog changes.
+     */
+    public FogChanges getFogChanges() {
+        if (myFogChanges == null) {
+            myFogChanges = new FogChanges();
+        }
+        return myFogChanges;
+    }
+    FogMask getMapExploredFOW(){
         return myMapExploredFOW;
     }
+
+    /**
+     * Gets how much of the map the hero has seen.
+     *
+     * @return The explored share of all cells, from 0 to 100.
+     */
+    public int getExploredPercent() {
+        return (int) (100L * myMapExploredFOW.count() / ((long) myWidth * myHeight));
+    }
     /**
      * Places bombs randomly on the dungeon floor.
-     * Ten bombs are placed.
+     * Ten bombs are placed by default.
      */
     private void placeBombs() {
-        int bombCounter = 0;
-        while (bombCounter < 10) {
-            Random rand = new Random();
-            final int min = 1;
-            final int max = 48;
-            final int randomNumberOne = rand.nextInt(max - min + 1) + min;
-            final int randomNumberTwo = rand.nextInt(max - min + 1) + min;
-            if (MAP[randomNumberTwo][randomNumberOne] == Tile.FLOOR) {
-                MAP[randomNumberTwo][randomNumberOne] = Tile.BOMB;
-                bombCounter++;
-            }
-        }
+        placeRandomly(Tile.BOMB, myConfig.getBombs());
     }
 
     /**
      * Places pit traps randomly on the dungeon floor.
-     * Ten pit traps are placed.
+     * Ten pit traps are placed by default.
      */
     private void placePitTraps() {
-        int trapCounter = 0;
-        while (trapCounter < 10) {
-            Random rand = new Random();
-            final int min = 1;
-            final int max = 48;
-            final int randomNumberOne = rand.nextInt(max - min + 1) + min;
-            final int randomNumberTwo = rand.nextInt(max - min + 1) + min;
-            if (MAP[randomNumberTwo][randomNumberOne] == Tile.FLOOR) {
-                MAP[randomNumberTwo][randomNumberOne] = Tile.PIT_TRAP;
-                trapCounter++;
-            }
-        }
+        placeRandomly(Tile.PIT_TRAP, myConfig.getPitTraps());
     }
 
     /**
-     * Prints the dungeon map to the console.
+     * Prints the dungeon map to the console, with the top row of the map first.
      */
     public void printMap() {
         StringBuilder mapBuilder = new StringBuilder();
-        for (int i = 0; i < MAP_SIZE; i++) {
-            for (int j = 0; j < MAP_SIZE; j++) {
-                if (MAP[i][j] == Tile.WALL) {
-                    mapBuilder.append('#');
-                } else if (MAP[i][j] == Tile.FLOOR){
-                    mapBuilder.append('.');
-                } else if (MAP[i][j] == Tile.DOOR){
-                    mapBuilder.append('D');
-                } else if (MAP[i][j] == Tile.KEY){
-                    mapBuilder.append('K');
-                } else if (MAP[i][j] == Tile.EXIT){
-                    mapBuilder.append('E');
-                } else if (MAP[i][j] == Tile.OPEN_DOOR){
-                    mapBuilder.append('O');
-                } else if (MAP[i][i] == Tile.HEALTH_POTION){
-                    mapBuilder.append('H');
-                } else if (MAP[i][j] == Tile.POISON_POTION){
-                    mapBuilder.append('P');
-                } else if (MAP[i][i] == Tile.BOMB) {
-                    mapBuilder.append('B');
-                } else if (MAP[i][j] == Tile.PIT_TRAP) {
+        final Tile[] row = new Tile[myWidth];
+        for (int j = myHeight - 1; j >= 0; j--) {
+            MAP.getRow(j, 0, myWidth, row);
+            for (int i = 0; i < myWidth; i++) {
+                if (row[i] == Tile.PIT_TRAP) {
                     mapBuilder.append('T');
+                } else {
+                    mapBuilder.append(row[i].getSymbol());
                 }
                 mapBuilder.append(" ");
             }
@@ -402,48 +585,264 @@ public class Dungeon implements Serializable {
     }
 
     /**
-     * Gets the generated map of the dungeon.
+     * Gets the generated map of the dungeon, addressed by (x, y).
      *
-     * @return A 2D array representing the dungeon map.
+     * @return The tile grid representing the dungeon map.
      */
-    public Tile[][] getMap() {
+    public TileGrid getMap() {
         return MAP;
     }
 
+    /**
+     * Finds the room whose area covers a cell, walls included.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The room at (x, y), or null if the cell is part of the outer walls.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    public Room roomAt(final int theX, final int theY) {
+        final int id = getRoomId(theX, theY);
+        return id == NO_ROOM ? null : myRoomList.get(id);
+    }
+
+    /**
+     * Finds the id of the room whose area covers a cell, walls included.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The index of the room in {@link #getRooms()}, or NO_ROOM for the outer walls.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    public int getRoomId(final int theX, final int theY) {
+        if (!MAP.isInBounds(theX, theY)) {
+            throw new IndexOutOfBoundsException("Cell (" + theX + ", " + theY
+                    + ") is outside the " + myWidth + "x" + myHeight + " map.");
+        }
+        return myRoomIds[theY * myWidth + theX];
+    }
+
+    /**
+     * Gets the rooms of the dungeon. A room's index in this list is its room id.
+     *
+     * @return An unmodifiable view of the rooms.
+     */
+    public List<Room> getRooms() {
+        return Collections.unmodifiableList(myRoomList);
+    }
+
+    /**
+     * Gets which rooms are connected by a door, by room id.
+     *
+     * @return The room graph.
+     */
+    public RoomGraph getRoomGraph() {
+        return myRoomGraph;
+    }
+
+    /**
+     * Gets the configuration the dungeon was generated with.
+     *
+     * @return The dungeon configuration.
+     */
+    public DungeonConfig getConfig() {
+        return myConfig;
+    }
+
+    /**
+     * Gets the map width.
+     *
+     * @return The number of tiles along the x-axis.
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * Gets the map height.
+     *
+     * @return The number of tiles along the y-axis.
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * Gets the seed this dungeon was generated from.
+     *
+     * @return The generation seed.
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Gets the number of BSP trees the generation tried, including the accepted one.
+     *
+     * @return The number of generation attempts.
+     */
+    public int getGenerationAttempts() {
+        return myAttempts;
+    }
+
+    /**
+     * Gets the time spent on each generation attempt, in the order they ran.
+     *
+     * @return A copy of the per-attempt durations in nanoseconds.
+     */
+    public long[] getAttemptNanos() {
+        return Arrays.copyOf(myAttemptNanos, myAttempts);
+    }
+
     /**
      * Generates the dungeon layout, including rooms and doors.
-     * Regenerates the dungeon if the total number of rooms is less than 15.
-     */
-    private void generateDungeon() {
-        myRoomList.clear();
-        initializeRoot();
-        initializeMap();
-        splitMap(ROOT);
-        createRooms(ROOT);
-        createDoors();
-        createRoomAdjacency();
-        placeKeys();
-        placeExit();
-        placePoisonPotions();
-        placeHealthPotions();
-        placeBombs();
-        placePitTraps();
-        if (myTotalRooms < 15) {
-            myTotalRooms = 0;
-            generateDungeon();
-        } else {
-            //System.out.println("Dungeon Rooms " + myTotalRooms + ": ");
-            int i = 0;
-            for (Room room : myRoomList) {
-                //System.out.println();
-                //System.out.println(room);
-                //System.out.print("Adjacent Rooms");
-               // System.out.println(room.getAdjacentRooms());
-                i++;
+     * BSP trees with fewer leaves than the configured minimum room count are rejected right
+     * after the split, before any room, door or item work is done, and a new tree is tried
+     * until the retry budget runs out.
+     *
+     * @param theLastPhase The last phase run on the accepted tree.
+     * @throws IllegalStateException if no acceptable tree is found within the budget.
+     */
+    private void generateDungeon(final Phase theLastPhase) {
+        final int maxAttempts = myConfig.getMaxAttempts();
+        myAttemptNanos = new long[maxAttempts];
+        myAttempts = 0;
+        while (myAttempts < maxAttempts) {
+            final long start = System.nanoTime();
+            runPhase(Phase.SPLIT);
+            final boolean accepted = countLeaves(ROOT) >= myConfig.getMinRooms();
+            if (accepted) {
+                for (int i = Phase.ROOMS.ordinal(); i <= theLastPhase.ordinal(); i++) {
+                    runPhase(Phase.values()[i]);
+                }
             }
+            myAttemptNanos[myAttempts++] = System.nanoTime() - start;
+            if (accepted) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Could not generate a dungeon with at least "
+                + myConfig.getMinRooms() + " rooms in " + maxAttempts + " attempts.");
+    }
+
+    /**
+     * Runs one generation phase on the current state. Each phase expects the phases before it
+     * to have run, running them again in order regenerates the layout from that point on.
+     *
+     * @param thePhase The phase to run.
+     * @throws IllegalStateException if the placement phase finds too few free floor cells.
+     */
+    void runPhase(final Phase thePhase) {
+        switch (thePhase) {
+            case SPLIT:
+                initializeRoot();
+                splitMap(ROOT, myRandom, myConfig.getMinRoomSize());
+                break;
+            case ROOMS:
+                myRoomList.clear();
+                myDoorList.clear();
+                myTotalRooms = 0;
+                initializeMap();
+                createRooms(ROOT);
+                break;
+            case DOORS:
+                createDoors();
+                break;
+            case ADJACENCY:
+                createRoomAdjacency();
+                break;
+            case PLACEMENT:
+                myFreeCells = new FreeCellIndex(MAP);
+                checkItemsFit();
+                placeKeys();
+                placeExit();
+                placePoisonPotions();
+                placeHealthPotions();
+                placeBombs();
+                placePitTraps();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown generation phase " + thePhase);
+        }
+    }
+
+    /**
+     * Checks that the map has a free floor cell for every item the configuration asks for.
+     *
+     * @throws IllegalStateException if there are more items than floor cells.
+     */
+    private void checkItemsFit() {
+        final long items = (long) myConfig.getKeys() + myConfig.getExits()
+                + myConfig.getHealthPotions() + myConfig.getPoisonPotions()
+                + myConfig.getBombs() + myConfig.getPitTraps();
+        if (items > myFreeCells.size()) {
+            throw new IllegalStateException("The " + myWidth + "x" + myHeight + " map has "
+                    + myFreeCells.size() + " floor cells but " + items + " items must be placed.");
         }
+    }
+
+    /**
+     * Takes a random floor cell that nothing has been placed on, so the caller can place
+     * something there. The cell is not handed out again.
+     *
+     * @return The position of the cell.
+     * @throws IllegalStateException if no free floor cells are left.
+     */
+    public Position takeFreeCell() {
+        ensureFreeCells();
+        final int cell = myFreeCells.take(myRandom);
+        return new Position(myFreeCells.getX(cell), myFreeCells.getY(cell));
+    }
+
+    /**
+     * Takes a given cell if nothing has been placed on it, so random placements never hand
+     * it out.
+     *
+     * @param theX The x coordinate of the cell.
+     * @param theY The y coordinate of the cell.
+     * @return true if the cell was free.
+     */
+    public boolean takeFreeCell(final int theX, final int theY) {
+        ensureFreeCells();
+        return myFreeCells.remove(theX, theY);
+    }
+
+    /**
+     * Gets the number of floor cells nothing has been placed on.
+     *
+     * @return The number of free cells.
+     */
+    public int getFreeCellCount() {
+        ensureFreeCells();
+        return myFreeCells.size();
+    }
 
+    /**
+     * Rebuilds the transient state of a dungeon loaded from a save.
+     */
+    private void ensureFreeCells() {
+        if (myFreeCells == null) {
+            myFreeCells = new FreeCellIndex(MAP);
+        }
+        if (myRandom == null) {
+            myRandom = new FastRandom();
+        }
+    }
 
+    /**
+     * Counts the leaves of the BSP tree, which is the number of rooms it would produce.
+     *
+     * @param theNode The root of the tree to count.
+     * @return The number of leaf nodes.
+     */
+    private static int countLeaves(final Node theNode) {
+        if (theNode == null) {
+            return 0;
+        }
+        if (theNode.myLeftChild == null && theNode.myRightChild == null) {
+            return 1;
+        }
+        return countLeaves(theNode.myLeftChild) + countLeaves(theNode.myRightChild);
     }
 
     /**
@@ -514,14 +913,15 @@ public class Dungeon implements Serializable {
         /**
          * Checks if the node can be split.
          *
+         * @param theMinRoomSize The size at which nodes stop being split.
          * @return True if the node can be split, false otherwise.
          */
-        private boolean canSplit() {
+        private boolean canSplit(final int theMinRoomSize) {
             // ignore this red squiggly for readability purposes
             if (myLeftChild == null && myRightChild == null
-                    && (getWidth() >= MIN_ROOM_SIZE || getHeight() >= MIN_ROOM_SIZE)
+                    && (getWidth() >= theMinRoomSize || getHeight() >= theMinRoomSize)
                     && (getWidth() > 1 && getHeight() > 1)
-                    && getWidth() * getHeight() > MIN_ROOM_SIZE) {
+                    && getWidth() * getHeight() > theMinRoomSize) {
                 return true;
             }
             return false;
@@ -530,27 +930,35 @@ public class Dungeon implements Serializable {
         /**
          * Determines the split direction (horizontal or vertical) for the node.
          *
+         * @param theRandom The random source to draw from.
+         * @param theMinRoomSize The size at which nodes stop being split.
          * @return True if split horizontally, false otherwise.
          */
-        private boolean splitDirection() {
+        private boolean splitDirection(final RandomSource theRandom,
+                                       final int theMinRoomSize) {
             final boolean splitHorizontally;
-            if (myWidth >= MIN_ROOM_SIZE && myHeight >= MIN_ROOM_SIZE) {
-                splitHorizontally = new Random().nextBoolean();
+            if (myWidth >= theMinRoomSize && myHeight >= theMinRoomSize) {
+                splitHorizontally = theRandom.nextBoolean();
             } else {
-                splitHorizontally = myWidth < MIN_ROOM_SIZE;
+                splitHorizontally = myWidth < theMinRoomSize;
             }
             return splitHorizontally;
         }
 
         /**
-         * Splits the node horizontally.
+         * Splits the node horizontally. The split is an offset from the node's own y, so
+         * nodes far from the origin split as readily as nodes near it.
+         *
+         * @param theRandom The random source to draw from.
+         * @param theMinRoomSize The size at which nodes stop being split.
          */
-        private void splitHorizontally() {
-            final int split = new Random().nextInt(myHeight) + myY + 1;
-            if (myY + split + 1 < myY + myHeight
-                    && split - 1 > myY + 1
-                    && (myWidth * split > MIN_ROOM_SIZE)
-                    && (myWidth * (myHeight - split) > MIN_ROOM_SIZE)) {
+        private void splitHorizontally(final RandomSource theRandom,
+                                       final int theMinRoomSize) {
+            final int split = theRandom.nextInt(myHeight) + 1;
+            if (split + 1 < myHeight
+                    && split - 1 > 1
+                    && (myWidth * split > theMinRoomSize)
+                    && (myWidth * (myHeight - split) > theMinRoomSize)) {
                 myLeftChild = new Node(myX, myY, myWidth, split);
                 myRightChild = new Node(myX, myY + split,
                         myWidth, myHeight - split);
@@ -558,17 +966,22 @@ public class Dungeon implements Serializable {
         }
 
         /**
-         * Splits the node vertically.
+         * Splits the node vertically. The split is an offset from the node's own x, so
+         * nodes far from the origin split as readily as nodes near it.
+         *
+         * @param theRandom The random source to draw from.
+         * @param theMinRoomSize The size at which nodes stop being split.
          */
-        private void splitVertically() {
-            final int split = new Random().nextInt(myWidth) + myX + 1;
-            if (myX + split + 1 < myX + myWidth
-                    && myX + split - 1 > myX + 1
-                    && (myHeight * split > MIN_ROOM_SIZE)
-                    && (myHeight * (myWidth - split) > MIN_ROOM_SIZE)) {
+        private void splitVertically(final RandomSource theRandom,
+                                     final int theMinRoomSize) {
+            final int split = theRandom.nextInt(myWidth) + 1;
+            if (split + 1 < myWidth
+                    && split - 1 > 1
+                    && (myHeight * split > theMinRoomSize)
+                    && (myHeight * (myWidth - split) > theMinRoomSize)) {
                 myLeftChild = new Node(myX, myY, split, myHeight);
                 myRightChild = new Node(myX + split, myY,myWidth - split, myHeight);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,7 @@
 package model;
 
-import static com.dungeonadventure.game.DungeonAdventure.mySETTINGS;
-
 import java.io.Serializable;
-import java.util.Random;
 
-import com.badlogic.gdx.Gdx;
 import model.Position;
 import org.sqlite.SQLiteDataSource;
 
@@ -33,6 +29,11 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
      * This value is used to check success when comparing to success rate of character action.
      */
     static final int RANDOM_FROM_HUNDRED = 100;
+    /**
+     * Sink for the events of every character without its own, NONE until the game installs
+     * one so the model runs without libGDX.
+     */
+    private static volatile GameEvents myDefaultEvents = GameEvents.NONE;
     /**
      * String defines name that the character will have.
      */
@@ -77,6 +78,16 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
      * Type of death when player dies to trap.
      */
     private boolean myDiedToTrap;
+    /**
+     * Sink for this character's events, null to use the default sink. Not saved, sinks
+     * belong to the running game.
+     */
+    private transient GameEvents myEvents;
+    /**
+     * Random numbers of this character's rolls, null to use the calling thread's. Not saved,
+     * the session that plays the character hands it one.
+     */
+    private transient RandomSource myRandom;
     /**
      * Initializes values upon creation of new Dungeon Character.
      */
@@ -112,6 +123,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
          int currentY = myPosition.getMyY();
          if(currentY != Integer.MAX_VALUE){
              myPosition.setMyY(++currentY);
+             moved(myPosition.getMyX(), currentY - 1);
          }
     }
 
@@ -123,6 +135,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         int currentY = myPosition.getMyY();
         if(currentY != 0){
             myPosition.setMyY(--currentY);
+            moved(myPosition.getMyX(), currentY + 1);
         }
     }
 
@@ -134,6 +147,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         int currentX = myPosition.getMyX();
         if(currentX != 0){
             myPosition.setMyX(--currentX);
+            moved(currentX + 1, myPosition.getMyY());
         }
     }
 
@@ -145,16 +159,82 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
          int currentX = myPosition.getMyX();
          if(currentX != Integer.MAX_VALUE){
              myPosition.setMyX(++currentX);
+             moved(currentX - 1, myPosition.getMyY());
          }
     }
 
+    /**
+     * Called after every step with the cell the character stepped off, so subclasses can
+     * keep anything tracking their position up to date.
+     * @param theFromX x coordinate before the step.
+     * @param theFromY y coordinate before the step.
+     */
+    void moved(final int theFromX, final int theFromY){
+    }
+
+    /**
+     * Sets the sink that receives the events of every character without its own sink.
+     * @param theEvents the sink, GameEvents.NONE to ignore events.
+     * @throws IllegalArgumentException if theEvents is null.
+     */
+    public static void setDefaultEvents(final GameEvents theEvents){
+        if(theEvents == null){
+            throw new IllegalArgumentException("Default event sink can't be null, use GameEvents.NONE.");
+        }
+        myDefaultEvents = theEvents;
+    }
+
+    /**
+     * Gives this character its own event sink, e.g. GameEvents.NONE for characters fought
+     * in a simulation that must not play sounds.
+     * @param theEvents the sink, or null to go back to the default sink.
+     */
+    public void setEvents(final GameEvents theEvents){
+        myEvents = theEvents;
+    }
+
+    /**
+     * Gives this character its own random numbers, so a session started from a seed rolls
+     * the same hits, heals and dodges every time it is played.
+     * @param theRandom the random numbers, or null to use the calling thread's.
+     */
+    void setRandom(final RandomSource theRandom){
+        myRandom = theRandom;
+    }
+
+    /**
+     * Returns the random numbers this character's rolls come from.
+     * @return its own random numbers, or the calling thread's if it has none.
+     */
+    RandomSource getRandom(){
+        return myRandom != null ? myRandom : RandomSource.THREAD;
+    }
+
+    /**
+     * Sets the current health without raising any event, for a character read back from
+     * storage.
+     * @param theHealth the stored health, 0 or less marks the character dead.
+     */
+    void restoreHealth(final int theHealth){
+        myCurrentHealth = Math.max(0, Math.min(theHealth, myMaxHealth));
+        myIsDead = myCurrentHealth == 0;
+    }
+
+    /**
+     * Returns the sink this character's events go to.
+     * @return its own sink, or the default sink if it has none.
+     */
+    GameEvents getEvents(){
+        return myEvents != null ? myEvents : myDefaultEvents;
+    }
+
     /**
      * Takes damage from trap and applies it to character.
      * @return string message
      */
     public String harmFromTrap(final Tile theTile){
         String result;
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         if(rand.nextBoolean()){
             result = "[" + getMyName() + "] stepped on a trap <" + theTile.toString() + "> but avoided damage";
         }
@@ -162,7 +242,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
             final int theDamage = rand.nextInt(TRAP_MIN_DAMAGE, TRAP_MAX_DAMAGE+1);
             final int healthBeforeTrap = myCurrentHealth;
             myCurrentHealth -= theDamage;
-            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Hit.ogg")));
+            getEvents().onHit(this, theDamage);
             checkIsDead();
             result = "[" + getMyName() + "] stepped on a trap <" + theTile.toString() + "> and received " + theDamage + " damage " +
                 " <" + healthBeforeTrap + " -> " + myCurrentHealth + "> HP:" + myCurrentHealth
@@ -188,7 +268,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         }
         String result;
         myCurrentHealth -= theIncomingDamage;
-        mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Hit.ogg")));
+        getEvents().onHit(this, theIncomingDamage);
         checkIsDead();
         if(getIsDead()){
             result = "HP: " + myCurrentHealth + "/" + myMaxHealth + " " + myName + " suffered "
@@ -254,7 +334,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         StringBuilder builder = new StringBuilder();
         int damage = 0;
         if(attackSuccessCheck()){
-            final Random rand = new Random();
+            final RandomSource rand = getRandom();
             damage = rand.nextInt(theMinDamage, theMaxDamage+1);
             builder.append("[").append(getMyName()).append("] throws <Bomb>. It exploded for ")
                 .append(damage).append(" damage. -> ").append(
@@ -262,7 +342,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         }
         else{
             builder.append("[").append(getMyName()).append("] throws <Bomb> but misses.");
-            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Miss.ogg")));
+            getEvents().onMiss(this);
         }
         return builder.toString();
     }
@@ -273,7 +353,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         if(myCurrentHealth <= 0){
             myCurrentHealth = 0;
             myIsDead = true;
-            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Fall.ogg")));
+            getEvents().onDeath(this);
         }
     }
 
@@ -289,7 +369,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         }
         int damage = 0;
         if(attackSuccessCheck()){
-            final Random rand = new Random();
+            final RandomSource rand = getRandom();
             damage = rand.nextInt(myMinDamage, myMaxDamage+1);
             actionDescBuild.append("[").append(getMyName()).append("] attacked for ")
                 .append(damage).append(" damage. -> ").append(
@@ -297,7 +377,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
         }
         else{
             actionDescBuild.append("[").append(getMyName()).append("] had missed.");
-            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Miss.ogg")));
+            getEvents().onMiss(this);
         }
         return actionDescBuild.toString();
     }
@@ -307,7 +387,7 @@ abstract public class DungeonCharacter implements CharacterActions, Serializable
      * @return boolean whether attack succeeded based on character hit chance.
      */
     private boolean attackSuccessCheck(){
-        final Random rand = new Random();
+        final RandomSource rand = getRandom();
         return (rand.nextInt(RANDOM_FROM_HUNDRED+1) <= myHitChance);
     }
 
@@ -0,0 +1,300 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Immutable set of parameters that control the size and contents of a generated dungeon.
+ * The defaults describe the original 50x50 dungeon. Counts for potions, bombs, traps and
+ * enemies scale with the map area when only the dimensions are given.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class DungeonConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Default map width and height.
+     */
+    private static final int DEFAULT_SIZE = 50;
+    /**
+     * Map area the default item and enemy counts were tuned for.
+     */
+    private static final long DEFAULT_AREA = (long) DEFAULT_SIZE * DEFAULT_SIZE;
+    /**
+     * Default size at which BSP nodes stop being split.
+     */
+    private static final int DEFAULT_MIN_ROOM_SIZE = 10;
+    /**
+     * Default fewest rooms an accepted layout may have.
+     */
+    private static final int DEFAULT_MIN_ROOMS = 15;
+    /**
+     * Keys needed to unlock the exit.
+     */
+    private static final int DEFAULT_KEYS = 4;
+    private static final int DEFAULT_EXITS = 2;
+    private static final int DEFAULT_HEALTH_POTIONS = 5;
+    private static final int DEFAULT_POISON_POTIONS = 3;
+    private static final int DEFAULT_BOMBS = 10;
+    private static final int DEFAULT_PIT_TRAPS = 10;
+    private static final int DEFAULT_ENEMIES = 20;
+    /**
+     * Smallest width or height a map can have and still fit a room inside its outer walls.
+     */
+    private static final int MIN_MAP_SIZE = 4;
+    /**
+     * Largest width or height a map can have.
+     */
+    public static final int MAX_MAP_SIZE = 4096;
+    /**
+     * The configuration of the original 50x50 dungeon.
+     */
+    public static final DungeonConfig DEFAULT = new DungeonConfig(DEFAULT_SIZE, DEFAULT_SIZE);
+
+    private final int myWidth;
+    private final int myHeight;
+    private final int myMinRoomSize;
+    private final int myMinRooms;
+    private final int myKeys;
+    private final int myExits;
+    private final int myHealthPotions;
+    private final int myPoisonPotions;
+    private final int myBombs;
+    private final int myPitTraps;
+    private final int myEnemies;
+    private final int myMaxAttempts;
+
+    /**
+     * Creates a configuration for a map of the given size. Potions, bombs, traps and enemies
+     * scale with the map area relative to the default 50x50 map.
+     *
+     * @param theWidth The map width in tiles, along the x-axis.
+     * @param theHeight The map height in tiles, along the y-axis.
+     */
+    public DungeonConfig(final int theWidth, final int theHeight) {
+        this(theWidth, theHeight, DEFAULT_MIN_ROOM_SIZE,
+                scaleMinRooms(theWidth, theHeight), DEFAULT_KEYS, DEFAULT_EXITS,
+                scale(DEFAULT_HEALTH_POTIONS, theWidth, theHeight),
+                scale(DEFAULT_POISON_POTIONS, theWidth, theHeight),
+                scale(DEFAULT_BOMBS, theWidth, theHeight),
+                scale(DEFAULT_PIT_TRAPS, theWidth, theHeight),
+                scale(DEFAULT_ENEMIES, theWidth, theHeight),
+                Dungeon.DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Creates a fully specified configuration.
+     *
+     * @param theWidth The map width in tiles, along the x-axis.
+     * @param theHeight The map height in tiles, along the y-axis.
+     * @param theMinRoomSize The size at which BSP nodes stop being split.
+     * @param theMinRooms The fewest rooms an accepted layout may have.
+     * @param theKeys The number of keys placed.
+     * @param theExits The number of exits placed.
+     * @param theHealthPotions The number of health potions placed.
+     * @param thePoisonPotions The number of poison potions placed.
+     * @param theBombs The number of bombs placed.
+     * @param thePitTraps The number of pit traps placed.
+     * @param theEnemies The number of enemies placed by the game master.
+     * @param theMaxAttempts The number of BSP trees generation may try.
+     * @throws IllegalArgumentException if a dimension is out of range or a count is negative.
+     */
+    public DungeonConfig(final int theWidth, final int theHeight, final int theMinRoomSize,
+                         final int theMinRooms, final int theKeys, final int theExits,
+                         final int theHealthPotions, final int thePoisonPotions,
+                         final int theBombs, final int thePitTraps, final int theEnemies,
+                         final int theMaxAttempts) {
+        init(theWidth, theHeight, theMinRoomSize, theMinRooms, theMaxAttempts);
+        if (theKeys < 0 || theExits < 0 || theHealthPotions < 0 || thePoisonPotions < 0
+                || theBombs < 0 || thePitTraps < 0 || theEnemies < 0) {
+            throw new IllegalArgumentException("Item and enemy counts can't be negative.");
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myMinRoomSize = theMinRoomSize;
+        myMinRooms = theMinRooms;
+        myKeys = theKeys;
+        myExits = theExits;
+        myHealthPotions = theHealthPotions;
+        myPoisonPotions = thePoisonPotions;
+        myBombs = theBombs;
+        myPitTraps = thePitTraps;
+        myEnemies = theEnemies;
+        myMaxAttempts = theMaxAttempts;
+    }
+
+    /**
+     * Checks the layout parameters for correctness.
+     */
+    private static void init(final int theWidth, final int theHeight, final int theMinRoomSize,
+                             final int theMinRooms, final int theMaxAttempts) {
+        if (theWidth < MIN_MAP_SIZE || theHeight < MIN_MAP_SIZE
+                || theWidth > MAX_MAP_SIZE || theHeight > MAX_MAP_SIZE) {
+            throw new IllegalArgumentException("Map dimensions must be between " + MIN_MAP_SIZE
+                    + " and " + MAX_MAP_SIZE + ", got " + theWidth + "x" + theHeight);
+        }
+        if (theMinRoomSize <= 0 || theMinRooms <= 0 || theMaxAttempts <= 0) {
+            throw new IllegalArgumentException("Room size, room count and attempts must be positive.");
+        }
+    }
+
+    /**
+     * Reads a configuration from system properties so map size can be changed without
+     * changing code, e.g. -Ddungeon.width=1024 -Ddungeon.height=1024.
+     * Unset properties fall back to the values scaled from the given dimensions.
+     *
+     * @return The configuration described by the system properties.
+     */
+    public static DungeonConfig fromSystemProperties() {
+        final int width = Integer.getInteger("dungeon.width", DEFAULT_SIZE);
+        final int height = Integer.getInteger("dungeon.height", DEFAULT_SIZE);
+        final DungeonConfig base = new DungeonConfig(width, height);
+        return new DungeonConfig(width, height,
+                Integer.getInteger("dungeon.minRoomSize", base.myMinRoomSize),
+                Integer.getInteger("dungeon.minRooms", base.myMinRooms),
+                Integer.getInteger("dungeon.keys", base.myKeys),
+                Integer.getInteger("dungeon.exits", base.myExits),
+                Integer.getInteger("dungeon.healthPotions", base.myHealthPotions),
+                Integer.getInteger("dungeon.poisonPotions", base.myPoisonPotions),
+                Integer.getInteger("dungeon.bombs", base.myBombs),
+                Integer.getInteger("dungeon.pitTraps", base.myPitTraps),
+                Integer.getInteger("dungeon.enemies", base.myEnemies),
+                Integer.getInteger("dungeon.maxAttempts", base.myMaxAttempts));
+    }
+
+    /**
+     * Scales a default count by the map area, never going below one.
+     */
+    private static int scale(final int theDefault, final int theWidth, final int theHeight) {
+        return (int) Math.max(1, theDefault * ((long) theWidth * theHeight) / DEFAULT_AREA);
+    }
+
+    /**
+     * Smaller maps can't hold as many rooms as the default one, so the minimum shrinks with
+     * the area, but it never grows above the default.
+     */
+    private static int scaleMinRooms(final int theWidth, final int theHeight) {
+        return Math.min(DEFAULT_MIN_ROOMS, scale(DEFAULT_MIN_ROOMS, theWidth, theHeight));
+    }
+
+    /**
+     * Gets the map width.
+     *
+     * @return The number of tiles along the x-axis.
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * Gets the map height.
+     *
+     * @return The number of tiles along the y-axis.
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * Gets the size at which BSP nodes stop being split.
+     *
+     * @return The smallest node size in tiles that is still split.
+     */
+    public int getMinRoomSize() {
+        return myMinRoomSize;
+    }
+
+    /**
+     * Gets the fewest rooms an accepted layout may have.
+     *
+     * @return The minimum number of rooms.
+     */
+    public int getMinRooms() {
+        return myMinRooms;
+    }
+
+    /**
+     * Gets the number of keys placed.
+     *
+     * @return The key count.
+     */
+    public int getKeys() {
+        return myKeys;
+    }
+
+    /**
+     * Gets the number of exits placed.
+     *
+     * @return The exit count.
+     */
+    public int getExits() {
+        return myExits;
+    }
+
+    /**
+     * Gets the number of health potions placed.
+     *
+     * @return The health potion count.
+     */
+    public int getHealthPotions() {
+        return myHealthPotions;
+    }
+
+    /**
+     * Gets the number of poison potions placed.
+     *
+     * @return The poison potion count.
+     */
+    public int getPoisonPotions() {
+        return myPoisonPotions;
+    }
+
+    /**
+     * Gets the number of bombs placed.
+     *
+     * @return The bomb count.
+     */
+    public int getBombs() {
+        return myBombs;
+    }
+
+    /**
+     * Gets the number of pit traps placed.
+     *
+     * @return The pit trap count.
+     */
+    public int getPitTraps() {
+        return myPitTraps;
+    }
+
+    /**
+     * Gets the number of enemies the game master places.
+     *
+     * @return The enemy count.
+     */
+    public int getEnemies() {
+        return myEnemies;
+    }
+
+    /**
+     * Gets how many BSP trees generation may try before giving up.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return myMaxAttempts;
+    }
+
+    /**
+     * Returns a string representation of this configuration.
+     *
+     * @return The dimensions and counts as a string.
+     */
+    @Override
+    public String toString() {
+        return myWidth + "x" + myHeight + " minRoomSize=" + myMinRoomSize
+                + " minRooms=" + myMinRooms + " keys=" + myKeys + " exits=" + myExits
+                + " healthPotions=" + myHealthPotions + " poisonPotions=" + myPoisonPotions
+                + " bombs=" + myBombs + " pitTraps=" + myPitTraps + " enemies=" + myEnemies;
+    }
+}
@@ -0,0 +1,271 @@
+package model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The floors of a multi-floor run, linked by stairs. A floor is only generated the first
+ * time the hero reaches it. The most recently visited floors are kept in memory, older ones
+ * are written to disk and read back when the hero returns, so a deep run holds a fixed
+ * number of floors however many it has visited.
+ * Every floor but the deepest has stairs down where the dungeon would have put its exits,
+ * and every floor but the top one has stairs up on a free floor cell.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class DungeonFloors {
+    /**
+     * Default number of floors kept in memory, the current floor and the one above it.
+     */
+    public static final int DEFAULT_CACHED_FLOORS = 2;
+
+    /**
+     * Hands out the populated dungeon for each newly visited floor.
+     */
+    private final Supplier<DungeonPool.Ready> myDungeons;
+    private final int myFloorCount;
+    private final int myCachedFloors;
+    private final FloorStore myStore;
+    /**
+     * Floors in memory keyed by depth, least recently visited first.
+     */
+    private final LinkedHashMap<Integer, Floor> myCache;
+    /**
+     * Number of floors generated so far, floors deeper than this have never been visited.
+     */
+    private int myGenerated;
+    private Floor myCurrent;
+
+    /**
+     * Creates a run and generates its top floor.
+     *
+     * @param theDungeons Hands out a populated dungeon for each new floor, usually by
+     *                    taking it from a DungeonPool.
+     * @param theFloorCount The number of floors, the deepest holds the exits.
+     * @param theCachedFloors How many floors are kept in memory.
+     * @param theDirectory The directory floors dropped from memory are written to.
+     * @throws IllegalArgumentException if the dungeon source or directory is null, there are
+     *                                  no floors or fewer than one cached floor.
+     */
+    public DungeonFloors(final Supplier<DungeonPool.Ready> theDungeons, final int theFloorCount,
+                         final int theCachedFloors, final File theDirectory) {
+        if (theDungeons == null || theDirectory == null) {
+            throw new IllegalArgumentException("Dungeon source and directory can't be null.");
+        }
+        if (theFloorCount <= 0 || theCachedFloors <= 0) {
+            throw new IllegalArgumentException("Floor count and cached floor count must be positive.");
+        }
+        myDungeons = theDungeons;
+        myFloorCount = theFloorCount;
+        myCachedFloors = theCachedFloors;
+        myStore = new FloorStore(theDirectory);
+        myStore.clear();
+        myCache = new LinkedHashMap<>(16, 0.75f, true);
+        myCurrent = floor(0);
+    }
+
+    /**
+     * Creates a run from floors taken by getFloors, the hero on one of them. Floors deeper
+     * than the given ones are generated when first visited.
+     *
+     * @param theDungeons Hands out a populated dungeon for each new floor.
+     * @param theFloorCount The number of floors, the deepest holds the exits.
+     * @param theCachedFloors How many floors are kept in memory.
+     * @param theDirectory The directory floors dropped from memory are written to.
+     * @param theFloors The floors generated so far, in order of depth.
+     * @param theDepth The depth of the floor the hero is on.
+     * @throws IllegalArgumentException if an argument is null, a count is not positive,
+     *                                  there are no floors or the depth isn't one of them.
+     */
+    DungeonFloors(final Supplier<DungeonPool.Ready> theDungeons, final int theFloorCount,
+                  final int theCachedFloors, final File theDirectory, final List<Floor> theFloors,
+                  final int theDepth) {
+        if (theDungeons == null || theDirectory == null || theFloors == null) {
+            throw new IllegalArgumentException("Dungeon source, directory and floors can't be null.");
+        }
+        if (theFloorCount <= 0 || theCachedFloors <= 0) {
+            throw new IllegalArgumentException("Floor count and cached floor count must be positive.");
+        }
+        if (theDepth < 0 || theDepth >= theFloors.size() || theFloors.size() > theFloorCount) {
+            throw new IllegalArgumentException("Depth " + theDepth + " is not one of the "
+                    + theFloors.size() + " floors.");
+        }
+        myDungeons = theDungeons;
+        myFloorCount = theFloorCount;
+        myCachedFloors = theCachedFloors;
+        myStore = new FloorStore(theDirectory);
+        myStore.clear();
+        myCache = new LinkedHashMap<>(16, 0.75f, true);
+        for (final Floor floor : theFloors) {
+            if (floor.getDepth() != theDepth) {
+                myStore.write(floor);
+            }
+        }
+        myGenerated = theFloors.size();
+        myCurrent = theFloors.get(theDepth);
+        myCache.put(theDepth, myCurrent);
+    }
+
+    /**
+     * Gets the floor the hero is on.
+     *
+     * @return The current floor.
+     */
+    public Floor getCurrent() {
+        return myCurrent;
+    }
+
+    /**
+     * Gets the depth of the floor the hero is on.
+     *
+     * @return The current depth, 0 for the top floor.
+     */
+    public int getDepth() {
+        return myCurrent.getDepth();
+    }
+
+    /**
+     * Gets the number of floors of the run, including those not generated yet.
+     *
+     * @return The floor count, the deepest floor is one less.
+     */
+    public int getFloorCount() {
+        return myFloorCount;
+    }
+
+    /**
+     * Gets the number of floors held in memory.
+     *
+     * @return The number of cached floors.
+     */
+    public int getCachedFloorCount() {
+        return myCache.size();
+    }
+
+    /**
+     * Takes the stairs down from the current floor, generating the floor below on the first
+     * visit.
+     *
+     * @param theX The x coordinate of the stairs taken.
+     * @param theY The y coordinate of the stairs taken.
+     * @return The floor below.
+     * @throws IllegalStateException if the hero is on the deepest floor.
+     */
+    public Floor descend(final int theX, final int theY) {
+        if (myCurrent.getDepth() + 1 >= myFloorCount) {
+            throw new IllegalStateException("There is no floor below floor " + myCurrent.getDepth());
+        }
+        myCurrent.setDown(theX, theY);
+        myCurrent = floor(myCurrent.getDepth() + 1);
+        return myCurrent;
+    }
+
+    /**
+     * Takes the stairs up from the current floor.
+     *
+     * @return The floor above.
+     * @throws IllegalStateException if the hero is on the top floor.
+     */
+    public Floor ascend() {
+        if (myCurrent.getDepth() == 0) {
+            throw new IllegalStateException("There is no floor above the top floor.");
+        }
+        myCurrent = floor(myCurrent.getDepth() - 1);
+        return myCurrent;
+    }
+
+    /**
+     * Gets every floor generated so far, the ones on disk read back. Floors in memory are
+     * returned as they are, so the current floor is the one being played.
+     *
+     * @return The floors in order of depth.
+     */
+    List<Floor> getFloors() {
+        final ArrayList<Floor> floors = new ArrayList<>(myGenerated);
+        for (int depth = 0; depth < myGenerated; depth++) {
+            //a get would reorder the cache, containsKey leaves it as it is.
+            floors.add(myCache.containsKey(depth) ? peek(depth) : myStore.read(depth));
+        }
+        return floors;
+    }
+
+    /**
+     * Drops every floor and deletes the floors stored on disk, along with their directory
+     * once it is empty. The run can't be used after.
+     */
+    public void close() {
+        myCache.clear();
+        myStore.delete();
+    }
+
+    /**
+     * Finds a floor in memory, on disk or generates it, and makes it the most recently used.
+     */
+    private Floor floor(final int theDepth) {
+        Floor floor = myCache.get(theDepth);
+        if (floor == null) {
+            floor = theDepth < myGenerated ? myStore.read(theDepth) : generate(theDepth);
+            myCache.put(theDepth, floor);
+            evict();
+        }
+        return floor;
+    }
+
+    /**
+     * Finds a floor in memory without making it the most recently used.
+     */
+    private Floor peek(final int theDepth) {
+        for (final Map.Entry<Integer, Floor> entry : myCache.entrySet()) {
+            if (entry.getKey() == theDepth) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the least recently used floors to disk until the cache is small enough.
+     */
+    private void evict() {
+        final Iterator<Map.Entry<Integer, Floor>> floors = myCache.entrySet().iterator();
+        while (myCache.size() > myCachedFloors) {
+            final Floor oldest = floors.next().getValue();
+            myStore.write(oldest);
+            floors.remove();
+        }
+    }
+
+    /**
+     * Generates a floor from the next dungeon and places its stairs.
+     */
+    private Floor generate(final int theDepth) {
+        final DungeonPool.Ready ready = myDungeons.get();
+        final Dungeon dungeon = ready.getDungeon();
+        final TileGrid map = dungeon.getMap();
+        if (theDepth + 1 < myFloorCount) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                for (int x = 0; x < map.getWidth(); x++) {
+                    if (map.get(x, y) == Tile.EXIT) {
+                        map.set(x, y, Tile.STAIRS_DOWN);
+                    }
+                }
+            }
+        }
+        int upX = Floor.NONE;
+        int upY = Floor.NONE;
+        if (theDepth > 0) {
+            final Position up = dungeon.takeFreeCell();
+            upX = up.getMyX();
+            upY = up.getMyY();
+            map.set(upX, upY, Tile.STAIRS_UP);
+        }
+        myGenerated = theDepth + 1;
+        return new Floor(theDepth, dungeon, new ArrayList<>(ready.getEnemies()), upX, upY);
+    }
+}
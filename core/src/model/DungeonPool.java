@@ -0,0 +1,247 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps fully generated and populated dungeons ready on background worker threads, so a new
+ * game or restart only has to take the next one instead of generating the map and loading
+ * enemies from the database on the render thread.
+ * Dungeons are handed out in the order their generation was started. Taking one starts the
+ * generation of its replacement. The n-th dungeon's layout and enemy types come from the
+ * pool's seed and n alone, so two pools with the same seed hand out the same dungeons
+ * whatever the number of workers.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class DungeonPool {
+    /**
+     * Default number of dungeons kept generated or generating.
+     */
+    public static final int DEFAULT_READY = 2;
+    /**
+     * Numbers worker threads so they are easy to find in a thread dump.
+     */
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    /**
+     * Step between the seeds of consecutive dungeons, the increment SplittableRandom uses.
+     */
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final DungeonConfig myConfig;
+    private final ExecutorService myWorkers;
+    /**
+     * Dungeons that are ready or being generated, oldest first.
+     */
+    private final Queue<Future<Ready>> myReady;
+    private final long mySeed;
+    /**
+     * Number of dungeons whose generation was started, the index of the next one.
+     */
+    private long mySubmitted;
+
+    /**
+     * A generated dungeon together with the enemies placed in it.
+     */
+    public static final class Ready {
+        private final Dungeon myDungeon;
+        private final ArrayList<Enemy> myEnemies;
+
+        private Ready(final Dungeon theDungeon, final ArrayList<Enemy> theEnemies) {
+            myDungeon = theDungeon;
+            myEnemies = theEnemies;
+        }
+
+        public Dungeon getDungeon() {
+            return myDungeon;
+        }
+
+        public ArrayList<Enemy> getEnemies() {
+            return myEnemies;
+        }
+    }
+
+    /**
+     * Starts a pool that keeps the default number of dungeons ready, using up to one worker
+     * per spare core.
+     *
+     * @param theConfig The configuration every dungeon is generated with.
+     */
+    public DungeonPool(final DungeonConfig theConfig) {
+        this(theConfig, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Starts a pool that keeps the default number of dungeons ready, using up to one worker
+     * per spare core, and hands out the dungeons of a seed.
+     *
+     * @param theConfig The configuration every dungeon is generated with.
+     * @param theSeed The seed every dungeon seed is derived from.
+     */
+    public DungeonPool(final DungeonConfig theConfig, final long theSeed) {
+        this(theConfig, theSeed, 0);
+    }
+
+    /**
+     * Starts a pool like DungeonPool(DungeonConfig, long) that skips the dungeons a previous
+     * pool with the same seed already handed out.
+     *
+     * @param theConfig The configuration every dungeon is generated with.
+     * @param theSeed The seed every dungeon seed is derived from.
+     * @param theTaken The number of dungeons already taken, the index of the first one.
+     */
+    DungeonPool(final DungeonConfig theConfig, final long theSeed, final long theTaken) {
+        this(theConfig, DEFAULT_READY,
+                Math.max(1, Math.min(DEFAULT_READY, Runtime.getRuntime().availableProcessors() - 1)),
+                theSeed, theTaken);
+    }
+
+    /**
+     * Starts a pool and immediately begins generating dungeons.
+     *
+     * @param theConfig The configuration every dungeon is generated with.
+     * @param theReadyCount How many dungeons to keep generated or generating.
+     * @param theThreads How many worker threads generate dungeons.
+     * @throws IllegalArgumentException if the configuration is null or a count is not positive.
+     */
+    public DungeonPool(final DungeonConfig theConfig, final int theReadyCount, final int theThreads) {
+        this(theConfig, theReadyCount, theThreads, new SplittableRandom().nextLong(), 0);
+    }
+
+    /**
+     * Starts a pool that hands out the dungeons of a seed, skipping the first ones.
+     *
+     * @param theConfig The configuration every dungeon is generated with.
+     * @param theReadyCount How many dungeons to keep generated or generating.
+     * @param theThreads How many worker threads generate dungeons.
+     * @param theSeed The seed every dungeon seed is derived from.
+     * @param theTaken The number of dungeons already taken, the index of the first one.
+     * @throws IllegalArgumentException if the configuration is null, a count is not positive
+     *                                  or theTaken is negative.
+     */
+    DungeonPool(final DungeonConfig theConfig, final int theReadyCount, final int theThreads,
+                final long theSeed, final long theTaken) {
+        if (theConfig == null) {
+            throw new IllegalArgumentException("Dungeon configuration can't be null.");
+        }
+        if (theReadyCount <= 0 || theThreads <= 0) {
+            throw new IllegalArgumentException("Ready count and thread count must be positive.");
+        }
+        if (theTaken < 0) {
+            throw new IllegalArgumentException("Taken dungeon count can't be negative, got " + theTaken);
+        }
+        myConfig = theConfig;
+        mySeed = theSeed;
+        mySubmitted = theTaken;
+        myWorkers = Executors.newFixedThreadPool(theThreads, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable theTask) {
+                final Thread thread = new Thread(theTask,
+                        "dungeon-generator-" + THREAD_COUNT.incrementAndGet());
+                //workers must never keep the game running after the window closes.
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+        myReady = new ArrayDeque<>();
+        for (int i = 0; i < theReadyCount; i++) {
+            submit();
+        }
+    }
+
+    /**
+     * Gets the configuration dungeons are generated with.
+     *
+     * @return The dungeon configuration.
+     */
+    public DungeonConfig getConfig() {
+        return myConfig;
+    }
+
+    /**
+     * Gets the seed every dungeon seed is derived from.
+     *
+     * @return The pool's seed.
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Gets the number of dungeons taken from this pool and the ones it continues.
+     *
+     * @return The index of the next dungeon handed out.
+     */
+    synchronized long getTaken() {
+        return mySubmitted - myReady.size();
+    }
+
+    /**
+     * Takes the oldest dungeon and starts generating its replacement. Only waits if that
+     * dungeon is still being generated, and waits without holding the pool's lock, so other
+     * sessions sharing the pool take their dungeons meanwhile.
+     *
+     * @return A generated dungeon and its enemies.
+     * @throws IllegalStateException if the pool was shut down or generation failed.
+     */
+    public Ready take() {
+        final Future<Ready> next;
+        synchronized (this) {
+            if (myWorkers.isShutdown()) {
+                throw new IllegalStateException("Dungeon pool was shut down.");
+            }
+            next = myReady.remove();
+            submit();
+        }
+        try {
+            return next.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a dungeon.", e);
+        } catch (final CancellationException e) {
+            throw new IllegalStateException("Dungeon pool was shut down.", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Dungeon generation failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the workers and drops every dungeon not taken yet.
+     */
+    public synchronized void shutdown() {
+        for (final Future<Ready> ready : myReady) {
+            ready.cancel(true);
+        }
+        myReady.clear();
+        //a dungeon taken but still queued would never run, cancel it so its taker stops waiting.
+        for (final Runnable queued : myWorkers.shutdownNow()) {
+            if (queued instanceof Future) {
+                ((Future<?>) queued).cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Starts generating one dungeon in the background.
+     */
+    private void submit() {
+        final long seed = new SplittableRandom(mySeed + mySubmitted++ * SEED_STEP).nextLong();
+        //must not call into GameMaster, the first pool is created while GameMaster is still
+        //being initialized and a worker touching it would wait on that forever.
+        myReady.add(myWorkers.submit(() -> {
+            final Dungeon dungeon = new Dungeon(myConfig, seed);
+            return new Ready(dungeon, EntityLoader.populate(dungeon, new SeededRandom(seed)));
+        }));
+    }
+}
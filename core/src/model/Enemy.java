@@ -1,7 +1,6 @@
 package model;
 
 import java.io.Serializable;
-import java.util.Random;
 
 /**
  * Class that defines Enemy type of character that is different in its ability to be
@@ -34,6 +33,15 @@ public class Enemy extends DungeonCharacter implements Healable, Serializable {
      * Int max value to heal this character in combat
      */
     private final int myMaxHeal;
+    /**
+     * Occupancy index this enemy is in, null if none. Not saved, indexes are rebuilt from
+     * the enemy list after loading.
+     */
+    private transient OccupancyIndex myOccupancy;
+    /**
+     * Id of this enemy in myOccupancy.
+     */
+    private transient int myOccupancyId;
 
     /**
      * Enemy constructor instantiates heal chance
@@ -93,6 +101,18 @@ public class Enemy extends DungeonCharacter implements Healable, Serializable {
         }
         return type;
     }
+    /**
+     * Creates a new enemy with this enemy's type and stats at full health, so many enemies
+     * of a type are made from one read of its stats.
+     * @param theName string name of the new enemy
+     * @param theX int x position of the new enemy
+     * @param theY int y position of the new enemy
+     * @return the new enemy.
+     */
+    Enemy spawn(final String theName, final int theX, final int theY){
+        return new Enemy(myType.name(), theName, getMaxHealth(), getMinDamage(), getMaxDamage(),
+            myHealChance, getHitChance(), getSpeed(), myMinHeal, myMaxHeal, theX, theY);
+    }
     public int getMyMinHeal() {
         return myMinHeal;
     }
@@ -129,7 +149,7 @@ public class Enemy extends DungeonCharacter implements Healable, Serializable {
      * @return int heal amount
      */
     public int heal(){
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         return rand.nextInt(myMinHeal, myMaxHeal+1);
     }
 
@@ -154,9 +174,46 @@ public class Enemy extends DungeonCharacter implements Healable, Serializable {
      * @return true/false if heal was successful.
      */
     boolean checkForHeal(){
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         return  rand.nextInt(RANDOM_FROM_HUNDRED + 1) <= myHealChance;
     }
+    /**
+     * Moves this enemy to its new cell in the occupancy index it is in, if any.
+     * @param theFromX x coordinate before the step.
+     * @param theFromY y coordinate before the step.
+     */
+    @Override
+    void moved(final int theFromX, final int theFromY){
+        if(myOccupancy != null){
+            myOccupancy.moved(this, theFromX, theFromY);
+        }
+    }
+
+    /**
+     * Returns the occupancy index this enemy is in.
+     * @return the index, or null if the enemy isn't indexed.
+     */
+    OccupancyIndex getOccupancy(){
+        return myOccupancy;
+    }
+
+    /**
+     * Returns the id the occupancy index gave this enemy.
+     * @return the id in getOccupancy().
+     */
+    int getOccupancyId(){
+        return myOccupancyId;
+    }
+
+    /**
+     * Records the occupancy index this enemy is in, called by the index.
+     * @param theOccupancy the index, or null when removed.
+     * @param theId the id in the index.
+     */
+    void setOccupancy(final OccupancyIndex theOccupancy, final int theId){
+        myOccupancy = theOccupancy;
+        myOccupancyId = theId;
+    }
     /**
      * Adds to Dungeon Character toString() enemies heal chance.
      * @return string representation of data for this character.
@@ -0,0 +1,176 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Moves the enemies one step each turn. Wandering enemies step to a random free neighbor.
+ * Hunting enemies close enough to the hero step along a flow field toward them, the flow
+ * field is found once per turn and shared by every enemy. Enemies never step onto another
+ * enemy, and an enemy with nowhere to go waits for the next turn.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class EnemyMover {
+    /**
+     * Cell offsets of the four steps: up, right, down, left. Step i is exit bit 1 << i of
+     * TileMap.getExits.
+     */
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {1, 0, -1, 0};
+
+    private final FlowField myFlowField;
+    private final RandomSource myRandom;
+    private boolean myIsHunting;
+
+    /**
+     * Creates a mover.
+     *
+     * @param theHuntDistance How many steps away from the hero an enemy starts hunting them.
+     * @param theIsHunting true to hunt the hero, false to only wander.
+     * @param theRandom The random numbers used for wandering.
+     * @throws IllegalArgumentException if the distance is negative or theRandom is null.
+     */
+    public EnemyMover(final int theHuntDistance, final boolean theIsHunting,
+                      final RandomSource theRandom) {
+        if (theRandom == null) {
+            throw new IllegalArgumentException("Enemy mover needs a source of random numbers.");
+        }
+        myFlowField = new FlowField(theHuntDistance);
+        myRandom = theRandom;
+        myIsHunting = theIsHunting;
+    }
+
+    /**
+     * Checks whether enemies close enough to the hero hunt them.
+     *
+     * @return true if enemies hunt, false if they only wander.
+     */
+    public boolean isHunting() {
+        return myIsHunting;
+    }
+
+    /**
+     * Turns hunting on or off, from the next turn on.
+     *
+     * @param theIsHunting true to hunt the hero, false to only wander.
+     */
+    public void setHunting(final boolean theIsHunting) {
+        myIsHunting = theIsHunting;
+    }
+
+    /**
+     * Moves every enemy one step.
+     *
+     * @param theMap The map the enemies walk on.
+     * @param theEnemies The enemies to move.
+     * @param theOccupancy The cells of the enemies, kept up to date by their moves.
+     * @param theHeroX The hero x coordinate.
+     * @param theHeroY The hero y coordinate.
+     */
+    public void moveAll(final TileMap theMap, final List<Enemy> theEnemies,
+                        final OccupancyIndex theOccupancy, final int theHeroX,
+                        final int theHeroY) {
+        aim(theMap, theHeroX, theHeroY);
+        for (final Enemy enemy : theEnemies) {
+            move(enemy, theMap, theOccupancy);
+        }
+    }
+
+    /**
+     * Finds the way to the hero for the moves that follow, called whenever the hero or the
+     * map changed since the last moves. Costs nothing when hunting is off.
+     *
+     * @param theMap The map the enemies walk on.
+     * @param theHeroX The hero x coordinate.
+     * @param theHeroY The hero y coordinate.
+     */
+    public void aim(final TileMap theMap, final int theHeroX, final int theHeroY) {
+        if (myIsHunting) {
+            myFlowField.compute(theMap, theHeroX, theHeroY);
+        }
+    }
+
+    /**
+     * Moves one enemy one step, toward the hero found by the last aim when it is close
+     * enough to hunt.
+     *
+     * @param theEnemy The enemy to move.
+     * @param theMap The map the enemies walk on.
+     * @param theOccupancy The cells of the enemies, kept up to date by their moves.
+     */
+    public void move(final Enemy theEnemy, final TileMap theMap,
+                     final OccupancyIndex theOccupancy) {
+        if (!myIsHunting || !hunt(theEnemy, theOccupancy)) {
+            wander(theEnemy, theMap, theOccupancy);
+        }
+    }
+
+    /**
+     * Steps an enemy down the flow field.
+     *
+     * @return false if the enemy is too far from the hero to hunt, true if it stepped or
+     *         is waiting for the way to clear.
+     */
+    private boolean hunt(final Enemy theEnemy, final OccupancyIndex theOccupancy) {
+        final int x = theEnemy.getPosition().getMyX();
+        final int y = theEnemy.getPosition().getMyY();
+        final int distance = myFlowField.getDistance(x, y);
+        if (distance == FlowField.UNREACHED) {
+            return false;
+        }
+        for (int direction = 0; direction < STEP_X.length && distance > 0; direction++) {
+            final int toX = x + STEP_X[direction];
+            final int toY = y + STEP_Y[direction];
+            if (myFlowField.getDistance(toX, toY) == distance - 1
+                    && !theOccupancy.isOccupied(toX, toY)) {
+                step(theEnemy, direction);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Steps an enemy to a random free neighbor, if it has one. The walkable neighbors come
+     * from the map's exit table, each free one is a bit and the step picks one of the bits.
+     */
+    private void wander(final Enemy theEnemy, final TileMap theMap,
+                        final OccupancyIndex theOccupancy) {
+        final int x = theEnemy.getPosition().getMyX();
+        final int y = theEnemy.getPosition().getMyY();
+        final int exits = theMap.getExits(x, y);
+        int free = 0;
+        for (int direction = 0; direction < STEP_X.length; direction++) {
+            if ((exits & 1 << direction) != 0
+                    && !theOccupancy.isOccupied(x + STEP_X[direction], y + STEP_Y[direction])) {
+                free |= 1 << direction;
+            }
+        }
+        if (free == 0) {
+            //boxed in by walls and other enemies, wait a turn.
+            return;
+        }
+        for (int choice = myRandom.nextInt(Integer.bitCount(free)); choice > 0; choice--) {
+            free &= free - 1;
+        }
+        step(theEnemy, Integer.numberOfTrailingZeros(free));
+    }
+
+    private static void step(final Enemy theEnemy, final int theDirection) {
+        switch (theDirection) {
+            case 0:
+                theEnemy.moveCharacterUp();
+                break;
+            case 1:
+                theEnemy.moveCharacterRight();
+                break;
+            case 2:
+                theEnemy.moveCharacterDown();
+                break;
+            default:
+                theEnemy.moveCharacterLeft();
+                break;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package model;
+
+import com.dungeonadventure.database.SQLiteConnections;
+
+/**
+ * Creates the first enemy of each type a dungeon or chunk is populated with, later enemies of
+ * the type copy its stats. The game reads the stats from the enemy database. Tests and tools
+ * that run without the database install fixed stats with EntityLoader.setEnemySource.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public interface EnemySource {
+    /**
+     * Reads the stats of each type from the enemy database.
+     */
+    EnemySource DATABASE = new EnemySource() {
+        @Override
+        public Enemy create(final Enemy.Type theType, final String theName, final int theX,
+                            final int theY) {
+            return SQLiteConnections.readTable(theType.name(), theName, theX, theY);
+        }
+    };
+
+    /**
+     * Creates an enemy of a type at full health.
+     *
+     * @param theType The type of the enemy.
+     * @param theName The name of the enemy.
+     * @param theX The x coordinate of the enemy.
+     * @param theY The y coordinate of the enemy.
+     * @return The created enemy.
+     */
+    Enemy create(Enemy.Type theType, String theName, int theX, int theY);
+}
@@ -0,0 +1,474 @@
+package model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enemies kept as parallel arrays instead of one object each. Every enemy gets a stable int
+ * id, the hot fields of the enemy with that id sit at that index of one primitive array per
+ * field: x, y, health, speed and type. The cold fields are shared: enemies with the same type
+ * and stats share one kind, whose stats are stored once, and only the names are kept per
+ * enemy. An Enemy object is only made when one is needed, such as for combat.
+ * Ids of removed enemies are reused by the next enemies added, like the ids of an
+ * OccupancyIndex. Thousands of enemies cost a few arrays instead of thousands of objects,
+ * which is also how the store is written: floors and chunks moved to disk keep their enemies
+ * in a store.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class EnemyStore implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Type of a free id, and the end of the free id list.
+     */
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Stats of a kind, in the order they are stored in myKinds.
+     */
+    private static final int KIND_TYPE = 0;
+    private static final int KIND_HEALTH = 1;
+    private static final int KIND_MIN_DAMAGE = 2;
+    private static final int KIND_MAX_DAMAGE = 3;
+    private static final int KIND_HEAL_CHANCE = 4;
+    private static final int KIND_HIT_CHANCE = 5;
+    private static final int KIND_SPEED = 6;
+    private static final int KIND_MIN_HEAL = 7;
+    private static final int KIND_MAX_HEAL = 8;
+    private static final int KIND_FIELDS = 9;
+    private static final Enemy.Type[] TYPES = Enemy.Type.values();
+
+    private transient int[] myX;
+    private transient int[] myY;
+    private transient int[] myHealth;
+    private transient int[] mySpeed;
+    /**
+     * Enemy.Type ordinal of each id, NONE for free ids.
+     */
+    private transient byte[] myType;
+    /**
+     * Kind of each id, or the next free id for free ids.
+     */
+    private transient int[] myKind;
+    private transient String[] myNames;
+    /**
+     * KIND_FIELDS stats per kind.
+     */
+    private transient int[] myKinds;
+    private transient int myKindCount;
+    private transient int myFreeId;
+    private transient int myIdCount;
+    private transient int mySize;
+
+    /**
+     * Creates an empty store.
+     */
+    public EnemyStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty store with room for a number of enemies before it grows.
+     *
+     * @param theCapacity The number of enemies.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public EnemyStore(final int theCapacity) {
+        if (theCapacity < 0) {
+            throw new IllegalArgumentException("Enemy store capacity can't be negative, got "
+                    + theCapacity);
+        }
+        allocate(Math.max(theCapacity, 1));
+        myKinds = new int[KIND_FIELDS];
+        myFreeId = NONE;
+    }
+
+    /**
+     * Creates a store holding a list of enemies, their ids are their indexes in the list.
+     *
+     * @param theEnemies The enemies.
+     * @return The new store.
+     * @throws IllegalArgumentException if an enemy is null.
+     */
+    public static EnemyStore of(final List<Enemy> theEnemies) {
+        final EnemyStore store = new EnemyStore(theEnemies.size());
+        for (final Enemy enemy : theEnemies) {
+            store.add(enemy);
+        }
+        return store;
+    }
+
+    /**
+     * Gets the number of enemies.
+     *
+     * @return The number of enemies in the store.
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Gets the number of ids handed out, every enemy's id is below it.
+     *
+     * @return One past the largest id in use.
+     */
+    public int getIdCount() {
+        return myIdCount;
+    }
+
+    /**
+     * Checks whether an id belongs to an enemy.
+     *
+     * @param theId The id.
+     * @return true if an enemy has the id.
+     */
+    public boolean contains(final int theId) {
+        return theId >= 0 && theId < myIdCount && myType[theId] != NONE;
+    }
+
+    /**
+     * Adds an enemy, copying its fields. Changes to the enemy afterwards don't reach the
+     * store, use update for that.
+     *
+     * @param theEnemy The enemy to add.
+     * @return The id of the enemy in the store.
+     * @throws IllegalArgumentException if the enemy is null.
+     */
+    public int add(final Enemy theEnemy) {
+        if (theEnemy == null) {
+            throw new IllegalArgumentException("Enemy store can't hold a null enemy.");
+        }
+        final int id = newId();
+        final int kind = kindOf(theEnemy);
+        myType[id] = (byte) myKinds[kind * KIND_FIELDS + KIND_TYPE];
+        myKind[id] = kind;
+        mySpeed[id] = myKinds[kind * KIND_FIELDS + KIND_SPEED];
+        myNames[id] = theEnemy.getMyName();
+        set(id, theEnemy);
+        mySize++;
+        return id;
+    }
+
+    /**
+     * Copies the position and health of an enemy back into the store, such as after a
+     * materialized enemy fought.
+     *
+     * @param theId The id of the enemy.
+     * @param theEnemy The enemy, of the kind it was added with.
+     * @throws IllegalArgumentException if no enemy has the id or the enemy is null.
+     */
+    public void update(final int theId, final Enemy theEnemy) {
+        check(theId);
+        if (theEnemy == null) {
+            throw new IllegalArgumentException("Can't update an enemy from null.");
+        }
+        set(theId, theEnemy);
+    }
+
+    /**
+     * Removes an enemy, its id goes to the next enemy added.
+     *
+     * @param theId The id of the enemy.
+     * @return true if an enemy had the id.
+     */
+    public boolean remove(final int theId) {
+        if (!contains(theId)) {
+            return false;
+        }
+        myType[theId] = NONE;
+        myNames[theId] = null;
+        myKind[theId] = myFreeId;
+        myFreeId = theId;
+        mySize--;
+        return true;
+    }
+
+    /**
+     * Removes every enemy.
+     */
+    public void clear() {
+        Arrays.fill(myNames, 0, myIdCount, null);
+        myIdCount = 0;
+        myFreeId = NONE;
+        mySize = 0;
+    }
+
+    /**
+     * Gets the x coordinate of an enemy.
+     *
+     * @param theId The id of the enemy.
+     * @return The x coordinate of the cell the enemy stands on.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public int getX(final int theId) {
+        check(theId);
+        return myX[theId];
+    }
+
+    /**
+     * Gets the y coordinate of an enemy.
+     *
+     * @param theId The id of the enemy.
+     * @return The y coordinate of the cell the enemy stands on.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public int getY(final int theId) {
+        check(theId);
+        return myY[theId];
+    }
+
+    /**
+     * Gets the current health of an enemy.
+     *
+     * @param theId The id of the enemy.
+     * @return The health points left.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public int getHealth(final int theId) {
+        check(theId);
+        return myHealth[theId];
+    }
+
+    /**
+     * Gets the speed of an enemy, which decides how often it acts in combat.
+     *
+     * @param theId The id of the enemy.
+     * @return The speed.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public int getSpeed(final int theId) {
+        check(theId);
+        return mySpeed[theId];
+    }
+
+    /**
+     * Gets the type of an enemy.
+     *
+     * @param theId The id of the enemy.
+     * @return The type.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public Enemy.Type getType(final int theId) {
+        check(theId);
+        return TYPES[myType[theId]];
+    }
+
+    /**
+     * Gets the name of an enemy.
+     *
+     * @param theId The id of the enemy.
+     * @return The name.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public String getName(final int theId) {
+        check(theId);
+        return myNames[theId];
+    }
+
+    /**
+     * Moves an enemy to a cell.
+     *
+     * @param theId The id of the enemy.
+     * @param theX The x coordinate of the cell.
+     * @param theY The y coordinate of the cell.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public void setPosition(final int theId, final int theX, final int theY) {
+        check(theId);
+        myX[theId] = theX;
+        myY[theId] = theY;
+    }
+
+    /**
+     * Sets the health of an enemy.
+     *
+     * @param theId The id of the enemy.
+     * @param theHealth The health, 0 for a dead enemy.
+     * @throws IllegalArgumentException if no enemy has the id or the health is negative.
+     */
+    public void setHealth(final int theId, final int theHealth) {
+        check(theId);
+        if (theHealth < 0) {
+            throw new IllegalArgumentException("Enemy health can't be negative, got " + theHealth);
+        }
+        myHealth[theId] = theHealth;
+    }
+
+    /**
+     * Makes an Enemy object of an enemy in the store. Each call makes a new object.
+     *
+     * @param theId The id of the enemy.
+     * @return An enemy with the stored fields.
+     * @throws IllegalArgumentException if no enemy has the id.
+     */
+    public Enemy materialize(final int theId) {
+        check(theId);
+        final int kind = myKind[theId] * KIND_FIELDS;
+        final Enemy enemy = new Enemy(TYPES[myType[theId]].name(), myNames[theId],
+                myKinds[kind + KIND_HEALTH], myKinds[kind + KIND_MIN_DAMAGE],
+                myKinds[kind + KIND_MAX_DAMAGE], myKinds[kind + KIND_HEAL_CHANCE],
+                myKinds[kind + KIND_HIT_CHANCE], mySpeed[theId], myKinds[kind + KIND_MIN_HEAL],
+                myKinds[kind + KIND_MAX_HEAL], myX[theId], myY[theId]);
+        enemy.restoreHealth(myHealth[theId]);
+        return enemy;
+    }
+
+    /**
+     * Makes an Enemy object of every enemy in the store, in id order.
+     *
+     * @return The new enemies.
+     */
+    public ArrayList<Enemy> toList() {
+        final ArrayList<Enemy> enemies = new ArrayList<>(mySize);
+        for (int id = 0; id < myIdCount; id++) {
+            if (myType[id] != NONE) {
+                enemies.add(materialize(id));
+            }
+        }
+        return enemies;
+    }
+
+    /**
+     * Writes the kinds, then the ids in use with the fields of their enemies. Free ids are
+     * written as a type of NONE and come back free.
+     */
+    private void writeObject(final ObjectOutputStream theOut) throws IOException {
+        theOut.defaultWriteObject();
+        theOut.writeInt(myKindCount);
+        for (int i = 0; i < myKindCount * KIND_FIELDS; i++) {
+            theOut.writeInt(myKinds[i]);
+        }
+        theOut.writeInt(myIdCount);
+        for (int id = 0; id < myIdCount; id++) {
+            theOut.writeByte(myType[id]);
+            if (myType[id] != NONE) {
+                theOut.writeInt(myKind[id]);
+                theOut.writeInt(myX[id]);
+                theOut.writeInt(myY[id]);
+                theOut.writeInt(myHealth[id]);
+                theOut.writeUTF(myNames[id]);
+            }
+        }
+    }
+
+    private void readObject(final ObjectInputStream theIn)
+            throws IOException, ClassNotFoundException {
+        theIn.defaultReadObject();
+        myKindCount = theIn.readInt();
+        if (myKindCount < 0) {
+            throw new IOException("Enemy store has " + myKindCount + " kinds.");
+        }
+        myKinds = new int[Math.max(myKindCount, 1) * KIND_FIELDS];
+        for (int i = 0; i < myKindCount * KIND_FIELDS; i++) {
+            myKinds[i] = theIn.readInt();
+        }
+        final int idCount = theIn.readInt();
+        if (idCount < 0) {
+            throw new IOException("Enemy store has " + idCount + " ids.");
+        }
+        allocate(Math.max(idCount, 1));
+        myFreeId = NONE;
+        for (int id = 0; id < idCount; id++) {
+            final int type = theIn.readByte();
+            myType[id] = (byte) type;
+            if (type == NONE) {
+                myKind[id] = myFreeId;
+                myFreeId = id;
+                continue;
+            }
+            final int kind = theIn.readInt();
+            if (type < 0 || type >= TYPES.length || kind < 0 || kind >= myKindCount) {
+                throw new IOException("Enemy store has an enemy of unknown type or kind.");
+            }
+            myKind[id] = kind;
+            mySpeed[id] = myKinds[kind * KIND_FIELDS + KIND_SPEED];
+            myX[id] = theIn.readInt();
+            myY[id] = theIn.readInt();
+            myHealth[id] = theIn.readInt();
+            myNames[id] = theIn.readUTF();
+            mySize++;
+        }
+        myIdCount = idCount;
+    }
+
+    private void set(final int theId, final Enemy theEnemy) {
+        myX[theId] = theEnemy.getPosition().getMyX();
+        myY[theId] = theEnemy.getPosition().getMyY();
+        myHealth[theId] = theEnemy.getCurrentHealth();
+    }
+
+    /**
+     * Finds the kind of an enemy's type and stats, adding it if it is new. Stores hold a
+     * handful of kinds, so they are searched in order.
+     */
+    private int kindOf(final Enemy theEnemy) {
+        final int[] stats = {theEnemy.getType().ordinal(), theEnemy.getMaxHealth(),
+            theEnemy.getMinDamage(), theEnemy.getMaxDamage(), theEnemy.getMyHealChance(),
+            theEnemy.getHitChance(), theEnemy.getSpeed(), theEnemy.getMyMinHeal(),
+            theEnemy.getMyMaxHeal()};
+        for (int kind = 0; kind < myKindCount; kind++) {
+            if (sameKind(kind, stats)) {
+                return kind;
+            }
+        }
+        if ((myKindCount + 1) * KIND_FIELDS > myKinds.length) {
+            myKinds = Arrays.copyOf(myKinds, myKinds.length * 2);
+        }
+        System.arraycopy(stats, 0, myKinds, myKindCount * KIND_FIELDS, KIND_FIELDS);
+        return myKindCount++;
+    }
+
+    private boolean sameKind(final int theKind, final int[] theStats) {
+        final int start = theKind * KIND_FIELDS;
+        for (int i = 0; i < KIND_FIELDS; i++) {
+            if (myKinds[start + i] != theStats[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a free id, growing the arrays when every id is in use.
+     */
+    private int newId() {
+        if (myFreeId != NONE) {
+            final int id = myFreeId;
+            myFreeId = myKind[id];
+            return id;
+        }
+        if (myIdCount == myType.length) {
+            final int capacity = myIdCount * 2;
+            myX = Arrays.copyOf(myX, capacity);
+            myY = Arrays.copyOf(myY, capacity);
+            myHealth = Arrays.copyOf(myHealth, capacity);
+            mySpeed = Arrays.copyOf(mySpeed, capacity);
+            myType = Arrays.copyOf(myType, capacity);
+            myKind = Arrays.copyOf(myKind, capacity);
+            myNames = Arrays.copyOf(myNames, capacity);
+        }
+        return myIdCount++;
+    }
+
+    private void allocate(final int theCapacity) {
+        myX = new int[theCapacity];
+        myY = new int[theCapacity];
+        myHealth = new int[theCapacity];
+        mySpeed = new int[theCapacity];
+        myType = new byte[theCapacity];
+        myKind = new int[theCapacity];
+        myNames = new String[theCapacity];
+    }
+
+    private void check(final int theId) {
+        if (!contains(theId)) {
+            throw new IllegalArgumentException("No enemy has id " + theId + " in the store.");
+        }
+    }
+}
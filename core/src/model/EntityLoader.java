@@ -2,11 +2,9 @@ package model;
 
 import static model.DungeonCharacter.RANDOM_FROM_HUNDRED;
 
-import com.dungeonadventure.database.SQLiteConnections;
-
 import javax.naming.Name;
 
-import java.util.Random;
+import java.util.ArrayList;
 
 /**
  * This class is used to populate the dungeon grid with variety of enemies.
@@ -34,33 +32,163 @@ public final class EntityLoader {
      * Chance in percents to spawn ogre
      */
     private static final int CHANCE_FOR_OGRE = 15;
+    /**
+     * Creates the first enemy of each type, the enemy database unless replaced.
+     */
+    private static volatile EnemySource mySource = EnemySource.DATABASE;
     /**
      * Constructor no function.
      */
     private EntityLoader(){
     }
+
+    /**
+     * Sets where the stats of every enemy created from now on come from.
+     * @param theSource the source, EnemySource.DATABASE for the enemy database.
+     * @throws IllegalArgumentException if theSource is null.
+     */
+    public static void setEnemySource(final EnemySource theSource){
+        if(theSource == null){
+            throw new IllegalArgumentException("Enemy source can't be null, use EnemySource.DATABASE.");
+        }
+        mySource = theSource;
+    }
     public static Enemy createGremlin(final int theX, final int theY){
-        return SQLiteConnections.readTable("Gremlin", NameGenerator.getGremlinName(), theX, theY);
+        return mySource.create(Enemy.Type.Gremlin, NameGenerator.getGremlinName(), theX, theY);
     }
     public static Enemy createSkeleton(final int theX, final int theY){
-        return SQLiteConnections.readTable("Skeleton", NameGenerator.getSkeletonName(), theX, theY);
+        return mySource.create(Enemy.Type.Skeleton, NameGenerator.getSkeletonName(), theX, theY);
     }
     public static Enemy createOgre(final int theX, final int theY){
-        return SQLiteConnections.readTable("Ogre", NameGenerator.getOgreName(), theX, theY);
+        return mySource.create(Enemy.Type.Ogre, NameGenerator.getOgreName(), theX, theY);
     }
     public static Enemy randomEnemy(final int theX, final int theY){
-        final Random rand = new Random();
-        final Enemy enemy;
-        final int theRandomNum = rand.nextInt(RANDOM_FROM_HUNDRED);
+        return randomEnemy(theX, theY, RandomSource.THREAD);
+    }
+
+    /**
+     * Creates an enemy of a random type, the type and name rolled from the given random numbers.
+     * @param theX x coordinate of the enemy.
+     * @param theY y coordinate of the enemy.
+     * @param theRandom random numbers the type and name are rolled from.
+     * @return the created enemy.
+     */
+    public static Enemy randomEnemy(final int theX, final int theY,
+                                    final RandomSource theRandom){
+        return randomEnemy(theX, theY, theRandom, new Enemy[Enemy.Type.values().length]);
+    }
+
+    /**
+     * Creates an enemy of a random type like randomEnemy(int, int, RandomSource), reading the stats
+     * of its type from the database only the first time the type is rolled and copying them
+     * from the first enemy of the type afterwards.
+     * @param theFirsts first enemy created of each type, by ordinal, filled in as types are rolled.
+     */
+    private static Enemy randomEnemy(final int theX, final int theY, final RandomSource theRandom,
+                                     final Enemy[] theFirsts){
+        final Enemy.Type type;
+        final int theRandomNum = theRandom.nextInt(RANDOM_FROM_HUNDRED);
         if(theRandomNum <= CHANCE_FOR_GREMLIN){
-            enemy = createGremlin(theX, theY);
+            type = Enemy.Type.Gremlin;
         }
         else if(theRandomNum <= CHANCE_FOR_GREMLIN + CHANCE_FOR_SKELETON){
-            enemy = createSkeleton(theX, theY);
+            type = Enemy.Type.Skeleton;
         }
         else{
-            enemy = createOgre(theX, theY);
+            type = Enemy.Type.Ogre;
+        }
+        final String name = nameOf(type, theRandom);
+        final Enemy first = theFirsts[type.ordinal()];
+        if(first != null){
+            return first.spawn(name, theX, theY);
         }
+        final Enemy enemy = mySource.create(type, name, theX, theY);
+        theFirsts[type.ordinal()] = enemy;
         return enemy;
     }
+
+    private static String nameOf(final Enemy.Type theType, final RandomSource theRandom){
+        switch(theType){
+            case Gremlin:
+                return NameGenerator.getGremlinName(theRandom);
+            case Skeleton:
+                return NameGenerator.getSkeletonName(theRandom);
+            default:
+                return NameGenerator.getOgreName(theRandom);
+        }
+    }
+
+    /**
+     * Creates the enemies of a dungeon on floor cells that hold no item or other enemy.
+     * The first enemy is always placed next to the hero's starting cell.
+     * Safe to call from a worker thread, it only touches the given dungeon and the database.
+     * @param theDungeon dungeon to populate, its configuration gives the enemy count.
+     * @return list of the created enemies.
+     * @throws IllegalStateException if the dungeon has fewer free floor cells than enemies.
+     */
+    public static ArrayList<Enemy> populate(final Dungeon theDungeon){
+        return populate(theDungeon, RandomSource.THREAD);
+    }
+
+    /**
+     * Creates the enemies of a dungeon like populate(Dungeon), rolling their types from the
+     * given random numbers so the same dungeon and seed give the same enemies, with the same
+     * names, in the same cells. Each type's stats are read from the database once, however
+     * many enemies there are.
+     * @param theDungeon dungeon to populate, its configuration gives the enemy count.
+     * @param theRandom random numbers the enemy types and names are rolled from.
+     * @return list of the created enemies.
+     * @throws IllegalStateException if the dungeon has fewer free floor cells than enemies.
+     */
+    public static ArrayList<Enemy> populate(final Dungeon theDungeon,
+                                            final RandomSource theRandom){
+        final int count = theDungeon.getConfig().getEnemies();
+        final ArrayList<Enemy> enemies = new ArrayList<>(count);
+        if(count == 0){
+            return enemies;
+        }
+        final Enemy[] firsts = new Enemy[Enemy.Type.values().length];
+        //the first enemy waits next to the hero's start, its cell is not drawn again.
+        theDungeon.takeFreeCell(1, 2);
+        enemies.add(randomEnemy(1,2, theRandom, firsts));
+        final int remaining = count - enemies.size();
+        if(remaining > theDungeon.getFreeCellCount()){
+            throw new IllegalStateException("The dungeon has " + theDungeon.getFreeCellCount()
+                    + " free floor cells but " + remaining + " enemies must be placed.");
+        }
+        placeEnemies(theDungeon, remaining, 0, 0, enemies, theRandom, firsts);
+        return enemies;
+    }
+
+    /**
+     * Creates the enemies of one chunk of an endless world on its free floor cells. A chunk
+     * too crowded for its enemy count gets as many as fit.
+     * @param theChunk dungeon generated for the chunk, its configuration gives the enemy count.
+     * @param theOriginX world x coordinate of the chunk's local (0, 0).
+     * @param theOriginY world y coordinate of the chunk's local (0, 0).
+     * @return list of the created enemies, in world coordinates.
+     */
+    public static ArrayList<Enemy> populate(final Dungeon theChunk, final int theOriginX,
+                                            final int theOriginY){
+        final int count = Math.min(theChunk.getConfig().getEnemies(), theChunk.getFreeCellCount());
+        final ArrayList<Enemy> enemies = new ArrayList<>(count);
+        //types come from the chunk's seed so a world seed always gives the same enemies.
+        placeEnemies(theChunk, count, theOriginX, theOriginY, enemies,
+                new SeededRandom(theChunk.getSeed()), new Enemy[Enemy.Type.values().length]);
+        return enemies;
+    }
+
+    /**
+     * Creates random enemies on free cells of a dungeon, shifted by the given origin.
+     */
+    private static void placeEnemies(final Dungeon theDungeon, final int theCount,
+                                     final int theOriginX, final int theOriginY,
+                                     final ArrayList<Enemy> theEnemies, final RandomSource theRandom,
+                                     final Enemy[] theFirsts){
+        for(int i = 0; i < theCount; i++){
+            final Position cell = theDungeon.takeFreeCell();
+            theEnemies.add(randomEnemy(theOriginX + cell.getMyX(), theOriginY + cell.getMyY(),
+                    theRandom, theFirsts));
+        }
+    }
 }
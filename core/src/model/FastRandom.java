@@ -0,0 +1,36 @@
+package model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random numbers for rolls that don't have to be reproduced, as cheap as they come: one long
+ * of state updated by three shifts and a multiply per draw (xorshift64*), no locking and no
+ * allocation. Each source starts from a different seed taken from ThreadLocalRandom.
+ * Not thread-safe, each thread needs its own source, which is what bulk simulations want
+ * anyway: a worker drawing from a shared java.util.Random pays for the contention on every
+ * roll.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class FastRandom implements RandomSource {
+    private long myState;
+
+    /**
+     * Creates a source with a seed of its own.
+     */
+    public FastRandom() {
+        //xorshift never leaves a state of 0, so the seed must not be 0.
+        myState = ThreadLocalRandom.current().nextLong() | 1L;
+    }
+
+    @Override
+    public long nextLong() {
+        long x = myState;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        myState = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -0,0 +1,349 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Line of sight on a map, computed with recursive shadowcasting over the eight octants
+ * around the hero. Walls and closed doors cast shadows, everything else, including open
+ * doors, can be seen through. Opaque cells themselves are seen, so the hero sees the walls
+ * of the room but not past them.
+ * Each update only touches the cells in sight before and after the move. The marker mask
+ * only covers the square the sight radius reaches around the hero, so the map may be as
+ * large as an endless world. The cell lists and the marker mask are kept between updates,
+ * so a move allocates nothing once they have grown to the sight radius.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class FieldOfView {
+    /**
+     * Transforms from octant coordinates to map offsets, one column per octant:
+     * map x = col * XX + row * XY, map y = col * YX + row * YY.
+     */
+    private static final int[] XX = {1, 0, 0, -1, -1, 0, 0, 1};
+    private static final int[] XY = {0, 1, -1, 0, 0, -1, 1, 0};
+    private static final int[] YX = {0, 1, 1, 0, 0, -1, -1, 0};
+    private static final int[] YY = {1, 0, 0, 1, -1, 0, 0, -1};
+
+    private final TileMap myMap;
+    /**
+     * Cells already in myCells for the current update, cleared again before it returns.
+     * Covers the square of side 2 * myMarkedRadius + 1 centered on the origin.
+     */
+    private FogMask myMarked;
+    private int myMarkedRadius;
+    /**
+     * Lets update write to a pair of full map masks without allocating.
+     */
+    private final MaskPair myMaskPair;
+    /**
+     * Cells in sight after the last update, stored as y << 32 | x.
+     */
+    private long[] myVisible;
+    private int myVisibleCount;
+    /**
+     * Cells found in sight by the running update.
+     */
+    private long[] myCells;
+    private int myCellCount;
+    /**
+     * Whether the visible mask may hold cells this object didn't light, after a load or
+     * while the map was revealed, so the next update must clear the whole mask.
+     */
+    private boolean myIsStale;
+    private int myOriginX;
+    private int myOriginY;
+    private int myRadiusSquared;
+
+    /**
+     * The fog an update writes to, for maps that don't keep it in a pair of FogMasks.
+     */
+    public interface Fog {
+        /**
+         * Checks whether a cell is marked as in sight.
+         *
+         * @param theX The x coordinate.
+         * @param theY The y coordinate.
+         * @return true if the cell is visible.
+         */
+        boolean isVisible(int theX, int theY);
+
+        /**
+         * Marks a cell as in sight or out of it.
+         *
+         * @param theX The x coordinate.
+         * @param theY The y coordinate.
+         * @param theIsVisible true if the cell came into sight.
+         */
+        void setVisible(int theX, int theY, boolean theIsVisible);
+
+        /**
+         * Marks a cell as seen.
+         *
+         * @param theX The x coordinate.
+         * @param theY The y coordinate.
+         */
+        void setExplored(int theX, int theY);
+
+        /**
+         * Marks every cell as out of sight, before the first update and after a reset.
+         */
+        void hideAll();
+    }
+
+    /**
+     * Creates the field of view of a map.
+     *
+     * @param theMap The map whose opaque tiles block sight.
+     */
+    public FieldOfView(final TileMap theMap) {
+        myMap = theMap;
+        myMarked = new FogMask(1, 1);
+        myMaskPair = new MaskPair();
+        myVisible = new long[0];
+        myCells = new long[0];
+        myIsStale = true;
+    }
+
+    /**
+     * Forgets which cells are in sight, for when something else rewrote the visible mask.
+     */
+    public void reset() {
+        myVisibleCount = 0;
+        myIsStale = true;
+    }
+
+    /**
+     * Moves the hero's sight to a cell. Cells leaving sight are cleared from the visible
+     * mask and reported as explored, cells coming into sight are set in both masks and
+     * reported as visible.
+     *
+     * @param theX The hero x coordinate.
+     * @param theY The hero y coordinate.
+     * @param theRadius How many cells the hero can see in each direction.
+     * @param theVisible The mask of cells in sight.
+     * @param theExplored The mask of cells seen so far.
+     * @param theChanges Receives the cells that came into or left sight.
+     * @return true if any cell came into or left sight.
+     */
+    public boolean update(final int theX, final int theY, final int theRadius, final FogMask theVisible,
+                final FogMask theExplored, final FogChanges theChanges) {
+        myMaskPair.myVisible = theVisible;
+        myMaskPair.myExplored = theExplored;
+        return update(theX, theY, theRadius, myMaskPair, theChanges);
+    }
+
+    /**
+     * Moves the hero's sight to a cell like update(int, int, int, FogMask, FogMask, FogChanges),
+     * writing to a fog that is kept some other way, such as per chunk of an endless world.
+     *
+     * @param theX The hero x coordinate.
+     * @param theY The hero y coordinate.
+     * @param theRadius How many cells the hero can see in each direction.
+     * @param theFog The fog the cells coming into and leaving sight are written to.
+     * @param theChanges Receives the cells that came into or left sight.
+     * @return true if any cell came into or left sight.
+     */
+    public boolean update(final int theX, final int theY, final int theRadius, final Fog theFog,
+                          final FogChanges theChanges) {
+        boolean changed = false;
+        if (myIsStale) {
+            theFog.hideAll();
+            theChanges.markAll();
+            myIsStale = false;
+            changed = true;
+        }
+        compute(theX, theY, theRadius);
+        //cells in sight before but not now are only explored.
+        for (int i = 0; i < myVisibleCount; i++) {
+            final int x = cellX(myVisible[i]);
+            final int y = cellY(myVisible[i]);
+            if (!isMarked(x, y)) {
+                theFog.setVisible(x, y, false);
+                theChanges.addExplored(x, y);
+                changed = true;
+            }
+        }
+        for (int i = 0; i < myCellCount; i++) {
+            final int x = cellX(myCells[i]);
+            final int y = cellY(myCells[i]);
+            myMarked.set(x - myOriginX + myMarkedRadius, y - myOriginY + myMarkedRadius, false);
+            if (!theFog.isVisible(x, y)) {
+                theFog.setVisible(x, y, true);
+                theFog.setExplored(x, y);
+                theChanges.addVisible(x, y);
+                changed = true;
+            }
+        }
+        //the cells of this update are the ones to compare against next time.
+        final long[] previous = myVisible;
+        myVisible = myCells;
+        myVisibleCount = myCellCount;
+        myCells = previous;
+        myCellCount = 0;
+        return changed;
+    }
+
+    /**
+     * Checks whether the cell list matches the visible mask, which is false before the
+     * first update and after a reset.
+     *
+     * @return true if forEachVisible lists exactly the visible cells.
+     */
+    public boolean isCurrent() {
+        return !myIsStale;
+    }
+
+    /**
+     * Calls the visitor for every cell in sight after the last update.
+     *
+     * @param theVisitor Receives each visible cell.
+     */
+    public void forEachVisible(final VisibilityView.CellVisitor theVisitor) {
+        for (int i = 0; i < myVisibleCount; i++) {
+            theVisitor.visit(cellX(myVisible[i]), cellY(myVisible[i]));
+        }
+    }
+
+    /**
+     * Gets the number of cells in sight after the last update.
+     *
+     * @return The number of visible cells.
+     */
+    public int getVisibleCount() {
+        return myVisibleCount;
+    }
+
+    /**
+     * Fills myCells with every cell in sight of the origin and marks them in myMarked.
+     */
+    private void compute(final int theX, final int theY, final int theRadius) {
+        final int side = 2 * theRadius + 1;
+        if (myCells.length < side * side) {
+            myCells = new long[side * side];
+            myVisible = Arrays.copyOf(myVisible, side * side);
+        }
+        if (theRadius > myMarkedRadius) {
+            myMarked = new FogMask(side, side);
+            myMarkedRadius = theRadius;
+        }
+        myCellCount = 0;
+        myOriginX = theX;
+        myOriginY = theY;
+        //a little over radius squared keeps the circle from looking pinched on the axes.
+        myRadiusSquared = theRadius * theRadius + theRadius;
+        light(theX, theY);
+        for (int octant = 0; octant < XX.length; octant++) {
+            castLight(1, 1.0, 0.0, theRadius, XX[octant], XY[octant], YX[octant], YY[octant]);
+        }
+    }
+
+    /**
+     * Scans one octant row by row, moving away from the origin. Slopes run from 1 at the
+     * diagonal to 0 at the axis. When a run of opaque cells ends, the rows past it are
+     * scanned by a recursive call limited to the slopes the run did not shadow.
+     */
+    private void castLight(final int theRow, final double theStart, final double theEnd,
+                           final int theRadius, final int theXX, final int theXY,
+                           final int theYX, final int theYY) {
+        double start = theStart;
+        if (start < theEnd) {
+            return;
+        }
+        double newStart = 0.0;
+        for (int row = theRow; row <= theRadius; row++) {
+            boolean blocked = false;
+            final int dy = -row;
+            for (int dx = -row; dx <= 0; dx++) {
+                final double leftSlope = (dx - 0.5) / (dy + 0.5);
+                final double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (start < rightSlope) {
+                    continue;
+                }
+                if (theEnd > leftSlope) {
+                    break;
+                }
+                final int x = myOriginX + dx * theXX + dy * theXY;
+                final int y = myOriginY + dx * theYX + dy * theYY;
+                final boolean inBounds = myMap.isInBounds(x, y);
+                if (inBounds && dx * dx + dy * dy <= myRadiusSquared) {
+                    light(x, y);
+                }
+                final boolean opaque = !inBounds || myMap.isOpaque(x, y);
+                if (blocked) {
+                    if (opaque) {
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else if (opaque && row < theRadius) {
+                    blocked = true;
+                    castLight(row + 1, start, leftSlope, theRadius, theXX, theXY, theYX, theYY);
+                    newStart = rightSlope;
+                }
+            }
+            if (blocked) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds a cell to myCells unless an earlier octant already did.
+     */
+    private void light(final int theX, final int theY) {
+        final int markX = theX - myOriginX + myMarkedRadius;
+        final int markY = theY - myOriginY + myMarkedRadius;
+        if (!myMarked.get(markX, markY)) {
+            myMarked.set(markX, markY, true);
+            myCells[myCellCount++] = (long) theY << 32 | theX;
+        }
+    }
+
+    /**
+     * Checks whether the running update lit a cell. Cells outside the marker window are
+     * too far from the origin to be lit.
+     */
+    private boolean isMarked(final int theX, final int theY) {
+        final int markX = theX - myOriginX + myMarkedRadius;
+        final int markY = theY - myOriginY + myMarkedRadius;
+        return myMarked.isInBounds(markX, markY) && myMarked.get(markX, markY);
+    }
+
+    private static int cellX(final long theCell) {
+        return (int) theCell;
+    }
+
+    private static int cellY(final long theCell) {
+        return (int) (theCell >>> 32);
+    }
+
+    /**
+     * A visible and an explored mask covering the whole map.
+     */
+    private static final class MaskPair implements Fog {
+        private FogMask myVisible;
+        private FogMask myExplored;
+
+        @Override
+        public boolean isVisible(final int theX, final int theY) {
+            return myVisible.get(theX, theY);
+        }
+
+        @Override
+        public void setVisible(final int theX, final int theY, final boolean theIsVisible) {
+            myVisible.set(theX, theY, theIsVisible);
+        }
+
+        @Override
+        public void setExplored(final int theX, final int theY) {
+            myExplored.set(theX, theY, true);
+        }
+
+        @Override
+        public void hideAll() {
+            myVisible.fill(false);
+        }
+    }
+}
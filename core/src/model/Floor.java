@@ -0,0 +1,123 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * One floor of a multi-floor run: its dungeon, which also holds the floor's fog of war, the
+ * enemies still alive on it and where the hero arrives when coming down or back up.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class Floor implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Marks an arrival cell that has not been set.
+     */
+    static final int NONE = -1;
+
+    private final int myDepth;
+    private final Dungeon myDungeon;
+    private final ArrayList<Enemy> myEnemies;
+    private final int myUpX;
+    private final int myUpY;
+    private int myDownX;
+    private int myDownY;
+
+    /**
+     * Creates a floor.
+     *
+     * @param theDepth The depth of the floor, 0 for the top floor.
+     * @param theDungeon The dungeon of the floor.
+     * @param theEnemies The enemies placed on the floor.
+     * @param theUpX The x coordinate of the stairs up, or NONE on the top floor.
+     * @param theUpY The y coordinate of the stairs up, or NONE on the top floor.
+     */
+    Floor(final int theDepth, final Dungeon theDungeon, final ArrayList<Enemy> theEnemies,
+          final int theUpX, final int theUpY) {
+        myDepth = theDepth;
+        myDungeon = theDungeon;
+        myEnemies = theEnemies;
+        myUpX = theUpX;
+        myUpY = theUpY;
+        myDownX = NONE;
+        myDownY = NONE;
+    }
+
+    /**
+     * Gets how deep the floor is.
+     *
+     * @return The depth, 0 for the top floor.
+     */
+    public int getDepth() {
+        return myDepth;
+    }
+
+    /**
+     * Gets the dungeon of the floor, holding its map and fog of war.
+     *
+     * @return The dungeon.
+     */
+    public Dungeon getDungeon() {
+        return myDungeon;
+    }
+
+    /**
+     * Gets the enemies still alive on the floor. The list is the floor's own, killed
+     * enemies are removed from it.
+     *
+     * @return The enemies.
+     */
+    public ArrayList<Enemy> getEnemies() {
+        return myEnemies;
+    }
+
+    /**
+     * Gets the x coordinate of the stairs up, where the hero arrives coming down.
+     *
+     * @return The x coordinate, or NONE on the top floor.
+     */
+    public int getUpX() {
+        return myUpX;
+    }
+
+    /**
+     * Gets the y coordinate of the stairs up, where the hero arrives coming down.
+     *
+     * @return The y coordinate, or NONE on the top floor.
+     */
+    public int getUpY() {
+        return myUpY;
+    }
+
+    /**
+     * Gets the x coordinate of the stairs down the hero last took, where the hero arrives
+     * coming back up.
+     *
+     * @return The x coordinate, or NONE if the hero never went down from this floor.
+     */
+    public int getDownX() {
+        return myDownX;
+    }
+
+    /**
+     * Gets the y coordinate of the stairs down the hero last took.
+     *
+     * @return The y coordinate, or NONE if the hero never went down from this floor.
+     */
+    public int getDownY() {
+        return myDownY;
+    }
+
+    /**
+     * Remembers the stairs down the hero took, so coming back up lands on them.
+     *
+     * @param theX The x coordinate of the stairs.
+     * @param theY The y coordinate of the stairs.
+     */
+    void setDown(final int theX, final int theY) {
+        myDownX = theX;
+        myDownY = theY;
+    }
+}
@@ -0,0 +1,132 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps floors that dropped out of the floor cache on disk, one compressed file per floor.
+ * A file holds the floor's dungeon, its stairs and its enemies, the enemies written as an
+ * EnemyStore so a crowded floor is a few arrays instead of one object per enemy.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+final class FloorStore {
+    /**
+     * Written first in every file so files from another format are rejected.
+     */
+    private static final int FORMAT = 2;
+
+    private final File myDirectory;
+
+    /**
+     * Creates a store that keeps its files in the given directory.
+     *
+     * @param theDirectory The directory for floor files, created if missing.
+     * @throws UncheckedIOException if the directory can't be created.
+     */
+    FloorStore(final File theDirectory) {
+        if (!theDirectory.isDirectory() && !theDirectory.mkdirs()) {
+            throw new UncheckedIOException(new IOException("Can't create floor directory "
+                    + theDirectory));
+        }
+        myDirectory = theDirectory;
+    }
+
+    /**
+     * Checks whether a floor has been stored.
+     *
+     * @param theDepth The depth of the floor.
+     * @return true if the floor can be read back.
+     */
+    boolean contains(final int theDepth) {
+        return file(theDepth).isFile();
+    }
+
+    /**
+     * Writes a floor, replacing any earlier copy.
+     *
+     * @param theFloor The floor to write.
+     * @throws UncheckedIOException if the file can't be written.
+     */
+    void write(final Floor theFloor) {
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file(theFloor.getDepth())))))) {
+            out.writeInt(FORMAT);
+            out.writeInt(theFloor.getDepth());
+            out.writeObject(theFloor.getDungeon());
+            out.writeInt(theFloor.getUpX());
+            out.writeInt(theFloor.getUpY());
+            out.writeInt(theFloor.getDownX());
+            out.writeInt(theFloor.getDownY());
+            out.writeObject(EnemyStore.of(theFloor.getEnemies()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Can't write floor " + theFloor.getDepth(), e);
+        }
+    }
+
+    /**
+     * Reads a stored floor back.
+     *
+     * @param theDepth The depth of the floor.
+     * @return The floor as it was written.
+     * @throws UncheckedIOException if the file is missing or can't be read.
+     */
+    Floor read(final int theDepth) {
+        try (ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(
+                new BufferedInputStream(new FileInputStream(file(theDepth)))))) {
+            if (in.readInt() != FORMAT) {
+                throw new IOException("Unknown floor file format.");
+            }
+            final int depth = in.readInt();
+            final Dungeon dungeon = (Dungeon) in.readObject();
+            final int upX = in.readInt();
+            final int upY = in.readInt();
+            final int downX = in.readInt();
+            final int downY = in.readInt();
+            final EnemyStore enemies = (EnemyStore) in.readObject();
+            final Floor floor = new Floor(depth, dungeon, enemies.toList(), upX, upY);
+            floor.setDown(downX, downY);
+            return floor;
+        } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+            throw new UncheckedIOException("Can't read floor " + theDepth,
+                    e instanceof IOException ? (IOException) e : new IOException(e));
+        }
+    }
+
+    /**
+     * Deletes every stored floor.
+     */
+    void clear() {
+        final File[] files = myDirectory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (file.getName().startsWith("floor_")) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes every stored floor and then the directory, unless something else is kept in it.
+     * The store can't be used after.
+     */
+    void delete() {
+        clear();
+        myDirectory.delete();
+    }
+
+    private File file(final int theDepth) {
+        return new File(myDirectory, "floor_" + theDepth + ".bin");
+    }
+}
@@ -0,0 +1,163 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Walking distance from the hero to every walkable cell near them, found with one breadth
+ * first search per turn. Every hunting enemy then steps to a neighbor one closer to the
+ * hero, so the cost per turn depends on the search area and not on the number of enemies.
+ * The search stops at a maximum distance and only covers the square of cells that close to
+ * the hero, clipped to the map, so it works the same on a dungeon and on the endless world.
+ * The distance grid and the queue are allocated once, and each search only resets the cells
+ * the one before it reached.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class FlowField {
+    /**
+     * Distance of a cell the search did not reach.
+     */
+    public static final int UNREACHED = -1;
+
+    private final int myMaxDistance;
+    /**
+     * Side of the full search square.
+     */
+    private final int mySide;
+    /**
+     * Walking distance of each cell of the search area, stored at
+     * (y - originY) * width + (x - originX).
+     */
+    private final int[] myDistance;
+    /**
+     * Cells of the search in the order they were reached, kept after the search so the next
+     * one knows which distances to reset.
+     */
+    private final int[] myQueue;
+    private int myReached;
+    private int myOriginX;
+    private int myOriginY;
+    private int myWidth;
+    private int myHeight;
+
+    /**
+     * Creates a flow field that searches up to a walking distance from the hero.
+     *
+     * @param theMaxDistance The farthest walking distance searched.
+     * @throws IllegalArgumentException if the distance is negative.
+     */
+    public FlowField(final int theMaxDistance) {
+        if (theMaxDistance < 0) {
+            throw new IllegalArgumentException("Flow field distance can't be negative, got "
+                    + theMaxDistance);
+        }
+        myMaxDistance = theMaxDistance;
+        mySide = 2 * theMaxDistance + 1;
+        myDistance = new int[mySide * mySide];
+        Arrays.fill(myDistance, UNREACHED);
+        myQueue = new int[mySide * mySide];
+    }
+
+    /**
+     * Gets how many steps from the target the field reaches.
+     *
+     * @return The farthest walking distance searched, cells further away are unreached.
+     */
+    public int getMaxDistance() {
+        return myMaxDistance;
+    }
+
+    /**
+     * Gets the number of cells the last search reached, the hero's cell included.
+     *
+     * @return The number of reached cells.
+     */
+    public int getReachedCount() {
+        return myReached;
+    }
+
+    /**
+     * Finds the walking distance from a cell to every walkable cell within the maximum
+     * distance. Steps go up, down, left or right onto walkable tiles, read from the map's exit
+     * table.
+     *
+     * @param theMap The map to walk.
+     * @param theX The x coordinate of the target, usually the hero.
+     * @param theY The y coordinate of the target.
+     * @throws IndexOutOfBoundsException if the target is outside the map.
+     */
+    public void compute(final TileMap theMap, final int theX, final int theY) {
+        if (!theMap.isInBounds(theX, theY)) {
+            throw new IndexOutOfBoundsException("Flow field target (" + theX + ", " + theY
+                    + ") is outside the map.");
+        }
+        for (int i = 0; i < myReached; i++) {
+            myDistance[myQueue[i]] = UNREACHED;
+        }
+        myWidth = Math.min(mySide, theMap.getWidth());
+        myHeight = Math.min(mySide, theMap.getHeight());
+        myOriginX = Math.max(0, Math.min(theMap.getWidth() - myWidth, theX - myMaxDistance));
+        myOriginY = Math.max(0, Math.min(theMap.getHeight() - myHeight, theY - myMaxDistance));
+
+        final int start = (theY - myOriginY) * myWidth + theX - myOriginX;
+        myDistance[start] = 0;
+        myQueue[0] = start;
+        myReached = 1;
+        for (int head = 0; head < myReached; head++) {
+            final int cell = myQueue[head];
+            final int distance = myDistance[cell];
+            if (distance == myMaxDistance) {
+                //cells come out in order of distance, everything left is as far.
+                break;
+            }
+            final int localX = cell % myWidth;
+            final int localY = cell / myWidth;
+            final int exits = theMap.getExits(myOriginX + localX, myOriginY + localY);
+            if ((exits & TileMap.EXIT_UP) != 0) {
+                visit(localX, localY + 1, distance + 1);
+            }
+            if ((exits & TileMap.EXIT_RIGHT) != 0) {
+                visit(localX + 1, localY, distance + 1);
+            }
+            if ((exits & TileMap.EXIT_DOWN) != 0) {
+                visit(localX, localY - 1, distance + 1);
+            }
+            if ((exits & TileMap.EXIT_LEFT) != 0) {
+                visit(localX - 1, localY, distance + 1);
+            }
+        }
+    }
+
+    /**
+     * Gets the walking distance of a cell found by the last search.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The number of steps to the target, or UNREACHED if the cell is a wall, too
+     *         far or cut off.
+     */
+    public int getDistance(final int theX, final int theY) {
+        final int localX = theX - myOriginX;
+        final int localY = theY - myOriginY;
+        if (localX < 0 || localY < 0 || localX >= myWidth || localY >= myHeight) {
+            return UNREACHED;
+        }
+        return myDistance[localY * myWidth + localX];
+    }
+
+    /**
+     * Queues a walkable neighbor the first time the search reaches it.
+     */
+    private void visit(final int theLocalX, final int theLocalY, final int theDistance) {
+        if (theLocalX < 0 || theLocalY < 0 || theLocalX >= myWidth || theLocalY >= myHeight) {
+            return;
+        }
+        final int cell = theLocalY * myWidth + theLocalX;
+        if (myDistance[cell] != UNREACHED) {
+            return;
+        }
+        myDistance[cell] = theDistance;
+        myQueue[myReached++] = cell;
+    }
+}
@@ -0,0 +1,236 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The fog of war changes made since a consumer last looked: cells that came into sight, cells
+ * that left sight and are now only explored, and a rectangle bounding every changed cell.
+ * Lets the minimap and other views repaint only what changed instead of the whole map.
+ * Changes accumulate until the consumer calls clear. When too much changed to list, such as
+ * after revealing the whole map, the set is marked full and consumers redraw everything.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class FogChanges {
+    /**
+     * Starting capacity of each cell list, enough for a few moves with the default sight.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] myVisibleX;
+    private int[] myVisibleY;
+    private int myVisibleCount;
+    private int[] myExploredX;
+    private int[] myExploredY;
+    private int myExploredCount;
+    private int myFromX;
+    private int myFromY;
+    private int myToX;
+    private int myToY;
+    private boolean myIsFull;
+
+    /**
+     * Creates a change set marked full, so the first consumer draws everything.
+     */
+    public FogChanges() {
+        myVisibleX = new int[INITIAL_CAPACITY];
+        myVisibleY = new int[INITIAL_CAPACITY];
+        myExploredX = new int[INITIAL_CAPACITY];
+        myExploredY = new int[INITIAL_CAPACITY];
+        markAll();
+    }
+
+    /**
+     * Checks whether anything changed.
+     *
+     * @return true if there is nothing to redraw.
+     */
+    public boolean isEmpty() {
+        return !myIsFull && myFromX > myToX;
+    }
+
+    /**
+     * Checks whether everything must be redrawn. The cell lists and rectangle are meaningless
+     * when this is true.
+     *
+     * @return true if the whole map changed.
+     */
+    public boolean isFull() {
+        return myIsFull;
+    }
+
+    /**
+     * Gets the number of cells that came into sight.
+     *
+     * @return The number of visible cells, indexes of getVisibleX and getVisibleY run below it.
+     */
+    public int getVisibleCount() {
+        return myVisibleCount;
+    }
+
+    /**
+     * Gets the x coordinate of a cell that came into sight.
+     *
+     * @param theIndex The index of the cell.
+     * @return The x coordinate.
+     * @throws IndexOutOfBoundsException if the index is not below the count.
+     */
+    public int getVisibleX(final int theIndex) {
+        return myVisibleX[checkIndex(theIndex, myVisibleCount)];
+    }
+
+    /**
+     * Gets the y coordinate of a cell that came into sight.
+     *
+     * @param theIndex The index of the cell.
+     * @return The y coordinate.
+     * @throws IndexOutOfBoundsException if the index is not below the count.
+     */
+    public int getVisibleY(final int theIndex) {
+        return myVisibleY[checkIndex(theIndex, myVisibleCount)];
+    }
+
+    /**
+     * Gets the number of cells that left sight and are now only explored.
+     *
+     * @return The number of explored cells, indexes of getExploredX and getExploredY run
+     *         below it.
+     */
+    public int getExploredCount() {
+        return myExploredCount;
+    }
+
+    /**
+     * Gets the x coordinate of a cell that left sight.
+     *
+     * @param theIndex The index of the cell.
+     * @return The x coordinate.
+     * @throws IndexOutOfBoundsException if the index is not below the count.
+     */
+    public int getExploredX(final int theIndex) {
+        return myExploredX[checkIndex(theIndex, myExploredCount)];
+    }
+
+    /**
+     * Gets the y coordinate of a cell that left sight.
+     *
+     * @param theIndex The index of the cell.
+     * @return The y coordinate.
+     * @throws IndexOutOfBoundsException if the index is not below the count.
+     */
+    public int getExploredY(final int theIndex) {
+        return myExploredY[checkIndex(theIndex, myExploredCount)];
+    }
+
+    /**
+     * Gets the left edge of the rectangle bounding every changed cell, including cells whose
+     * tiles may have changed around the hero.
+     *
+     * @return The first changed x coordinate, inclusive.
+     */
+    public int getFromX() {
+        return myFromX;
+    }
+
+    /**
+     * Gets the bottom edge of the rectangle bounding every changed cell.
+     *
+     * @return The first changed y coordinate, inclusive.
+     */
+    public int getFromY() {
+        return myFromY;
+    }
+
+    /**
+     * Gets the right edge of the rectangle bounding every changed cell.
+     *
+     * @return The last changed x coordinate, inclusive, less than getFromX when empty.
+     */
+    public int getToX() {
+        return myToX;
+    }
+
+    /**
+     * Gets the top edge of the rectangle bounding every changed cell.
+     *
+     * @return The last changed y coordinate, inclusive, less than getFromY when empty.
+     */
+    public int getToY() {
+        return myToY;
+    }
+
+    /**
+     * Forgets every change, called by the consumer once it has redrawn them.
+     */
+    public void clear() {
+        myVisibleCount = 0;
+        myExploredCount = 0;
+        myFromX = Integer.MAX_VALUE;
+        myFromY = Integer.MAX_VALUE;
+        myToX = Integer.MIN_VALUE;
+        myToY = Integer.MIN_VALUE;
+        myIsFull = false;
+    }
+
+    /**
+     * Marks the whole map as changed.
+     */
+    void markAll() {
+        clear();
+        myIsFull = true;
+    }
+
+    /**
+     * Records a cell that came into sight.
+     */
+    void addVisible(final int theX, final int theY) {
+        if (myIsFull) {
+            return;
+        }
+        if (myVisibleCount == myVisibleX.length) {
+            myVisibleX = Arrays.copyOf(myVisibleX, myVisibleCount * 2);
+            myVisibleY = Arrays.copyOf(myVisibleY, myVisibleCount * 2);
+        }
+        myVisibleX[myVisibleCount] = theX;
+        myVisibleY[myVisibleCount++] = theY;
+        addDirty(theX, theY, theX, theY);
+    }
+
+    /**
+     * Records a cell that left sight and is now only explored.
+     */
+    void addExplored(final int theX, final int theY) {
+        if (myIsFull) {
+            return;
+        }
+        if (myExploredCount == myExploredX.length) {
+            myExploredX = Arrays.copyOf(myExploredX, myExploredCount * 2);
+            myExploredY = Arrays.copyOf(myExploredY, myExploredCount * 2);
+        }
+        myExploredX[myExploredCount] = theX;
+        myExploredY[myExploredCount++] = theY;
+        addDirty(theX, theY, theX, theY);
+    }
+
+    /**
+     * Grows the dirty rectangle to cover a rectangle, used for cells whose fog did not
+     * change but whose tiles may have.
+     */
+    void addDirty(final int theFromX, final int theFromY, final int theToX, final int theToY) {
+        if (myIsFull || theFromX > theToX || theFromY > theToY) {
+            return;
+        }
+        myFromX = Math.min(myFromX, theFromX);
+        myFromY = Math.min(myFromY, theFromY);
+        myToX = Math.max(myToX, theToX);
+        myToY = Math.max(myToY, theToY);
+    }
+
+    private static int checkIndex(final int theIndex, final int theCount) {
+        if (theIndex < 0 || theIndex >= theCount) {
+            throw new IndexOutOfBoundsException("Change " + theIndex + " of " + theCount);
+        }
+        return theIndex;
+    }
+}
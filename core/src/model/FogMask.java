@@ -0,0 +1,327 @@
+package model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * One bit of fog of war state per map cell, packed 64 to a long.
+ * Cells are addressed by (x, y) and laid out row by row like TileGrid, so filling a
+ * rectangle sets whole words at a time and combining two masks is one operation per 64 cells.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class FogMask implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Every bit of a word set.
+     */
+    private static final long ALL = -1L;
+
+    private final int myWidth;
+    private final int myHeight;
+    /**
+     * The cell (x, y) is bit (y * width + x) % 64 of word (y * width + x) / 64. Bits past the
+     * last cell are always clear so counting can use whole words.
+     */
+    private final long[] myWords;
+
+    /**
+     * Creates a mask of the given size with every cell clear.
+     *
+     * @param theWidth The number of cells along the x-axis.
+     * @param theHeight The number of cells along the y-axis.
+     * @throws IllegalArgumentException if a dimension is not positive.
+     */
+    public FogMask(final int theWidth, final int theHeight) {
+        if (theWidth <= 0 || theHeight <= 0) {
+            throw new IllegalArgumentException("Mask dimensions must be positive, got "
+                    + theWidth + "x" + theHeight);
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myWords = new long[(int) (((long) theWidth * theHeight + 63) >>> 6)];
+    }
+
+    /**
+     * Gets the mask width.
+     *
+     * @return The number of cells along the x-axis.
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * Gets the mask height.
+     *
+     * @return The number of cells along the y-axis.
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * Checks whether a cell lies inside the mask.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if (x, y) is a cell of the mask.
+     */
+    public boolean isInBounds(final int theX, final int theY) {
+        return theX >= 0 && theX < myWidth && theY >= 0 && theY < myHeight;
+    }
+
+    /**
+     * Gets the bit of a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the cell is set.
+     * @throws IndexOutOfBoundsException if the cell is outside the mask.
+     */
+    public boolean get(final int theX, final int theY) {
+        final int bit = index(theX, theY);
+        return (myWords[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Sets or clears the bit of a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @param theValue true to set the cell, false to clear it.
+     * @throws IndexOutOfBoundsException if the cell is outside the mask.
+     */
+    public void set(final int theX, final int theY, final boolean theValue) {
+        final int bit = index(theX, theY);
+        if (theValue) {
+            myWords[bit >>> 6] |= 1L << bit;
+        } else {
+            myWords[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * Sets or clears every cell.
+     *
+     * @param theValue true to set every cell, false to clear every cell.
+     */
+    public void fill(final boolean theValue) {
+        if (theValue) {
+            setBits(0, myWidth * myHeight);
+        } else {
+            Arrays.fill(myWords, 0L);
+        }
+    }
+
+    /**
+     * Sets or clears the cells of a rectangle, clipped to the mask. Each row of the rectangle
+     * is filled a word at a time.
+     *
+     * @param theFromX The first x coordinate, inclusive.
+     * @param theFromY The first y coordinate, inclusive.
+     * @param theToX The last x coordinate, inclusive.
+     * @param theToY The last y coordinate, inclusive.
+     * @param theValue true to set the cells, false to clear them.
+     */
+    public void fillRect(final int theFromX, final int theFromY, final int theToX,
+                         final int theToY, final boolean theValue) {
+        final int fromX = Math.max(0, theFromX);
+        final int toX = Math.min(myWidth - 1, theToX);
+        if (fromX > toX) {
+            return;
+        }
+        for (int y = Math.max(0, theFromY); y <= Math.min(myHeight - 1, theToY); y++) {
+            final int start = y * myWidth;
+            if (theValue) {
+                setBits(start + fromX, start + toX + 1);
+            } else {
+                clearBits(start + fromX, start + toX + 1);
+            }
+        }
+    }
+
+    /**
+     * Sets every cell that is set in the other mask, as in "explored |= visible".
+     *
+     * @param theOther A mask of the same size.
+     * @throws IllegalArgumentException if the masks differ in size.
+     */
+    public void or(final FogMask theOther) {
+        checkSameSize(theOther);
+        for (int i = 0; i < myWords.length; i++) {
+            myWords[i] |= theOther.myWords[i];
+        }
+    }
+
+    /**
+     * Clears every cell that is set in the other mask, as in "hidden = explored &amp; ~visible".
+     *
+     * @param theOther A mask of the same size.
+     * @throws IllegalArgumentException if the masks differ in size.
+     */
+    public void andNot(final FogMask theOther) {
+        checkSameSize(theOther);
+        for (int i = 0; i < myWords.length; i++) {
+            myWords[i] &= ~theOther.myWords[i];
+        }
+    }
+
+    /**
+     * Copies every cell of the other mask into this one.
+     *
+     * @param theOther A mask of the same size.
+     * @throws IllegalArgumentException if the masks differ in size.
+     */
+    public void copyFrom(final FogMask theOther) {
+        checkSameSize(theOther);
+        System.arraycopy(theOther.myWords, 0, myWords, 0, myWords.length);
+    }
+
+    /**
+     * Counts the set cells.
+     *
+     * @return The number of set cells.
+     */
+    public int count() {
+        int count = 0;
+        for (final long word : myWords) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the next set cell at or after a cell index, skipping clear cells 64 at a time.
+     * The index of cell (x, y) is y * width + x.
+     *
+     * @param theFrom The first cell index to look at.
+     * @return The index of the next set cell, or -1 if no later cell is set.
+     */
+    public int nextSet(final int theFrom) {
+        if (theFrom < 0 || theFrom >= myWidth * myHeight) {
+            return -1;
+        }
+        int word = theFrom >>> 6;
+        long bits = myWords[word] & (ALL << theFrom);
+        while (bits == 0) {
+            if (++word == myWords.length) {
+                return -1;
+            }
+            bits = myWords[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Compares two masks cell by cell.
+     *
+     * @param theOther The object to compare with.
+     * @return true if theOther is a mask of the same size with the same cells set.
+     */
+    @Override
+    public boolean equals(final Object theOther) {
+        if (this == theOther) {
+            return true;
+        }
+        if (!(theOther instanceof FogMask)) {
+            return false;
+        }
+        final FogMask other = (FogMask) theOther;
+        return myWidth == other.myWidth && myHeight == other.myHeight
+                && Arrays.equals(myWords, other.myWords);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * myWidth + myHeight) + Arrays.hashCode(myWords);
+    }
+
+    /**
+     * Gets the backing words. Used to write the mask out compactly, callers must not change
+     * it except through setWords.
+     *
+     * @return The backing words.
+     */
+    long[] getWords() {
+        return myWords;
+    }
+
+    /**
+     * Replaces the backing words with words read back from getWords.
+     *
+     * @param theWords The words, exactly as many as the mask holds.
+     * @throws IllegalArgumentException if the number of words doesn't match or a bit past
+     *                                  the last cell is set.
+     */
+    void setWords(final long[] theWords) {
+        if (theWords.length != myWords.length) {
+            throw new IllegalArgumentException("Mask of " + myWords.length + " words can't take "
+                    + theWords.length + " words.");
+        }
+        final int tail = (myWidth * myHeight) & 63;
+        if (tail != 0 && (theWords[theWords.length - 1] & (ALL << tail)) != 0) {
+            throw new IllegalArgumentException("Mask words set cells outside the mask.");
+        }
+        System.arraycopy(theWords, 0, myWords, 0, myWords.length);
+    }
+
+    /**
+     * Sets the bits from theFrom (inclusive) to theTo (exclusive).
+     */
+    private void setBits(final int theFrom, final int theTo) {
+        if (theFrom >= theTo) {
+            return;
+        }
+        final int first = theFrom >>> 6;
+        final int last = (theTo - 1) >>> 6;
+        final long firstMask = ALL << theFrom;
+        final long lastMask = ALL >>> -theTo;
+        if (first == last) {
+            myWords[first] |= firstMask & lastMask;
+            return;
+        }
+        myWords[first] |= firstMask;
+        Arrays.fill(myWords, first + 1, last, ALL);
+        myWords[last] |= lastMask;
+    }
+
+    /**
+     * Clears the bits from theFrom (inclusive) to theTo (exclusive).
+     */
+    private void clearBits(final int theFrom, final int theTo) {
+        if (theFrom >= theTo) {
+            return;
+        }
+        final int first = theFrom >>> 6;
+        final int last = (theTo - 1) >>> 6;
+        final long firstMask = ALL << theFrom;
+        final long lastMask = ALL >>> -theTo;
+        if (first == last) {
+            myWords[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        myWords[first] &= ~firstMask;
+        Arrays.fill(myWords, first + 1, last, 0L);
+        myWords[last] &= ~lastMask;
+    }
+
+    /**
+     * Finds the bit index of a cell.
+     */
+    private int index(final int theX, final int theY) {
+        if (!isInBounds(theX, theY)) {
+            throw new IndexOutOfBoundsException("Cell (" + theX + ", " + theY
+                    + ") is outside the " + myWidth + "x" + myHeight + " mask.");
+        }
+        return theY * myWidth + theX;
+    }
+
+    private void checkSameSize(final FogMask theOther) {
+        if (theOther.myWidth != myWidth || theOther.myHeight != myHeight) {
+            throw new IllegalArgumentException("Can't combine a " + myWidth + "x" + myHeight
+                    + " mask with a " + theOther.myWidth + "x" + theOther.myHeight + " mask.");
+        }
+    }
+}
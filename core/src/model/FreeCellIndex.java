@@ -0,0 +1,106 @@
+package model;
+
+/**
+ * Index of the floor cells of a map that nothing has been placed on yet.
+ * Cells are stored as packed coordinates (y * width + x) in a primitive array. Taking a cell
+ * picks a random entry and swaps the last entry into its place, which amounts to shuffling the
+ * array one draw at a time, so every placement is O(1) and never retries.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class FreeCellIndex {
+    private final int myWidth;
+    /**
+     * Packed coordinates of the free cells, only the first mySize entries are free.
+     */
+    private final int[] myCells;
+    private int mySize;
+
+    /**
+     * Indexes every floor cell of the given grid.
+     *
+     * @param theGrid The map to index.
+     */
+    public FreeCellIndex(final TileGrid theGrid) {
+        myWidth = theGrid.getWidth();
+        final int height = theGrid.getHeight();
+        final Tile[] row = new Tile[myWidth];
+        myCells = new int[theGrid.count(Tile.FLOOR)];
+        for (int j = 0; j < height; j++) {
+            theGrid.getRow(j, 0, myWidth, row);
+            for (int i = 0; i < myWidth; i++) {
+                if (row[i] == Tile.FLOOR) {
+                    myCells[mySize++] = j * myWidth + i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cells that are still free.
+     *
+     * @return The number of free cells.
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Removes a random free cell from the index and returns it.
+     *
+     * @param theRandom The random source used to pick the cell.
+     * @return The packed coordinate of the cell, read with {@link #getX(int)} and {@link #getY(int)}.
+     * @throws IllegalStateException if no free cells are left.
+     */
+    public int take(final RandomSource theRandom) {
+        if (mySize == 0) {
+            throw new IllegalStateException("No free floor cells are left on the map.");
+        }
+        final int pick = theRandom.nextInt(mySize);
+        final int cell = myCells[pick];
+        myCells[pick] = myCells[--mySize];
+        myCells[mySize] = cell;
+        return cell;
+    }
+
+    /**
+     * Removes a given cell from the index if it is still free, for something placed on a
+     * fixed cell. Searches the free cells, so it is meant for a few fixed placements only.
+     *
+     * @param theX The x coordinate of the cell.
+     * @param theY The y coordinate of the cell.
+     * @return true if the cell was free.
+     */
+    public boolean remove(final int theX, final int theY) {
+        final int cell = theY * myWidth + theX;
+        for (int i = 0; i < mySize; i++) {
+            if (myCells[i] == cell) {
+                myCells[i] = myCells[--mySize];
+                myCells[mySize] = cell;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the x coordinate of a packed cell.
+     *
+     * @param theCell The packed coordinate.
+     * @return The x coordinate.
+     */
+    public int getX(final int theCell) {
+        return theCell % myWidth;
+    }
+
+    /**
+     * Gets the y coordinate of a packed cell.
+     *
+     * @param theCell The packed coordinate.
+     * @return The y coordinate.
+     */
+    public int getY(final int theCell) {
+        return theCell / myWidth;
+    }
+}
@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * Receives what happens in the game as it happens, so audio and the user interface can react
+ * without the model calling into libGDX. Every method does nothing by default, a sink only
+ * overrides the events it cares about. The model runs with NONE until the game installs a
+ * sink, so it can run headless in tests and simulations.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public interface GameEvents {
+    /**
+     * A sink that ignores every event.
+     */
+    GameEvents NONE = new GameEvents() {
+    };
+
+    /**
+     * A character took damage from an attack, a bomb or a trap.
+     *
+     * @param theTarget The character that was hit.
+     * @param theDamage The damage taken.
+     */
+    default void onHit(final DungeonCharacter theTarget, final int theDamage) {
+    }
+
+    /**
+     * An attack or a thrown bomb missed.
+     *
+     * @param theAttacker The character whose attack missed.
+     */
+    default void onMiss(final DungeonCharacter theAttacker) {
+    }
+
+    /**
+     * A hero blocked an attack.
+     *
+     * @param theDefender The hero that blocked.
+     */
+    default void onBlock(final DungeonCharacter theDefender) {
+    }
+
+    /**
+     * A character's health dropped to zero.
+     *
+     * @param theCharacter The character that died.
+     */
+    default void onDeath(final DungeonCharacter theCharacter) {
+    }
+
+    /**
+     * A door was opened or closed.
+     *
+     * @param theX The x coordinate of the door.
+     * @param theY The y coordinate of the door.
+     * @param theIsOpen true if the door is now open.
+     */
+    default void onDoor(final int theX, final int theY, final boolean theIsOpen) {
+    }
+}
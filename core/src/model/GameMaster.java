@@ -2,14 +2,14 @@ package model;
 
 import com.dungeonadventure.database.GameData;
 
-import static model.DungeonCharacter.NEW_LINE;
-
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
- * Class that tracks the activity, receives requests and sends necessary responses.
- * Tracks progress from start to end of the adventure.
+ * Gives the screens and input processors the game session on screen. Every call is passed to
+ * the current GameSession, other sessions, such as bot evaluations, are created and used
+ * directly without going through this class.
  * This class is implemented as a singleton.
  *
  * @author Nazarii Revitskyi, Tiger Schueler
@@ -18,41 +18,44 @@ import java.util.Random;
 public final class GameMaster {
     //Class fields.
     private static final GameMaster myInstance = new GameMaster();
-
     /**
-     * This is a dungeon generator that will produce a map to store.
+     * System property that starts the game in the endless chunked world, e.g. -Ddungeon.endless=true.
      */
-    private Dungeon myDungeon;
-
+    public static final String ENDLESS_PROPERTY = GameSession.ENDLESS_PROPERTY;
+    /**
+     * System property that makes enemies hunt the hero instead of wandering, e.g. -Ddungeon.hunt=true.
+     */
+    public static final String HUNT_PROPERTY = GameSession.HUNT_PROPERTY;
     /**
-     * A grid of cells representing the dungeon map.
+     * System property naming the file the turn journal of the game on screen is written to,
+     * e.g. -Ddungeon.journal=bug.journal. An empty name turns the journal off.
      */
-    private Tile[][] myMap;
+    public static final String JOURNAL_PROPERTY = "dungeon.journal";
     /**
-     * Hero to track on game grid and update the data based on events or changes in this object.
+     * Journal file of the game on screen when the property is not set, replaced every launch.
      */
-    private Hero myPlayer;
+    private static final String DEFAULT_JOURNAL = "LastRun.journal";
+
+    /**
+     * The session shown on screen.
+     */
+    private volatile GameSession mySession;
 
-    //TODO: change enemy to arraylist of enemies.
-    private ArrayList<Enemy> myEnemies;
-    private Enemy myCurrentEnemy;
-    //methods
-    private boolean myHeroSet;
-    private boolean myIsCheats;
     /**
      * Private constructor for the GameMaster singleton.
-     * Initializes the dungeon, map, and populates the dungeon with enemies.
+     * Starts the session set up by the system properties and its turn journal.
      */
     private GameMaster(){
-        myDungeon = new Dungeon();
-        myDungeon.printMap();
-        myMap = myDungeon.getMap();
-        myPlayer = null;
-        myHeroSet = false;
-        myEnemies = new ArrayList<>();
-        populate();
-        System.out.println(getEnemyPositionsToString());
-        myIsCheats = false;
+        mySession = GameSession.fromSystemProperties();
+        final String journal = System.getProperty(JOURNAL_PROPERTY, DEFAULT_JOURNAL);
+        if(!journal.isEmpty()){
+            try{
+                mySession.startJournal(new FileOutputStream(journal));
+            } catch(final FileNotFoundException e){
+                //the game plays the same without a journal.
+                System.err.println("Can't write the turn journal to " + journal + ": " + e.getMessage());
+            }
+        }
     }
 
     /**
@@ -60,35 +63,50 @@ public final class GameMaster {
      *
      * @return the singleton instance of GameMaster.
      */
-    public static synchronized GameMaster getInstance(){
+    public static GameMaster getInstance(){
         return myInstance;
     }
 
     /**
-     * Returns the player character for this game session.
+     * Returns the session shown on screen.
+     *
+     * @return the current game session.
+     */
+    public GameSession getSession(){
+        return mySession;
+    }
+
+    /**
+     * Puts another session on screen. The previous session is not closed.
+     *
+     * @param theSession the session to show.
+     * @throws IllegalArgumentException if the session is null.
+     */
+    public void setSession(final GameSession theSession){
+        if(theSession == null){
+            throw new IllegalArgumentException("Game Master can't show a null game session.");
+        }
+        mySession = theSession;
+    }
+
+    /**
+     * Returns the player character of this session.
      *
      * @return the hero character.
      * @throws IllegalArgumentException if the player has not been set.
      */
     public Hero getPlayer(){
-        if(myPlayer == null){
-            throw new IllegalArgumentException("Game Master hasn't defined a player object to use it elsewhere");
-        }
-        return myPlayer;
+        return mySession.getPlayer();
     }
 
     /**
-     * Sets the player character for the game session.
+     * Sets the player character of this session.
      *
      * @param thePlayer the hero character to set.
      * @throws IllegalArgumentException if the player is null or if the hero has already been set.
      */
     public void setPlayer(final Hero thePlayer){
-        if(thePlayer == null || myHeroSet){
-            throw new IllegalArgumentException("Can't set player for this GameMaster instance.");
-        }
-        myPlayer = thePlayer;
-        myHeroSet = true;
+        mySession.setPlayer(thePlayer);
     }
 
     /**
@@ -97,7 +115,7 @@ public final class GameMaster {
      * @return the player's X-coordinate.
      */
     public int getPlayerX(){
-        return myPlayer.getPosition().getMyX();
+        return mySession.getPlayerX();
     }
 
     /**
@@ -106,7 +124,7 @@ public final class GameMaster {
      * @return the player's Y-coordinate.
      */
     public int getPlayerY(){
-        return myPlayer.getPosition().getMyY();
+        return mySession.getPlayerY();
     }
 
     /**
@@ -115,7 +133,7 @@ public final class GameMaster {
      * @return the current enemy.
      */
     public Enemy getEnemy(){
-        return myCurrentEnemy;
+        return mySession.getEnemy();
     }
 
     /**
@@ -124,89 +142,113 @@ public final class GameMaster {
      * @return an ArrayList of all enemies.
      */
     public ArrayList<Enemy> getAllEnemies(){
-        return myEnemies;
+        return mySession.getAllEnemies();
+    }
+
+    /**
+     * Checks whether the hero can step to a neighboring cell, one lookup in the map's exit
+     * table.
+     * @param theExit the TileMap.EXIT_* bit of the direction.
+     * @return true if the neighbor in that direction can be walked on.
+     */
+    public boolean canHeroMove(final int theExit){
+        return mySession.canHeroMove(theExit);
     }
+
+    /**
+     * Opens the closed doors and closes the open doors next to the hero, including
+     * diagonally. Each door that changes is reported to the hero's event sink.
+     * @return the number of doors opened or closed.
+     */
+    public int toggleDoorsNearHero(){
+        return mySession.toggleDoorsNearHero();
+    }
+
+    /**
+     * Plays one move of the hero: the hero steps toward an exit of their cell if it can be
+     * walked on and waits otherwise, then the enemies whose turn comes first step. The tile
+     * the hero ends on takes effect unless they met an enemy.
+     * @param theExit the TileMap.EXIT_* bit of the direction.
+     * @return what the move led to.
+     * @throws IllegalArgumentException if theExit is not a single TileMap.EXIT_* bit.
+     */
+    public GameSession.Step moveHero(final int theExit){
+        return mySession.moveHero(theExit);
+    }
+
+    /**
+     * Ends the hero's move: every enemy whose turn comes before the hero's next one steps
+     * once, so faster enemies step more often than slower ones. Enemies hunt the hero when
+     * hunting is on and wander otherwise. Enemies never stack and wait when boxed in.
+     */
     public void enemyMove(){
-            //move character randomly.
-            for(Enemy e : myEnemies){
-                boolean[] direction = new boolean[4]; //up, right, down, left.
-                direction[0] = myMap[e.getPosition().getMyX()][e.getPosition().getMyY()+1].isWalkable();
-                direction[1] = myMap[e.getPosition().getMyX()+1][e.getPosition().getMyY()].isWalkable();
-                direction[2] = myMap[e.getPosition().getMyX()][e.getPosition().getMyY()-1].isWalkable();
-                direction[3] = myMap[e.getPosition().getMyX()-1][e.getPosition().getMyY()].isWalkable();
-
-                Random rand = new Random();
-                int choice;
-                do{
-                    choice = rand.nextInt(4);
-                }while(!direction[choice]);
-                switch(choice){
-                    case 0:
-                        e.moveCharacterUp();
-                        break;
-                    case 1:
-                        e.moveCharacterRight();
-                        break;
-                    case 2:
-                        e.moveCharacterDown();
-                        break;
-                    case 3:
-                        e.moveCharacterLeft();
-                        break;
-                }
-            }
+        mySession.enemyMove();
     }
+
+    /**
+     * Checks whether enemies near the hero hunt them.
+     * @return true if enemies walk toward the hero, false if they only wander.
+     */
+    public boolean isHunting(){
+        return mySession.isHunting();
+    }
+
+    /**
+     * Turns hunting on or off for the rest of the session.
+     * @param theIsHunting true to make enemies near the hero walk toward them.
+     */
+    public void setHunting(final boolean theIsHunting){
+        mySession.setHunting(theIsHunting);
+    }
+
     /**
      * Returns a string representing the positions of all enemies in the dungeon.
      *
      * @return a string of enemy positions.
      */
     public String getEnemyPositionsToString(){
-        StringBuilder sb = new StringBuilder();
-        for(Enemy e : myEnemies){
-            sb.append("[").append(e.getMyName()).append("] is a ").
-                    append(e.getClass().getSimpleName()).append(" and is at ").append(e.getPosition().
-                            toString()).append(NEW_LINE);
-        }
-        return sb.toString();
+        return mySession.getEnemyPositionsToString();
     }
+
     public Enemy.Type getEnemyType(final Enemy theEnemy){
-        return theEnemy.getType();
+        return mySession.getEnemyType(theEnemy);
     }
+
+    /**
+     * Checks whether an enemy stands on the hero's cell and makes it the current enemy.
+     * @return true if the hero has met an enemy.
+     */
     public boolean isHeroNearEnemy(){
-        boolean isEnemy = false;
-        for(Enemy e : myEnemies){
-            isEnemy = myPlayer.getPosition().equals(e.getPosition());
-            if(isEnemy){
-                myCurrentEnemy = e;
-                return isEnemy;
-            }
-        }
-        return isEnemy;
+        return mySession.isHeroNearEnemy();
     }
+
     /**
-     * Adds a health potion to the hero's inventory.
+     * Returns where the enemies of the current dungeon or endless world stand, for finding
+     * the enemy on a cell or the enemies near one without going through the whole list.
+     * @return the read side of the enemy occupancy index.
      */
-    public void heroPicksHealthPotion(){
-        myPlayer.addHealthPotion();
+    public OccupancyIndex getOccupancy(){
+        return mySession.getOccupancy();
     }
 
     /**
-     * Uses a health potion from the hero's inventory.
+     * Uses a health potion from the hero's inventory. Counts towards the potions used if the
+     * hero had one.
      *
      * @return a string describing the result of using the health potion.
      */
     public String heroUsesHealthPotion(){
-        return myPlayer.useHealthPotion();
+        return mySession.heroUsesHealthPotion();
     }
 
     /**
-     * Uses a bomb from the hero's inventory.
+     * Uses a bomb from the hero's inventory on the current enemy. Counts towards the bombs
+     * used if the hero had one.
      *
      * @return a string describing the result of using the bomb.
      */
-    public String heroUsesBomb() {
-        return myPlayer.useBomb(myCurrentEnemy);
+    public String heroUsesBomb(){
+        return mySession.heroUsesBomb();
     }
 
     /**
@@ -215,14 +257,7 @@ public final class GameMaster {
      * @return the number of health potions.
      */
     public int getHeroHealthPotions(){
-        return myPlayer.getHeroHealthPotions();
-    }
-
-    /**
-     * Adds a key to the hero's inventory.
-     */
-    public void heroPicksKey(){
-        myPlayer.addKey();
+        return mySession.getHeroHealthPotions();
     }
 
     /**
@@ -231,114 +266,175 @@ public final class GameMaster {
      * @return the number of keys.
      */
     public int getHeroKeys(){
-        return myPlayer.getHeroKeys();
+        return mySession.getHeroKeys();
     }
 
-    public void heroPicksBomb() {
-        myPlayer.addBomb();
+    public int getHeroBombs(){
+        return mySession.getHeroBombs();
     }
 
-    public int getHeroBombs() {
-        return myPlayer.getHeroBombs();
+    public String getHeroDeathLog(){
+        return mySession.getHeroDeathLog();
     }
 
-    public String heroTrapDamage(final Tile theTile){
-        return myPlayer.harmFromTrap(theTile);
+    /**
+     * Checks whether the hero can take stairs down from the current floor.
+     * @return true if there is a floor below.
+     */
+    public boolean canDescend(){
+        return mySession.canDescend();
     }
-    public String getHeroDeathLog(){
-        String message = "[" + myPlayer.getMyName() + "] gave up all hope...";
-        if(myPlayer.getIsDead()){
-            if(myPlayer.getDiedToEnemy()){
-                message = "[" + myPlayer.getMyName() + "] - " + myPlayer.getClass().getSimpleName() +
-                        " had died while fighting [" + myCurrentEnemy.getMyName() + "] - "
-                        + myCurrentEnemy.getType().toString();
-            }
-            else if(myPlayer.getDiedToTrap()){
-                message = "[" + myPlayer.getMyName() + "] - " + myPlayer.getClass().getSimpleName() +
-                        " had died in trap while exploring the dungeon.";
-            }
-        }
-        return message;
+
+    /**
+     * Checks whether the hero can take stairs up from the current floor.
+     * @return true if there is a floor above.
+     */
+    public boolean canAscend(){
+        return mySession.canAscend();
     }
 
     /**
-     * Populates the dungeon with enemies.
-     * Adds random enemies to the map at walkable positions.
+     * Takes the stairs down the hero stands on. The floor below is generated on the first
+     * visit and the hero arrives on its stairs up.
+     * @throws IllegalStateException if there is no floor below.
      */
-    private void populate(){
-        Random rand = new Random();
-        myEnemies.add(EntityLoader.randomEnemy(1,2));
-        System.out.println("Current Enemy Count: " + myEnemies.size());
-        while(myEnemies.size() != 20){
-            int x = rand.nextInt(50);
-            int y = rand.nextInt(50);
-            if(myMap[x][y].isWalkable()){
-                myEnemies.add(EntityLoader.randomEnemy(x,y));
-            }
-        }
+    public void descend(){
+        mySession.descend();
+    }
+
+    /**
+     * Takes the stairs up the hero stands on. The hero arrives on the stairs down they took.
+     * @throws IllegalStateException if there is no floor above.
+     */
+    public void ascend(){
+        mySession.ascend();
+    }
+
+    /**
+     * Returns the depth of the floor the hero is on.
+     * @return the current depth, 0 for the top floor and in endless mode.
+     */
+    public int getDepth(){
+        return mySession.getDepth();
     }
 
     /**
      * Removes the current enemy from the list if it is dead.
      */
     public void removeCurrentEnemyIfDead(){
-        if(myCurrentEnemy.getIsDead()){
-            myEnemies.remove(myCurrentEnemy);
-        }
+        mySession.removeCurrentEnemyIfDead();
     }
+
     public void removeAllEnemies(){
-        myEnemies = new ArrayList<>();
+        mySession.removeAllEnemies();
     }
+
     /**
-     * Restarts the game by regenerating the dungeon, resetting the player, and repopulating
-     * the dungeon with enemies.
+     * Restarts the game by taking a new populated dungeon from the pool and resetting the
+     * player. Only waits if the pool has not finished generating the next dungeon.
+     * A new endless world gets the next seed from the session's random numbers.
      */
     public void restart(){
-        myDungeon = new Dungeon();
-        myDungeon.printMap();
-        myMap = myDungeon.getMap();
-        myPlayer = null;
-        myHeroSet = false;
-        myEnemies = new ArrayList<>();
-        myIsCheats = false;
-        populate();
-        System.out.println(getEnemyPositionsToString());
+        mySession.restart();
+    }
+
+    /**
+     * Returns the configuration used to generate dungeons.
+     *
+     * @return the dungeon configuration.
+     */
+    public DungeonConfig getDungeonConfig(){
+        return mySession.getDungeonConfig();
     }
+
+    /**
+     * Sets the configuration used for the next generated dungeon. The current dungeon is
+     * kept until the next restart, dungeons already prepared with the old configuration
+     * are dropped.
+     *
+     * @param theConfig the dungeon configuration to use.
+     * @throws IllegalArgumentException if the configuration is null.
+     */
+    public void setDungeonConfig(final DungeonConfig theConfig){
+        mySession.setDungeonConfig(theConfig);
+    }
+
+    /**
+     * Checks whether the game is played in the endless chunked world.
+     * @return true in endless mode, where there is no single dungeon to save.
+     */
+    public boolean isEndless(){
+        return mySession.isEndless();
+    }
+
     public void updateMapFOW(){
-        myDungeon.updateFOW(getPlayerX(), getPlayerY(), 3, myIsCheats);
+        mySession.updateMapFOW();
     }
-    public boolean[][] getMapFOW(){
-        return myDungeon.getMapFOW();
+
+    /**
+     * Returns the fog of war of the current dungeon or endless world. Renderers and enemy AI
+     * fetch it once and query it per cell, it stays valid until the hero changes floors or
+     * the game restarts.
+     * @return the read only fog of war.
+     */
+    public VisibilityView getVisibility(){
+        return mySession.getVisibility();
+    }
+
+    /**
+     * Checks whether a map cell is in the hero's line of sight.
+     * @param theX x coordinate of the cell.
+     * @param theY y coordinate of the cell.
+     * @return true if the cell is visible.
+     */
+    public boolean isVisible(final int theX, final int theY){
+        return mySession.isVisible(theX, theY);
     }
-    public boolean[][] getMapExploredFOW(){
-        return myDungeon.getMapExploredFOW();
+
+    /**
+     * Checks whether the hero has seen a map cell before.
+     * @param theX x coordinate of the cell.
+     * @param theY y coordinate of the cell.
+     * @return true if the cell has been explored.
+     */
+    public boolean isExplored(final int theX, final int theY){
+        return mySession.isExplored(theX, theY);
     }
+
+    /**
+     * Returns the fog of war changes made since the view last cleared them.
+     * @return the pending fog changes of the current dungeon or endless world.
+     */
+    public FogChanges getFogChanges(){
+        return mySession.getFogChanges();
+    }
+
+    /**
+     * Returns how much of the current dungeon the hero has seen.
+     * @return the explored share of the map from 0 to 100, 0 in endless mode.
+     */
+    public int getExploredPercent(){
+        return mySession.getExploredPercent();
+    }
+
     public void toggleCheats(){
-        if(myIsCheats){
-            myIsCheats = false;
-            myDungeon.cheatMapVis(false);
-        }
-        else{
-            myIsCheats = true;
-            myDungeon.cheatMapVis(true);
-            for(int i = 0; i < 20; i++){
-                myPlayer.addBomb();
-                myPlayer.addHealthPotion();
-                myPlayer.addKey();
-            }
-            System.out.println("Keys: " + myPlayer.getHeroKeys());
+        mySession.toggleCheats();
+        if(mySession.getIsCheats()){
+            System.out.println("Keys: " + mySession.getHeroKeys());
         }
     }
+
     public boolean getIsCheats(){
-        return myIsCheats;
+        return mySession.getIsCheats();
     }
+
     /**
-     * Returns Tile[][] grid of cells that define the game grid and store tile, position,
-     * enemy arraylist, item.
-     * @return Tile[][] grid of cells that define the game grid.
+     * Returns the tiles that define the game grid, addressed by (x, y). In endless mode
+     * this is the whole streamed world in world coordinates.
+     * @return TileMap of cells that define the game grid.
      */
-    public Tile[][] getMap(){
-        return myMap;
+    public TileMap getMap(){
+        return mySession.getMap();
     }
 
     /**
@@ -349,7 +445,50 @@ public final class GameMaster {
      * @return Turns for this character compared to other character.
      */
     public int compareSpeed(final DungeonCharacter theFirst, final DungeonCharacter theSecond){
-        return theFirst.compareSpeed(theSecond);
+        return mySession.compareSpeed(theFirst, theSecond);
+    }
+
+    /**
+     * Starts the turn order of a fight between the hero and the current enemy. An enemy
+     * fast enough to act before the hero attacks right away.
+     *
+     * @return what the enemy did before the hero's first turn, one line per attack, empty
+     *         if the hero goes first.
+     * @throws IllegalStateException if the current enemy or player is null.
+     */
+    public String startCombat(){
+        return mySession.startCombat();
+    }
+
+    /**
+     * Ends the hero's turn in the current fight: the enemy takes every turn that comes
+     * before the hero's next one.
+     *
+     * @return what the enemy did, one line per attack, empty if it didn't act.
+     * @throws IllegalStateException if no fight was started.
+     */
+    public String endHeroCombatTurn(){
+        return mySession.endHeroCombatTurn();
+    }
+
+    /**
+     * The hero tries to run from the current fight, a coin flip.
+     *
+     * @return true if the hero got away, false if they still have to end their turn.
+     * @throws IllegalStateException if no fight was started.
+     */
+    public boolean flee(){
+        return mySession.flee();
+    }
+
+    /**
+     * Returns how many turns the hero gets before the enemy of the current fight acts.
+     *
+     * @return the hero's turns left, the current one included.
+     * @throws IllegalStateException if no fight was started.
+     */
+    public int getHeroCombatTurns(){
+        return mySession.getHeroCombatTurns();
     }
 
     /**
@@ -359,13 +498,7 @@ public final class GameMaster {
      * @throws IllegalStateException if the current enemy or player is null.
      */
     public String playerPerformAttack(){
-        if(myCurrentEnemy == null){
-            throw new IllegalStateException("GameMaster issued player attack enemy but the enemy is null");
-        }
-        if(myPlayer == null){
-            throw new IllegalStateException("GameMaster issued player attack enemy but the player is null");
-        }
-        return myPlayer.attack(myCurrentEnemy);
+        return mySession.playerPerformAttack();
     }
 
     /**
@@ -375,13 +508,7 @@ public final class GameMaster {
      * @throws IllegalStateException if the current enemy or player is null.
      */
     public String enemyPerformAttack(){
-        if(myCurrentEnemy == null){
-            throw new IllegalStateException("GameMaster issued enemy <attack> player but the enemy is null");
-        }
-        if(myPlayer == null){
-            throw new IllegalStateException("GameMaster issued enemy <attack> player but the player is null");
-        }
-        return myCurrentEnemy.attack(myPlayer);
+        return mySession.enemyPerformAttack();
     }
 
     /**
@@ -391,36 +518,16 @@ public final class GameMaster {
      * @throws IllegalStateException if the current enemy or player is null, or if the player is not a recognized hero type.
      */
     public String specialActionPerform(){
-        if(myCurrentEnemy == null){
-            throw new IllegalStateException("GameMaster issued player <special action> but the enemy is null");
-        }
-        if(myPlayer == null){
-            throw new IllegalStateException("GameMaster issued player <special action> but the player is null");
-        }
-        final String result;
-        if(myPlayer instanceof Warrior){
-            result = ((Warrior) myPlayer).specialAction(myCurrentEnemy);
-        }
-        else if(myPlayer instanceof Priestess){
-            result = ((Priestess) myPlayer).specialAction();
-        }
-        else if(myPlayer instanceof Thief){
-            result = ((Thief) myPlayer).specialAction(myCurrentEnemy);
-        }
-        else {
-            throw new IllegalStateException("GameMaster player is not an instance " +
-                    "of concrete implementation of Hero abstract class."
-                    + myPlayer.getClass().getSimpleName());
-        }
-        return result;
+        return mySession.specialActionPerform();
     }
+
     /**
      * Retrieves the current dungeon instance.
      *
      * @return The current Dungeon object.
      */
-    public Dungeon getDungeon() {
-        return myDungeon;
+    public Dungeon getDungeon(){
+        return mySession.getDungeon();
     }
 
     /**
@@ -429,17 +536,7 @@ public final class GameMaster {
      *
      * @param theGameData The GameData object containing the data to be loaded.
      */
-    public void loadGame(final GameData theGameData) {
-        // Load player data
-        myPlayer = theGameData.getHero();
-        myHeroSet = true;
-
-        // Load dungeon data
-        myDungeon = theGameData.getDungeon();
-        myMap = myDungeon.getMap();
-
-        // Load enemy data
-        myEnemies = theGameData.getEnemies();
+    public void loadGame(final GameData theGameData){
+        mySession.loadGame(theGameData);
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,1416 @@
+package model;
+
+import com.dungeonadventure.database.GameData;
+
+import static model.DungeonCharacter.NEW_LINE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One game from start to end: the dungeon floors or endless world, the hero, the enemies and
+ * the random numbers that move them. Receives requests and sends the necessary responses.
+ * Sessions share nothing with each other, so a process can run as many as it likes, such
+ * as one per core for bot evaluations. The game on screen is the session behind GameMaster.
+ * A session is not thread safe, each one must only be used by one thread at a time.
+ * Everything random in a session, from the dungeons to the hits, comes from its seed, so a
+ * session started from the same seed and given the same commands plays out the same way.
+ * A session can write those commands to a TurnJournal as they are given.
+ *
+ * @author Nazarii Revitskyi, Tiger Schueler, agent
+ * @version 18OCT26
+ */
+public final class GameSession {
+    /**
+     * System property that starts the game in the endless chunked world, e.g. -Ddungeon.endless=true.
+     */
+    public static final String ENDLESS_PROPERTY = "dungeon.endless";
+    /**
+     * System property that makes enemies hunt the hero instead of wandering, e.g. -Ddungeon.hunt=true.
+     */
+    public static final String HUNT_PROPERTY = "dungeon.hunt";
+    /**
+     * Default number of steps from the hero at which enemies start hunting, overridden with
+     * -Ddungeon.huntDistance.
+     */
+    public static final int DEFAULT_HUNT_DISTANCE = 12;
+    /**
+     * Default side of one endless world chunk, overridden with -Ddungeon.chunkSize.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+    /**
+     * Default enemies per endless world chunk, overridden with -Ddungeon.chunkEnemies.
+     */
+    private static final int DEFAULT_CHUNK_ENEMIES = 4;
+    /**
+     * Default number of floors in a run, overridden with -Ddungeon.floors.
+     */
+    private static final int DEFAULT_FLOORS = 3;
+    /**
+     * Keys the hero needs to leave through an exit.
+     */
+    private static final int KEYS_TO_EXIT = 4;
+
+    /**
+     * What one move of the hero led to, for the screen to show.
+     */
+    public static final class Step {
+        private final Tile myTile;
+        private final boolean myIsMetEnemy;
+        private final String myTrapMessage;
+        private final boolean myIsWon;
+
+        private Step(final Tile theTile, final boolean theIsMetEnemy, final String theTrapMessage,
+                     final boolean theIsWon){
+            myTile = theTile;
+            myIsMetEnemy = theIsMetEnemy;
+            myTrapMessage = theTrapMessage;
+            myIsWon = theIsWon;
+        }
+
+        /**
+         * Returns the tile the hero ended the move on, as it was before they picked anything
+         * up or took the stairs.
+         * @return the tile under the hero.
+         */
+        public Tile getTile(){
+            return myTile;
+        }
+
+        /**
+         * Checks whether the hero ended the move on an enemy, the current enemy to fight.
+         * @return true if a fight is due.
+         */
+        public boolean isMetEnemy(){
+            return myIsMetEnemy;
+        }
+
+        /**
+         * Returns what a trap did to the hero.
+         * @return the trap message, null if the hero set off no trap.
+         */
+        public String getTrapMessage(){
+            return myTrapMessage;
+        }
+
+        /**
+         * Checks whether the hero reached an exit with every key.
+         * @return true if the game is won.
+         */
+        public boolean isWon(){
+            return myIsWon;
+        }
+    }
+
+    /**
+     * This is a dungeon generator that will produce a map to store.
+     */
+    private Dungeon myDungeon;
+
+    /**
+     * A grid of cells representing the dungeon map.
+     */
+    private TileMap myMap;
+    /**
+     * Hero to track on game grid and update the data based on events or changes in this object.
+     */
+    private Hero myPlayer;
+
+    private ArrayList<Enemy> myEnemies;
+    /**
+     * Cells of the enemies in myEnemies, for finding who stands where without a scan.
+     */
+    private OccupancyIndex myOccupancy;
+    /**
+     * Random numbers of this session, the dungeon pool and endless world seeds and the
+     * other random numbers come from here.
+     */
+    private final SeededRandom myRandom;
+    /**
+     * Random numbers of the enemy wandering.
+     */
+    private final SeededRandom myMoverRandom;
+    /**
+     * Random numbers of every roll in a fight and of fleeing, handed to the hero and the
+     * enemies.
+     */
+    private final SeededRandom myCombatRandom;
+    /**
+     * Moves the enemies each turn, sharing one flow field between all hunting enemies.
+     */
+    private final EnemyMover myEnemyMover;
+    private final long mySeed;
+    private final int myHuntDistance;
+    private final int myFloorCount;
+    private final int myChunkSize;
+    private final int myChunkEnemies;
+    /**
+     * Seed of the dungeon pool this session starts for itself.
+     */
+    private long myPoolSeed;
+    /**
+     * Dungeons taken from a pool with myPoolSeed before the current pool was started.
+     */
+    private long myPoolTaken;
+    /**
+     * Receives the commands of this session, null when they aren't recorded.
+     */
+    private TurnJournal myJournal;
+    /**
+     * Number of commands given to this session.
+     */
+    private long myCommandCount;
+    /**
+     * Turn order of the hero and the enemies in myEnemies while exploring. Enemies that
+     * leave the enemy list with their chunk are dropped when their turn comes up.
+     */
+    private TurnScheduler<DungeonCharacter> myTurns;
+    /**
+     * Turn order of the hero and the current enemy during a fight, null outside of one.
+     */
+    private TurnScheduler<DungeonCharacter> myCombatTurns;
+    private Enemy myCurrentEnemy;
+    private boolean myHeroSet;
+    private boolean myIsCheats;
+    /**
+     * Size, item and enemy parameters used for the next generated dungeon.
+     */
+    private DungeonConfig myConfig;
+    /**
+     * Background workers that keep populated dungeons ready for new games.
+     */
+    private DungeonPool myPool;
+    /**
+     * Whether myPool was started by this session and must be shut down with it, false for a
+     * pool shared by several sessions.
+     */
+    private boolean myOwnsPool;
+    /**
+     * Streamed world used instead of a single dungeon in endless mode, null otherwise.
+     */
+    private ChunkedWorld myWorld;
+    /**
+     * Floors of the current run linked by stairs, null in endless mode and after loading a save.
+     */
+    private DungeonFloors myFloors;
+
+    /**
+     * Starts a session on its first floor or in a new endless world. Floors come from a
+     * dungeon pool the session starts for itself.
+     *
+     * @param theConfig the configuration dungeons are generated with.
+     * @param theIsEndless true to play the endless chunked world instead of floors.
+     * @param theHuntDistance how many steps away from the hero enemies start hunting them.
+     * @param theSeed the seed of the session's random numbers.
+     * @throws IllegalArgumentException if the configuration is null or the distance is negative.
+     * @throws UncheckedIOException if the floor or chunk directory can't be created.
+     */
+    public GameSession(final DungeonConfig theConfig, final boolean theIsEndless,
+                       final int theHuntDistance, final long theSeed){
+        this(theConfig, null, theIsEndless, theHuntDistance, false, theSeed,
+                Integer.getInteger("dungeon.floors", DEFAULT_FLOORS),
+                Integer.getInteger("dungeon.chunkSize", DEFAULT_CHUNK_SIZE),
+                Integer.getInteger("dungeon.chunkEnemies", DEFAULT_CHUNK_ENEMIES));
+    }
+
+    /**
+     * Starts a session on its first floor, taking its floors from a pool shared with other
+     * sessions. The pool keeps running when the session is closed.
+     *
+     * @param thePool the pool handing out populated dungeons.
+     * @param theHuntDistance how many steps away from the hero enemies start hunting them.
+     * @param theSeed the seed of the session's random numbers.
+     * @throws IllegalArgumentException if the pool is null or the distance is negative.
+     * @throws UncheckedIOException if the floor directory can't be created.
+     */
+    public GameSession(final DungeonPool thePool, final int theHuntDistance, final long theSeed){
+        this(thePool == null ? null : thePool.getConfig(), thePool, false, theHuntDistance, false,
+                theSeed,
+                Integer.getInteger("dungeon.floors", DEFAULT_FLOORS),
+                Integer.getInteger("dungeon.chunkSize", DEFAULT_CHUNK_SIZE),
+                Integer.getInteger("dungeon.chunkEnemies", DEFAULT_CHUNK_ENEMIES));
+    }
+
+    /**
+     * Starts a session with every setting given, such as the one a TurnReplayer replays.
+     *
+     * @param theConfig the configuration dungeons are generated with.
+     * @param thePool a pool shared with other sessions, or null to start one.
+     * @param theIsEndless true to play the endless chunked world instead of floors.
+     * @param theHuntDistance how many steps away from the hero enemies start hunting them.
+     * @param theIsHunting true to make enemies near the hero walk toward them.
+     * @param theSeed the seed of the session's random numbers.
+     * @param theFloorCount the number of floors of a run.
+     * @param theChunkSize the side of one endless world chunk.
+     * @param theChunkEnemies the enemies of one endless world chunk.
+     * @throws IllegalArgumentException if the configuration is null or the distance is negative.
+     * @throws UncheckedIOException if the floor or chunk directory can't be created.
+     */
+    GameSession(final DungeonConfig theConfig, final DungeonPool thePool,
+                final boolean theIsEndless, final int theHuntDistance, final boolean theIsHunting,
+                final long theSeed, final int theFloorCount, final int theChunkSize, final int theChunkEnemies){
+        if(theConfig == null){
+            throw new IllegalArgumentException("Game session needs a dungeon configuration or pool.");
+        }
+        myConfig = theConfig;
+        myPool = thePool;
+        mySeed = theSeed;
+        myHuntDistance = theHuntDistance;
+        myFloorCount = theFloorCount;
+        myChunkSize = theChunkSize;
+        myChunkEnemies = theChunkEnemies;
+        myRandom = new SeededRandom(theSeed);
+        myMoverRandom = myRandom.split();
+        myCombatRandom = myRandom.split();
+        myPoolSeed = myRandom.nextLong();
+        myEnemyMover = new EnemyMover(theHuntDistance, theIsHunting, myMoverRandom);
+        if(theIsEndless){
+            startEndless();
+        }
+        else{
+            startFloors();
+        }
+        myPlayer = null;
+        myHeroSet = false;
+        myIsCheats = false;
+    }
+
+    /**
+     * Starts a session set up by the system properties: the dungeon configuration, endless
+     * mode, hunting and the hunt distance. The seed is random.
+     *
+     * @return the new session.
+     * @throws UncheckedIOException if the floor or chunk directory can't be created.
+     */
+    public static GameSession fromSystemProperties(){
+        return new GameSession(DungeonConfig.fromSystemProperties(), null,
+                Boolean.getBoolean(ENDLESS_PROPERTY),
+                Integer.getInteger("dungeon.huntDistance", DEFAULT_HUNT_DISTANCE),
+                Boolean.getBoolean(HUNT_PROPERTY), new SplittableRandom().nextLong(),
+                Integer.getInteger("dungeon.floors", DEFAULT_FLOORS),
+                Integer.getInteger("dungeon.chunkSize", DEFAULT_CHUNK_SIZE),
+                Integer.getInteger("dungeon.chunkEnemies", DEFAULT_CHUNK_ENEMIES));
+    }
+
+    /**
+     * Returns the player character of this session.
+     *
+     * @return the hero character.
+     * @throws IllegalArgumentException if the player has not been set.
+     */
+    public Hero getPlayer(){
+        if(myPlayer == null){
+            throw new IllegalArgumentException("Game session hasn't defined a player object to use it elsewhere");
+        }
+        return myPlayer;
+    }
+
+    /**
+     * Sets the player character of this session.
+     *
+     * @param thePlayer the hero character to set.
+     * @throws IllegalArgumentException if the player is null or if the hero has already been set.
+     */
+    public void setPlayer(final Hero thePlayer){
+        if(thePlayer == null || myHeroSet){
+            throw new IllegalArgumentException("Can't set player for this game session.");
+        }
+        myPlayer = thePlayer;
+        myPlayer.setRandom(myCombatRandom);
+        myHeroSet = true;
+        if(myJournal != null){
+            myJournal.writePlayer(thePlayer);
+        }
+        myCommandCount++;
+    }
+
+    /**
+     * Returns the player's X-coordinate on the map.
+     *
+     * @return the player's X-coordinate.
+     */
+    public int getPlayerX(){
+        return myPlayer.getPosition().getMyX();
+    }
+
+    /**
+     * Returns the player's Y-coordinate on the map.
+     *
+     * @return the player's Y-coordinate.
+     */
+    public int getPlayerY(){
+        return myPlayer.getPosition().getMyY();
+    }
+
+    /**
+     * Returns the current enemy the player is engaged with.
+     *
+     * @return the current enemy.
+     */
+    public Enemy getEnemy(){
+        return myCurrentEnemy;
+    }
+
+    /**
+     * Returns a list of all enemies in the dungeon.
+     *
+     * @return an ArrayList of all enemies.
+     */
+    public ArrayList<Enemy> getAllEnemies(){
+        return myEnemies;
+    }
+    /**
+     * Checks whether the hero can step to a neighboring cell, one lookup in the map's exit
+     * table.
+     * @param theExit the TileMap.EXIT_* bit of the direction.
+     * @return true if the neighbor in that direction can be walked on.
+     */
+    public boolean canHeroMove(final int theExit){
+        return (myMap.getExits(getPlayerX(), getPlayerY()) & theExit) != 0;
+    }
+
+    /**
+     * Opens the closed doors and closes the open doors next to the hero, including
+     * diagonally. Each door that changes is reported to the hero's event sink.
+     * @return the number of doors opened or closed.
+     */
+    public int toggleDoorsNearHero(){
+        record(TurnJournal.DOORS);
+        int toggled = 0;
+        for(int i = getPlayerX() - 1; i <= getPlayerX() + 1; i++){
+            for(int j = getPlayerY() - 1; j <= getPlayerY() + 1; j++){
+                if(!myMap.isInBounds(i, j)){
+                    continue;
+                }
+                final Tile tile = myMap.get(i, j);
+                if(tile == Tile.DOOR || tile == Tile.OPEN_DOOR){
+                    myMap.set(i, j, tile == Tile.DOOR ? Tile.OPEN_DOOR : Tile.DOOR);
+                    myPlayer.getEvents().onDoor(i, j, tile == Tile.DOOR);
+                    toggled++;
+                }
+            }
+        }
+        return toggled;
+    }
+
+    /**
+     * Plays one move of the hero: the hero steps toward an exit of their cell if it can be
+     * walked on and waits otherwise, then every enemy whose turn comes first steps. Meeting an
+     * enemy on the way makes it the current enemy. If no enemy was met, the tile the hero
+     * ends on takes effect: items are picked up, traps go off, stairs are taken and an exit
+     * wins the game once the hero holds every key.
+     * @param theExit the TileMap.EXIT_* bit of the direction.
+     * @return what the move led to.
+     * @throws IllegalArgumentException if theExit is not a single TileMap.EXIT_* bit.
+     */
+    public Step moveHero(final int theExit){
+        if(theExit != TileMap.EXIT_UP && theExit != TileMap.EXIT_RIGHT
+                && theExit != TileMap.EXIT_DOWN && theExit != TileMap.EXIT_LEFT){
+            throw new IllegalArgumentException("Hero can't move toward exit " + theExit);
+        }
+        record(TurnJournal.MOVE, theExit);
+        if(canHeroMove(theExit)){
+            if(theExit == TileMap.EXIT_UP){
+                myPlayer.moveCharacterUp();
+            }
+            else if(theExit == TileMap.EXIT_RIGHT){
+                myPlayer.moveCharacterRight();
+            }
+            else if(theExit == TileMap.EXIT_DOWN){
+                myPlayer.moveCharacterDown();
+            }
+            else{
+                myPlayer.moveCharacterLeft();
+            }
+        }
+        final boolean metBefore = isHeroNearEnemy();
+        moveEnemies();
+        final boolean metAfter = isHeroNearEnemy();
+        return stepOn(metBefore || metAfter);
+    }
+
+    /**
+     * Applies the tile under the hero at the end of a move.
+     */
+    private Step stepOn(final boolean theIsMetEnemy){
+        final int x = getPlayerX();
+        final int y = getPlayerY();
+        final Tile tile = myMap.get(x, y);
+        String trapMessage = null;
+        boolean isWon = false;
+        switch(tile){
+            case HEALTH_POTION:
+                myPlayer.addHealthPotion();
+                myMap.set(x, y, Tile.FLOOR);
+                break;
+            case KEY:
+                myPlayer.addKey();
+                myMap.set(x, y, Tile.FLOOR);
+                break;
+            case BOMB:
+                myPlayer.addBomb();
+                myMap.set(x, y, Tile.FLOOR);
+                break;
+            case POISON_POTION:
+                if(!theIsMetEnemy){
+                    myPlayer.setMyTrapsTriggered();
+                    trapMessage = "Hero affected by poison!!!\n" + myPlayer.harmFromTrap(tile);
+                    myMap.set(x, y, Tile.FLOOR);
+                }
+                break;
+            case PIT_TRAP:
+                if(!theIsMetEnemy){
+                    myPlayer.setMyTrapsTriggered();
+                    trapMessage = "Hero fell in pit!!! \n" + myPlayer.harmFromTrap(tile);
+                }
+                break;
+            case STAIRS_DOWN:
+                //the fight comes first, the enemy stands on the stairs.
+                if(!theIsMetEnemy && canDescend()){
+                    takeStairsDown();
+                }
+                break;
+            case STAIRS_UP:
+                if(!theIsMetEnemy && canAscend()){
+                    takeStairsUp();
+                }
+                break;
+            case EXIT:
+                //keys picked up on the floors above count too.
+                isWon = !theIsMetEnemy && myPlayer.getHeroKeys() >= KEYS_TO_EXIT;
+                break;
+            default:
+                break;
+        }
+        return new Step(tile, theIsMetEnemy, trapMessage, isWon);
+    }
+
+    /**
+     * Ends the hero's move: every enemy whose turn comes before the hero's next one steps
+     * once, so faster enemies step more often than slower ones. Enemies hunt the hero when
+     * hunting is on and wander otherwise. Enemies never stack and wait when boxed in.
+     */
+    public void enemyMove(){
+        record(TurnJournal.WAIT);
+        moveEnemies();
+    }
+
+    /**
+     * Moves every enemy whose turn comes before the hero's next move.
+     */
+    private void moveEnemies(){
+        if(!myTurns.contains(myPlayer)){
+            myTurns.add(myPlayer);
+        }
+        myEnemyMover.aim(myMap, getPlayerX(), getPlayerY());
+        boolean heroMoved = false;
+        while(!heroMoved || myTurns.peek() != myPlayer){
+            final DungeonCharacter actor = myTurns.next();
+            if(actor == myPlayer){
+                heroMoved = true;
+            }
+            else if(((Enemy) actor).getOccupancy() != myOccupancy){
+                //left the enemy list with its chunk.
+                myTurns.remove(actor);
+            }
+            else{
+                myEnemyMover.move((Enemy) actor, myMap, myOccupancy);
+            }
+        }
+    }
+
+    /**
+     * Starts the turns of every enemy in the enemy list, called whenever the list is
+     * replaced. The hero joins on their next move.
+     */
+    private void resetTurns(){
+        myTurns = new TurnScheduler<>();
+        for(final Enemy enemy : myEnemies){
+            enemy.setRandom(myCombatRandom);
+            myTurns.add(enemy);
+        }
+        myCombatTurns = null;
+    }
+
+    /**
+     * Checks whether enemies near the hero hunt them.
+     * @return true if enemies walk toward the hero, false if they only wander.
+     */
+    public boolean isHunting(){
+        return myEnemyMover.isHunting();
+    }
+
+    /**
+     * Turns hunting on or off for the rest of the session.
+     * @param theIsHunting true to make enemies near the hero walk toward them.
+     */
+    public void setHunting(final boolean theIsHunting){
+        record(TurnJournal.HUNTING, theIsHunting ? 1 : 0);
+        myEnemyMover.setHunting(theIsHunting);
+    }
+    /**
+     * Returns a string representing the positions of all enemies in the dungeon.
+     *
+     * @return a string of enemy positions.
+     */
+    public String getEnemyPositionsToString(){
+        StringBuilder sb = new StringBuilder();
+        for(Enemy e : myEnemies){
+            sb.append("[").append(e.getMyName()).append("] is a ").
+                    append(e.getClass().getSimpleName()).append(" and is at ").append(e.getPosition().
+                            toString()).append(NEW_LINE);
+        }
+        return sb.toString();
+    }
+    public Enemy.Type getEnemyType(final Enemy theEnemy){
+        return theEnemy.getType();
+    }
+    /**
+     * Checks whether an enemy stands on the hero's cell and makes it the current enemy.
+     * @return true if the hero has met an enemy.
+     */
+    public boolean isHeroNearEnemy(){
+        final Enemy enemy = myOccupancy.getAt(getPlayerX(), getPlayerY());
+        if(enemy != null){
+            myCurrentEnemy = enemy;
+        }
+        return enemy != null;
+    }
+
+    /**
+     * Returns where the enemies of the current dungeon or endless world stand, for finding
+     * the enemy on a cell or the enemies near one without going through the whole list.
+     * @return the read side of the enemy occupancy index.
+     */
+    public OccupancyIndex getOccupancy(){
+        return myOccupancy;
+    }
+    /**
+     * Uses a health potion from the hero's inventory. Counts towards the potions used if the
+     * hero had one.
+     *
+     * @return a string describing the result of using the health potion.
+     */
+    public String heroUsesHealthPotion(){
+        record(TurnJournal.POTION);
+        final boolean hasPotion = myPlayer.getHeroHealthPotions() > 0;
+        final String result = myPlayer.useHealthPotion();
+        if(hasPotion){
+            myPlayer.setMyPotionsUsed();
+        }
+        return result;
+    }
+
+    /**
+     * Uses a bomb from the hero's inventory on the current enemy. Counts towards the bombs
+     * used if the hero had one.
+     *
+     * @return a string describing the result of using the bomb.
+     */
+    public String heroUsesBomb() {
+        record(TurnJournal.BOMB);
+        final boolean hasBomb = myPlayer.getHeroBombs() > 0;
+        final String result = myPlayer.useBomb(myCurrentEnemy);
+        if(hasBomb){
+            myPlayer.setMyBombsUsed();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of health potions the hero has.
+     *
+     * @return the number of health potions.
+     */
+    public int getHeroHealthPotions(){
+        return myPlayer.getHeroHealthPotions();
+    }
+
+    /**
+     * Returns the number of keys the hero has.
+     *
+     * @return the number of keys.
+     */
+    public int getHeroKeys(){
+        return myPlayer.getHeroKeys();
+    }
+
+    public int getHeroBombs() {
+        return myPlayer.getHeroBombs();
+    }
+
+    public String getHeroDeathLog(){
+        String message = "[" + myPlayer.getMyName() + "] gave up all hope...";
+        if(myPlayer.getIsDead()){
+            if(myPlayer.getDiedToEnemy()){
+                message = "[" + myPlayer.getMyName() + "] - " + myPlayer.getClass().getSimpleName() +
+                        " had died while fighting [" + myCurrentEnemy.getMyName() + "] - "
+                        + myCurrentEnemy.getType().toString();
+            }
+            else if(myPlayer.getDiedToTrap()){
+                message = "[" + myPlayer.getMyName() + "] - " + myPlayer.getClass().getSimpleName() +
+                        " had died in trap while exploring the dungeon.";
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Takes the next populated dungeon from the pool. Generation and the enemy database
+     * reads already happened on a worker thread.
+     * @return the next dungeon and its enemies.
+     */
+    private DungeonPool.Ready takeNextDungeon(){
+        if(myPool == null){
+            myPool = new DungeonPool(myConfig, myPoolSeed, myPoolTaken);
+            myOwnsPool = true;
+        }
+        return myPool.take();
+    }
+
+    /**
+     * Starts a new run of floors linked by stairs, beginning on the top floor. Floors dropped
+     * from memory are kept in a temporary directory.
+     * @throws UncheckedIOException if the floor directory can't be created.
+     */
+    private void startFloors(){
+        if(myFloors != null){
+            myFloors.close();
+        }
+        try{
+            myFloors = new DungeonFloors(this::takeNextDungeon, myFloorCount,
+                    DungeonFloors.DEFAULT_CACHED_FLOORS,
+                    Files.createTempDirectory("dungeon-floors").toFile());
+        } catch(final IOException e){
+            throw new UncheckedIOException("Can't create a directory for dungeon floors.", e);
+        }
+        enterFloor(myFloors.getCurrent());
+    }
+
+    /**
+     * Makes a floor the one being played.
+     * @param theFloor the floor the hero is on.
+     */
+    private void enterFloor(final Floor theFloor){
+        showFloor(theFloor);
+        myCurrentEnemy = null;
+        resetTurns();
+        if(myIsCheats){
+            myDungeon.cheatMapVis(true);
+        }
+        //the view still shows the floor the hero left.
+        myDungeon.getFogChanges().markAll();
+    }
+
+    /**
+     * Plays a floor's dungeon and enemies.
+     * @param theFloor the floor the hero is on.
+     */
+    private void showFloor(final Floor theFloor){
+        myDungeon = theFloor.getDungeon();
+        myMap = myDungeon.getMap();
+        myEnemies = theFloor.getEnemies();
+        myOccupancy = new OccupancyIndex(myMap.getWidth(), myMap.getHeight(), myEnemies);
+    }
+
+    /**
+     * Checks whether the hero can take stairs down from the current floor.
+     * @return true if there is a floor below.
+     */
+    public boolean canDescend(){
+        return myFloors != null && myFloors.getDepth() + 1 < myFloors.getFloorCount();
+    }
+
+    /**
+     * Checks whether the hero can take stairs up from the current floor.
+     * @return true if there is a floor above.
+     */
+    public boolean canAscend(){
+        return myFloors != null && myFloors.getDepth() > 0;
+    }
+
+    /**
+     * Takes the stairs down the hero stands on. The floor below is generated on the first
+     * visit and the hero arrives on its stairs up.
+     * @throws IllegalStateException if there is no floor below.
+     */
+    public void descend(){
+        if(!canDescend()){
+            throw new IllegalStateException("Game session has no floor below the current floor.");
+        }
+        record(TurnJournal.DESCEND);
+        takeStairsDown();
+    }
+
+    private void takeStairsDown(){
+        final Floor floor = myFloors.descend(getPlayerX(), getPlayerY());
+        enterFloor(floor);
+        placeHero(floor.getUpX(), floor.getUpY());
+    }
+
+    /**
+     * Takes the stairs up the hero stands on. The hero arrives on the stairs down they took.
+     * @throws IllegalStateException if there is no floor above.
+     */
+    public void ascend(){
+        if(!canAscend()){
+            throw new IllegalStateException("Game session has no floor above the current floor.");
+        }
+        record(TurnJournal.ASCEND);
+        takeStairsUp();
+    }
+
+    private void takeStairsUp(){
+        final Floor floor = myFloors.ascend();
+        enterFloor(floor);
+        placeHero(floor.getDownX(), floor.getDownY());
+    }
+
+    /**
+     * Returns the depth of the floor the hero is on.
+     * @return the current depth, 0 for the top floor and in endless mode.
+     */
+    public int getDepth(){
+        return myFloors == null ? 0 : myFloors.getDepth();
+    }
+
+    private void placeHero(final int theX, final int theY){
+        myPlayer.getPosition().setMyX(theX);
+        myPlayer.getPosition().setMyY(theY);
+    }
+
+    /**
+     * Removes the current enemy from the list if it is dead.
+     */
+    public void removeCurrentEnemyIfDead(){
+        record(TurnJournal.LEAVE_COMBAT);
+        if(myCurrentEnemy.getIsDead()){
+            myEnemies.remove(myCurrentEnemy);
+            myOccupancy.remove(myCurrentEnemy);
+            myTurns.remove(myCurrentEnemy);
+        }
+        myCombatTurns = null;
+    }
+    public void removeAllEnemies(){
+        record(TurnJournal.CLEAR_ENEMIES);
+        myEnemies.clear();
+        myOccupancy.clear();
+        resetTurns();
+    }
+    /**
+     * Restarts the game by taking a new populated dungeon from the pool and resetting the
+     * player. Only waits if the pool has not finished generating the next dungeon.
+     * A new endless world gets the next seed from the session's random numbers.
+     */
+    public void restart(){
+        record(TurnJournal.RESTART);
+        if(myWorld != null){
+            myWorld.close();
+            startEndless();
+        }
+        else{
+            startFloors();
+        }
+        myPlayer = null;
+        myHeroSet = false;
+        myIsCheats = false;
+    }
+    /**
+     * Returns the configuration used to generate dungeons.
+     *
+     * @return the dungeon configuration.
+     */
+    public DungeonConfig getDungeonConfig(){
+        return myConfig;
+    }
+
+    /**
+     * Sets the configuration used for the next generated dungeon. The current dungeon is
+     * kept until the next restart, dungeons already prepared with the old configuration
+     * are dropped.
+     *
+     * @param theConfig the dungeon configuration to use.
+     * @throws IllegalArgumentException if the configuration is null.
+     */
+    public void setDungeonConfig(final DungeonConfig theConfig){
+        if(theConfig == null){
+            throw new IllegalArgumentException("Game session can't use a null dungeon configuration.");
+        }
+        if(myJournal != null){
+            myJournal.writeConfigChange(theConfig);
+        }
+        myCommandCount++;
+        myConfig = theConfig;
+        if(myPool != null){
+            if(myOwnsPool){
+                myPool.shutdown();
+            }
+            myPoolSeed = myRandom.nextLong();
+            myPoolTaken = 0;
+            myPool = new DungeonPool(myConfig, myPoolSeed);
+            myOwnsPool = true;
+        }
+    }
+
+    /**
+     * Starts a new endless world made of chunks generated around the hero. Chunks the hero
+     * leaves behind are kept in a temporary directory.
+     * @throws UncheckedIOException if the chunk directory can't be created.
+     */
+    private void startEndless(){
+        final int size = myChunkSize;
+        final DungeonConfig base = new DungeonConfig(size, size);
+        final DungeonConfig chunkConfig = new DungeonConfig(size, size, base.getMinRoomSize(),
+                base.getMinRooms(), base.getKeys(), base.getExits(), base.getHealthPotions(),
+                base.getPoisonPotions(), base.getBombs(), base.getPitTraps(),
+                myChunkEnemies,
+                base.getMaxAttempts());
+        try{
+            myWorld = new ChunkedWorld(chunkConfig, myRandom.nextLong(),
+                    Files.createTempDirectory("dungeon-chunks").toFile(), new ChunkPopulator(){
+                        @Override
+                        public ArrayList<Enemy> populate(final Dungeon theChunk,
+                                                         final int theOriginX, final int theOriginY){
+                            return EntityLoader.populate(theChunk, theOriginX, theOriginY);
+                        }
+                    });
+        } catch(final IOException e){
+            throw new UncheckedIOException("Can't create a directory for the endless world.", e);
+        }
+        myDungeon = null;
+        myMap = myWorld;
+        myEnemies = myWorld.getEnemies();
+        myOccupancy = myWorld.getOccupancy();
+        resetTurns();
+    }
+
+    /**
+     * Checks whether the game is played in the endless chunked world.
+     * @return true in endless mode, where there is no single dungeon to save.
+     */
+    public boolean isEndless(){
+        return myWorld != null;
+    }
+    public void updateMapFOW(){
+        record(TurnJournal.FOG);
+        if(myWorld != null){
+            final int joined = myWorld.focus(getPlayerX(), getPlayerY());
+            //enemies of newly loaded chunks join at the end of the list.
+            for(int i = myEnemies.size() - joined; i < myEnemies.size(); i++){
+                final Enemy enemy = myEnemies.get(i);
+                if(!myTurns.contains(enemy)){
+                    enemy.setRandom(myCombatRandom);
+                    myTurns.add(enemy);
+                }
+            }
+            if(!myIsCheats){
+                myWorld.updateFOW(getPlayerX(), getPlayerY(), 3);
+            }
+            else{
+                myWorld.getFogChanges().markAll();
+            }
+        }
+        else{
+            myDungeon.updateFOW(getPlayerX(), getPlayerY(), 3, myIsCheats);
+        }
+    }
+
+    /**
+     * Returns the fog of war of the current dungeon or endless world. Renderers and enemy AI
+     * fetch it once and query it per cell, it stays valid until the hero changes floors or
+     * the game restarts.
+     * @return the read only fog of war.
+     */
+    public VisibilityView getVisibility(){
+        return myWorld != null ? myWorld : myDungeon;
+    }
+
+    /**
+     * Checks whether a map cell is in the hero's line of sight.
+     * @param theX x coordinate of the cell.
+     * @param theY y coordinate of the cell.
+     * @return true if the cell is visible.
+     */
+    public boolean isVisible(final int theX, final int theY){
+        return getVisibility().isVisible(theX, theY);
+    }
+
+    /**
+     * Checks whether the hero has seen a map cell before.
+     * @param theX x coordinate of the cell.
+     * @param theY y coordinate of the cell.
+     * @return true if the cell has been explored.
+     */
+    public boolean isExplored(final int theX, final int theY){
+        return getVisibility().isExplored(theX, theY);
+    }
+    /**
+     * Returns the fog of war changes made since the view last cleared them.
+     * @return the pending fog changes of the current dungeon or endless world.
+     */
+    public FogChanges getFogChanges(){
+        return myWorld != null ? myWorld.getFogChanges() : myDungeon.getFogChanges();
+    }
+
+    /**
+     * Returns how much of the current dungeon the hero has seen.
+     * @return the explored share of the map from 0 to 100, 0 in endless mode.
+     */
+    public int getExploredPercent(){
+        return myDungeon == null ? 0 : myDungeon.getExploredPercent();
+    }
+    public void toggleCheats(){
+        record(TurnJournal.CHEATS);
+        if(myWorld != null){
+            myWorld.setRevealed(!myIsCheats);
+        }
+        if(myIsCheats){
+            myIsCheats = false;
+            if(myDungeon != null){
+                myDungeon.cheatMapVis(false);
+            }
+        }
+        else{
+            myIsCheats = true;
+            if(myDungeon != null){
+                myDungeon.cheatMapVis(true);
+            }
+            for(int i = 0; i < 20; i++){
+                myPlayer.addBomb();
+                myPlayer.addHealthPotion();
+                myPlayer.addKey();
+            }
+        }
+    }
+    public boolean getIsCheats(){
+        return myIsCheats;
+    }
+    /**
+     * Returns the tiles that define the game grid, addressed by (x, y). In endless mode
+     * this is the whole streamed world in world coordinates.
+     * @return TileMap of cells that define the game grid.
+     */
+    public TileMap getMap(){
+        return myMap;
+    }
+
+    /**
+     * Compare the speed of two characters. Returns positive if first is faster than second.
+     * Preferable use: first is faster than second.
+     * @param theFirst DungeonCharacter that is compared first.
+     * @param theSecond DungeonCharacter that is compared second.
+     * @return Turns for this character compared to other character.
+     */
+    public int compareSpeed(final DungeonCharacter theFirst, final DungeonCharacter theSecond){
+        return theFirst.compareSpeed(theSecond);
+    }
+
+    /**
+     * Starts the turn order of a fight between the hero and the current enemy. An enemy
+     * fast enough to act before the hero attacks right away.
+     *
+     * @return what the enemy did before the hero's first turn, one line per attack, empty
+     *         if the hero goes first.
+     * @throws IllegalStateException if the current enemy or player is null.
+     */
+    public String startCombat(){
+        if(myCurrentEnemy == null || myPlayer == null){
+            throw new IllegalStateException("Game session can't start a fight without a player and an enemy.");
+        }
+        record(TurnJournal.START_COMBAT);
+        myCombatTurns = new TurnScheduler<>();
+        myCombatTurns.add(myPlayer);
+        myCombatTurns.add(myCurrentEnemy);
+        return enemyCombatTurns();
+    }
+
+    /**
+     * Ends the hero's turn in the current fight: the enemy takes every turn that comes
+     * before the hero's next one.
+     *
+     * @return what the enemy did, one line per attack, empty if it didn't act.
+     * @throws IllegalStateException if no fight was started.
+     */
+    public String endHeroCombatTurn(){
+        if(myCombatTurns == null){
+            throw new IllegalStateException("Game session has no fight to take a turn in.");
+        }
+        record(TurnJournal.END_TURN);
+        myCombatTurns.next();
+        return enemyCombatTurns();
+    }
+
+    /**
+     * The hero tries to run from the current fight, a coin flip. A hero who got away leaves
+     * the fight, one who didn't still has to end their turn.
+     *
+     * @return true if the hero got away.
+     * @throws IllegalStateException if no fight was started.
+     */
+    public boolean flee(){
+        if(myCombatTurns == null){
+            throw new IllegalStateException("Game session has no fight to flee from.");
+        }
+        record(TurnJournal.FLEE);
+        final boolean fled = myCombatRandom.nextBoolean();
+        if(fled){
+            myCombatTurns = null;
+        }
+        return fled;
+    }
+
+    /**
+     * Returns how many turns the hero gets before the enemy of the current fight acts.
+     *
+     * @return the hero's turns left, the current one included.
+     * @throws IllegalStateException if no fight was started.
+     */
+    public int getHeroCombatTurns(){
+        if(myCombatTurns == null){
+            throw new IllegalStateException("Game session has no fight to count turns in.");
+        }
+        return myCombatTurns.countActionsBefore(myPlayer, myCurrentEnemy);
+    }
+
+    /**
+     * Lets the enemy of the current fight attack until it is the hero's turn.
+     */
+    private String enemyCombatTurns(){
+        final StringBuilder log = new StringBuilder();
+        while(myCombatTurns.peek() != myPlayer){
+            myCombatTurns.next();
+            if(!myCurrentEnemy.getIsDead() && !myPlayer.getIsDead()){
+                if(log.length() > 0){
+                    log.append(NEW_LINE);
+                }
+                log.append(myCurrentEnemy.attack(myPlayer));
+            }
+        }
+        return log.toString();
+    }
+
+    /**
+     * Performs an attack by the player on the current enemy.
+     *
+     * @return a string describing the result of the attack.
+     * @throws IllegalStateException if the current enemy or player is null.
+     */
+    public String playerPerformAttack(){
+        if(myCurrentEnemy == null){
+            throw new IllegalStateException("Game session issued player attack enemy but the enemy is null");
+        }
+        if(myPlayer == null){
+            throw new IllegalStateException("Game session issued player attack enemy but the player is null");
+        }
+        record(TurnJournal.ATTACK);
+        return myPlayer.attack(myCurrentEnemy);
+    }
+
+    /**
+     * Performs an attack by the current enemy on the player.
+     *
+     * @return a string describing the result of the attack.
+     * @throws IllegalStateException if the current enemy or player is null.
+     */
+    public String enemyPerformAttack(){
+        if(myCurrentEnemy == null){
+            throw new IllegalStateException("Game session issued enemy <attack> player but the enemy is null");
+        }
+        if(myPlayer == null){
+            throw new IllegalStateException("Game session issued enemy <attack> player but the player is null");
+        }
+        record(TurnJournal.ENEMY_ATTACK);
+        return myCurrentEnemy.attack(myPlayer);
+    }
+
+    /**
+     * Performs a special action by the player on the current enemy.
+     *
+     * @return a string describing the result of the special action.
+     * @throws IllegalStateException if the current enemy or player is null, or if the player is not a recognized hero type.
+     */
+    public String specialActionPerform(){
+        if(myCurrentEnemy == null){
+            throw new IllegalStateException("Game session issued player <special action> but the enemy is null");
+        }
+        if(myPlayer == null){
+            throw new IllegalStateException("Game session issued player <special action> but the player is null");
+        }
+        record(TurnJournal.SPECIAL);
+        final String result;
+        if(myPlayer instanceof Warrior){
+            result = ((Warrior) myPlayer).specialAction(myCurrentEnemy);
+        }
+        else if(myPlayer instanceof Priestess){
+            result = ((Priestess) myPlayer).specialAction();
+        }
+        else if(myPlayer instanceof Thief){
+            result = ((Thief) myPlayer).specialAction(myCurrentEnemy);
+        }
+        else {
+            throw new IllegalStateException("Game session player is not an instance " +
+                    "of concrete implementation of Hero abstract class."
+                    + myPlayer.getClass().getSimpleName());
+        }
+        return result;
+    }
+    /**
+     * Retrieves the current dungeon instance.
+     *
+     * @return The current Dungeon object.
+     */
+    public Dungeon getDungeon() {
+        return myDungeon;
+    }
+
+    /**
+     * Loads the game data from the specified GameData object.
+     * This method initializes the player's data, dungeon data, and enemy data.
+     *
+     * A save isn't made from the seed, so loading one ends the turn journal.
+     *
+     * @param theGameData The GameData object containing the data to be loaded.
+     */
+    public void loadGame(final GameData theGameData) {
+        //a save isn't made from the seed, the journal can't replay past it.
+        stopJournal();
+        // Load player data
+        myPlayer = theGameData.getHero();
+        myPlayer.setRandom(myCombatRandom);
+        myHeroSet = true;
+
+        // Load dungeon data
+        if(myWorld != null){
+            myWorld.close();
+            myWorld = null;
+        }
+        //a save holds a single floor, the loaded game has no stairs to follow.
+        if(myFloors != null){
+            myFloors.close();
+            myFloors = null;
+        }
+        myDungeon = theGameData.getDungeon();
+        myMap = myDungeon.getMap();
+
+        // Load enemy data
+        myEnemies = theGameData.getEnemies();
+        myOccupancy = new OccupancyIndex(myMap.getWidth(), myMap.getHeight(), myEnemies);
+        resetTurns();
+    }
+
+    /**
+     * Starts writing this session's commands to a journal, starting with a header of the
+     * seed and settings the session was started with. Only a session that has not been given
+     * any command yet and starts its own dungeon pool can be journaled, anything else could
+     * not be replayed from the header.
+     *
+     * @param theOut the stream the journal is written to, closed with the session.
+     * @throws IllegalStateException if the session was given commands, shares its dungeon
+     *                               pool or already has a journal.
+     * @throws UncheckedIOException if the header can't be written.
+     */
+    public void startJournal(final OutputStream theOut){
+        if(myJournal != null || myCommandCount > 0 || (myPool != null && !myOwnsPool)){
+            throw new IllegalStateException("Only a new session with its own dungeon pool can start a journal.");
+        }
+        myJournal = new TurnJournal(theOut, mySeed, myConfig, myWorld != null, myHuntDistance,
+                isHunting(), myFloorCount, myChunkSize, myChunkEnemies);
+    }
+
+    /**
+     * Returns the number of commands given to this session, the number of journal entries
+     * if it was journaled from the start.
+     * @return the number of commands.
+     */
+    public long getCommandCount(){
+        return myCommandCount;
+    }
+
+    /**
+     * Closes the journal, the commands that follow are not recorded.
+     */
+    private void stopJournal(){
+        if(myJournal != null){
+            try{
+                myJournal.close();
+            } catch(final IOException e){
+                throw new UncheckedIOException("Can't close the turn journal.", e);
+            } finally{
+                myJournal = null;
+            }
+        }
+    }
+
+    /**
+     * Counts a command and writes it to the journal.
+     */
+    private void record(final int theOpcode){
+        if(myJournal != null){
+            myJournal.write(theOpcode);
+        }
+        myCommandCount++;
+    }
+
+    private void record(final int theOpcode, final int theArgument){
+        if(myJournal != null){
+            myJournal.write(theOpcode, theArgument);
+        }
+        myCommandCount++;
+    }
+
+    /**
+     * Everything a session of floors needs to carry on where it was: the floors, the
+     * characters, their turns and the state of every random number.
+     */
+    private static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private DungeonConfig myConfig;
+        private List<Floor> myFloors;
+        private int myDepth;
+        private Hero myPlayer;
+        private Enemy myCurrentEnemy;
+        private boolean myHeroSet;
+        private boolean myIsCheats;
+        private boolean myIsHunting;
+        private TurnScheduler<DungeonCharacter> myTurns;
+        private TurnScheduler<DungeonCharacter> myCombatTurns;
+        private SeededRandom myRandom;
+        private SeededRandom myMoverRandom;
+        private SeededRandom myCombatRandom;
+        private long mySeed;
+        private int myHuntDistance;
+        private int myFloorCount;
+        private int myChunkSize;
+        private int myChunkEnemies;
+        private long myPoolSeed;
+        private long myPoolTaken;
+        private long myCommandCount;
+    }
+
+    /**
+     * Saves the whole state of this session, such as for a TurnReplayer to seek back to.
+     * Only floors are saved, the endless world is too large.
+     * @return the saved state.
+     * @throws IllegalStateException if the session plays the endless world, a loaded save or
+     *                               shares its dungeon pool.
+     * @throws UncheckedIOException if the state can't be written.
+     */
+    byte[] snapshot(){
+        if(myFloors == null || !myOwnsPool && myPool != null){
+            throw new IllegalStateException("Only a session of floors with its own dungeon pool can be saved.");
+        }
+        final State state = new State();
+        state.myConfig = myConfig;
+        state.myFloors = myFloors.getFloors();
+        state.myDepth = myFloors.getDepth();
+        state.myPlayer = myPlayer;
+        state.myCurrentEnemy = myCurrentEnemy;
+        state.myHeroSet = myHeroSet;
+        state.myIsCheats = myIsCheats;
+        state.myIsHunting = isHunting();
+        state.myTurns = myTurns;
+        state.myCombatTurns = myCombatTurns;
+        state.myRandom = myRandom;
+        state.myMoverRandom = myMoverRandom;
+        state.myCombatRandom = myCombatRandom;
+        state.mySeed = mySeed;
+        state.myHuntDistance = myHuntDistance;
+        state.myFloorCount = myFloorCount;
+        state.myChunkSize = myChunkSize;
+        state.myChunkEnemies = myChunkEnemies;
+        state.myPoolSeed = myPoolSeed;
+        state.myPoolTaken = myPool != null ? myPool.getTaken() : myPoolTaken;
+        state.myCommandCount = myCommandCount;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(state);
+        } catch(final IOException e){
+            throw new UncheckedIOException("Can't save the game session.", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Starts a session from a state saved by snapshot. The session starts its own dungeon
+     * pool, which hands out the same dungeons the saved session's pool would have.
+     * @param theSnapshot the saved state.
+     * @return the session as it was saved, without a journal.
+     * @throws UncheckedIOException if the state can't be read or the floor directory can't
+     *                              be created.
+     */
+    static GameSession restore(final byte[] theSnapshot){
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(theSnapshot))){
+            return new GameSession((State) in.readObject());
+        } catch(final IOException e){
+            throw new UncheckedIOException("Can't restore the game session.", e);
+        } catch(final ClassNotFoundException e){
+            throw new IllegalStateException("Game session snapshot holds an unknown class.", e);
+        }
+    }
+
+    private GameSession(final State theState){
+        myConfig = theState.myConfig;
+        mySeed = theState.mySeed;
+        myHuntDistance = theState.myHuntDistance;
+        myFloorCount = theState.myFloorCount;
+        myChunkSize = theState.myChunkSize;
+        myChunkEnemies = theState.myChunkEnemies;
+        myRandom = theState.myRandom;
+        myMoverRandom = theState.myMoverRandom;
+        myCombatRandom = theState.myCombatRandom;
+        myPoolSeed = theState.myPoolSeed;
+        myPoolTaken = theState.myPoolTaken;
+        myCommandCount = theState.myCommandCount;
+        myEnemyMover = new EnemyMover(myHuntDistance, theState.myIsHunting, myMoverRandom);
+        try{
+            myFloors = new DungeonFloors(this::takeNextDungeon, myFloorCount,
+                    DungeonFloors.DEFAULT_CACHED_FLOORS,
+                    Files.createTempDirectory("dungeon-floors").toFile(), theState.myFloors,
+                    theState.myDepth);
+        } catch(final IOException e){
+            throw new UncheckedIOException("Can't create a directory for dungeon floors.", e);
+        }
+        showFloor(myFloors.getCurrent());
+        myPlayer = theState.myPlayer;
+        myHeroSet = theState.myHeroSet;
+        myIsCheats = theState.myIsCheats;
+        myCurrentEnemy = theState.myCurrentEnemy;
+        myTurns = theState.myTurns;
+        myCombatTurns = theState.myCombatTurns;
+        if(myPlayer != null){
+            myPlayer.setRandom(myCombatRandom);
+        }
+        for(final Enemy enemy : myEnemies){
+            enemy.setRandom(myCombatRandom);
+        }
+        myDungeon.getFogChanges().markAll();
+    }
+
+    /**
+     * Ends the session: deletes the floors or chunks it kept on disk and stops its dungeon
+     * pool, unless the pool is shared with other sessions. The session can't be played
+     * afterwards.
+     */
+    public void close(){
+        stopJournal();
+        if(myWorld != null){
+            myWorld.close();
+        }
+        if(myFloors != null){
+            myFloors.close();
+        }
+        if(myPool != null && myOwnsPool){
+            myPool.shutdown();
+        }
+    }
+}
@@ -1,11 +1,6 @@
 package model;
 
-import static com.dungeonadventure.game.DungeonAdventure.mySETTINGS;
-
-import com.badlogic.gdx.Gdx;
-
 import java.io.Serializable;
-import java.util.Random;
 /**
  * Class that defines Hero type of character that is different in its ability to be playable
  * by a user, has special actions and ability to block.
@@ -163,7 +158,7 @@ abstract public class Hero extends DungeonCharacter implements Serializable {
     @Override
     public String receiveDamage(final int incomingDamage){
         if(checkForBlock()){
-            mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/Block.ogg")));
+            getEvents().onBlock(this);
             return getMyName() + " blocked the attack.";
         }
         return super.receiveDamage(incomingDamage);
@@ -181,7 +176,7 @@ abstract public class Hero extends DungeonCharacter implements Serializable {
      * @return true/false if attack was blocked.
      */
     public boolean checkForBlock(){
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         return  rand.nextInt(RANDOM_FROM_HUNDRED + 1) <= myBlockChance;
     }
 
@@ -5,7 +5,6 @@ import com.sun.org.apache.bcel.internal.generic.NEW;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 /**
  * Picks a name for an entity created upon start of the game
@@ -97,12 +96,7 @@ public final class NameGenerator {
         "Strelak The Mute"
     };
     /**
-     * Random value generator used to select names.
-     */
-    private static final Random myRandom = new Random();
-
-    /**
-     * Constructor initializes the object and Random value generator.
+     * Private constructor, the names are picked through the static methods.
      */
     private NameGenerator(){
     }
@@ -112,14 +106,14 @@ public final class NameGenerator {
      * @return String name of warrior character.
      */
     public static String getWarriorName(){
-        return myWarriorNames[myRandom.nextInt(NAMES_NUM)];
+        return myWarriorNames[RandomSource.THREAD.nextInt(NAMES_NUM)];
     }
     /**
      * Returns random name out of list of Priestess names.
      * @return String name of priestess character.
      */
     public static String getPriestessName(){
-        return myPriestessNames[myRandom.nextInt(NAMES_NUM)];
+        return myPriestessNames[RandomSource.THREAD.nextInt(NAMES_NUM)];
     }
 
     /**
@@ -127,7 +121,7 @@ public final class NameGenerator {
      * @return String name of thief character.
      */
     public static String getThiefName(){
-        return myThiefNames[myRandom.nextInt(NAMES_NUM)];
+        return myThiefNames[RandomSource.THREAD.nextInt(NAMES_NUM)];
     }
 
     /**
@@ -135,7 +129,16 @@ public final class NameGenerator {
      * @return String name of ogre character.
      */
     public static String getOgreName(){
-        return myOgreNames[myRandom.nextInt(NAMES_NUM)];
+        return getOgreName(RandomSource.THREAD);
+    }
+
+    /**
+     * Returns random name out of list of Ogre names, picked with the given random numbers.
+     * @param theRandom random numbers the name is picked with.
+     * @return String name of ogre character.
+     */
+    public static String getOgreName(final RandomSource theRandom){
+        return myOgreNames[theRandom.nextInt(NAMES_NUM)];
     }
 
     /**
@@ -143,7 +146,16 @@ public final class NameGenerator {
      * @return String name of gremlin character.
      */
     public static String getGremlinName(){
-        return myGremlinNames[myRandom.nextInt(NAMES_NUM)];
+        return getGremlinName(RandomSource.THREAD);
+    }
+
+    /**
+     * Returns random name out of list of Gremlin names, picked with the given random numbers.
+     * @param theRandom random numbers the name is picked with.
+     * @return String name of gremlin character.
+     */
+    public static String getGremlinName(final RandomSource theRandom){
+        return myGremlinNames[theRandom.nextInt(NAMES_NUM)];
     }
 
     /**
@@ -151,7 +163,16 @@ public final class NameGenerator {
      * @return String name of skeleton character.
      */
     public static String getSkeletonName(){
-        return mySkeletonNames[myRandom.nextInt(NAMES_NUM)];
+        return getSkeletonName(RandomSource.THREAD);
+    }
+
+    /**
+     * Returns random name out of list of Skeleton names, picked with the given random numbers.
+     * @param theRandom random numbers the name is picked with.
+     * @return String name of skeleton character.
+     */
+    public static String getSkeletonName(final RandomSource theRandom){
+        return mySkeletonNames[theRandom.nextInt(NAMES_NUM)];
     }
 
     /**
@@ -0,0 +1,328 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which enemies stand on which cells, so "who is at (x, y)" is one lookup and "who is near"
+ * only looks at the cells around a point instead of every enemy on the map.
+ * Every indexed enemy gets a small int id. Each cell holds the id of one enemy standing on
+ * it, and each id links to the next enemy on the same cell, so enemies stacked by an old save
+ * are still found. On maps up to MAX_GRID_CELLS cells the cell heads live in a flat int
+ * grid, larger maps such as the endless world use a hash of the occupied cells instead.
+ * Enemies keep the index up to date themselves: the moveCharacter calls of an indexed enemy
+ * move it to its new cell.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class OccupancyIndex {
+    /**
+     * The largest map that gets a flat grid, 16 MB of cell heads.
+     */
+    public static final int MAX_GRID_CELLS = 1 << 22;
+    /**
+     * Marks an empty cell or the end of a cell's list.
+     */
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int myWidth;
+    private final int myHeight;
+    /**
+     * Id of the first enemy on each cell, stored at y * width + x, or null on large maps.
+     */
+    private final int[] myGrid;
+    /**
+     * Id of the first enemy on each occupied cell of a large map, or null on small maps.
+     */
+    private final Map<Long, Integer> myCells;
+    /**
+     * Enemy of each id, null for free ids.
+     */
+    private Enemy[] myEnemies;
+    /**
+     * Id of the next enemy on the same cell, or the next free id for free ids.
+     */
+    private int[] myNext;
+    private int myFreeId;
+    private int myIdCount;
+    private int mySize;
+
+    /**
+     * Creates an empty index for a map.
+     *
+     * @param theWidth The number of cells along the x-axis.
+     * @param theHeight The number of cells along the y-axis.
+     * @throws IllegalArgumentException if a dimension is not positive.
+     */
+    public OccupancyIndex(final int theWidth, final int theHeight) {
+        if (theWidth <= 0 || theHeight <= 0) {
+            throw new IllegalArgumentException("Occupancy index dimensions must be positive, got "
+                    + theWidth + "x" + theHeight);
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        if ((long) theWidth * theHeight <= MAX_GRID_CELLS) {
+            myGrid = new int[theWidth * theHeight];
+            Arrays.fill(myGrid, NONE);
+            myCells = null;
+        } else {
+            myGrid = null;
+            myCells = new HashMap<>();
+        }
+        myEnemies = new Enemy[INITIAL_CAPACITY];
+        myNext = new int[INITIAL_CAPACITY];
+        myFreeId = NONE;
+    }
+
+    /**
+     * Creates an index holding a list of enemies.
+     *
+     * @param theWidth The number of cells along the x-axis.
+     * @param theHeight The number of cells along the y-axis.
+     * @param theEnemies The enemies to index.
+     * @throws IllegalArgumentException if a dimension is not positive or an enemy stands
+     *                                  outside the map.
+     */
+    public OccupancyIndex(final int theWidth, final int theHeight, final List<Enemy> theEnemies) {
+        this(theWidth, theHeight);
+        for (final Enemy enemy : theEnemies) {
+            add(enemy);
+        }
+    }
+
+    /**
+     * Gets the number of indexed enemies.
+     *
+     * @return The number of enemies.
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Checks whether any enemy stands on a cell. Cells outside the map are never occupied.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if an enemy stands on the cell.
+     */
+    public boolean isOccupied(final int theX, final int theY) {
+        return head(theX, theY) != NONE;
+    }
+
+    /**
+     * Finds the enemy standing on a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The enemy on the cell, or null if there is none or the cell is outside the map.
+     */
+    public Enemy getAt(final int theX, final int theY) {
+        final int id = head(theX, theY);
+        return id == NONE ? null : myEnemies[id];
+    }
+
+    /**
+     * Adds every enemy within a square around a cell to a list: every enemy whose x and y
+     * are both at most theRadius away. Looks at the (2r + 1)^2 cells of the square, or at
+     * every enemy when there are fewer enemies than cells.
+     *
+     * @param theX The x coordinate of the center.
+     * @param theY The y coordinate of the center.
+     * @param theRadius How many cells away from the center to look.
+     * @param theResult Receives the enemies found.
+     * @return The number of enemies added.
+     * @throws IllegalArgumentException if the radius is negative.
+     */
+    public int findWithin(final int theX, final int theY, final int theRadius,
+                          final List<Enemy> theResult) {
+        if (theRadius < 0) {
+            throw new IllegalArgumentException("Search radius can't be negative, got " + theRadius);
+        }
+        final int fromX = Math.max(0, theX - theRadius);
+        final int toX = Math.min(myWidth - 1, theX + theRadius);
+        final int fromY = Math.max(0, theY - theRadius);
+        final int toY = Math.min(myHeight - 1, theY + theRadius);
+        if (fromX > toX || fromY > toY) {
+            return 0;
+        }
+        int found = 0;
+        if ((long) (toX - fromX + 1) * (toY - fromY + 1) > mySize) {
+            for (int id = 0; id < myIdCount; id++) {
+                final Enemy enemy = myEnemies[id];
+                if (enemy != null) {
+                    final int x = enemy.getPosition().getMyX();
+                    final int y = enemy.getPosition().getMyY();
+                    if (x >= fromX && x <= toX && y >= fromY && y <= toY) {
+                        theResult.add(enemy);
+                        found++;
+                    }
+                }
+            }
+            return found;
+        }
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                for (int id = head(x, y); id != NONE; id = myNext[id]) {
+                    theResult.add(myEnemies[id]);
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds an enemy on the cell it stands on. From now on its moves update the index.
+     * An enemy can only be in one index, adding it here takes it out of any other.
+     *
+     * @param theEnemy The enemy to add.
+     * @throws IllegalArgumentException if the enemy is null or stands outside the map.
+     */
+    void add(final Enemy theEnemy) {
+        if (theEnemy == null) {
+            throw new IllegalArgumentException("Occupancy index can't hold a null enemy.");
+        }
+        final int x = theEnemy.getPosition().getMyX();
+        final int y = theEnemy.getPosition().getMyY();
+        if (x < 0 || y < 0 || x >= myWidth || y >= myHeight) {
+            throw new IllegalArgumentException("Enemy at (" + x + ", " + y + ") is outside the "
+                    + myWidth + "x" + myHeight + " map.");
+        }
+        if (theEnemy.getOccupancy() != null) {
+            theEnemy.getOccupancy().remove(theEnemy);
+        }
+        final int id = newId();
+        myEnemies[id] = theEnemy;
+        link(id, x, y);
+        theEnemy.setOccupancy(this, id);
+        mySize++;
+    }
+
+    /**
+     * Removes an enemy, its moves no longer update the index.
+     *
+     * @param theEnemy The enemy to remove.
+     * @return true if the enemy was in this index.
+     */
+    boolean remove(final Enemy theEnemy) {
+        if (theEnemy == null || theEnemy.getOccupancy() != this) {
+            return false;
+        }
+        final int id = theEnemy.getOccupancyId();
+        unlink(id, theEnemy.getPosition().getMyX(), theEnemy.getPosition().getMyY());
+        myEnemies[id] = null;
+        myNext[id] = myFreeId;
+        myFreeId = id;
+        theEnemy.setOccupancy(null, NONE);
+        mySize--;
+        return true;
+    }
+
+    /**
+     * Removes every enemy.
+     */
+    void clear() {
+        for (int id = 0; id < myIdCount; id++) {
+            if (myEnemies[id] != null) {
+                myEnemies[id].setOccupancy(null, NONE);
+                myEnemies[id] = null;
+            }
+        }
+        if (myGrid != null) {
+            Arrays.fill(myGrid, NONE);
+        } else {
+            myCells.clear();
+        }
+        myIdCount = 0;
+        myFreeId = NONE;
+        mySize = 0;
+    }
+
+    /**
+     * Moves an enemy from the cell it stood on to the cell it stands on now, called by the
+     * enemy after each step.
+     *
+     * @param theEnemy The enemy that moved.
+     * @param theFromX The x coordinate it moved from.
+     * @param theFromY The y coordinate it moved from.
+     */
+    void moved(final Enemy theEnemy, final int theFromX, final int theFromY) {
+        final int id = theEnemy.getOccupancyId();
+        unlink(id, theFromX, theFromY);
+        link(id, theEnemy.getPosition().getMyX(), theEnemy.getPosition().getMyY());
+    }
+
+    /**
+     * Takes a free id, growing the id arrays when every id is in use.
+     */
+    private int newId() {
+        if (myFreeId != NONE) {
+            final int id = myFreeId;
+            myFreeId = myNext[id];
+            return id;
+        }
+        if (myIdCount == myEnemies.length) {
+            myEnemies = Arrays.copyOf(myEnemies, myIdCount * 2);
+            myNext = Arrays.copyOf(myNext, myIdCount * 2);
+        }
+        return myIdCount++;
+    }
+
+    /**
+     * Puts an id at the front of a cell's list. Moving off the map is not possible, the
+     * tiles around every map are walls.
+     */
+    private void link(final int theId, final int theX, final int theY) {
+        myNext[theId] = head(theX, theY);
+        setHead(theX, theY, theId);
+    }
+
+    /**
+     * Takes an id out of a cell's list.
+     */
+    private void unlink(final int theId, final int theX, final int theY) {
+        int id = head(theX, theY);
+        if (id == theId) {
+            setHead(theX, theY, myNext[theId]);
+            return;
+        }
+        while (id != NONE && myNext[id] != theId) {
+            id = myNext[id];
+        }
+        if (id == NONE) {
+            throw new IllegalStateException("Occupancy index lost track of an enemy at ("
+                    + theX + ", " + theY + ").");
+        }
+        myNext[id] = myNext[theId];
+    }
+
+    private int head(final int theX, final int theY) {
+        if (theX < 0 || theY < 0 || theX >= myWidth || theY >= myHeight) {
+            return NONE;
+        }
+        if (myGrid != null) {
+            return myGrid[theY * myWidth + theX];
+        }
+        final Integer id = myCells.get(key(theX, theY));
+        return id == null ? NONE : id;
+    }
+
+    private void setHead(final int theX, final int theY, final int theId) {
+        if (myGrid != null) {
+            myGrid[theY * myWidth + theX] = theId;
+        } else if (theId == NONE) {
+            myCells.remove(key(theX, theY));
+        } else {
+            myCells.put(key(theX, theY), theId);
+        }
+    }
+
+    private static long key(final int theX, final int theY) {
+        return ((long) theX << 32) | (theY & 0xFFFFFFFFL);
+    }
+}
@@ -1,7 +1,6 @@
 package model;
 
 import java.io.Serializable;
-import java.util.Random;
 /**
  * Hero subclass, the Priestess is a playable character that has normal HP and normal attacks,
  * faster than Warrior but slower than Thief. Her special ability called 'Heal' will save her
@@ -71,7 +70,7 @@ public final class Priestess extends Hero implements Healable, Serializable {
      * @return int amount to heal
      */
     public int heal(){
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         return rand.nextInt(PRIESTESS_SKILL_MIN_HEAL, PRIESTESS_SKILL_MAX_HEAL+1);
     }
 
@@ -0,0 +1,107 @@
+package model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Where the model's random numbers come from. Every roll, a hit, a heal, a block, a trap, an
+ * enemy type or a wandering step, draws from a source handed in by whoever plays the model
+ * instead of creating its own generator, so a session started from a seed rolls the same
+ * numbers every time and a simulation can give each worker its own source.
+ * Implementations only have to produce 64 random bits at a time, the other draws are built
+ * on nextLong without allocating.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public interface RandomSource {
+    /**
+     * A source backed by the calling thread's ThreadLocalRandom. Safe to share between
+     * threads and never allocates, for rolls that don't have to be reproduced.
+     */
+    RandomSource THREAD = new RandomSource() {
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+
+        @Override
+        public int nextInt(final int theBound) {
+            return ThreadLocalRandom.current().nextInt(theBound);
+        }
+
+        @Override
+        public int nextInt(final int theOrigin, final int theBound) {
+            return ThreadLocalRandom.current().nextInt(theOrigin, theBound);
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return ThreadLocalRandom.current().nextBoolean();
+        }
+    };
+
+    /**
+     * Draws 64 random bits.
+     *
+     * @return A uniformly distributed long.
+     */
+    long nextLong();
+
+    /**
+     * Draws an int from 0 (inclusive) to a bound (exclusive).
+     *
+     * @param theBound The bound, positive.
+     * @return A uniformly distributed int in [0, theBound).
+     * @throws IllegalArgumentException if the bound is not positive.
+     */
+    default int nextInt(final int theBound) {
+        if (theBound <= 0) {
+            throw new IllegalArgumentException("Random bound must be positive, got " + theBound);
+        }
+        final int mask = theBound - 1;
+        int r = (int) (nextLong() >>> 33);
+        if ((theBound & mask) == 0) {
+            return (int) (theBound * (long) r >> 31);
+        }
+        //rejects the top values that would make small results more likely.
+        int u = r;
+        while (u - (r = u % theBound) + mask < 0) {
+            u = (int) (nextLong() >>> 33);
+        }
+        return r;
+    }
+
+    /**
+     * Draws an int from an origin (inclusive) to a bound (exclusive).
+     *
+     * @param theOrigin The smallest value drawn.
+     * @param theBound One past the largest value drawn.
+     * @return A uniformly distributed int in [theOrigin, theBound).
+     * @throws IllegalArgumentException if the origin is not below the bound.
+     */
+    default int nextInt(final int theOrigin, final int theBound) {
+        if (theOrigin >= theBound) {
+            throw new IllegalArgumentException("Random origin " + theOrigin
+                    + " must be below the bound " + theBound);
+        }
+        final int range = theBound - theOrigin;
+        if (range > 0) {
+            return theOrigin + nextInt(range);
+        }
+        //the range overflows an int, draw until a value falls inside it.
+        int r = (int) nextLong();
+        while (r < theOrigin || r >= theBound) {
+            r = (int) nextLong();
+        }
+        return r;
+    }
+
+    /**
+     * Draws a coin flip.
+     *
+     * @return true or false with equal chance.
+     */
+    default boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+}
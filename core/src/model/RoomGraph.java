@@ -0,0 +1,205 @@
+package model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Undirected graph of which rooms are connected by a door, with rooms identified by their
+ * index in the dungeon room list. Neighbors are kept in primitive int arrays and every
+ * connected pair is recorded in a hash set of packed ids, so checking for a duplicate
+ * connection is O(1) no matter how many rooms there are.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class RoomGraph implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Neighbor capacity given to a room on its first connection.
+     */
+    private static final int INITIAL_DEGREE = 4;
+    /**
+     * Marks an unused slot of the pair set. No real pair packs to it since ids are never negative.
+     */
+    private static final long EMPTY = -1L;
+
+    private final int myRoomCount;
+    /**
+     * Neighbor ids of each room, only the first myDegree[room] entries are used.
+     */
+    private final int[][] myNeighbors;
+    private final int[] myDegree;
+    /**
+     * Open addressing hash set of connected pairs, packed as smaller id << 32 | larger id.
+     */
+    private long[] myPairs;
+    private int myPairCount;
+
+    /**
+     * Creates a graph of rooms with no connections.
+     *
+     * @param theRoomCount The number of rooms, ids run from 0 to theRoomCount - 1.
+     * @throws IllegalArgumentException if the room count is negative.
+     */
+    public RoomGraph(final int theRoomCount) {
+        if (theRoomCount < 0) {
+            throw new IllegalArgumentException("Room count can't be negative.");
+        }
+        myRoomCount = theRoomCount;
+        myNeighbors = new int[theRoomCount][];
+        myDegree = new int[theRoomCount];
+        myPairs = new long[Math.max(16, Integer.highestOneBit(Math.max(1, theRoomCount)) * 4)];
+        Arrays.fill(myPairs, EMPTY);
+    }
+
+    /**
+     * Gets the number of rooms.
+     *
+     * @return The number of rooms in the graph.
+     */
+    public int getRoomCount() {
+        return myRoomCount;
+    }
+
+    /**
+     * Connects two rooms in both directions.
+     *
+     * @param theFirst The id of one room.
+     * @param theSecond The id of the other room.
+     * @return true if the rooms were not connected before, false if they were or are the same room.
+     * @throws IndexOutOfBoundsException if an id is not a room of this graph.
+     */
+    public boolean connect(final int theFirst, final int theSecond) {
+        checkRoom(theFirst);
+        checkRoom(theSecond);
+        if (theFirst == theSecond || !addPair(pack(theFirst, theSecond))) {
+            return false;
+        }
+        addNeighbor(theFirst, theSecond);
+        addNeighbor(theSecond, theFirst);
+        return true;
+    }
+
+    /**
+     * Checks whether two rooms are connected.
+     *
+     * @param theFirst The id of one room.
+     * @param theSecond The id of the other room.
+     * @return true if the rooms are connected by a door.
+     * @throws IndexOutOfBoundsException if an id is not a room of this graph.
+     */
+    public boolean isConnected(final int theFirst, final int theSecond) {
+        checkRoom(theFirst);
+        checkRoom(theSecond);
+        return theFirst != theSecond && myPairs[slot(pack(theFirst, theSecond))] != EMPTY;
+    }
+
+    /**
+     * Gets the number of rooms connected to a room.
+     *
+     * @param theRoom The id of the room.
+     * @return The number of neighbors.
+     * @throws IndexOutOfBoundsException if the id is not a room of this graph.
+     */
+    public int getDegree(final int theRoom) {
+        checkRoom(theRoom);
+        return myDegree[theRoom];
+    }
+
+    /**
+     * Gets one of the rooms connected to a room.
+     *
+     * @param theRoom The id of the room.
+     * @param theIndex Which neighbor to get, from 0 to getDegree(theRoom) - 1.
+     * @return The id of the neighbor.
+     * @throws IndexOutOfBoundsException if the room or neighbor index is out of range.
+     */
+    public int getNeighbor(final int theRoom, final int theIndex) {
+        checkRoom(theRoom);
+        if (theIndex < 0 || theIndex >= myDegree[theRoom]) {
+            throw new IndexOutOfBoundsException("Room " + theRoom + " has " + myDegree[theRoom]
+                    + " neighbors, asked for " + theIndex);
+        }
+        return myNeighbors[theRoom][theIndex];
+    }
+
+    /**
+     * Gets the number of connected pairs of rooms.
+     *
+     * @return The number of connections.
+     */
+    public int getConnectionCount() {
+        return myPairCount;
+    }
+
+    private void addNeighbor(final int theRoom, final int theNeighbor) {
+        int[] neighbors = myNeighbors[theRoom];
+        if (neighbors == null) {
+            neighbors = new int[INITIAL_DEGREE];
+        } else if (myDegree[theRoom] == neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, neighbors.length * 2);
+        }
+        neighbors[myDegree[theRoom]++] = theNeighbor;
+        myNeighbors[theRoom] = neighbors;
+    }
+
+    /**
+     * Adds a packed pair to the set.
+     *
+     * @return false if the pair was already in the set.
+     */
+    private boolean addPair(final long thePair) {
+        if ((myPairCount + 1) * 2 > myPairs.length) {
+            rehash();
+        }
+        final int slot = slot(thePair);
+        if (myPairs[slot] != EMPTY) {
+            return false;
+        }
+        myPairs[slot] = thePair;
+        myPairCount++;
+        return true;
+    }
+
+    /**
+     * Finds the slot holding a pair, or the empty slot where it would go.
+     */
+    private int slot(final long thePair) {
+        final int mask = myPairs.length - 1;
+        int slot = mix(thePair) & mask;
+        while (myPairs[slot] != EMPTY && myPairs[slot] != thePair) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        final long[] old = myPairs;
+        myPairs = new long[old.length * 2];
+        Arrays.fill(myPairs, EMPTY);
+        for (final long pair : old) {
+            if (pair != EMPTY) {
+                myPairs[slot(pair)] = pair;
+            }
+        }
+    }
+
+    private static long pack(final int theFirst, final int theSecond) {
+        return ((long) Math.min(theFirst, theSecond) << 32) | Math.max(theFirst, theSecond);
+    }
+
+    /**
+     * Spreads the bits of a packed pair so neighboring ids don't cluster in the table.
+     */
+    private static int mix(final long thePair) {
+        final long h = thePair * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void checkRoom(final int theRoom) {
+        if (theRoom < 0 || theRoom >= myRoomCount) {
+            throw new IndexOutOfBoundsException("Room id " + theRoom + " is not between 0 and "
+                    + (myRoomCount - 1));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Deterministic random numbers: the same seed always gives the same numbers, on every
+ * machine and Java version. A session keeps its sources in these so a seed and a turn
+ * journal reproduce a game, and saves them with its snapshots so a restored session carries
+ * on with the same numbers.
+ * The generator is SplitMix64, one long of state and a few multiplies per draw. split hands
+ * out independent sources for separate parts of a game, such as enemy moves and combat, so
+ * one part drawing more numbers does not shift the numbers of another.
+ * Not thread-safe, each thread needs its own source.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class SeededRandom implements RandomSource, Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Odd increment of the state per draw, the golden ratio in 64 bits.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long myState;
+
+    /**
+     * Creates a source from a seed.
+     *
+     * @param theSeed The seed, any value.
+     */
+    public SeededRandom(final long theSeed) {
+        myState = theSeed;
+    }
+
+    @Override
+    public long nextLong() {
+        myState += GOLDEN_GAMMA;
+        long z = myState;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+
+    /**
+     * Creates a new source seeded from this one, so it is as reproducible as this one but
+     * draws numbers of its own.
+     *
+     * @return The new source.
+     */
+    public SeededRandom split() {
+        return new SeededRandom(nextLong());
+    }
+}
@@ -0,0 +1,241 @@
+package model;
+
+import java.io.Closeable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Plays a session on its own thread, so enemy moves, fog and pickups never stall a frame.
+ * The input side queues hero commands and returns at once. The simulation thread takes them
+ * in order, applies each the way the input processor would, and after the queue runs dry
+ * publishes a new WorldSnapshot through an atomic reference. The render thread only ever reads
+ * the latest snapshot and never touches the session while the thread runs.
+ * A move that needs another screen, a fight, a win or the hero's death, halts the thread:
+ * the commands queued behind it are dropped and the thread ends, so the screen it leads to
+ * owns the session alone. Close the simulation before using the session on another thread,
+ * and start a new one to carry on exploring.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class SimulationThread implements Closeable {
+    /**
+     * System property that turns the simulation thread on, e.g. -Ddungeon.simulationThread=true.
+     */
+    public static final String PROPERTY = "dungeon.simulationThread";
+    /**
+     * Cells a snapshot reaches from the hero along each axis, enough for the camera and a
+     * minimap of 250 cells.
+     */
+    public static final int DEFAULT_RADIUS = 128;
+    /**
+     * Commands are an opcode of TurnJournal, with a move's exit in the bits above the opcode.
+     */
+    private static final int OPCODE_BITS = 8;
+    private static final int OPCODE_MASK = (1 << OPCODE_BITS) - 1;
+    private static final int STOP = -1;
+
+    private final GameSession mySession;
+    private final int myRadius;
+    private final BlockingQueue<Integer> myCommands;
+    private final AtomicReference<WorldSnapshot> mySnapshot;
+    /**
+     * What each move led to, for the render thread to show in order.
+     */
+    private final ConcurrentLinkedQueue<GameSession.Step> mySteps;
+    private final Thread myThread;
+    private volatile boolean myIsHalted;
+    private volatile RuntimeException myFailure;
+    private long myVersion;
+
+    /**
+     * Publishes the first snapshot of a session and starts playing it on a new thread.
+     *
+     * @param theSession The session, with its hero set. Not used by the caller until closed.
+     * @throws IllegalArgumentException if the session is null or has no hero.
+     */
+    public SimulationThread(final GameSession theSession) {
+        this(theSession, DEFAULT_RADIUS);
+    }
+
+    /**
+     * Publishes the first snapshot of a session and starts playing it on a new thread.
+     *
+     * @param theSession The session, with its hero set. Not used by the caller until closed.
+     * @param theRadius Cells a snapshot reaches from the hero along each axis.
+     * @throws IllegalArgumentException if the session is null, has no hero or the radius is
+     *                                  negative.
+     */
+    public SimulationThread(final GameSession theSession, final int theRadius) {
+        if (theSession == null) {
+            throw new IllegalArgumentException("Simulation thread needs a session to play.");
+        }
+        mySession = theSession;
+        myRadius = theRadius;
+        myCommands = new LinkedBlockingQueue<>();
+        mySteps = new ConcurrentLinkedQueue<>();
+        mySnapshot = new AtomicReference<>(new WorldSnapshot(theSession, theRadius, myVersion++));
+        myThread = new Thread(this::run, "simulation");
+        myThread.setDaemon(true);
+        myThread.start();
+    }
+
+    /**
+     * Checks whether the simulation thread was turned on with PROPERTY.
+     *
+     * @return true to play the session on a simulation thread.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Gets the latest published snapshot. Never blocks.
+     *
+     * @return The newest snapshot.
+     */
+    public WorldSnapshot getSnapshot() {
+        return mySnapshot.get();
+    }
+
+    /**
+     * Takes what the oldest move not yet shown led to.
+     *
+     * @return The step, or null if every step was taken.
+     * @throws IllegalStateException if the simulation failed, with the failure as its cause.
+     */
+    public GameSession.Step pollStep() {
+        final GameSession.Step step = mySteps.poll();
+        if (step == null && myFailure != null) {
+            throw new IllegalStateException("Simulation thread failed.", myFailure);
+        }
+        return step;
+    }
+
+    /**
+     * Checks whether a move halted the thread.
+     *
+     * @return true if the thread ended because a move needs another screen.
+     */
+    public boolean isHalted() {
+        return myIsHalted;
+    }
+
+    /**
+     * Queues a move of the hero.
+     *
+     * @param theExit The TileMap.EXIT_* bit of the direction.
+     */
+    public void move(final int theExit) {
+        submit(TurnJournal.MOVE | theExit << OPCODE_BITS);
+    }
+
+    /**
+     * Queues opening or closing the doors next to the hero.
+     */
+    public void toggleDoors() {
+        submit(TurnJournal.DOORS);
+    }
+
+    /**
+     * Queues switching cheats on or off.
+     */
+    public void toggleCheats() {
+        submit(TurnJournal.CHEATS);
+    }
+
+    /**
+     * Queues removing every enemy.
+     */
+    public void removeAllEnemies() {
+        submit(TurnJournal.CLEAR_ENEMIES);
+    }
+
+    /**
+     * Drops the queued commands and waits for the thread to end. After this the session
+     * belongs to the caller again.
+     */
+    @Override
+    public void close() {
+        myCommands.clear();
+        myCommands.offer(STOP);
+        boolean interrupted = false;
+        while (myThread.isAlive()) {
+            try {
+                myThread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(final int theCommand) {
+        if (!myIsHalted) {
+            myCommands.offer(theCommand);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final int command = myCommands.take();
+                if (command == STOP) {
+                    return;
+                }
+                final GameSession.Step step = play(command);
+                final boolean isHalting = mySession.getPlayer().getIsDead()
+                        || step != null && (step.isMetEnemy() || step.isWon());
+                if (isHalting || myCommands.isEmpty()) {
+                    mySnapshot.set(new WorldSnapshot(mySession, myRadius, myVersion++));
+                }
+                if (step != null) {
+                    //offered after the snapshot, so the render thread reading the session
+                    //for a halting step sees the thread's last changes.
+                    mySteps.offer(step);
+                }
+                if (isHalting) {
+                    myIsHalted = true;
+                    myCommands.clear();
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            //closed from outside, the session is left as it is.
+        } catch (final RuntimeException e) {
+            myFailure = e;
+            myIsHalted = true;
+        }
+    }
+
+    /**
+     * Applies one command and the fog update every command is followed by.
+     *
+     * @return what the command led to if it was a move, otherwise null.
+     */
+    private GameSession.Step play(final int theCommand) {
+        GameSession.Step step = null;
+        switch (theCommand & OPCODE_MASK) {
+            case TurnJournal.MOVE:
+                step = mySession.moveHero(theCommand >>> OPCODE_BITS);
+                break;
+            case TurnJournal.DOORS:
+                mySession.toggleDoorsNearHero();
+                break;
+            case TurnJournal.CHEATS:
+                mySession.toggleCheats();
+                break;
+            case TurnJournal.CLEAR_ENEMIES:
+                mySession.removeAllEnemies();
+                break;
+            default:
+                throw new IllegalStateException("Unknown simulation command " + theCommand);
+        }
+        mySession.updateMapFOW();
+        return step;
+    }
+}
@@ -1,7 +1,6 @@
 package model;
 
 import java.io.Serializable;
-import java.util.Random;
 /**
  * Hero subclass, the Thief is a playable character that has normal HP and less powerful attacks,
  * fastest among heroes. His special ability called 'Surprise attack' will warp his enemies
@@ -69,7 +68,7 @@ public class Thief extends Hero implements Serializable {
         if(theEnemy == null){
             throw new IllegalArgumentException("Can't call attack on null character at DungeonCharacter attack().");
         }
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         final int randomInt = rand.nextInt(RANDOM_FROM_HUNDRED+1);
         final String outputString;
         if(randomInt <= THIEF_SKILL_FAIL){
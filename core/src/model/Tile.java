@@ -11,7 +11,7 @@ public enum Tile {
     /**
      * Wall tile, represented by the '#' symbol.
      */
-    WALL('#', false),
+    WALL('#', false, true),
 
     /**
      * Floor tile, represented by the '.' symbol.
@@ -21,7 +21,7 @@ public enum Tile {
     /**
      * Door tile, represented by the 'D' symbol.
      */
-    DOOR('D',false),
+    DOOR('D', false, true),
 
     /**
      * Open Door tile, represented by the 'O' symbol.
@@ -56,19 +56,46 @@ public enum Tile {
     /**
      * Bomb tile, represented by the 'B' symbol.
      */
-    BOMB('B', true);
+    BOMB('B', true),
+
+    /**
+     * Stairs down to the next floor, represented by the '>' symbol.
+     */
+    STAIRS_DOWN('>', true),
+
+    /**
+     * Stairs up to the previous floor, represented by the '<' symbol.
+     */
+    STAIRS_UP('<', true);
 
     private final char mySymbol;
     private final boolean myWalkable;
+    /**
+     * Whether the tile blocks line of sight.
+     */
+    private final boolean myOpaque;
 
     /**
-     * Constructor for the Tile enum.
+     * Constructor for the Tile enum, for tiles that can be seen through.
      *
      * @param theSymbol The character symbol representing the tile.
+     * @param theWalkable Whether characters can stand on the tile.
      */
     Tile(final char theSymbol, final boolean theWalkable) {
+        this(theSymbol, theWalkable, false);
+    }
+
+    /**
+     * Constructor for the Tile enum.
+     *
+     * @param theSymbol The character symbol representing the tile.
+     * @param theWalkable Whether characters can stand on the tile.
+     * @param theOpaque Whether the tile blocks line of sight.
+     */
+    Tile(final char theSymbol, final boolean theWalkable, final boolean theOpaque) {
         mySymbol = theSymbol;
         myWalkable = theWalkable;
+        myOpaque = theOpaque;
     }
 
     /**
@@ -83,4 +110,14 @@ public enum Tile {
     public boolean isWalkable() {
         return myWalkable;
     }
+
+    /**
+     * Checks whether the tile blocks line of sight. Walls and closed doors do, an open door
+     * does not.
+     *
+     * @return true if the hero can't see past the tile.
+     */
+    public boolean isOpaque() {
+        return myOpaque;
+    }
 }
@@ -0,0 +1,335 @@
+package model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Grid of map tiles stored as tile ordinals in a single flat byte array.
+ * Cells are addressed by (x, y) and laid out row by row, so a row of constant y is contiguous
+ * in memory and full map scans walk the array in order.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class TileGrid implements TileMap, Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Tile values indexed by ordinal, cached since Tile.values() copies on every call.
+     */
+    private static final Tile[] TILES = Tile.values();
+
+    private final int myWidth;
+    private final int myHeight;
+    /**
+     * Tile ordinals, the cell (x, y) is stored at y * width + x.
+     */
+    private final byte[] myCells;
+    /**
+     * Cells whose tile blocks line of sight, kept in step with myCells by every write so
+     * field of view code reads one bit per cell.
+     */
+    private final FogMask myOpaque;
+    /**
+     * Walkable neighbors of each cell as TileMap.EXIT_* bits, stored like myCells. A write
+     * only touches the neighbors of the written cell, and only when its walkability changed.
+     */
+    private final byte[] myExits;
+
+    /**
+     * Creates a grid of the given size filled with walls.
+     *
+     * @param theWidth The number of cells along the x-axis.
+     * @param theHeight The number of cells along the y-axis.
+     * @throws IllegalArgumentException if a dimension is not positive.
+     */
+    public TileGrid(final int theWidth, final int theHeight) {
+        if (theWidth <= 0 || theHeight <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive, got "
+                    + theWidth + "x" + theHeight);
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myCells = new byte[theWidth * theHeight];
+        myOpaque = new FogMask(theWidth, theHeight);
+        myExits = new byte[theWidth * theHeight];
+        fill(Tile.WALL);
+    }
+
+    /**
+     * Creates a grid from tile ordinals stored row by row, as returned by getCells().
+     *
+     * @param theWidth The number of cells along the x-axis.
+     * @param theHeight The number of cells along the y-axis.
+     * @param theCells The tile ordinals, taken over without copying.
+     * @throws IllegalArgumentException if the array does not match the size or holds an
+     *                                  ordinal that is not a tile.
+     */
+    TileGrid(final int theWidth, final int theHeight, final byte[] theCells) {
+        if (theWidth <= 0 || theHeight <= 0 || theCells.length != theWidth * theHeight) {
+            throw new IllegalArgumentException("Grid of " + theCells.length + " cells can't be "
+                    + theWidth + "x" + theHeight);
+        }
+        for (final byte cell : theCells) {
+            if (cell < 0 || cell >= TILES.length) {
+                throw new IllegalArgumentException("Cell holds unknown tile ordinal " + cell);
+            }
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myCells = theCells;
+        myOpaque = new FogMask(theWidth, theHeight);
+        for (int y = 0; y < theHeight; y++) {
+            for (int x = 0; x < theWidth; x++) {
+                if (TILES[theCells[y * theWidth + x]].isOpaque()) {
+                    myOpaque.set(x, y, true);
+                }
+            }
+        }
+        myExits = new byte[theWidth * theHeight];
+        updateExits(0, 0, theWidth - 1, theHeight - 1);
+    }
+
+    @Override
+    public int getWidth() {
+        return myWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return myHeight;
+    }
+
+    @Override
+    public boolean isInBounds(final int theX, final int theY) {
+        return theX >= 0 && theX < myWidth && theY >= 0 && theY < myHeight;
+    }
+
+    /**
+     * Gets the tile at a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The tile at (x, y).
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    @Override
+    public Tile get(final int theX, final int theY) {
+        return TILES[myCells[index(theX, theY)]];
+    }
+
+    /**
+     * Replaces the tile at a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @param theTile The new tile.
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    @Override
+    public void set(final int theX, final int theY, final Tile theTile) {
+        final int index = index(theX, theY);
+        final boolean wasWalkable = TILES[myCells[index]].isWalkable();
+        myCells[index] = (byte) theTile.ordinal();
+        myOpaque.set(theX, theY, theTile.isOpaque());
+        if (wasWalkable != theTile.isWalkable()) {
+            //the cell is the down exit of the cell above it, and so on.
+            flipExit(theX, theY + 1, EXIT_DOWN);
+            flipExit(theX + 1, theY, EXIT_LEFT);
+            flipExit(theX, theY - 1, EXIT_UP);
+            flipExit(theX - 1, theY, EXIT_RIGHT);
+        }
+    }
+
+    /**
+     * Checks whether the tile at a cell can be walked on.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the tile at (x, y) is walkable.
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    @Override
+    public boolean isWalkable(final int theX, final int theY) {
+        return get(theX, theY).isWalkable();
+    }
+
+    /**
+     * Checks whether the tile at a cell blocks line of sight, read from the opacity mask.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the tile at (x, y) is opaque.
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    @Override
+    public boolean isOpaque(final int theX, final int theY) {
+        return myOpaque.get(theX, theY);
+    }
+
+    /**
+     * Gets the walkable neighbors of a cell from the precomputed exit table.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The EXIT_* bits of the walkable neighbors of (x, y).
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    @Override
+    public int getExits(final int theX, final int theY) {
+        return myExits[index(theX, theY)];
+    }
+
+    /**
+     * Sets every cell of the grid to the given tile.
+     *
+     * @param theTile The tile to fill with.
+     */
+    public void fill(final Tile theTile) {
+        Arrays.fill(myCells, (byte) theTile.ordinal());
+        myOpaque.fill(theTile.isOpaque());
+        updateExits(0, 0, myWidth - 1, myHeight - 1);
+    }
+
+    /**
+     * Sets the cells of one row from theFromX (inclusive) to theToX (exclusive).
+     *
+     * @param theY The row to fill.
+     * @param theFromX The first x coordinate to fill.
+     * @param theToX One past the last x coordinate to fill.
+     * @param theTile The tile to fill with.
+     * @throws IndexOutOfBoundsException if the range is outside the grid.
+     */
+    public void fillRow(final int theY, final int theFromX, final int theToX, final Tile theTile) {
+        checkRange(theY, theFromX, theToX);
+        final int start = theY * myWidth;
+        Arrays.fill(myCells, start + theFromX, start + theToX, (byte) theTile.ordinal());
+        myOpaque.fillRect(theFromX, theY, theToX - 1, theY, theTile.isOpaque());
+        updateExits(theFromX - 1, theY - 1, theToX, theY + 1);
+    }
+
+    /**
+     * Copies the tiles of one row from theFromX (inclusive) to theToX (exclusive) into the
+     * given array, starting at index 0. Lets callers that scan a region reuse one buffer
+     * instead of reading cell by cell.
+     *
+     * @param theY The row to read.
+     * @param theFromX The first x coordinate to read.
+     * @param theToX One past the last x coordinate to read.
+     * @param theDest The array that receives the tiles, at least theToX - theFromX long.
+     * @throws IndexOutOfBoundsException if the range is outside the grid or theDest is too short.
+     */
+    @Override
+    public void getRow(final int theY, final int theFromX, final int theToX, final Tile[] theDest) {
+        checkRange(theY, theFromX, theToX);
+        final int start = theY * myWidth + theFromX;
+        for (int i = 0; i < theToX - theFromX; i++) {
+            theDest[i] = TILES[myCells[start + i]];
+        }
+    }
+
+    /**
+     * Counts the cells that hold the given tile.
+     *
+     * @param theTile The tile to count.
+     * @return The number of cells holding theTile.
+     */
+    public int count(final Tile theTile) {
+        final byte ordinal = (byte) theTile.ordinal();
+        int count = 0;
+        for (final byte cell : myCells) {
+            if (cell == ordinal) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compares two grids cell by cell.
+     *
+     * @param theOther The object to compare with.
+     * @return true if theOther is a grid of the same size holding the same tiles.
+     */
+    @Override
+    public boolean equals(final Object theOther) {
+        if (this == theOther) {
+            return true;
+        }
+        if (!(theOther instanceof TileGrid)) {
+            return false;
+        }
+        final TileGrid other = (TileGrid) theOther;
+        return myWidth == other.myWidth && myHeight == other.myHeight
+                && Arrays.equals(myCells, other.myCells);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * myWidth + myHeight) + Arrays.hashCode(myCells);
+    }
+
+    /**
+     * Gets the backing array of tile ordinals, stored row by row. Used to write the grid out
+     * compactly, callers must not change it.
+     *
+     * @return The tile ordinals.
+     */
+    byte[] getCells() {
+        return myCells;
+    }
+
+    /**
+     * Recomputes the exits of every cell in a rectangle, clipped to the grid.
+     */
+    private void updateExits(final int theFromX, final int theFromY, final int theToX,
+                             final int theToY) {
+        for (int y = Math.max(0, theFromY); y <= Math.min(myHeight - 1, theToY); y++) {
+            for (int x = Math.max(0, theFromX); x <= Math.min(myWidth - 1, theToX); x++) {
+                int exits = 0;
+                if (y + 1 < myHeight && TILES[myCells[(y + 1) * myWidth + x]].isWalkable()) {
+                    exits |= EXIT_UP;
+                }
+                if (x + 1 < myWidth && TILES[myCells[y * myWidth + x + 1]].isWalkable()) {
+                    exits |= EXIT_RIGHT;
+                }
+                if (y > 0 && TILES[myCells[(y - 1) * myWidth + x]].isWalkable()) {
+                    exits |= EXIT_DOWN;
+                }
+                if (x > 0 && TILES[myCells[y * myWidth + x - 1]].isWalkable()) {
+                    exits |= EXIT_LEFT;
+                }
+                myExits[y * myWidth + x] = (byte) exits;
+            }
+        }
+    }
+
+    /**
+     * Toggles one exit bit of a cell, if the cell is in the grid.
+     */
+    private void flipExit(final int theX, final int theY, final int theExit) {
+        if (isInBounds(theX, theY)) {
+            myExits[theY * myWidth + theX] ^= theExit;
+        }
+    }
+
+    /**
+     * Finds the array index of a cell.
+     */
+    private int index(final int theX, final int theY) {
+        if (!isInBounds(theX, theY)) {
+            throw new IndexOutOfBoundsException("Cell (" + theX + ", " + theY
+                    + ") is outside the " + myWidth + "x" + myHeight + " grid.");
+        }
+        return theY * myWidth + theX;
+    }
+
+    /**
+     * Checks a row range for correctness.
+     */
+    private void checkRange(final int theY, final int theFromX, final int theToX) {
+        if (theY < 0 || theY >= myHeight || theFromX < 0 || theToX > myWidth || theFromX > theToX) {
+            throw new IndexOutOfBoundsException("Row " + theY + " range [" + theFromX + ", "
+                    + theToX + ") is outside the " + myWidth + "x" + myHeight + " grid.");
+        }
+    }
+}
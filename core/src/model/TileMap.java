@@ -0,0 +1,112 @@
+package model;
+
+/**
+ * A map of tiles addressed by (x, y), either a single generated grid or a streamed world.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public interface TileMap {
+    /**
+     * Exit bit of the neighbor at y + 1, see getExits.
+     */
+    int EXIT_UP = 1;
+    /**
+     * Exit bit of the neighbor at x + 1.
+     */
+    int EXIT_RIGHT = 2;
+    /**
+     * Exit bit of the neighbor at y - 1.
+     */
+    int EXIT_DOWN = 4;
+    /**
+     * Exit bit of the neighbor at x - 1.
+     */
+    int EXIT_LEFT = 8;
+
+    /**
+     * Gets the map width.
+     *
+     * @return The number of cells along the x-axis.
+     */
+    int getWidth();
+
+    /**
+     * Gets the map height.
+     *
+     * @return The number of cells along the y-axis.
+     */
+    int getHeight();
+
+    /**
+     * Checks whether a cell lies inside the map.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if (x, y) is inside the map.
+     */
+    boolean isInBounds(int theX, int theY);
+
+    /**
+     * Gets the tile at a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The tile at (x, y).
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    Tile get(int theX, int theY);
+
+    /**
+     * Replaces the tile at a cell.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @param theTile The new tile.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    void set(int theX, int theY, Tile theTile);
+
+    /**
+     * Checks whether the tile at a cell can be walked on.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the tile at (x, y) is walkable.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    boolean isWalkable(int theX, int theY);
+
+    /**
+     * Checks whether the tile at a cell blocks line of sight.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the tile at (x, y) is opaque.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    boolean isOpaque(int theX, int theY);
+
+    /**
+     * Gets which neighbors of a cell can be walked on, one EXIT_* bit per neighbor. Cells
+     * outside the map are never exits, so a move checked against this can't leave the map.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return The EXIT_* bits of the walkable neighbors of (x, y).
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    int getExits(int theX, int theY);
+
+    /**
+     * Copies the tiles of one row from theFromX (inclusive) to theToX (exclusive) into the
+     * given array, starting at index 0.
+     *
+     * @param theY The row to read.
+     * @param theFromX The first x coordinate to read.
+     * @param theToX One past the last x coordinate to read.
+     * @param theDest The array that receives the tiles, at least theToX - theFromX long.
+     * @throws IndexOutOfBoundsException if the range is outside the map or theDest is too short.
+     */
+    void getRow(int theY, int theFromX, int theToX, Tile[] theDest);
+}
@@ -0,0 +1,260 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Append-only binary record of a session: a header with the seed and settings the session
+ * was started with, then one entry per hero command. Everything else a session does follows
+ * from its seed and its commands, so a TurnReplayer playing the entries back on a session
+ * started from the header reaches the same state, which turns a bug report into a file that
+ * reproduces it.
+ * An entry is one opcode byte, followed by the command's arguments for the few commands that
+ * have any, so a move takes two bytes. Entries are flushed as they are written, a crash
+ * keeps every command up to the one that crashed.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class TurnJournal implements Closeable {
+    /**
+     * First four bytes of every journal, "DJRN".
+     */
+    static final int MAGIC = 0x444A524E;
+    /**
+     * Version 2 rolls from SeededRandom, a version 1 seed replays differently.
+     */
+    static final int VERSION = 2;
+
+    static final int SET_PLAYER = 1;
+    static final int MOVE = 2;
+    static final int WAIT = 3;
+    static final int DESCEND = 4;
+    static final int ASCEND = 5;
+    static final int DOORS = 6;
+    static final int FOG = 7;
+    static final int CHEATS = 8;
+    static final int CLEAR_ENEMIES = 9;
+    static final int HUNTING = 10;
+    static final int START_COMBAT = 11;
+    static final int ATTACK = 12;
+    static final int ENEMY_ATTACK = 13;
+    static final int SPECIAL = 14;
+    static final int POTION = 15;
+    static final int BOMB = 16;
+    static final int END_TURN = 17;
+    static final int FLEE = 18;
+    static final int LEAVE_COMBAT = 19;
+    static final int RESTART = 20;
+    static final int CONFIG = 21;
+
+    static final int WARRIOR = 0;
+    static final int PRIESTESS = 1;
+    static final int THIEF = 2;
+
+    private final DataOutputStream myOut;
+    private long myEntries;
+
+    /**
+     * Starts a journal on a stream by writing its header.
+     *
+     * @param theOut The stream the journal is written to, closed with the journal.
+     * @param theSeed The seed the session was started with.
+     * @param theConfig The dungeon configuration the session was started with.
+     * @param theIsEndless Whether the session plays the endless world.
+     * @param theHuntDistance How many steps away from the hero enemies start hunting them.
+     * @param theIsHunting Whether enemies hunt the hero from the start.
+     * @param theFloors The number of floors of a run.
+     * @param theChunkSize The side of one endless world chunk.
+     * @param theChunkEnemies The enemies of one endless world chunk.
+     * @throws UncheckedIOException if the header can't be written.
+     */
+    TurnJournal(final OutputStream theOut, final long theSeed, final DungeonConfig theConfig,
+                final boolean theIsEndless, final int theHuntDistance, final boolean theIsHunting,
+                final int theFloors, final int theChunkSize, final int theChunkEnemies) {
+        myOut = new DataOutputStream(new BufferedOutputStream(theOut));
+        try {
+            myOut.writeInt(MAGIC);
+            myOut.writeByte(VERSION);
+            myOut.writeLong(theSeed);
+            writeConfig(theConfig);
+            myOut.writeBoolean(theIsEndless);
+            myOut.writeInt(theHuntDistance);
+            myOut.writeBoolean(theIsHunting);
+            myOut.writeInt(theFloors);
+            myOut.writeInt(theChunkSize);
+            myOut.writeInt(theChunkEnemies);
+            myOut.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Can't write the turn journal header.", e);
+        }
+    }
+
+    /**
+     * Gets the number of entries written.
+     *
+     * @return The number of commands in the journal.
+     */
+    public long getEntryCount() {
+        return myEntries;
+    }
+
+    /**
+     * Writes a command without arguments.
+     *
+     * @param theOpcode The command.
+     * @throws UncheckedIOException if the entry can't be written.
+     */
+    void write(final int theOpcode) {
+        try {
+            myOut.writeByte(theOpcode);
+            end();
+        } catch (final IOException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Writes a command with a small argument, such as the exit of a move.
+     *
+     * @param theOpcode The command.
+     * @param theArgument The argument, 0 to 255.
+     * @throws UncheckedIOException if the entry can't be written.
+     */
+    void write(final int theOpcode, final int theArgument) {
+        try {
+            myOut.writeByte(theOpcode);
+            myOut.writeByte(theArgument);
+            end();
+        } catch (final IOException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Writes the choice of hero: class, name and starting cell.
+     *
+     * @param theHero The hero.
+     * @throws IllegalArgumentException if the hero is not a Warrior, Priestess or Thief.
+     * @throws UncheckedIOException if the entry can't be written.
+     */
+    void writePlayer(final Hero theHero) {
+        final int type;
+        if (theHero instanceof Warrior) {
+            type = WARRIOR;
+        } else if (theHero instanceof Priestess) {
+            type = PRIESTESS;
+        } else if (theHero instanceof Thief) {
+            type = THIEF;
+        } else {
+            throw new IllegalArgumentException("Turn journal can't record a "
+                    + theHero.getClass().getSimpleName());
+        }
+        try {
+            myOut.writeByte(SET_PLAYER);
+            myOut.writeByte(type);
+            myOut.writeUTF(theHero.getMyName());
+            myOut.writeInt(theHero.getPosition().getMyX());
+            myOut.writeInt(theHero.getPosition().getMyY());
+            end();
+        } catch (final IOException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Writes a change of the dungeon configuration.
+     *
+     * @param theConfig The new configuration.
+     * @throws UncheckedIOException if the entry can't be written.
+     */
+    void writeConfigChange(final DungeonConfig theConfig) {
+        try {
+            myOut.writeByte(CONFIG);
+            writeConfig(theConfig);
+            end();
+        } catch (final IOException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Flushes the entries and closes the stream.
+     *
+     * @throws IOException if the stream can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        myOut.close();
+    }
+
+    /**
+     * Creates the hero of a SET_PLAYER entry.
+     *
+     * @param theType The class code of the entry.
+     * @param theName The name of the hero.
+     * @param theX The x coordinate of the hero.
+     * @param theY The y coordinate of the hero.
+     * @return The new hero.
+     * @throws IllegalArgumentException if the class code is unknown.
+     */
+    static Hero createPlayer(final int theType, final String theName, final int theX,
+                             final int theY) {
+        switch (theType) {
+            case WARRIOR:
+                return new Warrior(theName, theX, theY);
+            case PRIESTESS:
+                return new Priestess(theName, theX, theY);
+            case THIEF:
+                return new Thief(theName, theX, theY);
+            default:
+                throw new IllegalArgumentException("Unknown hero class " + theType + " in turn journal.");
+        }
+    }
+
+    /**
+     * Reads a configuration written by the header or a CONFIG entry.
+     *
+     * @param theIn The journal positioned at the configuration.
+     * @return The configuration.
+     * @throws IOException if the journal ends or can't be read.
+     */
+    static DungeonConfig readConfig(final DataInput theIn) throws IOException {
+        return new DungeonConfig(theIn.readInt(), theIn.readInt(), theIn.readInt(),
+                theIn.readInt(), theIn.readInt(), theIn.readInt(), theIn.readInt(),
+                theIn.readInt(), theIn.readInt(), theIn.readInt(), theIn.readInt(),
+                theIn.readInt());
+    }
+
+    private void writeConfig(final DungeonConfig theConfig) throws IOException {
+        myOut.writeInt(theConfig.getWidth());
+        myOut.writeInt(theConfig.getHeight());
+        myOut.writeInt(theConfig.getMinRoomSize());
+        myOut.writeInt(theConfig.getMinRooms());
+        myOut.writeInt(theConfig.getKeys());
+        myOut.writeInt(theConfig.getExits());
+        myOut.writeInt(theConfig.getHealthPotions());
+        myOut.writeInt(theConfig.getPoisonPotions());
+        myOut.writeInt(theConfig.getBombs());
+        myOut.writeInt(theConfig.getPitTraps());
+        myOut.writeInt(theConfig.getEnemies());
+        myOut.writeInt(theConfig.getMaxAttempts());
+    }
+
+    /**
+     * Counts and flushes a finished entry.
+     */
+    private void end() throws IOException {
+        myOut.flush();
+        myEntries++;
+    }
+
+    private static UncheckedIOException failed(final IOException theCause) {
+        return new UncheckedIOException("Can't write to the turn journal.", theCause);
+    }
+}
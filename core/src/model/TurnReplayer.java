@@ -0,0 +1,378 @@
+package model;
+
+import com.dungeonadventure.database.SQLiteConnections;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plays a TurnJournal back on a new session without a screen. The session is started from
+ * the journal's header and given the journal's commands one by one, so after n commands it
+ * is in the state the journaled session was in after n commands.
+ * Seeking to any command is fast: while commands are played, a snapshot of the session is
+ * kept every snapshot interval, and a seek starts from the nearest snapshot before the
+ * command instead of from the start. The endless world can't be snapshot, there a seek
+ * backwards plays the journal again from the start.
+ * Run it with the journal's file and a command number to print where the hero was, e.g.
+ * to look at the state a bug report's journal ends in.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class TurnReplayer implements Closeable {
+    /**
+     * Default number of commands between two snapshots.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 256;
+
+    /**
+     * One command of the journal.
+     */
+    private static final class Entry {
+        private final int myOpcode;
+        private final int myArgument;
+        private final String myName;
+        private final int myX;
+        private final int myY;
+        private final DungeonConfig myConfig;
+
+        private Entry(final int theOpcode, final int theArgument, final String theName,
+                      final int theX, final int theY, final DungeonConfig theConfig) {
+            myOpcode = theOpcode;
+            myArgument = theArgument;
+            myName = theName;
+            myX = theX;
+            myY = theY;
+            myConfig = theConfig;
+        }
+    }
+
+    private final long mySeed;
+    private final DungeonConfig myConfig;
+    private final boolean myIsEndless;
+    private final int myHuntDistance;
+    private final boolean myIsHunting;
+    private final int myFloorCount;
+    private final int myChunkSize;
+    private final int myChunkEnemies;
+    private final ArrayList<Entry> myEntries;
+    private final int mySnapshotInterval;
+    /**
+     * Saved sessions keyed by the number of commands played before they were saved.
+     */
+    private final TreeMap<Integer, byte[]> mySnapshots;
+    private GameSession mySession;
+    private int myTurn;
+
+    /**
+     * Reads a journal and starts its session, before its first command. A journal cut off in
+     * the middle of a command, such as by a crash, ends with the last whole command.
+     *
+     * @param theIn The journal, read to the end but not closed.
+     * @throws IOException if the stream is not a turn journal or can't be read.
+     */
+    public TurnReplayer(final InputStream theIn) throws IOException {
+        this(theIn, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Reads a journal and starts its session, before its first command.
+     *
+     * @param theIn The journal, read to the end but not closed.
+     * @param theSnapshotInterval The number of commands between two snapshots.
+     * @throws IllegalArgumentException if the interval is not positive.
+     * @throws IOException if the stream is not a turn journal or can't be read.
+     */
+    public TurnReplayer(final InputStream theIn, final int theSnapshotInterval)
+            throws IOException {
+        if (theSnapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive, got "
+                    + theSnapshotInterval);
+        }
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(theIn));
+        if (in.readInt() != TurnJournal.MAGIC) {
+            throw new IOException("Not a turn journal.");
+        }
+        final int version = in.readUnsignedByte();
+        if (version != TurnJournal.VERSION) {
+            throw new IOException("Turn journal version " + version + " is not supported.");
+        }
+        mySeed = in.readLong();
+        myConfig = TurnJournal.readConfig(in);
+        myIsEndless = in.readBoolean();
+        myHuntDistance = in.readInt();
+        myIsHunting = in.readBoolean();
+        myFloorCount = in.readInt();
+        myChunkSize = in.readInt();
+        myChunkEnemies = in.readInt();
+        myEntries = readEntries(in);
+        mySnapshotInterval = theSnapshotInterval;
+        mySnapshots = new TreeMap<>();
+        start();
+    }
+
+    /**
+     * Gets the session the commands are played on. Seeking backwards can replace it, so
+     * fetch it again after every seek.
+     *
+     * @return The replayed session.
+     */
+    public GameSession getSession() {
+        return mySession;
+    }
+
+    /**
+     * Gets the seed the journaled session was started with.
+     *
+     * @return The session seed.
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Gets the number of commands played so far.
+     *
+     * @return The number of the next command, from 0 to getTurnCount().
+     */
+    public int getTurn() {
+        return myTurn;
+    }
+
+    /**
+     * Gets the number of commands in the journal.
+     *
+     * @return The number of commands.
+     */
+    public int getTurnCount() {
+        return myEntries.size();
+    }
+
+    /**
+     * Plays the next command.
+     *
+     * @return false if every command has been played.
+     */
+    public boolean step() {
+        if (myTurn == myEntries.size()) {
+            return false;
+        }
+        play(myEntries.get(myTurn++));
+        if (myTurn % mySnapshotInterval == 0) {
+            keepSnapshot();
+        }
+        return true;
+    }
+
+    /**
+     * Brings the session to the state it was in after a number of commands, starting from
+     * the nearest snapshot when that is closer than the current command.
+     *
+     * @param theTurn The number of commands played afterwards.
+     * @throws IllegalArgumentException if the journal has fewer commands.
+     */
+    public void seekTo(final int theTurn) {
+        if (theTurn < 0 || theTurn > myEntries.size()) {
+            throw new IllegalArgumentException("Turn " + theTurn + " is not in the journal's "
+                    + myEntries.size() + " commands.");
+        }
+        final Map.Entry<Integer, byte[]> snapshot = mySnapshots.floorEntry(theTurn);
+        if (snapshot != null && (theTurn < myTurn || snapshot.getKey() > myTurn)) {
+            mySession.close();
+            mySession = GameSession.restore(snapshot.getValue());
+            myTurn = snapshot.getKey();
+        } else if (theTurn < myTurn) {
+            mySession.close();
+            start();
+        }
+        while (myTurn < theTurn) {
+            step();
+        }
+    }
+
+    /**
+     * Ends the replayed session and drops the snapshots.
+     */
+    @Override
+    public void close() {
+        mySession.close();
+        mySnapshots.clear();
+    }
+
+    /**
+     * Replays a journal and prints where the hero was after a command.
+     *
+     * @param theArgs The journal file, then the command number, the whole journal if left out.
+     * @throws IOException if the journal can't be read.
+     */
+    public static void main(final String[] theArgs) throws IOException {
+        if (theArgs.length == 0) {
+            System.out.println("Usage: TurnReplayer <journal> [turn]");
+            return;
+        }
+        SQLiteConnections.establishConnection();
+        final TurnReplayer replayer;
+        try (InputStream in = new FileInputStream(theArgs[0])) {
+            replayer = new TurnReplayer(in);
+        }
+        try {
+            final int turn = theArgs.length > 1 ? Integer.parseInt(theArgs[1]) : replayer.getTurnCount();
+            final long start = System.nanoTime();
+            replayer.seekTo(turn);
+            final long millis = (System.nanoTime() - start) / 1_000_000;
+            final GameSession session = replayer.getSession();
+            System.out.println("Seed " + replayer.getSeed() + ", turn " + turn + " of "
+                    + replayer.getTurnCount() + " reached in " + millis + " ms.");
+            try {
+                final Hero hero = session.getPlayer();
+                System.out.println("[" + hero.getMyName() + "] on floor " + session.getDepth()
+                        + " at " + hero.getPosition() + " with " + hero.getCurrentHealth() + "/"
+                        + hero.getMaxHealth() + " health and " + session.getHeroKeys() + " keys.");
+            } catch (final IllegalArgumentException e) {
+                System.out.println("No hero was chosen yet.");
+            }
+        } finally {
+            replayer.close();
+        }
+    }
+
+    /**
+     * Starts the session from the header, before the first command.
+     */
+    private void start() {
+        mySession = new GameSession(myConfig, null, myIsEndless, myHuntDistance, myIsHunting,
+                mySeed, myFloorCount, myChunkSize, myChunkEnemies);
+        myTurn = 0;
+        keepSnapshot();
+    }
+
+    private void keepSnapshot() {
+        if (!mySession.isEndless() && !mySnapshots.containsKey(myTurn)) {
+            mySnapshots.put(myTurn, mySession.snapshot());
+        }
+    }
+
+    /**
+     * Gives one command to the session.
+     */
+    private void play(final Entry theEntry) {
+        final GameSession session = mySession;
+        switch (theEntry.myOpcode) {
+            case TurnJournal.SET_PLAYER:
+                session.setPlayer(TurnJournal.createPlayer(theEntry.myArgument, theEntry.myName,
+                        theEntry.myX, theEntry.myY));
+                break;
+            case TurnJournal.MOVE:
+                session.moveHero(theEntry.myArgument);
+                break;
+            case TurnJournal.WAIT:
+                session.enemyMove();
+                break;
+            case TurnJournal.DESCEND:
+                session.descend();
+                break;
+            case TurnJournal.ASCEND:
+                session.ascend();
+                break;
+            case TurnJournal.DOORS:
+                session.toggleDoorsNearHero();
+                break;
+            case TurnJournal.FOG:
+                session.updateMapFOW();
+                break;
+            case TurnJournal.CHEATS:
+                session.toggleCheats();
+                break;
+            case TurnJournal.CLEAR_ENEMIES:
+                session.removeAllEnemies();
+                break;
+            case TurnJournal.HUNTING:
+                session.setHunting(theEntry.myArgument != 0);
+                break;
+            case TurnJournal.START_COMBAT:
+                session.startCombat();
+                break;
+            case TurnJournal.ATTACK:
+                session.playerPerformAttack();
+                break;
+            case TurnJournal.ENEMY_ATTACK:
+                session.enemyPerformAttack();
+                break;
+            case TurnJournal.SPECIAL:
+                session.specialActionPerform();
+                break;
+            case TurnJournal.POTION:
+                session.heroUsesHealthPotion();
+                break;
+            case TurnJournal.BOMB:
+                session.heroUsesBomb();
+                break;
+            case TurnJournal.END_TURN:
+                session.endHeroCombatTurn();
+                break;
+            case TurnJournal.FLEE:
+                session.flee();
+                break;
+            case TurnJournal.LEAVE_COMBAT:
+                session.removeCurrentEnemyIfDead();
+                break;
+            case TurnJournal.RESTART:
+                session.restart();
+                break;
+            case TurnJournal.CONFIG:
+                session.setDungeonConfig(theEntry.myConfig);
+                break;
+            default:
+                throw new IllegalStateException("Unknown turn journal command " + theEntry.myOpcode);
+        }
+    }
+
+    /**
+     * Reads every whole command up to the end of the journal.
+     */
+    private static ArrayList<Entry> readEntries(final DataInputStream theIn) throws IOException {
+        final ArrayList<Entry> entries = new ArrayList<>();
+        while (true) {
+            final int opcode = theIn.read();
+            if (opcode < 0) {
+                return entries;
+            }
+            try {
+                entries.add(readEntry(opcode, theIn));
+            } catch (final EOFException e) {
+                //the journaled game stopped in the middle of writing this command.
+                return entries;
+            }
+        }
+    }
+
+    private static Entry readEntry(final int theOpcode, final DataInputStream theIn)
+            throws IOException {
+        switch (theOpcode) {
+            case TurnJournal.SET_PLAYER:
+                final int type = theIn.readUnsignedByte();
+                final String name = theIn.readUTF();
+                final int x = theIn.readInt();
+                final int y = theIn.readInt();
+                return new Entry(theOpcode, type, name, x, y, null);
+            case TurnJournal.MOVE:
+            case TurnJournal.HUNTING:
+                return new Entry(theOpcode, theIn.readUnsignedByte(), null, 0, 0, null);
+            case TurnJournal.CONFIG:
+                return new Entry(theOpcode, 0, null, 0, 0, TurnJournal.readConfig(theIn));
+            default:
+                if (theOpcode < TurnJournal.SET_PLAYER || theOpcode > TurnJournal.CONFIG) {
+                    throw new IOException("Unknown turn journal command " + theOpcode);
+                }
+                return new Entry(theOpcode, 0, null, 0, 0, null);
+        }
+    }
+}
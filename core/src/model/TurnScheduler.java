@@ -0,0 +1,263 @@
+package model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Decides who acts next by speed. Every actor's next action has a time, and an action pushes
+ * the actor's next one back by ACTION_TIME divided by their speed, so an actor twice as fast
+ * acts twice as often whatever the other speeds are. The actors are kept in a binary heap
+ * ordered by that time, so taking the next actor, adding one or removing one costs
+ * O(log n) however many actors there are.
+ * Actors due at the same time act fastest first, then in the order they were added. The
+ * speed is read each time an actor acts, so a change of speed applies from its next action.
+ * A scheduler is saved together with its actors, so a saved session resumes the same turns.
+ *
+ * @param <T> The type of the actors.
+ * @author agent
+ * @version 18OCT26
+ */
+public final class TurnScheduler<T extends DungeonCharacter> implements Serializable {
+    /**
+     * Time one action takes an actor of speed 1. Divisible by every speed from 1 to 16, so
+     * those speeds never lose time to rounding.
+     */
+    public static final long ACTION_TIME = 720720L;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * An actor and the time of its next action.
+     */
+    private static final class Entry<T> implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final T myActor;
+        /**
+         * Order the actor was added in, breaks ties between equally fast actors.
+         */
+        private final long myOrder;
+        private long myTime;
+        private int mySpeed;
+        private int myIndex;
+
+        private Entry(final T theActor, final long theOrder) {
+            myActor = theActor;
+            myOrder = theOrder;
+        }
+    }
+
+    private final IdentityHashMap<T, Entry<T>> myEntries;
+    private Entry<T>[] myHeap;
+    private int mySize;
+    private long myTime;
+    private long myOrder;
+
+    /**
+     * Creates a scheduler with no actors at time 0.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TurnScheduler() {
+        myEntries = new IdentityHashMap<>();
+        myHeap = new Entry[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the number of actors.
+     *
+     * @return The number of scheduled actors.
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Checks whether there are no actors left to schedule.
+     *
+     * @return true if the scheduler holds no actors.
+     */
+    public boolean isEmpty() {
+        return mySize == 0;
+    }
+
+    /**
+     * Gets the time of the last action taken.
+     *
+     * @return The current time, 0 before the first action.
+     */
+    public long getTime() {
+        return myTime;
+    }
+
+    /**
+     * Checks whether an actor is scheduled.
+     *
+     * @param theActor The actor to look for.
+     * @return true if the actor has a next action.
+     */
+    public boolean contains(final T theActor) {
+        return myEntries.containsKey(theActor);
+    }
+
+    /**
+     * Adds an actor. Its first action comes one action's time from now at its speed, as if
+     * it had just acted.
+     *
+     * @param theActor The actor to add.
+     * @throws IllegalArgumentException if the actor is null or already scheduled.
+     */
+    public void add(final T theActor) {
+        if (theActor == null) {
+            throw new IllegalArgumentException("Turn scheduler can't hold a null actor.");
+        }
+        if (myEntries.containsKey(theActor)) {
+            throw new IllegalArgumentException(theActor.getMyName() + " is already scheduled.");
+        }
+        final Entry<T> entry = new Entry<>(theActor, myOrder++);
+        entry.mySpeed = theActor.getSpeed();
+        entry.myTime = myTime + ACTION_TIME / entry.mySpeed;
+        myEntries.put(theActor, entry);
+        if (mySize == myHeap.length) {
+            myHeap = Arrays.copyOf(myHeap, mySize * 2);
+        }
+        entry.myIndex = mySize;
+        myHeap[mySize++] = entry;
+        siftUp(entry.myIndex);
+    }
+
+    /**
+     * Removes an actor, such as an enemy that died.
+     *
+     * @param theActor The actor to remove.
+     * @return true if the actor was scheduled.
+     */
+    public boolean remove(final T theActor) {
+        final Entry<T> entry = myEntries.remove(theActor);
+        if (entry == null) {
+            return false;
+        }
+        final int index = entry.myIndex;
+        final Entry<T> last = myHeap[--mySize];
+        myHeap[mySize] = null;
+        if (index < mySize) {
+            place(last, index);
+            siftDown(index);
+            siftUp(last.myIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Removes every actor. The time keeps going.
+     */
+    public void clear() {
+        Arrays.fill(myHeap, 0, mySize, null);
+        mySize = 0;
+        myEntries.clear();
+    }
+
+    /**
+     * Gets the actor that acts next without taking the action.
+     *
+     * @return The next actor, or null if there are none.
+     */
+    public T peek() {
+        return mySize == 0 ? null : myHeap[0].myActor;
+    }
+
+    /**
+     * Takes the next action: moves the time to it and schedules the actor's following action.
+     *
+     * @return The actor whose turn it is.
+     * @throws IllegalStateException if there are no actors.
+     */
+    public T next() {
+        if (mySize == 0) {
+            throw new IllegalStateException("Turn scheduler has no actors.");
+        }
+        final Entry<T> entry = myHeap[0];
+        myTime = entry.myTime;
+        entry.mySpeed = entry.myActor.getSpeed();
+        entry.myTime += ACTION_TIME / entry.mySpeed;
+        siftDown(0);
+        return entry.myActor;
+    }
+
+    /**
+     * Counts the actions an actor takes before another actor's next action, assuming neither
+     * changes speed.
+     *
+     * @param theActor The actor whose actions are counted.
+     * @param theOther The actor to count up to.
+     * @return The number of actions, 0 if the other actor acts first.
+     * @throws IllegalArgumentException if either actor is not scheduled or they are the same.
+     */
+    public int countActionsBefore(final T theActor, final T theOther) {
+        final Entry<T> entry = myEntries.get(theActor);
+        final Entry<T> other = myEntries.get(theOther);
+        if (entry == null || other == null || entry == other) {
+            throw new IllegalArgumentException("Can only count actions between two different scheduled actors.");
+        }
+        final int speed = theActor.getSpeed();
+        int count = 0;
+        for (long time = entry.myTime; isBefore(time, speed, entry.myOrder, other);
+             time += ACTION_TIME / speed) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isBefore(final long theTime, final int theSpeed, final long theOrder,
+                                    final Entry<?> theOther) {
+        if (theTime != theOther.myTime) {
+            return theTime < theOther.myTime;
+        }
+        if (theSpeed != theOther.mySpeed) {
+            return theSpeed > theOther.mySpeed;
+        }
+        return theOrder < theOther.myOrder;
+    }
+
+    private static boolean isBefore(final Entry<?> theFirst, final Entry<?> theSecond) {
+        return isBefore(theFirst.myTime, theFirst.mySpeed, theFirst.myOrder, theSecond);
+    }
+
+    private void siftUp(final int theIndex) {
+        final Entry<T> entry = myHeap[theIndex];
+        int index = theIndex;
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (!isBefore(entry, myHeap[parent])) {
+                break;
+            }
+            place(myHeap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(final int theIndex) {
+        final Entry<T> entry = myHeap[theIndex];
+        int index = theIndex;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= mySize) {
+                break;
+            }
+            if (child + 1 < mySize && isBefore(myHeap[child + 1], myHeap[child])) {
+                child++;
+            }
+            if (!isBefore(myHeap[child], entry)) {
+                break;
+            }
+            place(myHeap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(final Entry<T> theEntry, final int theIndex) {
+        myHeap[theIndex] = theEntry;
+        theEntry.myIndex = theIndex;
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+/**
+ * Read only view of the fog of war: which cells the hero can see now and which they have
+ * seen before. Renderers and enemy AI read the fog through this instead of the masks behind
+ * it, so they can fetch the view once and query it per cell without going through
+ * GameMaster, and can't change it.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public interface VisibilityView {
+    /**
+     * Receives the cells of an iteration, one call per cell.
+     */
+    @FunctionalInterface
+    interface CellVisitor {
+        /**
+         * Called for one cell.
+         *
+         * @param theX The x coordinate.
+         * @param theY The y coordinate.
+         */
+        void visit(int theX, int theY);
+    }
+
+    /**
+     * Checks whether a cell is in the hero's line of sight.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the cell is visible.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    boolean isVisible(int theX, int theY);
+
+    /**
+     * Checks whether the hero has seen a cell before.
+     *
+     * @param theX The x coordinate.
+     * @param theY The y coordinate.
+     * @return true if the cell has been explored.
+     * @throws IndexOutOfBoundsException if the cell is outside the map.
+     */
+    boolean isExplored(int theX, int theY);
+
+    /**
+     * Calls the visitor once for every visible cell, in no particular order. The fog must
+     * not change while the iteration runs.
+     *
+     * @param theVisitor Receives each visible cell.
+     */
+    void forEachVisible(CellVisitor theVisitor);
+
+    /**
+     * Gets a stamp that changes every time a cell comes into or leaves sight, or the map is
+     * revealed or hidden. Callers can keep what they worked out from the fog until the stamp
+     * changes.
+     *
+     * @return The fog version.
+     */
+    long getVersion();
+}
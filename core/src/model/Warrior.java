@@ -2,7 +2,6 @@ package model;
 
 import java.io.Serializable;
 import java.util.Objects;
-import java.util.Random;
 
 /**
  * Hero subclass, the Warrior is a playable character that has high HP and powerful attacks,
@@ -75,7 +74,7 @@ public final class Warrior extends Hero implements Serializable {
         int damage = 0;
         final StringBuilder sb = new StringBuilder();
         if(specialAttackChance()){
-            final Random rand = new Random();
+            final RandomSource rand = getRandom();
             damage = rand.nextInt(WARRIOR_SKILL_MIN_DAMAGE, WARRIOR_SKILL_MAX_DAMAGE+1);
             sb.append("[").append(getMyName()).append("] used <<")
                 .append(getSpecialActionName()).append(">> and dealt ").append(damage)
@@ -100,7 +99,7 @@ public final class Warrior extends Hero implements Serializable {
      * @return true/false to perform special attack.
      */
     public boolean specialAttackChance(){
-        Random rand = new Random();
+        final RandomSource rand = getRandom();
         return rand.nextInt(RANDOM_FROM_HUNDRED+1) <= WARRIOR_SKILL_CHANCE;
     }
 
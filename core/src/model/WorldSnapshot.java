@@ -0,0 +1,384 @@
+package model;
+
+import java.util.List;
+
+/**
+ * An immutable copy of what the screen shows of a session at one moment: the tiles and fog
+ * of a window around the hero, the enemies standing in it and the hero's stats. A
+ * SimulationThread publishes a new snapshot after every batch of commands, and the render
+ * thread draws the latest one without touching the session, so the two never share
+ * anything that changes.
+ * The snapshot reads like the map and fog it was copied from, in map coordinates. Cells
+ * outside the window read as unexplored walls, the window is made large enough to hold
+ * everything the screen draws.
+ *
+ * @author agent
+ * @version 18OCT26
+ */
+public final class WorldSnapshot implements TileMap, VisibilityView {
+    private static final byte UNSEEN = 0;
+    private static final byte EXPLORED = 1;
+    private static final byte VISIBLE = 2;
+
+    private final long myVersion;
+    private final int myMapWidth;
+    private final int myMapHeight;
+    /**
+     * Map cell of the window's bottom left corner.
+     */
+    private final int myOriginX;
+    private final int myOriginY;
+    private final int myWidth;
+    private final int myHeight;
+    /**
+     * Tiles of the window, stored at (y - originY) * width + (x - originX).
+     */
+    private final Tile[] myTiles;
+    /**
+     * UNSEEN, EXPLORED or VISIBLE for each tile of the window.
+     */
+    private final byte[] myFog;
+    private final int[] myEnemyX;
+    private final int[] myEnemyY;
+    private final Enemy.Type[] myEnemyTypes;
+    private final String myHeroName;
+    private final int myHeroX;
+    private final int myHeroY;
+    private final int myHeroHealth;
+    private final int myHeroMaxHealth;
+    private final int myHeroKeys;
+    private final int myHeroBombs;
+    private final int myHeroPotions;
+    private final boolean myIsHeroDead;
+    private final int myDepth;
+    private final boolean myIsCheats;
+
+    /**
+     * Copies a session. Must run on the thread that plays the session.
+     *
+     * @param theSession The session to copy, with its hero set.
+     * @param theRadius How many cells the window reaches from the hero along each axis.
+     * @param theVersion The number of the snapshot, larger for later snapshots.
+     * @throws IllegalArgumentException if the radius is negative or no hero was set.
+     */
+    WorldSnapshot(final GameSession theSession, final int theRadius, final long theVersion) {
+        if (theRadius < 0) {
+            throw new IllegalArgumentException("Snapshot radius can't be negative, got " + theRadius);
+        }
+        final Hero hero = theSession.getPlayer();
+        final TileMap map = theSession.getMap();
+        final VisibilityView fog = theSession.getVisibility();
+        myVersion = theVersion;
+        myMapWidth = map.getWidth();
+        myMapHeight = map.getHeight();
+        myHeroX = theSession.getPlayerX();
+        myHeroY = theSession.getPlayerY();
+        myOriginX = Math.max(0, myHeroX - theRadius);
+        myOriginY = Math.max(0, myHeroY - theRadius);
+        myWidth = Math.min(myMapWidth, myHeroX + theRadius + 1) - myOriginX;
+        myHeight = Math.min(myMapHeight, myHeroY + theRadius + 1) - myOriginY;
+        myTiles = new Tile[myWidth * myHeight];
+        myFog = new byte[myWidth * myHeight];
+        final Tile[] row = new Tile[myWidth];
+        for (int y = 0; y < myHeight; y++) {
+            map.getRow(myOriginY + y, myOriginX, myOriginX + myWidth, row);
+            System.arraycopy(row, 0, myTiles, y * myWidth, myWidth);
+            for (int x = 0; x < myWidth; x++) {
+                if (fog.isVisible(myOriginX + x, myOriginY + y)) {
+                    myFog[y * myWidth + x] = VISIBLE;
+                } else if (fog.isExplored(myOriginX + x, myOriginY + y)) {
+                    myFog[y * myWidth + x] = EXPLORED;
+                }
+            }
+        }
+        final List<Enemy> enemies = theSession.getAllEnemies();
+        int count = 0;
+        for (final Enemy enemy : enemies) {
+            if (isInWindow(enemy.getPosition().getMyX(), enemy.getPosition().getMyY())) {
+                count++;
+            }
+        }
+        myEnemyX = new int[count];
+        myEnemyY = new int[count];
+        myEnemyTypes = new Enemy.Type[count];
+        int i = 0;
+        for (final Enemy enemy : enemies) {
+            final int x = enemy.getPosition().getMyX();
+            final int y = enemy.getPosition().getMyY();
+            if (isInWindow(x, y)) {
+                myEnemyX[i] = x;
+                myEnemyY[i] = y;
+                myEnemyTypes[i] = enemy.getType();
+                i++;
+            }
+        }
+        myHeroName = hero.getMyName();
+        myHeroHealth = hero.getCurrentHealth();
+        myHeroMaxHealth = hero.getMaxHealth();
+        myHeroKeys = hero.getHeroKeys();
+        myHeroBombs = hero.getMyCurrentBombs();
+        myHeroPotions = hero.getMyCurrentPotions();
+        myIsHeroDead = hero.getIsDead();
+        myDepth = theSession.getDepth();
+        myIsCheats = theSession.getIsCheats();
+    }
+
+    /**
+     * Gets the number of this snapshot, which grows with every snapshot published.
+     *
+     * @return The snapshot number.
+     */
+    @Override
+    public long getVersion() {
+        return myVersion;
+    }
+
+    @Override
+    public int getWidth() {
+        return myMapWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return myMapHeight;
+    }
+
+    @Override
+    public boolean isInBounds(final int theX, final int theY) {
+        return theX >= 0 && theY >= 0 && theX < myMapWidth && theY < myMapHeight;
+    }
+
+    @Override
+    public Tile get(final int theX, final int theY) {
+        checkBounds(theX, theY);
+        return isInWindow(theX, theY) ? myTiles[index(theX, theY)] : Tile.WALL;
+    }
+
+    /**
+     * Snapshots can't be changed.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void set(final int theX, final int theY, final Tile theTile) {
+        throw new UnsupportedOperationException("A world snapshot can't be changed.");
+    }
+
+    @Override
+    public boolean isWalkable(final int theX, final int theY) {
+        return get(theX, theY).isWalkable();
+    }
+
+    @Override
+    public boolean isOpaque(final int theX, final int theY) {
+        return get(theX, theY).isOpaque();
+    }
+
+    @Override
+    public int getExits(final int theX, final int theY) {
+        checkBounds(theX, theY);
+        int exits = 0;
+        if (isInBounds(theX, theY + 1) && isWalkable(theX, theY + 1)) {
+            exits |= EXIT_UP;
+        }
+        if (isInBounds(theX + 1, theY) && isWalkable(theX + 1, theY)) {
+            exits |= EXIT_RIGHT;
+        }
+        if (isInBounds(theX, theY - 1) && isWalkable(theX, theY - 1)) {
+            exits |= EXIT_DOWN;
+        }
+        if (isInBounds(theX - 1, theY) && isWalkable(theX - 1, theY)) {
+            exits |= EXIT_LEFT;
+        }
+        return exits;
+    }
+
+    @Override
+    public void getRow(final int theY, final int theFromX, final int theToX, final Tile[] theDest) {
+        if (theFromX < 0 || theToX > myMapWidth || theFromX > theToX || theY < 0
+                || theY >= myMapHeight || theDest.length < theToX - theFromX) {
+            throw new IndexOutOfBoundsException("Row " + theY + " range [" + theFromX + ", "
+                    + theToX + ") is outside the map.");
+        }
+        for (int x = theFromX; x < theToX; x++) {
+            theDest[x - theFromX] = isInWindow(x, theY) ? myTiles[index(x, theY)] : Tile.WALL;
+        }
+    }
+
+    @Override
+    public boolean isVisible(final int theX, final int theY) {
+        checkBounds(theX, theY);
+        return isInWindow(theX, theY) && myFog[index(theX, theY)] == VISIBLE;
+    }
+
+    @Override
+    public boolean isExplored(final int theX, final int theY) {
+        checkBounds(theX, theY);
+        return isInWindow(theX, theY) && myFog[index(theX, theY)] != UNSEEN;
+    }
+
+    @Override
+    public void forEachVisible(final CellVisitor theVisitor) {
+        for (int y = 0; y < myHeight; y++) {
+            for (int x = 0; x < myWidth; x++) {
+                if (myFog[y * myWidth + x] == VISIBLE) {
+                    theVisitor.visit(myOriginX + x, myOriginY + y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of enemies standing in the window.
+     *
+     * @return The number of enemies, indexes of the enemy getters run below it.
+     */
+    public int getEnemyCount() {
+        return myEnemyTypes.length;
+    }
+
+    /**
+     * Gets the x coordinate of an enemy in the window.
+     *
+     * @param theIndex The index of the enemy, below getEnemyCount.
+     * @return The x coordinate in map coordinates.
+     */
+    public int getEnemyX(final int theIndex) {
+        return myEnemyX[theIndex];
+    }
+
+    /**
+     * Gets the y coordinate of an enemy in the window.
+     *
+     * @param theIndex The index of the enemy, below getEnemyCount.
+     * @return The y coordinate in map coordinates.
+     */
+    public int getEnemyY(final int theIndex) {
+        return myEnemyY[theIndex];
+    }
+
+    /**
+     * Gets the type of an enemy in the window, which decides how it is drawn.
+     *
+     * @param theIndex The index of the enemy, below getEnemyCount.
+     * @return The type.
+     */
+    public Enemy.Type getEnemyType(final int theIndex) {
+        return myEnemyTypes[theIndex];
+    }
+
+    /**
+     * Gets the name of the hero.
+     *
+     * @return The name.
+     */
+    public String getHeroName() {
+        return myHeroName;
+    }
+
+    /**
+     * Gets the x coordinate of the hero.
+     *
+     * @return The x coordinate in map coordinates.
+     */
+    public int getHeroX() {
+        return myHeroX;
+    }
+
+    /**
+     * Gets the y coordinate of the hero.
+     *
+     * @return The y coordinate in map coordinates.
+     */
+    public int getHeroY() {
+        return myHeroY;
+    }
+
+    /**
+     * Gets the health the hero has left.
+     *
+     * @return The current health points.
+     */
+    public int getHeroHealth() {
+        return myHeroHealth;
+    }
+
+    /**
+     * Gets the health the hero starts with.
+     *
+     * @return The maximum health points.
+     */
+    public int getHeroMaxHealth() {
+        return myHeroMaxHealth;
+    }
+
+    /**
+     * Gets the number of keys the hero carries.
+     *
+     * @return The key count.
+     */
+    public int getHeroKeys() {
+        return myHeroKeys;
+    }
+
+    /**
+     * Gets the number of bombs the hero carries.
+     *
+     * @return The bomb count.
+     */
+    public int getHeroBombs() {
+        return myHeroBombs;
+    }
+
+    /**
+     * Gets the number of health potions the hero carries.
+     *
+     * @return The potion count.
+     */
+    public int getHeroHealthPotions() {
+        return myHeroPotions;
+    }
+
+    /**
+     * Checks whether the hero had died when the snapshot was taken.
+     *
+     * @return true if the hero is dead.
+     */
+    public boolean isHeroDead() {
+        return myIsHeroDead;
+    }
+
+    /**
+     * Gets the depth of the floor the hero is on.
+     *
+     * @return The depth, 0 for the top floor and in endless mode.
+     */
+    public int getDepth() {
+        return myDepth;
+    }
+
+    /**
+     * Checks whether cheats were on, which shows the whole map.
+     *
+     * @return true if cheats are on.
+     */
+    public boolean getIsCheats() {
+        return myIsCheats;
+    }
+
+    private boolean isInWindow(final int theX, final int theY) {
+        return theX >= myOriginX && theY >= myOriginY && theX < myOriginX + myWidth
+                && theY < myOriginY + myHeight;
+    }
+
+    private int index(final int theX, final int theY) {
+        return (theY - myOriginY) * myWidth + theX - myOriginX;
+    }
+
+    private void checkBounds(final int theX, final int theY) {
+        if (!isInBounds(theX, theY)) {
+            throw new IndexOutOfBoundsException("Cell (" + theX + ", " + theY + ") is outside the "
+                    + myMapWidth + "x" + myMapHeight + " map.");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import model.BalanceSimulator;
+import model.Enemy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the balance simulator on enemies whose fights have a known outcome. The enemies are
+ * built directly so no database is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestBalanceSimulator {
+    /**
+     * An enemy with a single health point that almost never hits.
+     */
+    private static final Enemy WEAK = new Enemy("Gremlin", "Weak", 1, 1, 1, 0, 1, 1, 1, 1, 0, 0);
+    /**
+     * An enemy no hero can hurt enough that always hits hard.
+     */
+    private static final Enemy STRONG = new Enemy("Ogre", "Strong", 100000, 200, 300, 0, 100, 9, 1, 1, 0, 0);
+
+    private final ForkJoinPool myPool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown(){
+        myPool.shutdown();
+    }
+
+    /**
+     * Every fight is counted once, and the outcome follows the enemy's strength.
+     */
+    @Test
+    void reportsOutcomes(){
+        final List<BalanceSimulator.Report> reports = new BalanceSimulator(myPool)
+                .simulateAll(Arrays.asList(WEAK, STRONG), 2, 1, 10000);
+        assertEquals(6, reports.size());
+        for(final BalanceSimulator.Report report : reports){
+            assertEquals(10000, report.getFights());
+            assertEquals(10000, report.getHeroWins() + report.getEnemyWins() + report.getDraws());
+            if(report.getEnemy() == Enemy.Type.Gremlin){
+                assertEquals(1.0, report.getWinRate());
+                assertTrue(report.getTurnsToKill(50) >= 1);
+                assertTrue(report.getTurnsToKill(50) <= report.getTurnsToKill(99));
+                assertTrue(report.getHealthLeft(10) <= report.getHealthLeft(90));
+            }
+            else{
+                assertEquals(0, report.getHeroWins());
+                assertEquals(0, report.getTurnsToKill(50));
+            }
+        }
+    }
+
+    /**
+     * Turn counts add up to the wins and losses they describe.
+     */
+    @Test
+    void turnsAddUp(){
+        final BalanceSimulator.Report report = new BalanceSimulator(myPool)
+                .simulate(BalanceSimulator.HeroClass.THIEF, STRONG, 0, 0, 5000);
+        long losses = 0;
+        for(int turns = 0; turns <= BalanceSimulator.MAX_TURNS; turns++){
+            losses += report.getLossesInTurns(turns);
+        }
+        assertEquals(report.getEnemyWins(), losses);
+        assertThrows(IllegalArgumentException.class, () -> report.getHealthLeft(101));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceSimulator(myPool)
+                .simulate(BalanceSimulator.HeroClass.THIEF, STRONG, -1, 0, 1));
+    }
+}
@@ -0,0 +1,268 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import model.ChunkPopulator;
+import model.ChunkedWorld;
+import model.Dungeon;
+import model.DungeonConfig;
+import model.Enemy;
+import model.FogChanges;
+import model.Tile;
+import model.TileMap;
+import model.VisibilityView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the streamed chunk world. Chunks get no enemies so no database is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestChunkedWorld {
+    /**
+     * A small chunk without enemies.
+     */
+    private static final DungeonConfig CHUNK = new DungeonConfig(32, 32, 6, 2, 1, 0,
+            1, 1, 0, 0, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+    private static final ChunkPopulator NO_ENEMIES = new ChunkPopulator() {
+        @Override
+        public ArrayList<Enemy> populate(final Dungeon theChunk, final int theOriginX,
+                                         final int theOriginY) {
+            return new ArrayList<>();
+        }
+    };
+
+    private File myDirectory;
+    private ChunkedWorld myWorld;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        myDirectory = Files.createTempDirectory("chunks").toFile();
+        myWorld = new ChunkedWorld(CHUNK, 42L, myDirectory, NO_ENEMIES);
+    }
+
+    @AfterEach
+    void tearDown(){
+        myWorld.close();
+        assertFalse(myDirectory.exists());
+    }
+
+    /**
+     * Two worlds with the same seed generate the same chunks.
+     */
+    @Test
+    void sameSeedSameChunks() throws IOException {
+        final File other = Files.createTempDirectory("chunks").toFile();
+        final ChunkedWorld world = new ChunkedWorld(CHUNK, 42L, other, NO_ENEMIES);
+        for (int y = 0; y < 96; y++) {
+            for (int x = 0; x < 96; x++) {
+                assertEquals(myWorld.get(x, y), world.get(x, y));
+            }
+        }
+        world.close();
+        assertFalse(other.exists());
+    }
+
+    /**
+     * Every shared edge has an opening that is walkable on both sides.
+     */
+    @Test
+    void edgesAreOpen(){
+        for (int chunk = 0; chunk < 4; chunk++) {
+            assertTrue(hasOpening(chunk * 32 + 31, chunk * 32, 0, 1));
+            assertTrue(hasOpening(chunk * 32, chunk * 32 + 31, 1, 0));
+        }
+    }
+
+    /**
+     * Walking away unloads far chunks and keeps the loaded area bounded.
+     */
+    @Test
+    void farChunksAreUnloaded(){
+        for (int x = 1; x < 32 * 20; x += 16) {
+            myWorld.focus(x, x);
+            assertTrue(myWorld.getLoadedChunkCount() <= 25);
+        }
+        myWorld.focus(1, 1);
+        assertTrue(myWorld.getLoadedChunkCount() <= 25);
+    }
+
+    /**
+     * Changed tiles and explored cells survive a trip to disk.
+     */
+    @Test
+    void unloadedChunksKeepChanges(){
+        myWorld.focus(1, 1);
+        myWorld.set(5, 5, Tile.OPEN_DOOR);
+        carveFloor(6, 6, 15, 14);
+        myWorld.updateFOW(10, 10, 2);
+        //stepping east leaves the west column of the old sight behind, explored.
+        myWorld.updateFOW(11, 10, 2);
+        assertTrue(myWorld.isExplored(8, 10));
+        assertFalse(myWorld.isExplored(30, 30));
+        myWorld.focus(32 * 10, 32 * 10);
+        myWorld.focus(1, 1);
+        assertEquals(Tile.OPEN_DOOR, myWorld.get(5, 5));
+        assertTrue(myWorld.isExplored(8, 10));
+        assertFalse(myWorld.isExplored(30, 30));
+    }
+
+    /**
+     * A step only reports the cells that came into or left sight. In the open a sight of 2
+     * covers the 21 cells of a circle, so a step east brings 5 cells into sight on the east
+     * side and leaves 5 behind on the west side.
+     */
+    @Test
+    void fogChangesAreIncremental(){
+        carveFloor(6, 6, 15, 14);
+        final FogChanges changes = myWorld.getFogChanges();
+        assertTrue(changes.isFull());
+        changes.clear();
+        assertTrue(changes.isEmpty());
+        myWorld.updateFOW(10, 10, 2);
+        //the first update redraws everything.
+        assertTrue(changes.isFull());
+        changes.clear();
+        myWorld.updateFOW(11, 10, 2);
+        assertEquals(5, changes.getVisibleCount());
+        assertEquals(5, changes.getExploredCount());
+        for (int i = 0; i < 5; i++) {
+            final int visibleRow = Math.abs(changes.getVisibleY(i) - 10);
+            assertEquals(visibleRow == 2 ? 12 : 13, changes.getVisibleX(i));
+            final int exploredRow = Math.abs(changes.getExploredY(i) - 10);
+            assertEquals(exploredRow == 2 ? 9 : 8, changes.getExploredX(i));
+        }
+        assertEquals(8, changes.getFromX());
+        assertEquals(13, changes.getToX());
+        assertEquals(8, changes.getFromY());
+        assertEquals(12, changes.getToY());
+    }
+
+    /**
+     * Sight crosses chunk edges but not the walls and closed doors of the next chunk.
+     */
+    @Test
+    void wallsBlockSightAcrossChunks(){
+        carveFloor(26, 8, 37, 12);
+        for (int y = 8; y <= 12; y++) {
+            myWorld.set(33, y, Tile.WALL);
+        }
+        myWorld.set(33, 10, Tile.DOOR);
+        myWorld.updateFOW(30, 10, 6);
+        assertTrue(myWorld.isVisible(32, 10));
+        assertTrue(myWorld.isVisible(33, 10));
+        assertFalse(myWorld.isVisible(35, 10));
+        assertFalse(myWorld.isExplored(35, 10));
+        myWorld.set(33, 10, Tile.OPEN_DOOR);
+        myWorld.updateFOW(30, 10, 6);
+        assertTrue(myWorld.isVisible(35, 10));
+        assertTrue(myWorld.isExplored(35, 10));
+        myWorld.updateFOW(27, 10, 6);
+        assertFalse(myWorld.isVisible(35, 10));
+        assertTrue(myWorld.isExplored(35, 10));
+    }
+
+    /**
+     * The world has no cells at negative coordinates.
+     */
+    @Test
+    void negativeCellsAreOutside(){
+        assertFalse(myWorld.isInBounds(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> myWorld.get(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> myWorld.focus(0, -1));
+    }
+
+    /**
+     * Turns a rectangle of the world into open floor.
+     */
+    private void carveFloor(final int theFromX, final int theFromY, final int theToX,
+                            final int theToY){
+        for (int y = theFromY; y <= theToY; y++) {
+            for (int x = theFromX; x <= theToX; x++) {
+                myWorld.set(x, y, Tile.FLOOR);
+            }
+        }
+    }
+
+    /**
+     * Checks that the edge cell and the cell across the edge are walkable somewhere along
+     * the edge.
+     */
+    private boolean hasOpening(final int theX, final int theY, final int theAlongX,
+                               final int theAlongY){
+        final int acrossX = theAlongY;
+        final int acrossY = theAlongX;
+        for (int k = 0; k < 32; k++) {
+            final int x = theX + k * theAlongX;
+            final int y = theY + k * theAlongY;
+            if (myWorld.isWalkable(x, y) && myWorld.isWalkable(x + acrossX, y + acrossY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The visibility view lists the cells in sight and its version only moves when the fog
+     * changes.
+     */
+    @Test
+    void visibilityViewTracksSight(){
+        carveFloor(6, 6, 15, 14);
+        final VisibilityView fog = myWorld;
+        final long start = fog.getVersion();
+        myWorld.updateFOW(10, 10, 2);
+        final long afterFirst = fog.getVersion();
+        assertNotEquals(start, afterFirst);
+        final int[] count = new int[1];
+        fog.forEachVisible((x, y) -> {
+            assertTrue(fog.isVisible(x, y));
+            assertTrue(Math.abs(x - 10) <= 2 && Math.abs(y - 10) <= 2);
+            count[0]++;
+        });
+        assertEquals(21, count[0]);
+        myWorld.updateFOW(10, 10, 2);
+        assertEquals(afterFirst, fog.getVersion());
+        myWorld.setRevealed(true);
+        assertNotEquals(afterFirst, fog.getVersion());
+        assertTrue(fog.isVisible(30, 30));
+        assertFalse(fog.isExplored(30, 30));
+        myWorld.setRevealed(false);
+        assertFalse(fog.isVisible(30, 30));
+    }
+
+    /**
+     * Exits match the walkable neighbors on both sides of chunk edges.
+     */
+    @Test
+    void exitsCrossChunkEdges(){
+        myWorld.focus(32, 32);
+        for(int y = 0; y < 64; y++){
+            for(int x = 0; x < 64; x++){
+                int expected = 0;
+                if(myWorld.isWalkable(x, y + 1)){
+                    expected |= TileMap.EXIT_UP;
+                }
+                if(myWorld.isWalkable(x + 1, y)){
+                    expected |= TileMap.EXIT_RIGHT;
+                }
+                if(y > 0 && myWorld.isWalkable(x, y - 1)){
+                    expected |= TileMap.EXIT_DOWN;
+                }
+                if(x > 0 && myWorld.isWalkable(x - 1, y)){
+                    expected |= TileMap.EXIT_LEFT;
+                }
+                assertEquals(expected, myWorld.getExits(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.Dungeon;
+import model.DungeonConfig;
+import model.Position;
+import model.Room;
+import model.Tile;
+import model.TileGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests dungeon generation and confirms layouts are reproducible from their seed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestDungeon {
+    /**
+     * Seed used by the reproducibility tests.
+     */
+    private static final long SEED = 20240816L;
+
+    /**
+     * Two dungeons built from the same seed have the exact same map.
+     */
+    @Test
+    void sameSeedSameLayout(){
+        final TileGrid first = new Dungeon(SEED).getMap();
+        final TileGrid second = new Dungeon(SEED).getMap();
+        assertEquals(first, second);
+    }
+
+    /**
+     * Different seeds give different maps.
+     */
+    @Test
+    void differentSeedDifferentLayout(){
+        final TileGrid first = new Dungeon(SEED).getMap();
+        final TileGrid second = new Dungeon(SEED + 1).getMap();
+        assertNotEquals(first, second);
+    }
+
+    /**
+     * The dungeon remembers the seed it was built from.
+     */
+    @Test
+    void seedIsKept(){
+        assertEquals(SEED, new Dungeon(SEED).getSeed());
+    }
+
+    /**
+     * Generation reports how many attempts it took and how long each one ran.
+     */
+    @Test
+    void attemptCountersAreReported(){
+        final Dungeon dungeon = new Dungeon(SEED);
+        assertTrue(dungeon.getGenerationAttempts() >= 1);
+        assertTrue(dungeon.getGenerationAttempts() <= Dungeon.DEFAULT_MAX_ATTEMPTS);
+        assertEquals(dungeon.getGenerationAttempts(), dungeon.getAttemptNanos().length);
+    }
+
+    /**
+     * A retry budget that is not positive is rejected.
+     */
+    @Test
+    void invalidRetryBudget(){
+        assertThrows(IllegalArgumentException.class, () -> new Dungeon(SEED, 0));
+    }
+
+    /**
+     * A configured dungeon has the configured dimensions.
+     */
+    @Test
+    void configuredSizeIsUsed(){
+        final Dungeon dungeon = new Dungeon(new DungeonConfig(256, 128), SEED);
+        assertEquals(256, dungeon.getWidth());
+        assertEquals(128, dungeon.getHeight());
+        assertEquals(256, dungeon.getMap().getWidth());
+        assertEquals(128, dungeon.getMap().getHeight());
+    }
+
+    /**
+     * Map sizes outside the supported range are rejected.
+     */
+    @Test
+    void invalidDimensions(){
+        assertThrows(IllegalArgumentException.class, () -> new DungeonConfig(2, 50));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DungeonConfig(DungeonConfig.MAX_MAP_SIZE + 1, 50));
+    }
+
+    /**
+     * Every generated map is walled in and holds the configured number of keys and exits.
+     */
+    @Test
+    void outerWallsAndItemCounts(){
+        final Dungeon dungeon = new Dungeon(SEED);
+        final TileGrid map = dungeon.getMap();
+        for(int i = 0; i < map.getWidth(); i++){
+            assertEquals(Tile.WALL, map.get(i, 0));
+            assertEquals(Tile.WALL, map.get(i, map.getHeight() - 1));
+        }
+        for(int j = 0; j < map.getHeight(); j++){
+            assertEquals(Tile.WALL, map.get(0, j));
+            assertEquals(Tile.WALL, map.get(map.getWidth() - 1, j));
+        }
+        assertEquals(dungeon.getConfig().getKeys(), map.count(Tile.KEY));
+        assertEquals(dungeon.getConfig().getExits(), map.count(Tile.EXIT));
+    }
+
+    /**
+     * Asking for more items than the map has floor cells fails instead of looping forever.
+     */
+    @Test
+    void tooManyItemsFailsFast(){
+        final DungeonConfig crowded = new DungeonConfig(20, 20, 10, 1, 4, 2,
+                400, 0, 0, 0, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+        assertThrows(IllegalStateException.class, () -> new Dungeon(crowded, SEED));
+    }
+
+    /**
+     * Free cells handed out after generation are distinct floor cells.
+     */
+    @Test
+    void freeCellsAreFloor(){
+        final Dungeon dungeon = new Dungeon(SEED);
+        final int free = dungeon.getFreeCellCount();
+        final Position first = dungeon.takeFreeCell();
+        final Position second = dungeon.takeFreeCell();
+        assertEquals(free - 2, dungeon.getFreeCellCount());
+        assertEquals(Tile.FLOOR, dungeon.getMap().get(first.getMyX(), first.getMyY()));
+        assertFalse(first.getMyX() == second.getMyX() && first.getMyY() == second.getMyY());
+    }
+
+    /**
+     * The room found at a cell is the room whose area covers it, and adjacency lists have no
+     * duplicates and agree with the room graph.
+     */
+    @Test
+    void roomLookupAndAdjacency(){
+        final Dungeon dungeon = new Dungeon(SEED);
+        final List<Room> rooms = dungeon.getRooms();
+        assertEquals(rooms.size(), dungeon.getRoomGraph().getRoomCount());
+        for(int id = 0; id < rooms.size(); id++){
+            final Room room = rooms.get(id);
+            assertSame(room, dungeon.roomAt(room.getX(), room.getY()));
+            assertSame(room, dungeon.roomAt(room.getX() + room.getWidth() - 1,
+                    room.getY() + room.getHeight() - 1));
+            assertEquals(id, dungeon.getRoomId(room.getX(), room.getY()));
+            assertEquals(new HashSet<>(room.getAdjacentRooms()).size(), room.getAdjacentRooms().size());
+            assertEquals(dungeon.getRoomGraph().getDegree(id), room.getAdjacentRooms().size());
+            for(final Room other : room.getAdjacentRooms()){
+                assertTrue(dungeon.getRoomGraph().isConnected(id, rooms.indexOf(other)));
+            }
+        }
+        assertNull(dungeon.roomAt(0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> dungeon.roomAt(-1, 0));
+    }
+}
@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import model.Dungeon;
+import model.DungeonConfig;
+import model.DungeonFloors;
+import model.DungeonPool;
+import model.Floor;
+import model.Tile;
+import model.TileGrid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests floors linked by stairs and the floor cache. Enemies are turned off so no database
+ * is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestDungeonFloors {
+    /**
+     * A small map without enemies.
+     */
+    private static final DungeonConfig CONFIG = new DungeonConfig(60, 40, 10, 4, 4, 2,
+            2, 2, 2, 2, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+
+    private DungeonPool myPool;
+    private File myDirectory;
+    private DungeonFloors myFloors;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        myPool = new DungeonPool(CONFIG, 1, 1);
+        myDirectory = Files.createTempDirectory("floors").toFile();
+        myFloors = new DungeonFloors(myPool::take, 4, 2, myDirectory);
+    }
+
+    @AfterEach
+    void tearDown(){
+        myFloors.close();
+        myPool.shutdown();
+        assertFalse(myDirectory.exists());
+    }
+
+    /**
+     * Only the deepest floor keeps its exits, the others lead down instead, and every floor
+     * but the top one has stairs up where the hero arrives.
+     */
+    @Test
+    void floorsAreLinkedByStairs(){
+        final TileGrid top = myFloors.getCurrent().getDungeon().getMap();
+        assertEquals(0, top.count(Tile.EXIT));
+        assertEquals(2, top.count(Tile.STAIRS_DOWN));
+        assertEquals(0, top.count(Tile.STAIRS_UP));
+        for (int depth = 1; depth < 4; depth++) {
+            final Floor floor = myFloors.descend(1, 1);
+            assertEquals(depth, floor.getDepth());
+            assertEquals(Tile.STAIRS_UP, floor.getDungeon().getMap()
+                    .get(floor.getUpX(), floor.getUpY()));
+        }
+        final TileGrid bottom = myFloors.getCurrent().getDungeon().getMap();
+        assertEquals(2, bottom.count(Tile.EXIT));
+        assertEquals(0, bottom.count(Tile.STAIRS_DOWN));
+        assertThrows(IllegalStateException.class, () -> myFloors.descend(1, 1));
+    }
+
+    /**
+     * Floors dropped from memory come back from disk as they were left.
+     */
+    @Test
+    void evictedFloorsKeepChanges(){
+        final Floor top = myFloors.getCurrent();
+        top.getDungeon().getMap().set(1, 1, Tile.OPEN_DOOR);
+        myFloors.descend(4, 5);
+        myFloors.descend(1, 1);
+        myFloors.descend(1, 1);
+        assertTrue(myFloors.getCachedFloorCount() <= 2);
+        myFloors.ascend();
+        myFloors.ascend();
+        final Floor back = myFloors.ascend();
+        assertEquals(0, back.getDepth());
+        assertEquals(Tile.OPEN_DOOR, back.getDungeon().getMap().get(1, 1));
+        assertEquals(4, back.getDownX());
+        assertEquals(5, back.getDownY());
+        assertEquals(top.getDungeon().getMap(), back.getDungeon().getMap());
+        assertTrue(myFloors.getCachedFloorCount() <= 2);
+    }
+
+    /**
+     * There is nothing above the top floor.
+     */
+    @Test
+    void cantAscendFromTop(){
+        assertThrows(IllegalStateException.class, () -> myFloors.ascend());
+    }
+}
@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.Dungeon;
+import model.DungeonConfig;
+import model.DungeonPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the background dungeon pool. Enemies are turned off so no database is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestDungeonPool {
+    /**
+     * A small map without enemies.
+     */
+    private static final DungeonConfig CONFIG = new DungeonConfig(60, 40, 10, 4, 4, 2,
+            2, 2, 2, 2, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+
+    private DungeonPool myPool;
+
+    @AfterEach
+    void tearDown(){
+        if(myPool != null){
+            myPool.shutdown();
+        }
+    }
+
+    /**
+     * Every take hands out a new dungeon built from the pool configuration.
+     */
+    @Test
+    void takesNewDungeons(){
+        myPool = new DungeonPool(CONFIG, 2, 2);
+        final DungeonPool.Ready first = myPool.take();
+        final DungeonPool.Ready second = myPool.take();
+        final DungeonPool.Ready third = myPool.take();
+        assertNotSame(first.getDungeon(), second.getDungeon());
+        assertNotSame(second.getDungeon(), third.getDungeon());
+        assertSame(CONFIG, third.getDungeon().getConfig());
+        assertEquals(60, third.getDungeon().getWidth());
+        assertTrue(first.getEnemies().isEmpty());
+    }
+
+    /**
+     * A pool that was shut down hands out nothing.
+     */
+    @Test
+    void shutdownStopsTaking(){
+        myPool = new DungeonPool(CONFIG, 1, 1);
+        myPool.shutdown();
+        assertThrows(IllegalStateException.class, () -> myPool.take());
+    }
+
+    /**
+     * Generation errors reach the caller of take.
+     */
+    @Test
+    void generationFailureIsReported(){
+        final DungeonConfig crowded = new DungeonConfig(20, 20, 10, 1, 4, 2,
+                400, 0, 0, 0, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+        myPool = new DungeonPool(crowded, 1, 1);
+        assertThrows(IllegalStateException.class, () -> myPool.take());
+    }
+
+    /**
+     * Counts that are not positive are rejected.
+     */
+    @Test
+    void invalidCounts(){
+        assertThrows(IllegalArgumentException.class, () -> new DungeonPool(CONFIG, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DungeonPool(null));
+    }
+}
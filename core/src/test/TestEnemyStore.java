@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Enemy;
+import model.EnemyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the struct-of-arrays enemy store: ids, hot fields, materializing and writing it.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestEnemyStore {
+    private Enemy myOgre;
+    private Enemy myGremlin;
+    private EnemyStore myStore;
+
+    @BeforeEach
+    void setUp(){
+        myOgre = new Enemy("Ogre", "Grug", 200, 30, 60, 10, 60, 2, 30, 60, 5, 6);
+        myGremlin = new Enemy("Gremlin", "Zik", 70, 15, 30, 40, 80, 5, 20, 40, 7, 8);
+        myStore = EnemyStore.of(Arrays.asList(myOgre, myGremlin));
+    }
+
+    /**
+     * The hot fields of each enemy are stored under its id.
+     */
+    @Test
+    void storesHotFields(){
+        assertEquals(2, myStore.size());
+        assertEquals(5, myStore.getX(0));
+        assertEquals(6, myStore.getY(0));
+        assertEquals(200, myStore.getHealth(0));
+        assertEquals(2, myStore.getSpeed(0));
+        assertEquals(Enemy.Type.Ogre, myStore.getType(0));
+        assertEquals(Enemy.Type.Gremlin, myStore.getType(1));
+        assertEquals("Zik", myStore.getName(1));
+        myStore.setPosition(1, 9, 10);
+        myStore.setHealth(1, 12);
+        assertEquals(9, myStore.getX(1));
+        assertEquals(10, myStore.getY(1));
+        assertEquals(12, myStore.getHealth(1));
+        assertThrows(IllegalArgumentException.class, () -> myStore.setHealth(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> myStore.getX(2));
+    }
+
+    /**
+     * Removed ids stop working and are handed to the next enemy added.
+     */
+    @Test
+    void reusesRemovedIds(){
+        assertTrue(myStore.remove(0));
+        assertFalse(myStore.remove(0));
+        assertFalse(myStore.contains(0));
+        assertEquals(1, myStore.size());
+        assertThrows(IllegalArgumentException.class, () -> myStore.materialize(0));
+        assertEquals(0, myStore.add(myGremlin));
+        assertEquals(2, myStore.add(myOgre));
+        assertEquals(Enemy.Type.Gremlin, myStore.getType(0));
+        assertEquals(3, myStore.getIdCount());
+    }
+
+    /**
+     * A materialized enemy has the stored stats, position and health, and fighting it only
+     * reaches the store through update.
+     */
+    @Test
+    void materializesEnemies(){
+        myOgre.receiveDamage(50);
+        myStore.update(0, myOgre);
+        final Enemy ogre = myStore.materialize(0);
+        assertNotSame(myOgre, ogre);
+        assertEquals(describe(myOgre), describe(ogre));
+        ogre.moveCharacterRight();
+        assertEquals(5, myStore.getX(0));
+        myStore.setHealth(1, 0);
+        assertTrue(myStore.materialize(1).getIsDead());
+    }
+
+    /**
+     * A written store reads back with the same ids and enemies, and thousands of enemies of
+     * a few kinds take a few bytes each.
+     */
+    @Test
+    void writesAndReadsBack() throws IOException, ClassNotFoundException {
+        final List<Enemy> enemies = new ArrayList<>();
+        for(int i = 0; i < 10_000; i++){
+            enemies.add(new Enemy(i % 2 == 0 ? "Skeleton" : "Gremlin", "Enemy" + i,
+                    100, 10, 20, 10, 70, 3, 5, 10, i % 400, i / 400));
+        }
+        final EnemyStore store = EnemyStore.of(enemies);
+        store.remove(17);
+        final byte[] bytes = write(store);
+        assertTrue(bytes.length < 10_000 * 32, "Store took " + bytes.length + " bytes.");
+        final EnemyStore read = read(bytes);
+        assertEquals(store.size(), read.size());
+        assertEquals(store.getIdCount(), read.getIdCount());
+        assertFalse(read.contains(17));
+        for(int id = 0; id < store.getIdCount(); id++){
+            if(id != 17){
+                assertEquals(describe(enemies.get(id)), describe(read.materialize(id)));
+            }
+        }
+        assertEquals(17, read.add(enemies.get(17)));
+    }
+
+    private static String describe(final Enemy theEnemy){
+        return theEnemy.getMyName() + ' ' + theEnemy.getPosition() + ' '
+                + theEnemy.getCurrentHealth() + '/' + theEnemy.getMaxHealth() + ' '
+                + theEnemy.getMinDamage() + '-' + theEnemy.getMaxDamage() + ' '
+                + theEnemy.getHitChance() + ' ' + theEnemy.getSpeed() + ' '
+                + theEnemy.getMyHealChance() + ' ' + theEnemy.getMyMinHeal() + '-'
+                + theEnemy.getMyMaxHeal() + ' ' + theEnemy.getIsDead();
+    }
+
+    private static byte[] write(final EnemyStore theStore) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(theStore);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static EnemyStore read(final byte[] theBytes) throws IOException, ClassNotFoundException {
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(theBytes))){
+            return (EnemyStore) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.FieldOfView;
+import model.FogChanges;
+import model.FogMask;
+import model.Tile;
+import model.TileGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests shadowcasting line of sight on a hand made map: two 5x5 rooms side by side, split by
+ * a wall at x = 6 with a door at (6, 3).
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestFieldOfView {
+    private TileGrid myMap;
+    private FogMask myVisible;
+    private FogMask myExplored;
+    private FogChanges myChanges;
+    private FieldOfView myFieldOfView;
+
+    @BeforeEach
+    void setUp(){
+        myMap = new TileGrid(13, 7);
+        for(int y = 1; y <= 5; y++){
+            myMap.fillRow(y, 1, 6, Tile.FLOOR);
+            myMap.fillRow(y, 7, 12, Tile.FLOOR);
+        }
+        myMap.set(6, 3, Tile.DOOR);
+        myVisible = new FogMask(13, 7);
+        myExplored = new FogMask(13, 7);
+        myChanges = new FogChanges();
+        myFieldOfView = new FieldOfView(myMap);
+    }
+
+    /**
+     * Walls and closed doors hide what is behind them but are seen themselves.
+     */
+    @Test
+    void wallsAndDoorsBlockSight(){
+        myFieldOfView.update(4, 3, 8, myVisible, myExplored, myChanges);
+        assertTrue(myVisible.get(1, 1));
+        assertTrue(myVisible.get(6, 2));
+        assertTrue(myVisible.get(6, 3));
+        assertFalse(myVisible.get(7, 3));
+        assertFalse(myVisible.get(9, 4));
+        assertEquals(myVisible.count(), myFieldOfView.getVisibleCount());
+        final int[] count = new int[1];
+        myFieldOfView.forEachVisible((x, y) -> {
+            assertTrue(myVisible.get(x, y));
+            count[0]++;
+        });
+        assertEquals(myVisible.count(), count[0]);
+    }
+
+    /**
+     * An open door lets the hero see into the next room.
+     */
+    @Test
+    void openDoorLetsSightThrough(){
+        myMap.set(6, 3, Tile.OPEN_DOOR);
+        myFieldOfView.update(4, 3, 8, myVisible, myExplored, myChanges);
+        assertTrue(myVisible.get(7, 3));
+        assertTrue(myVisible.get(10, 3));
+        assertFalse(myVisible.get(8, 1));
+    }
+
+    /**
+     * Sight ends at the radius.
+     */
+    @Test
+    void radiusLimitsSight(){
+        myMap.set(6, 3, Tile.OPEN_DOOR);
+        myFieldOfView.update(1, 3, 3, myVisible, myExplored, myChanges);
+        assertTrue(myVisible.get(4, 3));
+        assertFalse(myVisible.get(5, 3));
+        assertTrue(myVisible.get(3, 5));
+        assertFalse(myVisible.get(4, 5));
+    }
+
+    /**
+     * Moving reports only the cells that came into or left sight, and cells left behind
+     * stay explored.
+     */
+    @Test
+    void movesReportChanges(){
+        myMap.set(6, 3, Tile.OPEN_DOOR);
+        myFieldOfView.update(5, 3, 8, myVisible, myExplored, myChanges);
+        myChanges.clear();
+        final int before = myVisible.count();
+        myFieldOfView.update(7, 3, 8, myVisible, myExplored, myChanges);
+        assertEquals(before + myChanges.getVisibleCount() - myChanges.getExploredCount(),
+                myVisible.count());
+        assertTrue(myChanges.getVisibleCount() > 0);
+        assertTrue(myChanges.getExploredCount() > 0);
+        for(int i = 0; i < myChanges.getExploredCount(); i++){
+            final int x = myChanges.getExploredX(i);
+            final int y = myChanges.getExploredY(i);
+            assertFalse(myVisible.get(x, y));
+            assertTrue(myExplored.get(x, y));
+        }
+        final FogMask explored = new FogMask(13, 7);
+        explored.copyFrom(myExplored);
+        explored.andNot(myVisible);
+        assertEquals(myExplored.count() - myVisible.count(), explored.count());
+    }
+}
@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.Enemy;
+import model.EnemyMover;
+import model.FlowField;
+import model.OccupancyIndex;
+import model.SeededRandom;
+import model.Tile;
+import model.TileGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the hero distance field and the enemies hunting along it. The map is a 9x9 room
+ * with a wall down x = 4 that is only open at the top, at (4, 7).
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestFlowField {
+    private TileGrid myMap;
+
+    @BeforeEach
+    void setUp(){
+        myMap = new TileGrid(9, 9);
+        for(int y = 1; y <= 7; y++){
+            myMap.fillRow(y, 1, 8, Tile.FLOOR);
+            myMap.set(4, y, Tile.WALL);
+        }
+        myMap.set(4, 7, Tile.FLOOR);
+    }
+
+    private static Enemy enemy(final int theX, final int theY){
+        return new Enemy("Ogre", "Ogre", 100, 10, 20, 10, 70, 3, 5, 10, theX, theY);
+    }
+
+    /**
+     * Distances follow the walkable path around the wall, not a straight line.
+     */
+    @Test
+    void distancesWalkAroundWalls(){
+        final FlowField field = new FlowField(20);
+        field.compute(myMap, 2, 2);
+        assertEquals(0, field.getDistance(2, 2));
+        assertEquals(1, field.getDistance(2, 3));
+        assertEquals(FlowField.UNREACHED, field.getDistance(4, 2));
+        //up to (3, 7), through the opening and back down to (5, 2).
+        assertEquals(6 + 2 + 5, field.getDistance(5, 2));
+        assertEquals(FlowField.UNREACHED, field.getDistance(0, 0));
+    }
+
+    /**
+     * The search stops at the maximum distance and forgets the previous search.
+     */
+    @Test
+    void searchStopsAtMaxDistance(){
+        final FlowField field = new FlowField(3);
+        field.compute(myMap, 2, 2);
+        assertEquals(3, field.getDistance(2, 5));
+        assertEquals(FlowField.UNREACHED, field.getDistance(2, 6));
+        field.compute(myMap, 6, 6);
+        assertEquals(FlowField.UNREACHED, field.getDistance(2, 2));
+        assertEquals(0, field.getDistance(6, 6));
+        assertEquals(2, field.getDistance(5, 7));
+        assertThrows(IllegalArgumentException.class, () -> new FlowField(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> field.compute(myMap, 9, 0));
+    }
+
+    /**
+     * Hunting enemies reach the hero along the shortest path without ever sharing a cell.
+     */
+    @Test
+    void enemiesHuntWithoutStacking(){
+        final Enemy first = enemy(6, 2);
+        final Enemy second = enemy(6, 3);
+        final List<Enemy> enemies = Arrays.asList(first, second);
+        final OccupancyIndex occupancy = new OccupancyIndex(9, 9, enemies);
+        final EnemyMover mover = new EnemyMover(20, true, new SeededRandom(7));
+        //the second enemy is 13 steps out, the first one 14 and stuck behind it.
+        for(int turn = 0; turn < 20; turn++){
+            mover.moveAll(myMap, enemies, occupancy, 2, 2);
+            assertFalse(first.getPosition().equals(second.getPosition()));
+        }
+        assertEquals(2, second.getPosition().getMyX());
+        assertEquals(2, second.getPosition().getMyY());
+        assertEquals(1, Math.abs(first.getPosition().getMyX() - 2)
+                + Math.abs(first.getPosition().getMyY() - 2));
+    }
+
+    /**
+     * Wandering enemies never walk into walls and wait when boxed in.
+     */
+    @Test
+    void wanderingStaysOnFloor(){
+        final Enemy boxed = enemy(1, 1);
+        final Enemy blockRight = enemy(2, 1);
+        final Enemy blockUp = enemy(1, 2);
+        final List<Enemy> enemies = Arrays.asList(boxed);
+        final OccupancyIndex occupancy = new OccupancyIndex(9, 9, Arrays.asList(boxed, blockRight, blockUp));
+        final EnemyMover mover = new EnemyMover(3, false, new SeededRandom(7));
+        mover.moveAll(myMap, enemies, occupancy, 7, 7);
+        assertEquals(1, boxed.getPosition().getMyX());
+        assertEquals(1, boxed.getPosition().getMyY());
+        final Enemy walker = enemy(3, 4);
+        final OccupancyIndex alone = new OccupancyIndex(9, 9, Arrays.asList(walker));
+        for(int turn = 0; turn < 50; turn++){
+            mover.moveAll(myMap, Arrays.asList(walker), alone, 7, 7);
+            assertTrue(myMap.isWalkable(walker.getPosition().getMyX(), walker.getPosition().getMyY()));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.FogMask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the packed fog of war mask.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestFogMask {
+    /**
+     * 70 cells per row so rows straddle word boundaries.
+     */
+    private FogMask myMask;
+
+    @BeforeEach
+    void setUp(){
+        myMask = new FogMask(70, 9);
+    }
+
+    /**
+     * Single cells can be set and cleared without touching their neighbors.
+     */
+    @Test
+    void setAndGet(){
+        myMask.set(63, 0, true);
+        myMask.set(64, 0, true);
+        myMask.set(69, 8, true);
+        assertTrue(myMask.get(63, 0));
+        assertTrue(myMask.get(64, 0));
+        assertFalse(myMask.get(62, 0));
+        assertTrue(myMask.get(69, 8));
+        assertEquals(3, myMask.count());
+        myMask.set(64, 0, false);
+        assertFalse(myMask.get(64, 0));
+        assertEquals(2, myMask.count());
+    }
+
+    /**
+     * Filling the whole mask never sets bits past the last cell.
+     */
+    @Test
+    void fillCountsCells(){
+        myMask.fill(true);
+        assertEquals(630, myMask.count());
+        myMask.fill(false);
+        assertEquals(0, myMask.count());
+    }
+
+    /**
+     * Rectangles are clipped to the mask and match setting every cell one at a time.
+     */
+    @Test
+    void fillRectMatchesCells(){
+        myMask.fillRect(-3, 2, 66, 5, true);
+        final FogMask expected = new FogMask(70, 9);
+        for(int y = 2; y <= 5; y++){
+            for(int x = 0; x <= 66; x++){
+                expected.set(x, y, true);
+            }
+        }
+        assertEquals(expected, myMask);
+        myMask.fillRect(10, 3, 80, 3, false);
+        for(int x = 10; x < 70; x++){
+            expected.set(x, 3, false);
+        }
+        assertEquals(expected, myMask);
+        myMask.fillRect(5, 5, 4, 5, true);
+        assertEquals(expected, myMask);
+    }
+
+    /**
+     * Union and difference work on every cell.
+     */
+    @Test
+    void unionAndDifference(){
+        final FogMask visible = new FogMask(70, 9);
+        visible.fillRect(60, 0, 69, 1, true);
+        myMask.fillRect(0, 0, 64, 0, true);
+        myMask.or(visible);
+        assertEquals(65 + 20 - 5, myMask.count());
+        myMask.andNot(visible);
+        assertEquals(60, myMask.count());
+        assertFalse(myMask.get(60, 0));
+        assertTrue(myMask.get(59, 0));
+    }
+
+    /**
+     * Masks of different sizes can't be combined.
+     */
+    @Test
+    void sizeMismatch(){
+        assertThrows(IllegalArgumentException.class, () -> myMask.or(new FogMask(9, 70)));
+        assertThrows(IllegalArgumentException.class, () -> new FogMask(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> myMask.get(70, 0));
+        assertNotEquals(myMask, new FogMask(9, 70));
+    }
+
+    /**
+     * Scanning for set cells finds each one in order, across words.
+     */
+    @Test
+    void nextSetFindsCells(){
+        myMask.set(3, 0, true);
+        myMask.set(64, 0, true);
+        myMask.set(69, 8, true);
+        assertEquals(3, myMask.nextSet(0));
+        assertEquals(64, myMask.nextSet(4));
+        assertEquals(8 * 70 + 69, myMask.nextSet(65));
+        assertEquals(-1, myMask.nextSet(8 * 70 + 70));
+        assertEquals(-1, myMask.nextSet(-1));
+    }
+}
@@ -0,0 +1,71 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.FreeCellIndex;
+import model.SeededRandom;
+import model.Tile;
+import model.TileGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests the free floor cell index used to place items and enemies.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestFreeCellIndex {
+
+    /**
+     * Every floor cell is handed out exactly once, and nothing else is.
+     */
+    @Test
+    void takesEveryFloorCellOnce(){
+        final TileGrid grid = new TileGrid(10, 6);
+        grid.fillRow(2, 1, 9, Tile.FLOOR);
+        grid.fillRow(4, 3, 5, Tile.FLOOR);
+        grid.set(1, 4, Tile.KEY);
+        final FreeCellIndex index = new FreeCellIndex(grid);
+        assertEquals(10, index.size());
+        final SeededRandom random = new SeededRandom(7);
+        final Set<Integer> taken = new HashSet<>();
+        while(index.size() > 0){
+            final int cell = index.take(random);
+            assertEquals(Tile.FLOOR, grid.get(index.getX(cell), index.getY(cell)));
+            assertTrue(taken.add(cell));
+        }
+        assertEquals(10, taken.size());
+    }
+
+    /**
+     * A removed cell is never taken, and removing it again reports it as taken.
+     */
+    @Test
+    void removedCellIsNotTaken(){
+        final TileGrid grid = new TileGrid(6, 4);
+        grid.fillRow(2, 1, 5, Tile.FLOOR);
+        final FreeCellIndex index = new FreeCellIndex(grid);
+        assertTrue(index.remove(2, 2));
+        assertFalse(index.remove(2, 2));
+        assertFalse(index.remove(0, 0));
+        assertEquals(3, index.size());
+        final SeededRandom random = new SeededRandom(5);
+        while(index.size() > 0){
+            final int cell = index.take(random);
+            assertFalse(index.getX(cell) == 2 && index.getY(cell) == 2);
+        }
+    }
+
+    /**
+     * Taking from an empty index fails instead of looping.
+     */
+    @Test
+    void emptyIndexFails(){
+        final FreeCellIndex index = new FreeCellIndex(new TileGrid(4, 4));
+        assertEquals(0, index.size());
+        assertThrows(IllegalStateException.class, () -> index.take(new SeededRandom(1)));
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.DungeonCharacter;
+import model.Enemy;
+import model.GameEvents;
+import model.Warrior;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that combat reports its events to the event sinks instead of playing sounds, so it
+ * runs without libGDX.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestGameEvents {
+    /**
+     * Counts every event it receives.
+     */
+    private static final class Recorder implements GameEvents {
+        private int myHits;
+        private int myMisses;
+        private int myBlocks;
+        private int myDeaths;
+
+        @Override
+        public void onHit(final DungeonCharacter theTarget, final int theDamage){
+            myHits++;
+        }
+
+        @Override
+        public void onMiss(final DungeonCharacter theAttacker){
+            myMisses++;
+        }
+
+        @Override
+        public void onBlock(final DungeonCharacter theDefender){
+            myBlocks++;
+        }
+
+        @Override
+        public void onDeath(final DungeonCharacter theCharacter){
+            myDeaths++;
+        }
+    }
+
+    @AfterEach
+    void tearDown(){
+        DungeonCharacter.setDefaultEvents(GameEvents.NONE);
+    }
+
+    /**
+     * Every attack ends in exactly one hit, miss or block, and a death is reported once.
+     */
+    @Test
+    void combatReportsEvents(){
+        final Recorder recorder = new Recorder();
+        DungeonCharacter.setDefaultEvents(recorder);
+        final Warrior warrior = new Warrior("Warrior", 1, 1);
+        final Enemy ogre = new Enemy("Ogre", "Ogre", 10000, 1, 1, 0, 50, 2, 1, 1, 2, 2);
+        for(int i = 0; i < 100; i++){
+            ogre.attack(warrior);
+        }
+        assertEquals(100, recorder.myHits + recorder.myMisses + recorder.myBlocks);
+        assertTrue(recorder.myHits > 0 && recorder.myMisses > 0 && recorder.myBlocks > 0);
+        assertEquals(0, recorder.myDeaths);
+        ogre.receiveDamage(10000);
+        assertEquals(1, recorder.myDeaths);
+    }
+
+    /**
+     * A character's own sink replaces the default one.
+     */
+    @Test
+    void characterSinkOverridesDefault(){
+        final Recorder fallback = new Recorder();
+        final Recorder own = new Recorder();
+        DungeonCharacter.setDefaultEvents(fallback);
+        final Enemy ogre = new Enemy("Ogre", "Ogre", 100, 1, 1, 0, 50, 2, 1, 1, 2, 2);
+        ogre.setEvents(own);
+        ogre.receiveDamage(5);
+        assertEquals(1, own.myHits);
+        assertEquals(0, fallback.myHits);
+        ogre.setEvents(null);
+        ogre.receiveDamage(5);
+        assertEquals(1, fallback.myHits);
+        assertThrows(IllegalArgumentException.class, () -> DungeonCharacter.setDefaultEvents(null));
+    }
+}
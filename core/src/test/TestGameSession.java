@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.Dungeon;
+import model.DungeonConfig;
+import model.DungeonPool;
+import model.GameSession;
+import model.Warrior;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that game sessions sharing a process don't share any game state. Enemies are turned
+ * off so no database is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestGameSession {
+    /**
+     * A small map without enemies.
+     */
+    private static final DungeonConfig CONFIG = new DungeonConfig(60, 40, 10, 4, 4, 2,
+            2, 2, 2, 2, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+
+    private DungeonPool myPool;
+    private GameSession myFirst;
+    private GameSession mySecond;
+
+    @BeforeEach
+    void setUp(){
+        myPool = new DungeonPool(CONFIG, 2, 1);
+        myFirst = new GameSession(myPool, GameSession.DEFAULT_HUNT_DISTANCE, 1L);
+        mySecond = new GameSession(myPool, GameSession.DEFAULT_HUNT_DISTANCE, 2L);
+        myFirst.setPlayer(new Warrior("First", 1, 1));
+        mySecond.setPlayer(new Warrior("Second", 1, 1));
+    }
+
+    @AfterEach
+    void tearDown(){
+        myFirst.close();
+        mySecond.close();
+        myPool.shutdown();
+    }
+
+    /**
+     * Each session plays its own dungeon, hero and settings.
+     */
+    @Test
+    void sessionsAreIndependent(){
+        assertNotSame(myFirst.getMap(), mySecond.getMap());
+        assertNotSame(myFirst.getPlayer(), mySecond.getPlayer());
+        assertEquals(CONFIG, myFirst.getDungeonConfig());
+
+        myFirst.toggleCheats();
+        assertTrue(myFirst.getIsCheats());
+        assertFalse(mySecond.getIsCheats());
+        assertEquals(20, myFirst.getHeroBombs());
+        assertEquals(0, mySecond.getHeroBombs());
+
+        myFirst.setHunting(true);
+        assertFalse(mySecond.isHunting());
+        assertThrows(IllegalArgumentException.class, () -> myFirst.setPlayer(new Warrior("Third", 1, 1)));
+    }
+
+    /**
+     * Closing a session leaves the shared pool running for the others.
+     */
+    @Test
+    void closingKeepsSharedPool(){
+        myFirst.close();
+        final GameSession third = new GameSession(myPool, GameSession.DEFAULT_HUNT_DISTANCE, 3L);
+        assertEquals(0, third.getDepth());
+        third.close();
+        assertThrows(IllegalArgumentException.class,
+                () -> new GameSession((DungeonPool) null, GameSession.DEFAULT_HUNT_DISTANCE, 4L));
+    }
+}
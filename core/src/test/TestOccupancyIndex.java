@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Enemy;
+import model.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the enemy occupancy index on a flat grid and on a hashed map too large for one.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestOccupancyIndex {
+    private Enemy myOgre;
+    private Enemy myGremlin;
+    private Enemy mySkeleton;
+    private List<Enemy> myEnemies;
+
+    @BeforeEach
+    void setUp(){
+        myOgre = enemy("Ogre", 5, 5);
+        myGremlin = enemy("Gremlin", 7, 5);
+        mySkeleton = enemy("Skeleton", 20, 20);
+        myEnemies = Arrays.asList(myOgre, myGremlin, mySkeleton);
+    }
+
+    private static Enemy enemy(final String theType, final int theX, final int theY){
+        return new Enemy(theType, theType, 100, 10, 20, 10, 70, 3, 5, 10, theX, theY);
+    }
+
+    /**
+     * Each enemy is found on its cell and nowhere else.
+     */
+    @Test
+    void findsEnemyOnCell(){
+        final OccupancyIndex index = new OccupancyIndex(32, 32, myEnemies);
+        assertEquals(3, index.size());
+        assertSame(myOgre, index.getAt(5, 5));
+        assertSame(myGremlin, index.getAt(7, 5));
+        assertNull(index.getAt(6, 5));
+        assertFalse(index.isOccupied(-1, 5));
+        assertFalse(index.isOccupied(40, 5));
+    }
+
+    /**
+     * Moving an indexed enemy moves it in the index.
+     */
+    @Test
+    void movesFollowEnemies(){
+        final OccupancyIndex index = new OccupancyIndex(32, 32, myEnemies);
+        myOgre.moveCharacterRight();
+        assertNull(index.getAt(5, 5));
+        assertSame(myOgre, index.getAt(6, 5));
+        myOgre.moveCharacterUp();
+        myOgre.moveCharacterDown();
+        myOgre.moveCharacterLeft();
+        assertSame(myOgre, index.getAt(5, 5));
+        assertFalse(index.isOccupied(6, 5));
+    }
+
+    /**
+     * Enemies stacked on one cell are all found, and one leaving leaves the other behind.
+     */
+    @Test
+    void stackedEnemiesAreKept(){
+        final Enemy second = enemy("Ogre", 5, 5);
+        final OccupancyIndex index = new OccupancyIndex(32, 32, Arrays.asList(myOgre, second));
+        final List<Enemy> found = new ArrayList<>();
+        assertEquals(2, index.findWithin(5, 5, 0, found));
+        second.moveCharacterLeft();
+        assertSame(myOgre, index.getAt(5, 5));
+        assertSame(second, index.getAt(4, 5));
+    }
+
+    /**
+     * Radius queries return the enemies in the square around a cell, on both kinds of map.
+     */
+    @Test
+    void findsEnemiesWithinRadius(){
+        //an enemy is in one index at a time, each map size takes them over in turn.
+        for(final int size : new int[]{32, 1 << 20}){
+            final OccupancyIndex index = new OccupancyIndex(size, size, myEnemies);
+            final List<Enemy> found = new ArrayList<>();
+            assertEquals(1, index.findWithin(4, 4, 1, found));
+            assertSame(myOgre, found.get(0));
+            found.clear();
+            assertEquals(2, index.findWithin(6, 5, 1, found));
+            assertTrue(found.contains(myOgre) && found.contains(myGremlin));
+            found.clear();
+            assertEquals(3, index.findWithin(0, 0, 100, found));
+            myGremlin.moveCharacterRight();
+            assertNull(index.getAt(7, 5));
+            assertSame(myGremlin, index.getAt(8, 5));
+            myGremlin.moveCharacterLeft();
+        }
+    }
+
+    /**
+     * Enemies must stand inside the map and radii can't be negative.
+     */
+    @Test
+    void rejectsBadInput(){
+        assertThrows(IllegalArgumentException.class,
+                () -> new OccupancyIndex(10, 10, myEnemies));
+        final OccupancyIndex index = new OccupancyIndex(32, 32);
+        assertThrows(IllegalArgumentException.class,
+                () -> index.findWithin(0, 0, -1, new ArrayList<>()));
+    }
+}
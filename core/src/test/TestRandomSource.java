@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import model.FastRandom;
+import model.RandomSource;
+import model.SeededRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the random sources the model rolls from.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestRandomSource {
+    private static final int DRAWS = 100_000;
+
+    /**
+     * Every source stays inside its bounds and reaches every value of a small range.
+     */
+    @Test
+    void drawsStayInBounds(){
+        for(final RandomSource random : new RandomSource[]{new FastRandom(),
+                new SeededRandom(3L), RandomSource.THREAD}){
+            final int[] counts = new int[7];
+            for(int i = 0; i < DRAWS; i++){
+                counts[random.nextInt(counts.length)]++;
+                final int ranged = random.nextInt(-5, 5);
+                assertTrue(ranged >= -5 && ranged < 5);
+                final int wide = random.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+                assertTrue(wide < Integer.MAX_VALUE);
+            }
+            for(final int count : counts){
+                assertTrue(Math.abs(count - DRAWS / counts.length) < DRAWS / 50);
+            }
+            assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+            assertThrows(IllegalArgumentException.class, () -> random.nextInt(4, 4));
+        }
+    }
+
+    /**
+     * The same seed gives the same numbers, a split source gives others, and a saved source
+     * carries on where it was saved.
+     */
+    @Test
+    void seededSourcesRepeat() throws IOException, ClassNotFoundException{
+        final SeededRandom first = new SeededRandom(42L);
+        final SeededRandom second = new SeededRandom(42L);
+        for(int i = 0; i < 100; i++){
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+        final SeededRandom split = first.split();
+        second.nextLong();
+        assertNotEquals(first.nextLong(), split.nextLong());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(first);
+        }
+        final SeededRandom loaded;
+        try(ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))){
+            loaded = (SeededRandom) in.readObject();
+        }
+        for(int i = 0; i < 100; i++){
+            assertEquals(first.nextInt(1000), loaded.nextInt(1000));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.RoomGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the room connection graph.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestRoomGraph {
+
+    /**
+     * Connections go both ways and are only recorded once.
+     */
+    @Test
+    void connectOnce(){
+        final RoomGraph graph = new RoomGraph(3);
+        assertTrue(graph.connect(0, 2));
+        assertFalse(graph.connect(2, 0));
+        assertTrue(graph.isConnected(2, 0));
+        assertFalse(graph.isConnected(0, 1));
+        assertEquals(1, graph.getDegree(0));
+        assertEquals(2, graph.getNeighbor(0, 0));
+        assertEquals(0, graph.getNeighbor(2, 0));
+        assertEquals(1, graph.getConnectionCount());
+    }
+
+    /**
+     * A room is never connected to itself.
+     */
+    @Test
+    void noSelfConnection(){
+        final RoomGraph graph = new RoomGraph(2);
+        assertFalse(graph.connect(1, 1));
+        assertEquals(0, graph.getDegree(1));
+    }
+
+    /**
+     * Many rooms and connections grow the graph without losing any.
+     */
+    @Test
+    void manyConnections(){
+        final int rooms = 5000;
+        final RoomGraph graph = new RoomGraph(rooms);
+        for(int i = 1; i < rooms; i++){
+            assertTrue(graph.connect(i - 1, i));
+            assertTrue(graph.connect(0, i) || i == 1);
+        }
+        assertEquals(rooms - 1, graph.getDegree(0));
+        assertEquals(2 * rooms - 3, graph.getConnectionCount());
+        for(int i = 1; i < rooms; i++){
+            assertTrue(graph.isConnected(i, i - 1));
+            assertTrue(graph.isConnected(i, 0));
+        }
+    }
+
+    /**
+     * Ids outside the graph are rejected.
+     */
+    @Test
+    void invalidRoom(){
+        final RoomGraph graph = new RoomGraph(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.connect(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.getNeighbor(0, 0));
+    }
+}
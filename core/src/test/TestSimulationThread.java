@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import model.Dungeon;
+import model.DungeonConfig;
+import model.GameSession;
+import model.SimulationThread;
+import model.Tile;
+import model.TileMap;
+import model.Warrior;
+import model.WorldSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a session played on a simulation thread publishes snapshots of the state the
+ * same commands reach on the calling thread. Enemies are turned off so no database is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestSimulationThread {
+    private static final DungeonConfig CONFIG = new DungeonConfig(60, 40, 10, 4, 4, 2,
+            2, 2, 2, 2, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+    private static final int[] EXITS = {TileMap.EXIT_UP, TileMap.EXIT_RIGHT,
+            TileMap.EXIT_DOWN, TileMap.EXIT_LEFT};
+    private static final int MOVES = 300;
+
+    private GameSession myThreaded;
+    private GameSession myDirect;
+    private SimulationThread mySimulation;
+
+    @BeforeEach
+    void setUp(){
+        myThreaded = new GameSession(CONFIG, false, GameSession.DEFAULT_HUNT_DISTANCE, 9L);
+        myDirect = new GameSession(CONFIG, false, GameSession.DEFAULT_HUNT_DISTANCE, 9L);
+        myThreaded.setPlayer(new Warrior("Hero", 1, 1));
+        myDirect.setPlayer(new Warrior("Hero", 1, 1));
+        myThreaded.updateMapFOW();
+        myDirect.updateMapFOW();
+        mySimulation = new SimulationThread(myThreaded, 16);
+    }
+
+    @AfterEach
+    void tearDown(){
+        mySimulation.close();
+        myThreaded.close();
+        myDirect.close();
+    }
+
+    /**
+     * The snapshot after the last step shows the map, fog and hero the commands lead to.
+     */
+    @Test
+    void snapshotsMatchDirectPlay(){
+        final long firstVersion = mySimulation.getSnapshot().getVersion();
+        final Random random = new Random(3L);
+        for(int i = 0; i < MOVES; i++){
+            final int exit = EXITS[random.nextInt(EXITS.length)];
+            mySimulation.move(exit);
+            myDirect.moveHero(exit);
+            myDirect.updateMapFOW();
+            if(i == MOVES / 2){
+                mySimulation.toggleDoors();
+                myDirect.toggleDoorsNearHero();
+                myDirect.updateMapFOW();
+            }
+        }
+        int steps = 0;
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while(steps < MOVES && System.currentTimeMillis() < deadline){
+            if(mySimulation.pollStep() != null){
+                steps++;
+            }
+            else{
+                Thread.yield();
+            }
+        }
+        assertEquals(MOVES, steps);
+        assertNull(mySimulation.pollStep());
+        assertFalse(mySimulation.isHalted());
+        final WorldSnapshot world = mySimulation.getSnapshot();
+        assertTrue(world.getVersion() > firstVersion);
+        assertEquals(myDirect.getPlayerX(), world.getHeroX());
+        assertEquals(myDirect.getPlayerY(), world.getHeroY());
+        assertEquals(myDirect.getHeroKeys(), world.getHeroKeys());
+        assertEquals(myDirect.getPlayer().getCurrentHealth(), world.getHeroHealth());
+        final TileMap map = myDirect.getMap();
+        for(int y = 0; y < map.getHeight(); y++){
+            for(int x = 0; x < map.getWidth(); x++){
+                final boolean isNear = Math.abs(x - world.getHeroX()) <= 16
+                        && Math.abs(y - world.getHeroY()) <= 16;
+                assertEquals(isNear ? map.get(x, y) : Tile.WALL, world.get(x, y));
+                assertEquals(isNear && myDirect.isVisible(x, y), world.isVisible(x, y));
+                assertEquals(isNear && myDirect.isExplored(x, y), world.isExplored(x, y));
+            }
+        }
+    }
+
+    /**
+     * Snapshots can't be changed and a closed simulation drops its commands.
+     */
+    @Test
+    void closedSimulationIgnoresCommands(){
+        final WorldSnapshot world = mySimulation.getSnapshot();
+        assertThrows(UnsupportedOperationException.class, () -> world.set(1, 1, Tile.FLOOR));
+        assertThrows(IndexOutOfBoundsException.class, () -> world.get(-1, 0));
+        mySimulation.close();
+        mySimulation.move(TileMap.EXIT_UP);
+        mySimulation.close();
+        assertSame(world, mySimulation.getSnapshot());
+        assertNull(mySimulation.pollStep());
+    }
+}
@@ -0,0 +1,150 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import model.Tile;
+import model.TileGrid;
+import model.TileMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the packed tile grid used for dungeon maps.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestTileGrid {
+    private TileGrid myGrid;
+
+    @BeforeEach
+    void setUp(){
+        myGrid = new TileGrid(8, 5);
+    }
+
+    /**
+     * A new grid is all walls.
+     */
+    @Test
+    void newGridIsWalls(){
+        assertEquals(8, myGrid.getWidth());
+        assertEquals(5, myGrid.getHeight());
+        assertEquals(40, myGrid.count(Tile.WALL));
+    }
+
+    /**
+     * Every tile type survives a set and get.
+     */
+    @Test
+    void setAndGetEveryTile(){
+        for(final Tile tile : Tile.values()){
+            myGrid.set(7, 4, tile);
+            assertEquals(tile, myGrid.get(7, 4));
+            assertEquals(tile.isWalkable(), myGrid.isWalkable(7, 4));
+        }
+        assertEquals(Tile.WALL, myGrid.get(6, 4));
+        assertEquals(Tile.WALL, myGrid.get(7, 3));
+    }
+
+    /**
+     * Filling a row only touches the given range of that row.
+     */
+    @Test
+    void fillRowRange(){
+        myGrid.fillRow(2, 1, 7, Tile.FLOOR);
+        final Tile[] row = new Tile[8];
+        myGrid.getRow(2, 0, 8, row);
+        assertEquals(Tile.WALL, row[0]);
+        for(int i = 1; i < 7; i++){
+            assertEquals(Tile.FLOOR, row[i]);
+        }
+        assertEquals(Tile.WALL, row[7]);
+        assertEquals(6, myGrid.count(Tile.FLOOR));
+    }
+
+    /**
+     * Cells outside the grid are rejected instead of wrapping into the next row.
+     */
+    @Test
+    void outOfBounds(){
+        assertFalse(myGrid.isInBounds(8, 0));
+        assertTrue(myGrid.isInBounds(7, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> myGrid.get(8, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> myGrid.set(-1, 2, Tile.FLOOR));
+        assertThrows(IndexOutOfBoundsException.class, () -> myGrid.fillRow(5, 0, 1, Tile.FLOOR));
+        assertThrows(IndexOutOfBoundsException.class, () -> myGrid.fillRow(0, 0, 9, Tile.FLOOR));
+    }
+
+    /**
+     * Grids are equal when their size and tiles match.
+     */
+    @Test
+    void equality(){
+        final TileGrid other = new TileGrid(8, 5);
+        assertEquals(myGrid, other);
+        assertEquals(myGrid.hashCode(), other.hashCode());
+        other.set(3, 3, Tile.KEY);
+        assertNotEquals(myGrid, other);
+        assertNotEquals(myGrid, new TileGrid(5, 8));
+    }
+
+    /**
+     * A grid needs positive dimensions.
+     */
+    @Test
+    void invalidDimensions(){
+        assertThrows(IllegalArgumentException.class, () -> new TileGrid(0, 5));
+    }
+
+    /**
+     * The exit table matches the walkable neighbors after every kind of write, including
+     * doors opening and closing, and never points off the grid.
+     */
+    @Test
+    void exitsFollowWrites(){
+        myGrid.fillRow(2, 1, 7, Tile.FLOOR);
+        myGrid.set(3, 1, Tile.DOOR);
+        assertExitsMatch();
+        assertEquals(TileMap.EXIT_RIGHT | TileMap.EXIT_LEFT, myGrid.getExits(3, 2));
+        myGrid.set(3, 1, Tile.OPEN_DOOR);
+        assertEquals(TileMap.EXIT_RIGHT | TileMap.EXIT_LEFT | TileMap.EXIT_DOWN,
+                myGrid.getExits(3, 2));
+        myGrid.set(3, 1, Tile.DOOR);
+        assertEquals(TileMap.EXIT_RIGHT | TileMap.EXIT_LEFT, myGrid.getExits(3, 2));
+        final Random random = new Random(5);
+        final Tile[] tiles = {Tile.FLOOR, Tile.WALL, Tile.KEY, Tile.DOOR, Tile.OPEN_DOOR};
+        for(int i = 0; i < 200; i++){
+            myGrid.set(random.nextInt(8), random.nextInt(5), tiles[random.nextInt(tiles.length)]);
+        }
+        assertExitsMatch();
+        myGrid.fillRow(0, 0, 8, Tile.FLOOR);
+        assertExitsMatch();
+        myGrid.fill(Tile.FLOOR);
+        assertEquals(TileMap.EXIT_UP | TileMap.EXIT_RIGHT, myGrid.getExits(0, 0));
+        assertExitsMatch();
+    }
+
+    private void assertExitsMatch(){
+        for(int y = 0; y < myGrid.getHeight(); y++){
+            for(int x = 0; x < myGrid.getWidth(); x++){
+                int expected = 0;
+                if(y + 1 < myGrid.getHeight() && myGrid.isWalkable(x, y + 1)){
+                    expected |= TileMap.EXIT_UP;
+                }
+                if(x + 1 < myGrid.getWidth() && myGrid.isWalkable(x + 1, y)){
+                    expected |= TileMap.EXIT_RIGHT;
+                }
+                if(y > 0 && myGrid.isWalkable(x, y - 1)){
+                    expected |= TileMap.EXIT_DOWN;
+                }
+                if(x > 0 && myGrid.isWalkable(x - 1, y)){
+                    expected |= TileMap.EXIT_LEFT;
+                }
+                assertEquals(expected, myGrid.getExits(x, y), "exits of (" + x + ", " + y + ")");
+            }
+        }
+    }
+}
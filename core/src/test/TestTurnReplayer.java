@@ -0,0 +1,279 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Dungeon;
+import model.DungeonConfig;
+import model.Enemy;
+import model.EnemySource;
+import model.EntityLoader;
+import model.GameSession;
+import model.Hero;
+import model.TileMap;
+import model.TurnReplayer;
+import model.Warrior;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that replaying a turn journal reaches the states the journaled session went
+ * through, from the start and after seeking. Enemies get fixed stats so no database is needed.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestTurnReplayer {
+    /**
+     * A small map without enemies.
+     */
+    private static final DungeonConfig CONFIG = new DungeonConfig(60, 40, 10, 4, 4, 2,
+            2, 2, 2, 2, 0, Dungeon.DEFAULT_MAX_ATTEMPTS);
+    private static final int[] EXITS = {TileMap.EXIT_UP, TileMap.EXIT_RIGHT,
+            TileMap.EXIT_DOWN, TileMap.EXIT_LEFT};
+    private static final int MOVES = 400;
+    /**
+     * A small map crowded with enemies, so the hero runs into fights.
+     */
+    private static final DungeonConfig ENEMY_CONFIG = new DungeonConfig(60, 40, 10, 4, 4, 2,
+            2, 2, 2, 2, 25, Dungeon.DEFAULT_MAX_ATTEMPTS);
+    /**
+     * The stats of the enemy database, without the database.
+     */
+    private static final EnemySource FIXED_STATS = (theType, theName, theX, theY) -> {
+        switch(theType){
+            case Ogre:
+                return new Enemy("Ogre", theName, 200, 30, 60, 10, 60, 2, 30, 60, theX, theY);
+            case Skeleton:
+                return new Enemy("Skeleton", theName, 100, 30, 50, 30, 80, 3, 30, 50, theX, theY);
+            default:
+                return new Enemy("Gremlin", theName, 70, 15, 30, 40, 80, 5, 20, 40, theX, theY);
+        }
+    };
+
+    private GameSession mySession;
+    private TurnReplayer myReplayer;
+    /**
+     * State of the journaled session after each number of commands.
+     */
+    private List<String> myStates;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mySession = new GameSession(CONFIG, false, GameSession.DEFAULT_HUNT_DISTANCE, 42L);
+        final ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        mySession.startJournal(journal);
+        myStates = new ArrayList<>();
+        myStates.add(null);
+        mySession.setPlayer(new Warrior("Hero", 1, 1));
+        myStates.add(describe(mySession));
+        final Random random = new Random(7L);
+        for(int i = 0; i < MOVES; i++){
+            mySession.moveHero(EXITS[random.nextInt(EXITS.length)]);
+            myStates.add(describe(mySession));
+            mySession.updateMapFOW();
+            myStates.add(describe(mySession));
+            if(i % 25 == 0){
+                mySession.toggleDoorsNearHero();
+                myStates.add(describe(mySession));
+            }
+            if(i == MOVES / 2){
+                mySession.toggleCheats();
+                myStates.add(describe(mySession));
+            }
+        }
+        myReplayer = new TurnReplayer(new ByteArrayInputStream(journal.toByteArray()), 64);
+    }
+
+    @AfterEach
+    void tearDown(){
+        mySession.close();
+        myReplayer.close();
+        EntityLoader.setEnemySource(EnemySource.DATABASE);
+    }
+
+    /**
+     * Playing every command back ends in the state the journaled session ended in.
+     */
+    @Test
+    void replayReachesSameState(){
+        assertEquals(mySession.getCommandCount(), myReplayer.getTurnCount());
+        assertEquals(myStates.size() - 1, myReplayer.getTurnCount());
+        assertEquals(42L, myReplayer.getSeed());
+        while(myReplayer.step()){
+            assertEquals(myStates.get(myReplayer.getTurn()), describe(myReplayer.getSession()));
+        }
+        assertFalse(myReplayer.step());
+    }
+
+    /**
+     * Seeking forward and back lands on the state after that many commands.
+     */
+    @Test
+    void seekReachesSameState(){
+        for(final int turn : new int[] {700, 130, 1, myReplayer.getTurnCount(), 64, 65, 3}){
+            myReplayer.seekTo(turn);
+            assertEquals(turn, myReplayer.getTurn());
+            assertEquals(myStates.get(turn), describe(myReplayer.getSession()));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> myReplayer.seekTo(myReplayer.getTurnCount() + 1));
+    }
+
+    /**
+     * Enemy turns, wandering and hunting, fights and their rolls replay the same way, also
+     * when seeking lands on a snapshot taken in the middle of a fight.
+     */
+    @Test
+    void replayWithEnemiesAndFights() throws IOException {
+        EntityLoader.setEnemySource(FIXED_STATS);
+        final GameSession session = new GameSession(ENEMY_CONFIG, false,
+                GameSession.DEFAULT_HUNT_DISTANCE, 11L);
+        final ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        session.startJournal(journal);
+        final List<String> states = new ArrayList<>();
+        states.add(null);
+        final Random random = new Random(5L);
+        int fights = 0;
+        try{
+            session.setPlayer(new Warrior("Hero", 1, 1));
+            states.add(describe(session));
+            session.setHunting(true);
+            states.add(describe(session));
+            for(int i = 0; i < MOVES; i++){
+                final GameSession.Step step;
+                if(i % 10 == 9){
+                    session.enemyMove();
+                    step = null;
+                }
+                else{
+                    step = session.moveHero(EXITS[random.nextInt(EXITS.length)]);
+                }
+                states.add(describe(session));
+                if(step != null && step.isMetEnemy()){
+                    fight(session, random, states);
+                    fights++;
+                }
+                if(session.getPlayer().getIsDead()){
+                    session.restart();
+                    states.add(describe(session));
+                    session.setPlayer(new Warrior("Hero", 1, 1));
+                    states.add(describe(session));
+                }
+                session.updateMapFOW();
+                states.add(describe(session));
+            }
+        } finally{
+            session.close();
+        }
+        assertTrue(fights >= 3, "only " + fights + " fights were played");
+        try(TurnReplayer replayer = new TurnReplayer(
+                new ByteArrayInputStream(journal.toByteArray()), 16)){
+            assertEquals(states.size() - 1, replayer.getTurnCount());
+            while(replayer.step()){
+                assertEquals(states.get(replayer.getTurn()), describe(replayer.getSession()));
+            }
+            final int count = replayer.getTurnCount();
+            for(final int turn : new int[] {count / 2 + 7, 5, count - 3, count / 3, 17, count}){
+                replayer.seekTo(turn);
+                assertEquals(states.get(turn), describe(replayer.getSession()));
+            }
+        }
+    }
+
+    /**
+     * Only a session that was not given any command can start a journal, and only a journal
+     * can be replayed.
+     */
+    @Test
+    void rejectsBadJournals(){
+        assertThrows(IllegalStateException.class,
+                () -> mySession.startJournal(new ByteArrayOutputStream()));
+        assertThrows(IOException.class,
+                () -> new TurnReplayer(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5})));
+    }
+
+    /**
+     * Plays a fight the way the combat screen does, every action of the hero ends their turn.
+     * The actions are picked at random and the state is recorded after every command.
+     */
+    private static void fight(final GameSession theSession, final Random theRandom,
+                              final List<String> theStates){
+        theSession.startCombat();
+        theStates.add(describe(theSession));
+        boolean fled = false;
+        while(!fled && !theSession.getPlayer().getIsDead()
+                && !theSession.getEnemy().getIsDead()){
+            final int action = theRandom.nextInt(11);
+            if(action < 6){
+                theSession.playerPerformAttack();
+            }
+            else if(action < 8){
+                theSession.specialActionPerform();
+            }
+            else if(action < 9){
+                theSession.heroUsesHealthPotion();
+            }
+            else if(action < 10){
+                fled = theSession.flee();
+            }
+            else{
+                //not offered by the combat screen, but a journal can hold it.
+                theSession.enemyPerformAttack();
+            }
+            theStates.add(describe(theSession));
+            if(!fled){
+                theSession.endHeroCombatTurn();
+                theStates.add(describe(theSession));
+            }
+        }
+        theSession.removeCurrentEnemyIfDead();
+        theStates.add(describe(theSession));
+    }
+
+    /**
+     * Describes everything the commands can change: the hero, the floor, the map and the
+     * enemies.
+     */
+    private static String describe(final GameSession theSession){
+        final Hero hero;
+        try{
+            hero = theSession.getPlayer();
+        } catch(final IllegalArgumentException e){
+            //a restarted session has no hero until one is chosen.
+            return "no hero";
+        }
+        final StringBuilder state = new StringBuilder();
+        state.append(theSession.getDepth()).append(' ').append(hero.getPosition())
+                .append(' ').append(hero.getCurrentHealth()).append(' ')
+                .append(theSession.getHeroKeys()).append(' ').append(theSession.getHeroBombs())
+                .append(' ').append(theSession.getHeroHealthPotions()).append(' ')
+                .append(hero.getMyTrapsTriggered()).append(' ').append(theSession.getIsCheats())
+                .append('\n');
+        final TileMap map = theSession.getMap();
+        for(int y = 0; y < map.getHeight(); y++){
+            for(int x = 0; x < map.getWidth(); x++){
+                state.append(map.get(x, y).ordinal())
+                        .append(theSession.isExplored(x, y) ? '+' : '-');
+            }
+        }
+        for(final Enemy enemy : theSession.getAllEnemies()){
+            state.append('\n').append(theSession.getEnemyType(enemy)).append(' ').append(enemy.getMyName())
+                    .append(' ').append(enemy.getPosition()).append(' ')
+                    .append(enemy.getCurrentHealth());
+        }
+        final Enemy current = theSession.getEnemy();
+        if(current != null){
+            state.append("\nfighting ").append(current.getPosition()).append(' ')
+                    .append(current.getCurrentHealth());
+        }
+        return state.toString();
+    }
+}
@@ -0,0 +1,104 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Enemy;
+import model.TurnScheduler;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the speed based turn order.
+ * @author agent
+ * @version Oct. 18, 2026.
+ */
+public class TestTurnScheduler {
+    private static Enemy actor(final String theName, final int theSpeed){
+        return new Enemy("Ogre", theName, 100, 10, 20, 10, 70, theSpeed, 5, 10, 1, 1);
+    }
+
+    /**
+     * Actors act in proportion to their speed, equally fast actors in the order added.
+     */
+    @Test
+    void turnsFollowSpeed(){
+        final TurnScheduler<Enemy> turns = new TurnScheduler<>();
+        final Enemy fast = actor("Fast", 6);
+        final Enemy slow = actor("Slow", 2);
+        final Enemy other = actor("Other", 2);
+        turns.add(slow);
+        turns.add(other);
+        turns.add(fast);
+        int fastCount = 0;
+        int slowCount = 0;
+        for(int i = 0; i < 500; i++){
+            final Enemy next = turns.next();
+            if(next == fast){
+                fastCount++;
+            }
+            else if(next == slow){
+                slowCount++;
+                assertSame(other, turns.peek());
+            }
+        }
+        assertEquals(3 * slowCount, fastCount);
+        assertEquals(3, turns.size());
+    }
+
+    /**
+     * Counting actions matches the order the actions are then taken in.
+     */
+    @Test
+    void countsActionsBeforeAnother(){
+        final TurnScheduler<Enemy> turns = new TurnScheduler<>();
+        final Enemy hero = actor("Hero", 5);
+        final Enemy enemy = actor("Enemy", 2);
+        turns.add(hero);
+        turns.add(enemy);
+        for(int round = 0; round < 10; round++){
+            final int count = turns.countActionsBefore(hero, enemy);
+            for(int i = 0; i < count; i++){
+                assertSame(hero, turns.next());
+            }
+            assertSame(enemy, turns.next());
+        }
+        assertThrows(IllegalArgumentException.class, () -> turns.countActionsBefore(hero, hero));
+    }
+
+    /**
+     * Removing actors from the middle of a large heap keeps every other actor's turn order.
+     */
+    @Test
+    void removeKeepsOrder(){
+        final TurnScheduler<Enemy> turns = new TurnScheduler<>();
+        final List<Enemy> actors = new ArrayList<>();
+        final Random random = new Random(7);
+        for(int i = 0; i < 2000; i++){
+            final Enemy enemy = actor("Enemy" + i, 1 + random.nextInt(8));
+            actors.add(enemy);
+            turns.add(enemy);
+        }
+        for(int i = 0; i < actors.size(); i += 2){
+            assertTrue(turns.remove(actors.get(i)));
+        }
+        assertFalse(turns.remove(actors.get(0)));
+        assertEquals(1000, turns.size());
+        long time = 0;
+        for(int i = 0; i < 20000; i++){
+            final Enemy next = turns.next();
+            assertTrue(turns.getTime() >= time);
+            time = turns.getTime();
+            assertEquals(1, actors.indexOf(next) % 2);
+        }
+        turns.clear();
+        assertNull(turns.peek());
+        assertThrows(IllegalStateException.class, turns::next);
+        assertThrows(IllegalArgumentException.class, () -> turns.add(null));
+    }
+}
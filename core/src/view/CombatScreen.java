@@ -34,7 +34,6 @@ import model.Priestess;
 import model.Thief;
 import model.Warrior;
 
-import java.util.Random;
 
 /**
  * This is a combat screen that will be brought up once an enemy is in the same tile as hero.
@@ -77,7 +76,6 @@ public final class CombatScreen extends ScreenAdapter {
     private final Label myHealthPotionLabel;
     private final Label myKeyLabel;
     private final Label myBombLabel;
-    private int myTurnsCounter;
     private int myTurnsCurrentCounter;
     private final Label myTurnsLabel;
     /**
@@ -102,9 +100,9 @@ public final class CombatScreen extends ScreenAdapter {
         myHealthPotionLabel = initLabel("0", Color.WHITE, myFont,0.65f, 0, 0);
         myKeyLabel = initLabel("0", Color.WHITE, myFont,0.65f, 0, 0);
         myBombLabel = initLabel("0", Color.WHITE, myFont,0.65f, 0, 0);
-        myTurnsCounter = GameMaster.getInstance().compareSpeed(GameMaster.getInstance()
-            .getPlayer(), GameMaster.getInstance().getEnemy());
-        myTurnsCurrentCounter = myTurnsCounter;
+        //a faster enemy may attack before the hero's first turn.
+        final String opening = GameMaster.getInstance().startCombat();
+        myTurnsCurrentCounter = GameMaster.getInstance().getHeroCombatTurns();
         myTurnsLabel = initLabel(String.valueOf(myTurnsCurrentCounter), Color.GOLD, myFont,1.5f, INVENTORY_WIDTH/2, HEALTH_Y);
         myTurnsLabel.setAlignment(Align.left);
         //add widgets to table here
@@ -125,6 +123,10 @@ public final class CombatScreen extends ScreenAdapter {
         myTable.addActor(myEnemyHP);
         //add combat log
         myCombatLog = initCombatLog(myFont);
+        if(!opening.isEmpty()){
+            final Label logLabel = (Label) myCombatLog.getActor();
+            logLabel.setText(updateLog(String.valueOf(logLabel.getText()), opening));
+        }
         myTable.addActor(myCombatLog);
         myTable.addActor(myTurnsLabel);
         //add inventory
@@ -137,6 +139,7 @@ public final class CombatScreen extends ScreenAdapter {
         myInventory.addActor(myKeyLabel);
         myInventory.addActor(myBombLabel);
         myTable.addActor(myInventory);
+        disableWidgetsIfDeath();
     }
     @Override
     public void render(float delta){
@@ -361,20 +364,17 @@ public final class CombatScreen extends ScreenAdapter {
         return buttons;
     }
     private void playerTurnAction(){
-        if(myTurnsCurrentCounter == 1){
+        //the enemy attacks once for every turn it gets before the hero's next one.
+        final String enemyTurns = GameMaster.getInstance().endHeroCombatTurn();
+        if(!enemyTurns.isEmpty()){
             final Label logLabel = (Label) myCombatLog.getActor();
-            if(!GameMaster.getInstance().getEnemy().getIsDead()){
-                logLabel.setText(updateLog(String.valueOf(logLabel.getText()), GameMaster.getInstance().enemyPerformAttack()));
-                myCombatLog.setScrollPercentY(1f);
-                //update player hp
-                myHeroHP.setText(heroHealth());
-                myHeroHP.setColor(updateHPColor(GameMaster.getInstance().getPlayer()));
-                myTurnsCurrentCounter = myTurnsCounter;
-            }
-        }
-        else{
-            myTurnsCurrentCounter--;
+            logLabel.setText(updateLog(String.valueOf(logLabel.getText()), enemyTurns));
+            myCombatLog.setScrollPercentY(1f);
+            //update player hp
+            myHeroHP.setText(heroHealth());
+            myHeroHP.setColor(updateHPColor(GameMaster.getInstance().getPlayer()));
         }
+        myTurnsCurrentCounter = GameMaster.getInstance().getHeroCombatTurns();
         //if player or enemy is dead we disable input on first four buttons
         myTurnsLabel.setText(String.valueOf(myTurnsCurrentCounter));
         disableWidgetsIfDeath();
@@ -476,9 +476,7 @@ public final class CombatScreen extends ScreenAdapter {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/button.ogg")));
-                final Label logLabel = (Label) myCombatLog.getActor();
-                final Random rand = new Random();
-                if(rand.nextBoolean()){
+                if(GameMaster.getInstance().flee()){
                     mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/MockingLaugh.ogg")));
                     dispose();
                     myGame.setScreen(myPreviousScreen);
@@ -630,7 +628,7 @@ public final class CombatScreen extends ScreenAdapter {
             public void changed(ChangeEvent event, Actor actor) {
                 mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/button.ogg")));
                 final Label label = (Label)myCombatLog.getActor();
-                label.setText(updateLog(String.valueOf(label.getText()), GameMaster.getInstance().getPlayer().useHealthPotion()));
+                label.setText(updateLog(String.valueOf(label.getText()), GameMaster.getInstance().heroUsesHealthPotion()));
 
                 myHeroHP.setText(heroHealth());
                 myHeroHP.setColor(updateHPColor(GameMaster.getInstance().getPlayer()));
@@ -638,7 +636,6 @@ public final class CombatScreen extends ScreenAdapter {
                 //TODO: use functionality to remove the health potion and add health.
                 playerTurnAction();
                 updateInventory();
-                GameMaster.getInstance().getPlayer().setMyPotionsUsed();
             }
         });
         button.setProgrammaticChangeEvents(true);
@@ -663,7 +660,6 @@ public final class CombatScreen extends ScreenAdapter {
                 myEnemyHP.setText(enemyHealth());
                 myEnemyHP.setColor(updateHPColor(GameMaster.getInstance().getEnemy()));
                 playerTurnAction();
-                GameMaster.getInstance().getPlayer().setMyBombsUsed();
             }
         });
         button.setProgrammaticChangeEvents(true);
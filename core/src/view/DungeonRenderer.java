@@ -6,6 +6,7 @@ import com.badlogic.gdx.graphics.Texture;
 import model.Dungeon;
 import model.GameMaster;
 import model.Tile;
+import model.TileMap;
 
 /**
  * Class responsible for rendering the dungeon map using textures.
@@ -35,15 +36,16 @@ public class DungeonRenderer {
      * @param theBatch The SpriteBatch used for drawing textures.
      */
     public void render(final SpriteBatch theBatch) {
-        Tile[][] map = GameMaster.getInstance().getMap();
-        for (int i = 0; i < map.length; i++) {
-            for (int j = 0; j < map[i].length; j++) {
+        TileMap map = GameMaster.getInstance().getMap();
+        for (int i = 0; i < map.getWidth(); i++) {
+            for (int j = 0; j < map.getHeight(); j++) {
                 Texture texture = null;
-                if (map[i][j] == Tile.WALL) {//added .getTile()
+                final Tile tile = map.get(i, j);
+                if (tile == Tile.WALL) {//added .getTile()
                     texture = myWallTexture;
-                } else if (map[i][j] == Tile.FLOOR) { //.getTile()
+                } else if (tile == Tile.FLOOR) { //.getTile()
                     texture = myFloorTexture;
-                } else if (map[i][j] == Tile.DOOR) { //.getTile()
+                } else if (tile == Tile.DOOR) { //.getTile()
                     texture = myDoorTexture;
                 }
                 if (texture != null) {
@@ -28,11 +28,16 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.dungeonadventure.game.DungeonAdventure;
 import model.Enemy;
+import model.FogChanges;
 import model.GameMaster;
 import model.Priestess;
+import model.SimulationThread;
 import model.Thief;
 import model.Tile;
+import model.TileMap;
+import model.VisibilityView;
 import model.Warrior;
+import model.WorldSnapshot;
 import static com.dungeonadventure.game.DungeonAdventure.myBackgroundMusic;
 import static com.dungeonadventure.game.DungeonAdventure.mySETTINGS;
 
@@ -51,6 +56,11 @@ public class GameScreen implements Screen {
     private static final int BUTTON_Y_OFFSET = 10;
     private static final int BUTTON_X_OFFSET = 77;
     private static final int PIXEL_SIZE = 5;
+    /**
+     * Largest side of the minimap in pixels. Maps bigger than this show a window around
+     * the player at one pixel per tile.
+     */
+    private static final int MINIMAP_SIZE = 250;
     private final Stage myStage;
     private final Table myGameTable;
     private final Table myGameMenuTable;
@@ -74,7 +84,48 @@ public class GameScreen implements Screen {
     private final Texture myOgreTexture;
     private boolean myMenuShown = false;
     private final Pixmap myPixmap;
-    private Texture myMiniMapTexture;
+    private final Texture myMiniMapTexture;
+    /**
+     * Size of one tile on the minimap, in pixels.
+     */
+    private final int myMiniMapPixelSize;
+    /**
+     * Number of tiles shown on the minimap along each axis.
+     */
+    private final int myMiniMapCellsX;
+    private final int myMiniMapCellsY;
+    /**
+     * Map tile drawn in the bottom left corner of the minimap.
+     */
+    private int myMiniMapOriginX;
+    private int myMiniMapOriginY;
+    /**
+     * Whether the minimap pixmap holds a full picture yet, after that only fog changes are
+     * painted.
+     */
+    private boolean myMiniMapPainted;
+    /**
+     * Reused buffer that receives one row of map tiles at a time while drawing, grown when a
+     * wider row is drawn.
+     */
+    private Tile[] myRowTiles;
+    /**
+     * Thread playing the session while the screen is shown, null unless turned on with
+     * SimulationThread.PROPERTY.
+     */
+    private SimulationThread mySimulation;
+    /**
+     * Snapshot drawn by the current frame, null when the session is played on this thread.
+     */
+    private WorldSnapshot myWorld;
+    /**
+     * Snapshot the minimap was last painted from.
+     */
+    private long myMiniMapVersion;
+    /**
+     * Shows the steps played on the simulation thread.
+     */
+    private final PlayerInputProcessor myStepProcessor;
     /**
      * Constructs a new GameScreen.
      *
@@ -102,7 +153,15 @@ public class GameScreen implements Screen {
         mySkeletonTexture = new Texture("Pixel Skeleton.png");
         myOgreTexture = new Texture("Pixel Ogre.png");
         myPlayerImage = initPlayerTexture();
-        myPixmap = new Pixmap(GameMaster.getInstance().getMap().length * PIXEL_SIZE,GameMaster.getInstance().getMap()[1].length * PIXEL_SIZE, Pixmap.Format.RGBA8888);
+        final TileMap map = GameMaster.getInstance().getMap();
+        myRowTiles = new Tile[0];
+        myMiniMapPixelSize = Math.max(1, Math.min(PIXEL_SIZE,
+            MINIMAP_SIZE / Math.max(map.getWidth(), map.getHeight())));
+        myMiniMapCellsX = Math.min(map.getWidth(), MINIMAP_SIZE / myMiniMapPixelSize);
+        myMiniMapCellsY = Math.min(map.getHeight(), MINIMAP_SIZE / myMiniMapPixelSize);
+        myPixmap = new Pixmap(myMiniMapCellsX * myMiniMapPixelSize, myMiniMapCellsY * myMiniMapPixelSize, Pixmap.Format.RGBA8888);
+        myMiniMapTexture = new Texture(myPixmap);
+        myStepProcessor = new PlayerInputProcessor(myGame, this);
         initAll();
     }
     private void initAll(){
@@ -151,35 +210,90 @@ public class GameScreen implements Screen {
      */
     @Override
     public void show() {
+        startSimulation();
         Gdx.input.setInputProcessor(new PlayerInputProcessor(myGame,GameScreen.this));
     }
+
+    /**
+     * Returns the thread playing the session while this screen is shown.
+     *
+     * @return the simulation thread, or null if the session is played on the render thread.
+     */
+    public SimulationThread getSimulation(){
+        return mySimulation;
+    }
+
+    /**
+     * Starts playing the session on its own thread, if turned on and not already running.
+     */
+    private void startSimulation(){
+        if(mySimulation == null && SimulationThread.isEnabled()){
+            mySimulation = new SimulationThread(GameMaster.getInstance().getSession());
+            myWorld = mySimulation.getSnapshot();
+        }
+    }
+
+    /**
+     * Stops the simulation thread, so the session can be used on the render thread again.
+     */
+    private void stopSimulation(){
+        if(mySimulation != null){
+            mySimulation.close();
+            mySimulation = null;
+            myWorld = null;
+            myMiniMapPainted = false;
+        }
+    }
+
+    private TileMap getMap(){
+        return myWorld != null ? myWorld : GameMaster.getInstance().getMap();
+    }
+
+    private VisibilityView getVisibility(){
+        return myWorld != null ? myWorld : GameMaster.getInstance().getVisibility();
+    }
+
+    private int getPlayerX(){
+        return myWorld != null ? myWorld.getHeroX() : GameMaster.getInstance().getPlayerX();
+    }
+
+    private int getPlayerY(){
+        return myWorld != null ? myWorld.getHeroY() : GameMaster.getInstance().getPlayerY();
+    }
     private void updateCamera(final float theX, final float theY, final float theDelta, final float theLerp){
         myStage.getCamera().position.x += (theX + theDelta - myStage.getCamera().position.x) * theLerp * Gdx.graphics.getDeltaTime();
         myStage.getCamera().position.y += (theY + theDelta - myStage.getCamera().position.y) * theLerp * Gdx.graphics.getDeltaTime();
         myStage.getCamera().update();
     }
     public void updateUI(){
-        int x = GameMaster.getInstance().getPlayerX()*TILE_SIZE + TILE_SIZE/2;
-        int y = GameMaster.getInstance().getPlayerY()*TILE_SIZE + TILE_SIZE/2;
+        int x = getPlayerX()*TILE_SIZE + TILE_SIZE/2;
+        int y = getPlayerY()*TILE_SIZE + TILE_SIZE/2;
         myGameMenuTable.setPosition(x-myGameMenuTable.getWidth()/2, y-myGameMenuTable.getHeight()/2);
         MessageScreen.getMessageTable().setPosition(x-MessageScreen.getMessageTable().getWidth()/2, y-MessageScreen.getMessageTable().getHeight()/2);
         StatisticsScreen.getMessageTable().setPosition(x-StatisticsScreen.getMessageTable().getWidth()/2, y-StatisticsScreen.getMessageTable().getHeight()/2);
     }
     /**
      * Renders the screen.
-     * Clears the screen, renders the dungeon, and draws the settings button.
+     * Clears the screen, renders the dungeon, and draws the settings button. While a
+     * simulation thread plays the session, only its latest snapshot is read.
      *
      * @param delta the time in seconds since the last render
      */
     @Override
     public void render(final float delta) {
         ScreenUtils.clear(0, 0, 0, 1);
-        updateCamera(GameMaster.getInstance().getPlayerX() * TILE_SIZE + TILE_SIZE/2, GameMaster.getInstance()
-            .getPlayerY() * TILE_SIZE + TILE_SIZE/2, 1f,3f);
+        if(mySimulation != null){
+            myWorld = mySimulation.getSnapshot();
+            setPlayerImagePosition();
+            //may leave this screen, which stops the thread, the rest of the frame then reads
+            //the session itself.
+            myStepProcessor.showSteps();
+        }
+        updateCamera(getPlayerX() * TILE_SIZE + TILE_SIZE/2, getPlayerY() * TILE_SIZE + TILE_SIZE/2, 1f,3f);
         myGame.batch.begin();
         initMap();
         initEntities();
-        myMiniMapTexture = new Texture(myPixmap);
+        myMiniMapTexture.draw(myPixmap, 0, 0);
         myGame.batch.draw(myMiniMapTexture, myStage.getCamera().position.x + DungeonAdventure.WIDTH/2 - myMiniMapTexture.getWidth(),
             myStage.getCamera().position.y + DungeonAdventure.HEIGHT/2 - myMiniMapTexture.getHeight());
         myGame.batch.end();
@@ -191,105 +305,260 @@ public class GameScreen implements Screen {
 
     /**
      * Initializes and draws the dungeon map.
+     * Only the tiles under the camera are drawn, and only the tiles inside the minimap window
+     * are painted on the minimap, so the cost per frame does not grow with the map size.
      * Throws an IllegalStateException if a map image is set to null.
      */
     private void initMap(){
-        Tile[][] map = GameMaster.getInstance().getMap();
-        for (int i = 0; i < map.length; i++) {
-            for (int j = 0; j < map[i].length; j++) {
-                Texture texture = null;
-                switch(map[i][j]){
-                    case WALL:
-                        texture = myWallTexture;
-                        myPixmap.setColor(new Color(136f/255, 109f/255, 93f/255, 1));
-                        break;
-                    case FLOOR:
-                        texture = myFloorTexture;
-                        myPixmap.setColor(144f/255, 139f/255, 132f/255, 1);
-                        break;
-                    case DOOR:
-                        texture = myDoorTexture;
-                        myPixmap.setColor(102f/255, 57f/255, 49f/255, 1);
-                        break;
-                    case OPEN_DOOR:
-                        texture = myOpenDoorTexture;
-                        myPixmap.setColor(144f/255, 139f/255, 132f/255, 1);
-                        break;
-                    case KEY:
-                        texture = myKeyTexture;
-                        myPixmap.setColor(251f/255, 242f/255, 54f/255, 1);
-                        break;
-                    case EXIT:
-                        texture = myExitTexture;
-                        myPixmap.setColor(99f/255, 155f/255, 255f/255, 1);
-                        break;
-                    case HEALTH_POTION:
-                        texture = myHealthPotionTexture;
-                        myPixmap.setColor(172f/255, 50f/255, 50f/255, 1);
-                        break;
-                    case POISON_POTION:
-                        texture = myPoisonPotionTexture;
-                        myPixmap.setColor(118f/255, 66f/255, 138f/255, 1);
-                        break;
-                    case BOMB:
-                        texture = myBombTexture;
-                        myPixmap.setColor(34f/255, 32f/255, 52f/255, 1);
-                        break;
-                    case PIT_TRAP:
-                        texture = myPitTrapTexture;
-                        myPixmap.setColor(0, 0, 0, 1);
-                        break;
+        final TileMap map = getMap();
+        final Camera camera = myStage.getCamera();
+        final int firstX = Math.max(0, (int) Math.floor((camera.position.x - camera.viewportWidth/2) / TILE_SIZE) - 1);
+        final int lastX = Math.min(map.getWidth() - 1, (int) Math.ceil((camera.position.x + camera.viewportWidth/2) / TILE_SIZE));
+        final int firstY = Math.max(0, (int) Math.floor((camera.position.y - camera.viewportHeight/2) / TILE_SIZE) - 1);
+        final int lastY = Math.min(map.getHeight() - 1, (int) Math.ceil((camera.position.y + camera.viewportHeight/2) / TILE_SIZE));
+        final VisibilityView fog = getVisibility();
+        final Tile[] row = getRowBuffer(lastX + 1 - firstX);
+        for (int j = firstY; j <= lastY; j++) {
+            map.getRow(j, firstX, lastX + 1, row);
+            for (int i = firstX; i <= lastX; i++) {
+                final Texture texture = getTileTexture(row[i - firstX]);
+                if(fog.isVisible(i, j)){
+                    myGame.batch.draw(texture, i * TILE_SIZE, j * TILE_SIZE, TILE_SIZE, TILE_SIZE);
                 }
-                if (texture == null) {
-                    throw new IllegalStateException("map image is set to null!");
+                else if(fog.isExplored(i, j)){
+                    myGame.batch.setColor(Color.DARK_GRAY);
+                    myGame.batch.draw(texture, i * TILE_SIZE, j * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+                    myGame.batch.setColor(Color.WHITE);
                 }
                 else{
-                    if(myStage.getCamera().position.x - myStage.getCamera().viewportWidth/2 - TILE_SIZE < (i * TILE_SIZE) && (i * TILE_SIZE) < myStage.getCamera().position.x + myStage.getCamera().viewportWidth/2
-                    && myStage.getCamera().position.y - myStage.getCamera().viewportHeight/2 - TILE_SIZE < (j * TILE_SIZE) && (j * TILE_SIZE) < myStage.getCamera().position.y + myStage.getCamera().viewportHeight/2){
-
-                        if(GameMaster.getInstance().getMapFOW()[i][j]){
-                            myGame.batch.draw(texture, i * TILE_SIZE, j * TILE_SIZE, TILE_SIZE, TILE_SIZE);
-                        }
-                        else if(GameMaster.getInstance().getMapExploredFOW()[i][j]){
-                            myGame.batch.setColor(Color.DARK_GRAY);
-                            myGame.batch.draw(texture, i * TILE_SIZE, j * TILE_SIZE, TILE_SIZE, TILE_SIZE);
-                            myGame.batch.setColor(Color.WHITE);
-                        }
-                        else{
-                            myGame.batch.setColor(Color.BLACK);
-                            myGame.batch.draw(texture, i * TILE_SIZE, j * TILE_SIZE, TILE_SIZE, TILE_SIZE);
-                            myGame.batch.setColor(Color.WHITE);
-                        }
+                    myGame.batch.setColor(Color.BLACK);
+                    myGame.batch.draw(texture, i * TILE_SIZE, j * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+                    myGame.batch.setColor(Color.WHITE);
+                }
+            }
+        }
+        initMiniMap(map);
+    }
+
+    /**
+     * Brings the minimap pixmap up to date. The window follows the player on maps larger than
+     * the minimap. The whole window is only painted when it moved or the fog changes ask for
+     * it, otherwise only the cells inside the rectangle of fog changes are painted again.
+     * Snapshots of a simulation thread carry no fog changes, the window is painted again
+     * whenever a new snapshot arrives.
+     *
+     * @param theMap the dungeon map.
+     */
+    private void initMiniMap(final TileMap theMap){
+        final int originX = Math.max(0, Math.min(theMap.getWidth() - myMiniMapCellsX,
+            getPlayerX() - myMiniMapCellsX / 2));
+        final int originY = Math.max(0, Math.min(theMap.getHeight() - myMiniMapCellsY,
+            getPlayerY() - myMiniMapCellsY / 2));
+        if(myWorld != null){
+            if(!myMiniMapPainted || myWorld.getVersion() != myMiniMapVersion){
+                myMiniMapOriginX = originX;
+                myMiniMapOriginY = originY;
+                paintMiniMap(theMap, originX, originY, originX + myMiniMapCellsX - 1,
+                    originY + myMiniMapCellsY - 1);
+                myMiniMapVersion = myWorld.getVersion();
+                myMiniMapPainted = true;
+            }
+            return;
+        }
+        final FogChanges changes = GameMaster.getInstance().getFogChanges();
+        if(!myMiniMapPainted || changes.isFull() || originX != myMiniMapOriginX
+            || originY != myMiniMapOriginY){
+            myMiniMapOriginX = originX;
+            myMiniMapOriginY = originY;
+            paintMiniMap(theMap, originX, originY, originX + myMiniMapCellsX - 1,
+                originY + myMiniMapCellsY - 1);
+            myMiniMapPainted = true;
+        }
+        else if(!changes.isEmpty()){
+            paintMiniMap(theMap, Math.max(originX, changes.getFromX()),
+                Math.max(originY, changes.getFromY()),
+                Math.min(originX + myMiniMapCellsX - 1, changes.getToX()),
+                Math.min(originY + myMiniMapCellsY - 1, changes.getToY()));
+        }
+        changes.clear();
+    }
+
+    /**
+     * Paints the map tiles of a rectangle onto the minimap pixmap, shaded by the fog of war.
+     *
+     * @param theMap the dungeon map.
+     * @param theFromX the first x coordinate, inclusive.
+     * @param theFromY the first y coordinate, inclusive.
+     * @param theToX the last x coordinate, inclusive.
+     * @param theToY the last y coordinate, inclusive.
+     */
+    private void paintMiniMap(final TileMap theMap, final int theFromX, final int theFromY,
+                              final int theToX, final int theToY){
+        if(theFromX > theToX){
+            return;
+        }
+        final boolean isCheats = myWorld != null ? myWorld.getIsCheats() : GameMaster.getInstance().getIsCheats();
+        final VisibilityView fog = getVisibility();
+        final Tile[] row = getRowBuffer(theToX + 1 - theFromX);
+        for (int j = theFromY; j <= theToY; j++) {
+            theMap.getRow(j, theFromX, theToX + 1, row);
+            for (int i = theFromX; i <= theToX; i++) {
+                setMiniMapColor(row[i - theFromX]);
+                if(isCheats){
+                    fillMiniMapCell(i, j);
+                }else {
+                    if(fog.isVisible(i, j)){
+                        fillMiniMapCell(i, j);
+                    }
+                    else if(fog.isExplored(i, j)){
+                        fillMiniMapCell(i, j);
+                        myPixmap.setColor(63f/255, 63f/255, 63f/255, 100f/255);
+                        fillMiniMapCell(i, j);
                     }
-                    if(GameMaster.getInstance().getIsCheats()){
-                        myPixmap.fillRectangle(i*PIXEL_SIZE, (map[0].length-1 - j)*PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-                    }else {
-                        if(GameMaster.getInstance().getMapFOW()[i][j]){
-                            myPixmap.fillRectangle(i * PIXEL_SIZE,(map[0].length-1 - j) * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-                        }
-                        else if(GameMaster.getInstance().getMapExploredFOW()[i][j]){
-                            myPixmap.fillRectangle(i * PIXEL_SIZE,(map[0].length-1 - j) * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-                            myPixmap.setColor(63f/255, 63f/255, 63f/255, 100f/255);
-                            myPixmap.fillRectangle(i * PIXEL_SIZE,(map[0].length-1 - j) * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-                        }
-                        else{
-                            myPixmap.setColor(0,0,0,1);
-                            myPixmap.fillRectangle(i * PIXEL_SIZE,(map[0].length-1 - j) * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-                        }
+                    else{
+                        myPixmap.setColor(0,0,0,1);
+                        fillMiniMapCell(i, j);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Returns the row buffer, grown to hold at least the given number of tiles.
+     *
+     * @param theLength the number of tiles in the row.
+     * @return the row buffer.
+     */
+    private Tile[] getRowBuffer(final int theLength){
+        if(myRowTiles.length < theLength){
+            myRowTiles = new Tile[theLength];
+        }
+        return myRowTiles;
+    }
+
+    /**
+     * Fills the minimap pixels of a map tile with the current pixmap color. Tiles outside the
+     * minimap window are skipped.
+     *
+     * @param theX the x coordinate of the tile on the map.
+     * @param theY the y coordinate of the tile on the map.
+     */
+    private void fillMiniMapCell(final int theX, final int theY){
+        final int cellX = theX - myMiniMapOriginX;
+        final int cellY = theY - myMiniMapOriginY;
+        if(cellX >= 0 && cellX < myMiniMapCellsX && cellY >= 0 && cellY < myMiniMapCellsY){
+            myPixmap.fillRectangle(cellX * myMiniMapPixelSize, (myMiniMapCellsY - 1 - cellY) * myMiniMapPixelSize,
+                myMiniMapPixelSize, myMiniMapPixelSize);
+        }
+    }
+
+    /**
+     * Returns the texture used to draw a tile.
+     *
+     * @param theTile the tile to draw.
+     * @return the texture of the tile.
+     * @throws IllegalStateException if the tile has no texture.
+     */
+    private Texture getTileTexture(final Tile theTile){
+        Texture texture = null;
+        switch(theTile){
+            case WALL:
+                texture = myWallTexture;
+                break;
+            case FLOOR:
+                texture = myFloorTexture;
+                break;
+            case DOOR:
+                texture = myDoorTexture;
+                break;
+            case OPEN_DOOR:
+                texture = myOpenDoorTexture;
+                break;
+            case KEY:
+                texture = myKeyTexture;
+                break;
+            case EXIT:
+            case STAIRS_DOWN:
+            case STAIRS_UP:
+                texture = myExitTexture;
+                break;
+            case HEALTH_POTION:
+                texture = myHealthPotionTexture;
+                break;
+            case POISON_POTION:
+                texture = myPoisonPotionTexture;
+                break;
+            case BOMB:
+                texture = myBombTexture;
+                break;
+            case PIT_TRAP:
+                texture = myPitTrapTexture;
+                break;
+        }
+        if (texture == null) {
+            throw new IllegalStateException("map image is set to null!");
+        }
+        return texture;
+    }
+
+    /**
+     * Sets the pixmap color used to paint a tile on the minimap.
+     *
+     * @param theTile the tile to paint.
+     */
+    private void setMiniMapColor(final Tile theTile){
+        switch(theTile){
+            case WALL:
+                myPixmap.setColor(136f/255, 109f/255, 93f/255, 1);
+                break;
+            case FLOOR:
+            case OPEN_DOOR:
+                myPixmap.setColor(144f/255, 139f/255, 132f/255, 1);
+                break;
+            case DOOR:
+                myPixmap.setColor(102f/255, 57f/255, 49f/255, 1);
+                break;
+            case KEY:
+                myPixmap.setColor(251f/255, 242f/255, 54f/255, 1);
+                break;
+            case EXIT:
+                myPixmap.setColor(99f/255, 155f/255, 255f/255, 1);
+                break;
+            case STAIRS_DOWN:
+                myPixmap.setColor(48f/255, 96f/255, 130f/255, 1);
+                break;
+            case STAIRS_UP:
+                myPixmap.setColor(203f/255, 219f/255, 252f/255, 1);
+                break;
+            case HEALTH_POTION:
+                myPixmap.setColor(172f/255, 50f/255, 50f/255, 1);
+                break;
+            case POISON_POTION:
+                myPixmap.setColor(118f/255, 66f/255, 138f/255, 1);
+                break;
+            case BOMB:
+                myPixmap.setColor(34f/255, 32f/255, 52f/255, 1);
+                break;
+            case PIT_TRAP:
+                myPixmap.setColor(0, 0, 0, 1);
+                break;
+        }
+    }
+
     /**
      * Initializes and draws the entities (enemies) on the dungeon map.
      * Throws an IllegalStateException if an unknown enemy type is encountered.
      */
     private void initEntities(){
+        if(myWorld != null){
+            initSnapshotEntities();
+            return;
+        }
         final ArrayList<Enemy> list = GameMaster.getInstance().getAllEnemies();
+        final VisibilityView fog = GameMaster.getInstance().getVisibility();
         for(Enemy e : list){
-            if(GameMaster.getInstance().getMapFOW()[e.getPosition().getMyX()][e.getPosition().getMyY()]){
+            if(fog.isVisible(e.getPosition().getMyX(), e.getPosition().getMyY())){
                 if(GameMaster.getInstance().getEnemyType(e) == Enemy.Type.Gremlin){
                     myGame.batch.draw(myGremlinTexture, e.getPosition().getMyX()*TILE_SIZE, e.getPosition().getMyY()*TILE_SIZE, TILE_SIZE, TILE_SIZE);
                 }
@@ -304,13 +573,44 @@ public class GameScreen implements Screen {
                 }
                 //entity on the minimap
                 myPixmap.setColor(1,0,0,1);
-                myPixmap.fillRectangle(e.getPosition().getMyX() * PIXEL_SIZE, (GameMaster.getInstance().getMap()[1].length-1 - e.getPosition().getMyY()) * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
+                fillMiniMapCell(e.getPosition().getMyX(), e.getPosition().getMyY());
             }
         }
         //player on the minimap
         myPixmap.setColor(1,1,1,1);
-        myPixmap.fillRectangle(GameMaster.getInstance().getPlayerX() * PIXEL_SIZE, (GameMaster.getInstance().getMap()[1].length-1 - GameMaster.getInstance()
-            .getPlayerY()) * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
+        fillMiniMapCell(GameMaster.getInstance().getPlayerX(), GameMaster.getInstance().getPlayerY());
+    }
+
+    /**
+     * Draws the enemies of the current snapshot, the same way initEntities draws the
+     * session's enemies.
+     */
+    private void initSnapshotEntities(){
+        for(int i = 0; i < myWorld.getEnemyCount(); i++){
+            final int x = myWorld.getEnemyX(i);
+            final int y = myWorld.getEnemyY(i);
+            if(myWorld.isVisible(x, y)){
+                final Texture texture;
+                switch(myWorld.getEnemyType(i)){
+                    case Gremlin:
+                        texture = myGremlinTexture;
+                        break;
+                    case Skeleton:
+                        texture = mySkeletonTexture;
+                        break;
+                    case Ogre:
+                        texture = myOgreTexture;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown enemy type when drawing on map: " + myWorld.getEnemyType(i));
+                }
+                myGame.batch.draw(texture, x*TILE_SIZE, y*TILE_SIZE, TILE_SIZE, TILE_SIZE);
+                myPixmap.setColor(1,0,0,1);
+                fillMiniMapCell(x, y);
+            }
+        }
+        myPixmap.setColor(1,1,1,1);
+        fillMiniMapCell(myWorld.getHeroX(), myWorld.getHeroY());
     }
 //    private Texture initMiniMap(){
 //        Tile[][] map = GameMaster.getInstance().getMap();
@@ -368,7 +668,7 @@ public class GameScreen implements Screen {
      * Updates the player's position based on the player's coordinates.
      */
     public void setPlayerImagePosition(){
-        myPlayerImage.setPosition(GameMaster.getInstance().getPlayerX()*TILE_SIZE, GameMaster.getInstance().getPlayerY()*TILE_SIZE);
+        myPlayerImage.setPosition(getPlayerX()*TILE_SIZE, getPlayerY()*TILE_SIZE);
     }
 
     /**
@@ -459,8 +759,15 @@ public class GameScreen implements Screen {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 mySETTINGS.playSound(Gdx.audio.newSound(Gdx.files.internal("sounds/button.ogg")));
+                //the endless world lives in chunk files, there is no single dungeon to save.
+                if(GameMaster.getInstance().isEndless()){
+                    return;
+                }
+                //the session can't be read while the simulation thread plays it.
+                stopSimulation();
                 GameData gameData = new GameData(GameMaster.getInstance().getPlayer(), GameMaster.getInstance().getAllEnemies(), GameMaster.getInstance().getDungeon());
                 GameSaverLoader.saveGame("GameSave.dat", gameData);
+                startSimulation();
             }
         });
         myGameMenuTable.addActor(button);
@@ -619,7 +926,8 @@ public class GameScreen implements Screen {
      */
     @Override
     public void hide() {
-        // Handle hide logic if needed
+        //other screens use the session on the render thread.
+        stopSimulation();
     }
 
     /**
@@ -628,10 +936,13 @@ public class GameScreen implements Screen {
      */
     @Override
     public void dispose() {
+        stopSimulation();
         Gdx.input.setInputProcessor(null);
         myBackgroundMusic.dispose();
         mySettingsButtonActive.dispose();
         mySettingsButtonInactive.dispose();
+        myMiniMapTexture.dispose();
+        myPixmap.dispose();
         // Dispose of other resources if needed
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package view;
+
+import com.badlogic.gdx.Gdx;
+import model.DungeonCharacter;
+import model.GameEvents;
+import model.Settings;
+
+/**
+ * Plays the game's sound effects for model events, through the sound settings so muting
+ * and volume apply. Installed as the default event sink when the game starts. Events may
+ * come from the simulation thread, so the sounds are played on the render thread.
+ * @author agent
+ * @version 18OCT26
+ */
+public class SoundEvents implements GameEvents {
+    private final Settings mySettings;
+
+    /**
+     * Creates the sound sink.
+     * @param theSettings the settings that play the sounds.
+     */
+    public SoundEvents(final Settings theSettings){
+        mySettings = theSettings;
+    }
+
+    @Override
+    public void onHit(final DungeonCharacter theTarget, final int theDamage){
+        play("sounds/Hit.ogg");
+    }
+
+    @Override
+    public void onMiss(final DungeonCharacter theAttacker){
+        play("sounds/Miss.ogg");
+    }
+
+    @Override
+    public void onBlock(final DungeonCharacter theDefender){
+        play("sounds/Block.ogg");
+    }
+
+    @Override
+    public void onDeath(final DungeonCharacter theCharacter){
+        play("sounds/Fall.ogg");
+    }
+
+    @Override
+    public void onDoor(final int theX, final int theY, final boolean theIsOpen){
+        play(theIsOpen ? "sounds/Door Creak.ogg" : "sounds/Door Creak2.ogg");
+    }
+
+    private void play(final String thePath){
+        Gdx.app.postRunnable(() -> mySettings.playSound(Gdx.audio.newSound(Gdx.files.internal(thePath))));
+    }
+}